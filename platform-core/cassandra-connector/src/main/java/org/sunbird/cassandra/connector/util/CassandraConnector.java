@@ -1,10 +1,16 @@
 package org.sunbird.cassandra.connector.util;
 
 import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.PreparedStatement;
 import com.datastax.driver.core.QueryOptions;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Statement;
+import com.google.common.util.concurrent.ListenableFuture;
 import org.apache.commons.lang3.StringUtils;
 import org.sunbird.common.Platform;
 import org.sunbird.common.exception.ServerException;
+import org.sunbird.common.cache.BoundedCache;
 import org.sunbird.telemetry.logger.TelemetryManager;
 
 import com.datastax.driver.core.Cluster;
@@ -12,12 +18,28 @@ import com.datastax.driver.core.Session;
 
 import java.net.InetSocketAddress;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
 
 public class CassandraConnector {
 
 	/** Cassandra Session Map. */
 	private static Map<String,Session> sessionMap=new HashMap<>();
 
+	/** Prepared statements of each session, keyed by CQL text. */
+	private static Map<Session, BoundedCache<String, PreparedStatement>> statementCache = new ConcurrentHashMap<>();
+
+	private static long statementCacheSize = Platform.config.hasPath("cassandra.prepared_statement.cache_size")
+			? Platform.config.getLong("cassandra.prepared_statement.cache_size") : 1000;
+
+	/** Limits the asynchronous requests waiting on Cassandra. */
+	private static Semaphore asyncPermits = new Semaphore(Platform.config.hasPath("cassandra.async.max_in_flight")
+			? Platform.config.getInt("cassandra.async.max_in_flight") : 1024);
+
 	static {
 		prepareSession("lp", getConsistencyLevel("lp"));
 	}
@@ -48,6 +70,147 @@ public class CassandraConnector {
 		return session;
 	}
 
+	/**
+	 * Provide the prepared statement for the query on lp session.
+	 *
+	 * @param query
+	 * @return
+	 */
+	public static PreparedStatement prepare(String query) {
+		return prepare(getSession(), query);
+	}
+
+	/**
+	 * Provide the prepared statement for the query on the given session. The
+	 * query is prepared once per session and served from cache afterwards.
+	 *
+	 * @param session
+	 * @param query
+	 * @return
+	 */
+	public static PreparedStatement prepare(Session session, String query) {
+		BoundedCache<String, PreparedStatement> cache = statementCache.computeIfAbsent(session,
+				s -> new BoundedCache<>("prepared_statement", statementCacheSize, 0));
+		PreparedStatement statement = cache.get(query);
+		if (null == statement) {
+			statement = session.prepare(query);
+			cache.put(query, statement);
+		}
+		return statement;
+	}
+
+	/**
+	 * Provide the prepared statement for the query on the given session without
+	 * blocking on a cache miss: the statement is then prepared asynchronously
+	 * and cached once ready.
+	 *
+	 * @param session
+	 * @param query
+	 * @return
+	 */
+	public static CompletionStage<PreparedStatement> prepareAsync(Session session, String query) {
+		BoundedCache<String, PreparedStatement> cache = statementCache.computeIfAbsent(session,
+				s -> new BoundedCache<>("prepared_statement", statementCacheSize, 0));
+		PreparedStatement statement = cache.get(query);
+		if (null != statement)
+			return CompletableFuture.completedFuture(statement);
+		CompletableFuture<PreparedStatement> result = new CompletableFuture<>();
+		ListenableFuture<PreparedStatement> future;
+		try {
+			future = session.prepareAsync(query);
+		} catch (Exception e) {
+			result.completeExceptionally(e);
+			return result;
+		}
+		future.addListener(() -> complete(future, result), Runnable::run);
+		return result.thenApply(prepared -> {
+			cache.put(query, prepared);
+			return prepared;
+		});
+	}
+
+	/**
+	 * Provide the hit, miss and eviction counts of the prepared statement
+	 * cache of each open session.
+	 *
+	 * @return
+	 */
+	public static List<Map<String, Object>> getStatementCacheStats() {
+		List<Map<String, Object>> stats = new ArrayList<>();
+		statementCache.values().forEach(cache -> stats.add(cache.getStats()));
+		return stats;
+	}
+
+	/**
+	 * Execute the statement asynchronously. At most cassandra.async.max_in_flight
+	 * requests, including the fetches of further pages, wait on Cassandra at a
+	 * time. The caller never waits for a permit: when none is free the returned
+	 * stage fails right away.
+	 *
+	 * The stage completes on a driver I/O thread, so dependent stages should not
+	 * block. Use {@link #fetchAll(ResultSet)} instead of ResultSet.all().
+	 *
+	 * @param session
+	 * @param statement
+	 * @return
+	 */
+	public static CompletionStage<ResultSet> executeAsync(Session session, Statement statement) {
+		return withPermit(() -> session.executeAsync(statement));
+	}
+
+	/**
+	 * Collect all rows of the result set, fetching the remaining pages
+	 * asynchronously. Each page fetch holds an in-flight permit, as in
+	 * {@link #executeAsync(Session, Statement)}.
+	 *
+	 * @param resultSet
+	 * @return
+	 */
+	public static CompletionStage<List<Row>> fetchAll(ResultSet resultSet) {
+		return fetchAll(resultSet, new ArrayList<>());
+	}
+
+	private static CompletionStage<List<Row>> fetchAll(ResultSet resultSet, List<Row> rows) {
+		int available = resultSet.getAvailableWithoutFetching();
+		for (int i = 0; i < available; i++)
+			rows.add(resultSet.one());
+		if (resultSet.isFullyFetched())
+			return CompletableFuture.completedFuture(rows);
+		return withPermit(resultSet::fetchMoreResults).thenCompose(page -> fetchAll(page, rows));
+	}
+
+	private static CompletionStage<ResultSet> withPermit(Supplier<ListenableFuture<ResultSet>> request) {
+		CompletableFuture<ResultSet> result = new CompletableFuture<>();
+		if (!asyncPermits.tryAcquire()) {
+			result.completeExceptionally(new ServerException(CassandraConnectorStoreParam.ERR_SERVER_ERROR.name(),
+					"Too many in-flight requests to Cassandra."));
+			return result;
+		}
+		ListenableFuture<ResultSet> future;
+		try {
+			future = request.get();
+		} catch (Exception e) {
+			asyncPermits.release();
+			result.completeExceptionally(e);
+			return result;
+		}
+		future.addListener(() -> {
+			asyncPermits.release();
+			complete(future, result);
+		}, Runnable::run);
+		return result;
+	}
+
+	private static <T> void complete(ListenableFuture<T> future, CompletableFuture<T> result) {
+		try {
+			result.complete(future.get());
+		} catch (ExecutionException e) {
+			result.completeExceptionally(e.getCause());
+		} catch (Exception e) {
+			result.completeExceptionally(e);
+		}
+	}
+
 	/**
 	 *
 	 * @param sessionKey
@@ -56,6 +219,7 @@ public class CassandraConnector {
 	private static void prepareSession(String sessionKey, ConsistencyLevel level) {
 		List<String> connectionInfo = getConnectionInfo(sessionKey.toLowerCase());
 		List<InetSocketAddress> addressList = getSocketAddress(connectionInfo);
+		statementCache.keySet().removeIf(Session::isClosed);
 		try {
 			if (null != level) {
 				sessionMap.put(sessionKey.toLowerCase(), Cluster.builder().addContactPointsWithPorts(addressList).withQueryOptions(new QueryOptions().setConsistencyLevel(level)).build().connect());
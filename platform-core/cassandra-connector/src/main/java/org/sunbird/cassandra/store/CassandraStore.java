@@ -24,6 +24,8 @@ import org.sunbird.telemetry.util.LogAsyncGraphEvent;
 
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 
 import static com.datastax.driver.core.querybuilder.QueryBuilder.eq;
 
@@ -182,9 +184,10 @@ public abstract class CassandraStore {
 						"Invalid Identifier to read");
 			}
 			String selectQuery = getSelectStatement(identifier, properties);
-			PreparedStatement statement = CassandraConnector.getSession().prepare(selectQuery);
+			Session session = CassandraConnector.getSession();
+			PreparedStatement statement = CassandraConnector.prepare(session, selectQuery);
 			BoundStatement boundStatement = new BoundStatement(statement);
-			ResultSet results = CassandraConnector.getSession().execute(boundStatement.bind(identifier));
+			ResultSet results = session.execute(boundStatement.bind(idValue));
 			return results.all();
 		} catch (Exception e) {
 			throw new ServerException(CassandraConnectorStoreParam.ERR_SERVER_ERROR.name(),
@@ -211,7 +214,7 @@ public abstract class CassandraStore {
 			}
 			Session session = CassandraConnector.getSession();
 			String query = getPreparedStatementFrUpsert(request);
-			PreparedStatement statement = session.prepare(query);
+			PreparedStatement statement = CassandraConnector.prepare(session, query);
 			BoundStatement boundStatement = new BoundStatement(statement);
 			Object[] objects = getBindObjects(request);
 			session.execute(boundStatement.bind(objects));
@@ -222,6 +225,47 @@ public abstract class CassandraStore {
 		}
 	}
 
+	protected CompletionStage<List<Row>> readAsync(String key, Object value) {
+		if (StringUtils.isBlank(key)) {
+			throw new ServerException(CassandraConnectorStoreParam.ERR_SERVER_ERROR.name(),
+					"Invalid Identifier to read");
+		}
+		Select selectQuery = QueryBuilder.select().all().from(keyspace, table);
+		selectQuery.where().and(QueryBuilder.eq(key, value));
+		return CassandraConnector.executeAsync(CassandraConnector.getSession(), selectQuery)
+				.thenCompose(CassandraConnector::fetchAll)
+				.exceptionally(e -> {
+					throw wrapException(e, "Error while fetching record for ID : " + value);
+				});
+	}
+
+	protected CompletionStage<List<Row>> getPropertiesValueByIdAsync(String identifier, String idValue,
+			String... properties) {
+		if (StringUtils.isBlank(identifier)) {
+			throw new ServerException(CassandraConnectorStoreParam.ERR_SERVER_ERROR.name(),
+					"Invalid Identifier to read");
+		}
+		String selectQuery = getSelectStatement(identifier, properties);
+		return executeQueryAsync(selectQuery, idValue)
+				.thenCompose(CassandraConnector::fetchAll)
+				.exceptionally(e -> {
+					throw wrapException(e, "Error while fetching properties for ID : " + idValue);
+				});
+	}
+
+	protected CompletionStage<Void> upsertRecordAsync(Map<String, Object> request) {
+		if (null == request || request.isEmpty()) {
+			throw new ServerException(CassandraConnectorStoreParam.ERR_SERVER_ERROR.name(),
+					"Invalid Identifier to read");
+		}
+		String query = getPreparedStatementFrUpsert(request);
+		return executeQueryAsync(query, getBindObjects(request))
+				.<Void>thenApply(results -> null)
+				.exceptionally(e -> {
+					throw wrapException(e, "Error while upsert record");
+				});
+	}
+
 	/**
 	 * @return the objectType
 	 */
@@ -332,11 +376,34 @@ public abstract class CassandraStore {
 	 */
 	private ResultSet executeQuery(String query, Object... objects) {
 		Session session = CassandraConnector.getSession();
-		PreparedStatement statement = session.prepare(query);
+		PreparedStatement statement = CassandraConnector.prepare(session, query);
 		BoundStatement boundStatement = new BoundStatement(statement);
 		return session.execute(boundStatement.bind(objects));
 	}
 
+	/**
+	 * 
+	 * @param query
+	 * @param objects
+	 * @return
+	 */
+	protected CompletionStage<ResultSet> executeQueryAsync(String query, Object... objects) {
+		Session session = CassandraConnector.getSession();
+		return CassandraConnector.prepareAsync(session, query)
+				.thenCompose(statement -> CassandraConnector.executeAsync(session, statement.bind(objects)));
+	}
+
+	/**
+	 * Unwraps the failure of an asynchronous stage into a ServerException,
+	 * keeping the ServerException raised by the connector as it is.
+	 */
+	protected ServerException wrapException(Throwable e, String message) {
+		Throwable cause = (e instanceof CompletionException && null != e.getCause()) ? e.getCause() : e;
+		if (cause instanceof ServerException)
+			return (ServerException) cause;
+		return new ServerException(CassandraConnectorStoreParam.ERR_SERVER_ERROR.name(), message, cause);
+	}
+
 	private Object[] getBindObjects(Map<String, Object> request) {
 		Set<String> keySet = request.keySet();
 		Iterator<String> iterator = keySet.iterator();
@@ -0,0 +1,68 @@
+package org.sunbird.cassandra.connector.util;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.sunbird.cassandra.CassandraTestSetup;
+
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.SimpleStatement;
+import com.datastax.driver.core.Statement;
+
+import java.util.List;
+
+public class CassandraConnectorTest extends CassandraTestSetup {
+
+	private static String keyspace = "connector_store_test";
+	private static String createKeyspace = "CREATE KEYSPACE IF NOT EXISTS " + keyspace
+			+ " WITH replication = {'class': 'SimpleStrategy','replication_factor': '1'};";
+	private static String createTable = "CREATE TABLE IF NOT EXISTS " + keyspace
+			+ ".test_data (identifier text, body text, PRIMARY KEY (identifier));";
+
+	@BeforeClass
+	public static void init() throws Exception {
+		executeScript(createKeyspace, createTable);
+	}
+
+	@Test
+	public void testPrepareReusesStatement() {
+		String query = "SELECT body FROM " + keyspace + ".test_data WHERE identifier = ?";
+		Session session = CassandraConnector.getSession();
+		PreparedStatement first = CassandraConnector.prepare(session, query);
+		PreparedStatement second = CassandraConnector.prepare(session, query);
+		Assert.assertSame(first, second);
+		Assert.assertEquals(query, second.getQueryString());
+	}
+
+	@Test
+	public void testPrepareDistinctQueries() {
+		String query = "SELECT identifier FROM " + keyspace + ".test_data WHERE identifier = ?";
+		String otherQuery = "SELECT identifier, body FROM " + keyspace + ".test_data WHERE identifier = ?";
+		PreparedStatement first = CassandraConnector.prepare(query);
+		PreparedStatement second = CassandraConnector.prepare(otherQuery);
+		Assert.assertNotSame(first, second);
+		Assert.assertFalse(CassandraConnector.getStatementCacheStats().isEmpty());
+	}
+
+	@Test
+	public void testPrepareAsyncSharesCache() throws Exception {
+		String query = "SELECT body FROM " + keyspace + ".test_data WHERE identifier IN ?";
+		Session session = CassandraConnector.getSession();
+		PreparedStatement first = CassandraConnector.prepareAsync(session, query).toCompletableFuture().get();
+		Assert.assertSame(first, CassandraConnector.prepare(session, query));
+		Assert.assertSame(first, CassandraConnector.prepareAsync(session, query).toCompletableFuture().get());
+	}
+
+	@Test
+	public void testExecuteAsyncFetchesAllPages() throws Exception {
+		Session session = CassandraConnector.getSession();
+		for (int i = 0; i < 25; i++)
+			session.execute("INSERT INTO " + keyspace + ".test_data (identifier, body) VALUES ('page_" + i + "', 'body')");
+		Statement statement = new SimpleStatement("SELECT identifier FROM " + keyspace + ".test_data").setFetchSize(10);
+		List<Row> rows = CassandraConnector.executeAsync(session, statement)
+				.thenCompose(CassandraConnector::fetchAll).toCompletableFuture().get();
+		Assert.assertTrue(rows.size() >= 25);
+	}
+}
@@ -4,8 +4,10 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.apache.commons.lang3.StringUtils;
+import org.sunbird.common.Platform;
 import org.sunbird.common.exception.ClientException;
 import org.sunbird.graph.cache.exception.GraphCacheErrorCodes;
+import org.sunbird.common.cache.BoundedCache;
 import org.sunbird.graph.cache.util.CacheKeyGenerator;
 import org.sunbird.graph.cache.util.RedisKeysEnum;
 import org.sunbird.telemetry.logger.TelemetryManager;
@@ -18,27 +20,29 @@ import org.sunbird.telemetry.logger.TelemetryManager;
 
 public class NodeCacheManager {
 
-	private static Map<String, Object> definitionNodeCache = new HashMap<>();
-	private static Map<String, Object> dataNodeCache = new HashMap<>();
+	private static BoundedCache<String, Object> definitionNodeCache = new BoundedCache<>("definition_node",
+			getConfig("graph.cache.def_node.max_size", 500), getConfig("graph.cache.def_node.ttl", 0));
+	private static BoundedCache<String, Object> dataNodeCache = new BoundedCache<>("data_node",
+			getConfig("graph.cache.data_node.max_size", 10000), getConfig("graph.cache.data_node.ttl", 3600000));
 
 	public static void saveDefinitionNode(String graphId, String objectType, Object node) {
 		validateRequired(graphId, objectType, node, GraphCacheErrorCodes.ERR_CACHE_SAVE_DEF_NODE_ERROR.name());
 		String key = CacheKeyGenerator.getKey(graphId, objectType, RedisKeysEnum.DEF_NODE.name());
 		definitionNodeCache.put(key, node);
-		TelemetryManager.log("Saved definition node into cache having objectType: " + objectType + " into graph: "+ graphId);
+		TelemetryManager.log(() -> "Saved definition node into cache having objectType: " + objectType + " into graph: "+ graphId);
 	}
 
 	public static Object getDefinitionNode(String graphId, String objectType) {
 		validateRequired(graphId, objectType, GraphCacheErrorCodes.ERR_CACHE_GET_DEF_NODE_ERROR.name());
 		String key = CacheKeyGenerator.getKey(graphId, objectType, RedisKeysEnum.DEF_NODE.name());
-		TelemetryManager.log("Fetching definition node from cache having objectType: " + objectType + " in graph: "+ graphId);
+		TelemetryManager.log(() -> "Fetching definition node from cache having objectType: " + objectType + " in graph: "+ graphId);
 		return definitionNodeCache.get(key);
 	}
 	
 	public static Object deleteDefinitionNode(String graphId, String objectType) {
 		validateRequired(graphId, objectType, GraphCacheErrorCodes.ERR_CACHE_GET_DEF_NODE_ERROR.name());
 		String key = CacheKeyGenerator.getKey(graphId, objectType, RedisKeysEnum.DEF_NODE.name());
-		TelemetryManager.log("Deleting definition node from cache having objectType: " + objectType + " in graph: "+ graphId);
+		TelemetryManager.log(() -> "Deleting definition node from cache having objectType: " + objectType + " in graph: "+ graphId);
 		return definitionNodeCache.remove(key);
 	}
 
@@ -46,23 +50,34 @@ public class NodeCacheManager {
 		validateRequired(graphId, id, node, GraphCacheErrorCodes.ERR_CACHE_SAVE_DEF_NODE_ERROR.name());
 		String key = CacheKeyGenerator.getKey(graphId, id, RedisKeysEnum.DATA_NODE.name());
 		dataNodeCache.put(key, node);
-		TelemetryManager.log("Saved data node into cache having identifier: " + id + " into graph: "+ graphId);
+		TelemetryManager.log(() -> "Saved data node into cache having identifier: " + id + " into graph: "+ graphId);
 	}
 
 	public static Object getDataNode(String graphId, String id) {
 		validateRequired(graphId, id, GraphCacheErrorCodes.ERR_CACHE_SAVE_DEF_NODE_ERROR.name());
 		String key = CacheKeyGenerator.getKey(graphId, id, RedisKeysEnum.DATA_NODE.name());
-		TelemetryManager.log("Fetching data node from cache having identifier: " + id + " in graph: "+ graphId);
+		TelemetryManager.log(() -> "Fetching data node from cache having identifier: " + id + " in graph: "+ graphId);
 		return dataNodeCache.get(key);
 	}
 	
 	public static Object deleteDataNode(String graphId, String id) {
 		validateRequired(graphId, id, GraphCacheErrorCodes.ERR_CACHE_SAVE_DEF_NODE_ERROR.name());
 		String key = CacheKeyGenerator.getKey(graphId, id, RedisKeysEnum.DATA_NODE.name());
-		TelemetryManager.log("Deleting data node from cache having identifier: " + id + " in graph: "+ graphId);
+		TelemetryManager.log(() -> "Deleting data node from cache having identifier: " + id + " in graph: "+ graphId);
 		return dataNodeCache.remove(key);
 	}
 
+	public static Map<String, Object> getCacheStats() {
+		Map<String, Object> stats = new HashMap<>();
+		stats.put(definitionNodeCache.getName(), definitionNodeCache.getStats());
+		stats.put(dataNodeCache.getName(), dataNodeCache.getStats());
+		return stats;
+	}
+
+	private static long getConfig(String key, long defaultValue) {
+		return Platform.config.hasPath(key) ? Platform.config.getLong(key) : defaultValue;
+	}
+
 	private static void validateRequired(String graphId, String id, Object members, String errCode) {
 		validateRequired(graphId, id, errCode);
 		if (null == members)
@@ -2,14 +2,22 @@ package org.sunbird.graph.cache.util;
 
 import org.apache.commons.lang3.StringUtils;
 import org.codehaus.jackson.map.ObjectMapper;
+import org.sunbird.common.Platform;
 import org.sunbird.common.exception.ServerException;
 import org.sunbird.graph.cache.exception.GraphCacheErrorCodes;
 import org.sunbird.graph.dac.enums.GraphDACParams;
 import org.sunbird.telemetry.logger.TelemetryManager;
 import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.ScanParams;
+import redis.clients.jedis.ScanResult;
+import redis.clients.jedis.Transaction;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -22,6 +30,14 @@ import static org.sunbird.graph.cache.factory.JedisFactory.returnConnection;
 public class RedisStoreUtil {
 
 	private static ObjectMapper mapper = new ObjectMapper();
+	private static int scanCount = Platform.config.hasPath("redis.scan.count") ? Platform.config.getInt("redis.scan.count") : 1000;
+	private static long scanPause = Platform.config.hasPath("redis.scan.pause") ? Platform.config.getLong("redis.scan.pause") : 0;
+	// Deletes the members of the index KEYS[1], ARGV[1] keys per DEL, then the index.
+	private static final String DELETE_BY_INDEX_SCRIPT = "local keys = redis.call('SMEMBERS', KEYS[1]) "
+			+ "local size = tonumber(ARGV[1]) "
+			+ "for i = 1, #keys, size do redis.call('DEL', unpack(keys, i, math.min(i + size - 1, #keys))) end "
+			+ "redis.call('DEL', KEYS[1]) "
+			+ "return #keys";
 
 	public static void saveNodeProperty(String graphId, String objectId, String nodeProperty, String propValue) {
 
@@ -62,6 +78,77 @@ public class RedisStoreUtil {
 		}
 	}
 
+	/**
+	 * This method saves the given key-values in one round trip, using MSET
+	 * when there is no ttl and a pipeline of SETEX otherwise.
+	 *
+	 * @param data
+	 * @param ttl
+	 */
+	public static void saveMulti(Map<String, String> data, int ttl) {
+		if (null == data || data.isEmpty())
+			return;
+		Jedis jedis = getRedisConncetion();
+		try {
+			if (ttl > 0) {
+				Pipeline pipeline = jedis.pipelined();
+				for (Entry<String, String> entry : data.entrySet())
+					pipeline.setex(entry.getKey(), ttl, entry.getValue());
+				pipeline.sync();
+			} else {
+				String[] keysValues = new String[data.size() * 2];
+				int i = 0;
+				for (Entry<String, String> entry : data.entrySet()) {
+					keysValues[i++] = entry.getKey();
+					keysValues[i++] = entry.getValue();
+				}
+				jedis.mset(keysValues);
+			}
+		} catch (Exception e) {
+			throw new ServerException(GraphCacheErrorCodes.ERR_CACHE_SAVE_PROPERTY_ERROR.name(), e.getMessage());
+		} finally {
+			returnConnection(jedis);
+		}
+	}
+
+	/**
+	 * This method reads the given keys with a single MGET. Keys which are not
+	 * present in the cache are not part of the returned map.
+	 *
+	 * @param keys
+	 * @return
+	 */
+	public static Map<String, String> getMulti(Collection<String> keys) {
+		Map<String, String> result = new HashMap<>();
+		if (null == keys || keys.isEmpty())
+			return result;
+		List<String> keyList = new ArrayList<>(keys);
+		Jedis jedis = getRedisConncetion();
+		try {
+			List<String> values = jedis.mget(keyList.toArray(new String[keyList.size()]));
+			for (int i = 0; i < keyList.size(); i++) {
+				if (null != values.get(i))
+					result.put(keyList.get(i), values.get(i));
+			}
+			return result;
+		} catch (Exception e) {
+			throw new ServerException(GraphCacheErrorCodes.ERR_CACHE_GET_PROPERTY_ERROR.name(), e.getMessage());
+		} finally {
+			returnConnection(jedis);
+		}
+	}
+
+	public static Map<String, String> getNodeProperties(String graphId, String objectId, List<String> nodeProperties) {
+		Map<String, String> keys = new HashMap<>();
+		for (String nodeProperty : nodeProperties)
+			keys.put(CacheKeyGenerator.getNodePropertyKey(graphId, objectId, nodeProperty), nodeProperty);
+		Map<String, String> values = getMulti(keys.keySet());
+		Map<String, String> properties = new HashMap<>();
+		for (Entry<String, String> entry : values.entrySet())
+			properties.put(keys.get(entry.getKey()), entry.getValue());
+		return properties;
+	}
+
 	public static String getNodeProperty(String graphId, String objectId, String nodeProperty) {
 
 		Jedis jedis = getRedisConncetion();
@@ -79,16 +166,17 @@ public class RedisStoreUtil {
 	}
 
 	public static void saveNodeProperties(String graphId, String objectId, Map<String, Object> metadata) {
+		if (null == metadata || metadata.isEmpty())
+			return;
 		Jedis jedis = getRedisConncetion();
 		try {
+			String[] keysValues = new String[metadata.size() * 2];
+			int i = 0;
 			for (Entry<String, Object> entry : metadata.entrySet()) {
-				String propertyName = entry.getKey();
-				String propertyValue = entry.getValue().toString();
-
-				String redisKey = CacheKeyGenerator.getNodePropertyKey(graphId, objectId, propertyName);
-				jedis.set(redisKey, propertyValue);
+				keysValues[i++] = CacheKeyGenerator.getNodePropertyKey(graphId, objectId, entry.getKey());
+				keysValues[i++] = entry.getValue().toString();
 			}
-
+			jedis.mset(keysValues);
 		} catch (Exception e) {
 			throw new ServerException(GraphCacheErrorCodes.ERR_CACHE_SAVE_PROPERTY_ERROR.name(), e.getMessage());
 		} finally {
@@ -137,27 +225,40 @@ public class RedisStoreUtil {
 	
 	// TODO: always considering object as string. need to change this.
 	public static void saveList(String key, List<Object> values) {
-		Jedis jedis = getRedisConncetion();
-		try {
-			jedis.del(key);
-			for (Object val : values) {
-				jedis.sadd(key, (String) val);
-			}
-		} catch (Exception e) {
-			e.printStackTrace();
-		} finally {
-			returnConnection(jedis);
-		}
+		List<String> members = values.stream().map(val -> (String) val).collect(Collectors.toList());
+		saveStringList(key, members, 0);
 	}
 
 	public static void saveStringList(String key, List<String> values, Integer ttl) {
+		Map<String, List<String>> lists = new HashMap<>();
+		lists.put(key, values);
+		saveStringLists(lists, ttl);
+	}
+
+	/**
+	 * This method replaces the given sets in one pipelined round trip. Each set
+	 * is deleted and re-created with a single variadic SADD.
+	 *
+	 * @param lists
+	 * @param ttl
+	 */
+	public static void saveStringLists(Map<String, List<String>> lists, Integer ttl) {
+		if (null == lists || lists.isEmpty())
+			return;
 		Jedis jedis = getRedisConncetion();
 		try {
-			jedis.del(key);
-			for (String val : values) {
-				jedis.sadd(key, val);
+			Pipeline pipeline = jedis.pipelined();
+			for (Entry<String, List<String>> entry : lists.entrySet()) {
+				String key = entry.getKey();
+				List<String> values = entry.getValue();
+				pipeline.del(key);
+				if (null != values && !values.isEmpty()) {
+					pipeline.sadd(key, values.toArray(new String[values.size()]));
+					if (null != ttl && ttl > 0)
+						pipeline.expire(key, ttl);
+				}
 			}
-			if (ttl > 0) jedis.expire(key, ttl);
+			pipeline.sync();
 		} catch (Exception e) {
 			e.printStackTrace();
 		} finally {
@@ -223,21 +324,87 @@ public class RedisStoreUtil {
 		}
 	}
 
+	/**
+	 * This method deletes the keys matching the pattern. The keyspace is walked
+	 * with cursor based SCAN, redis.scan.count keys per page, so that Redis is
+	 * never blocked for the whole walk. Matched keys are deleted page by page,
+	 * with an optional pause of redis.scan.pause milliseconds between pages.
+	 *
+	 * @param pattern
+	 */
 	public static void deleteByPattern(String pattern) {
 		if(StringUtils.isNotBlank(pattern) && !StringUtils.equalsIgnoreCase(pattern, "*")){
 			Jedis jedis = getRedisConncetion();
 			try {
-				Set<String> keys = jedis.keys(pattern);
-				if (keys != null && keys.size() > 0) {
-					List<String> keyList = new ArrayList<>(keys);
-					jedis.del(keyList.toArray(new String[keyList.size()]));
-				}
+				ScanParams params = new ScanParams().match(pattern).count(scanCount);
+				String cursor = ScanParams.SCAN_POINTER_START;
+				do {
+					ScanResult<String> page = jedis.scan(cursor, params);
+					List<String> keys = page.getResult();
+					if (null != keys && !keys.isEmpty())
+						jedis.del(keys.toArray(new String[keys.size()]));
+					cursor = page.getStringCursor();
+					if (scanPause > 0 && !ScanParams.SCAN_POINTER_START.equals(cursor))
+						Thread.sleep(scanPause);
+				} while (!ScanParams.SCAN_POINTER_START.equals(cursor));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new ServerException(GraphCacheErrorCodes.ERR_CACHE_DELETE_PROPERTY_ERROR.name(), e.getMessage());
 			} catch (Exception e) {
-				throw new ServerException(GraphCacheErrorCodes.ERR_CACHE_SAVE_PROPERTY_ERROR.name(), e.getMessage());
+				throw new ServerException(GraphCacheErrorCodes.ERR_CACHE_DELETE_PROPERTY_ERROR.name(), e.getMessage());
 			} finally {
 				returnConnection(jedis);
 			}
 		}
 	}
 
+	/**
+	 * This method saves the value and records the key in the given index set,
+	 * so that all keys of the index can later be deleted without a pattern
+	 * scan. Both are written in one MULTI, so a concurrent
+	 * {@link #deleteByIndex(String)} sees either both or neither. The index
+	 * expires with the latest key added to it.
+	 *
+	 * @param indexKey
+	 * @param key
+	 * @param value
+	 * @param ttl
+	 */
+	public static void saveWithIndex(String indexKey, String key, String value, int ttl) {
+		Jedis jedis = getRedisConncetion();
+		try {
+			Transaction transaction = jedis.multi();
+			transaction.set(key, value);
+			transaction.sadd(indexKey, key);
+			if (ttl > 0) {
+				transaction.expire(key, ttl);
+				transaction.expire(indexKey, ttl);
+			}
+			transaction.exec();
+		} catch (Exception e) {
+			throw new ServerException(GraphCacheErrorCodes.ERR_CACHE_SAVE_PROPERTY_ERROR.name(), e.getMessage());
+		} finally {
+			returnConnection(jedis);
+		}
+	}
+
+	/**
+	 * This method deletes all keys recorded in the given index set, and the
+	 * index itself. The members are read and deleted by one Lua script, so
+	 * no key can be added to the index between the read and the delete.
+	 *
+	 * @param indexKey
+	 */
+	public static void deleteByIndex(String indexKey) {
+		Jedis jedis = getRedisConncetion();
+		try {
+			jedis.eval(DELETE_BY_INDEX_SCRIPT, Collections.singletonList(indexKey),
+					Collections.singletonList(String.valueOf(Math.min(scanCount, 5000))));
+		} catch (Exception e) {
+			throw new ServerException(GraphCacheErrorCodes.ERR_CACHE_DELETE_PROPERTY_ERROR.name(), e.getMessage());
+		} finally {
+			returnConnection(jedis);
+		}
+	}
+
 }
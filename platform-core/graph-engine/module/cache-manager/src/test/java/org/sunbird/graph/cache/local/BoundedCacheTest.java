@@ -0,0 +1,86 @@
+package org.sunbird.graph.cache.local;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.sunbird.common.cache.BoundedCache;
+
+public class BoundedCacheTest {
+
+	@Test
+	public void testPutAndGet() {
+		BoundedCache<String, String> cache = new BoundedCache<>("test", 10, 0);
+		cache.put("do_1", "node_1");
+		Assert.assertEquals("node_1", cache.get("do_1"));
+		Assert.assertNull(cache.get("do_2"));
+		Assert.assertEquals(1, cache.getHitCount());
+		Assert.assertEquals(1, cache.getMissCount());
+	}
+
+	@Test
+	public void testEvictionKeepsReferencedEntries() {
+		BoundedCache<String, String> cache = new BoundedCache<>("test", 3, 0);
+		cache.put("do_1", "node_1");
+		cache.put("do_2", "node_2");
+		cache.put("do_3", "node_3");
+		cache.get("do_1");
+		cache.put("do_4", "node_4");
+		Assert.assertEquals(3, cache.size());
+		Assert.assertEquals("node_1", cache.get("do_1"));
+		Assert.assertNull(cache.get("do_2"));
+		Assert.assertEquals(1, cache.getEvictionCount());
+	}
+
+	@Test
+	public void testWeightBound() {
+		BoundedCache<String, String> cache = new BoundedCache<>("test", 100, 10, 0, String::length);
+		cache.put("do_1", "12345");
+		cache.put("do_2", "12345");
+		cache.put("do_3", "1");
+		Assert.assertTrue(cache.weight() <= 10);
+		Assert.assertEquals(2, cache.size());
+	}
+
+	@Test
+	public void testExpiry() throws Exception {
+		BoundedCache<String, String> cache = new BoundedCache<>("test", 10, 50);
+		cache.put("do_1", "node_1");
+		Thread.sleep(100);
+		Assert.assertNull(cache.get("do_1"));
+		Assert.assertEquals(1, cache.getExpirationCount());
+		Assert.assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void testReplaceDoesNotGrowCache() {
+		BoundedCache<String, Integer> cache = new BoundedCache<>("test", 10, 0);
+		for (int i = 0; i < 10000; i++)
+			cache.put("do_1", i);
+		Assert.assertEquals(1, cache.size());
+		Assert.assertEquals(1, cache.weight());
+		Assert.assertEquals(Integer.valueOf(9999), cache.get("do_1"));
+	}
+
+	@Test
+	public void testConcurrentPutsStayBounded() throws Exception {
+		final BoundedCache<String, Integer> cache = new BoundedCache<>("test", 100, 0);
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 8; t++) {
+			final int offset = t * 10000;
+			Thread thread = new Thread(() -> {
+				for (int i = 0; i < 10000; i++) {
+					cache.put("do_" + (offset + i), i);
+					cache.get("do_" + (offset + i / 2));
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads)
+			thread.join();
+		Assert.assertTrue(cache.size() <= 100);
+		Assert.assertEquals(cache.size(), cache.weight());
+	}
+}
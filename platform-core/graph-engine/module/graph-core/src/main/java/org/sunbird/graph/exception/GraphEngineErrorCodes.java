@@ -104,6 +104,10 @@ public enum GraphEngineErrorCodes {
     
     ERR_GRAPH_EXPORT_UNKNOWN_ERROR,
 
+    ERR_GRAPH_EXPORT_NOT_FOUND,
+
+    ERR_GRAPH_EXPORT_NOT_READY,
+
     ERR_INVALID_NODE,
 
     ERR_GRAPH_UNSUPPORTED_OPERATION,
@@ -2,6 +2,7 @@ package org.sunbird.graph.model;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -10,6 +11,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.io.IOUtils;
@@ -49,9 +51,12 @@ import org.sunbird.graph.model.node.DefinitionNode;
 import org.sunbird.graph.model.node.MetadataDefinition;
 import org.sunbird.graph.model.relation.RelationHandler;
 import org.sunbird.graph.reader.CSVImportMessageHandler;
+import org.sunbird.graph.reader.CSVNodeReader;
 import org.sunbird.graph.reader.GraphReader;
 import org.sunbird.graph.reader.GraphReaderFactory;
 import org.sunbird.graph.reader.JsonGraphReader;
+import org.sunbird.graph.writer.ExportProgress;
+import org.sunbird.graph.writer.GraphExporter;
 import org.sunbird.graph.writer.GraphWriterFactory;
 import org.sunbird.graph.writer.RDFGraphWriter;
 import org.sunbird.telemetry.logger.TelemetryManager;
@@ -323,12 +328,19 @@ public class Graph extends AbstractDomainObject {
 				throw new ClientException(GraphEngineErrorCodes.ERR_GRAPH_IMPORT_INVALID_INPUTSTREAM.name(),
 						"Import stream is missing");
 			} else {
-				// Get byte array.
-				try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-					IOUtils.copy(inputStream.getInputStream(), baos);
-					byte[] bytes = baos.toByteArray();
-					inputStream.setInputStream(new ByteArrayInputStream(bytes));
-					final ByteArrayInputStream byteInputStream = new ByteArrayInputStream(bytes);
+				// CSV is read one row at a time while it is imported, other formats
+				// are read in full and kept to report the messages against.
+				final boolean streaming = StringUtils.equalsIgnoreCase(ImportType.CSV.name(), format);
+				CSVNodeReader nodeReader = null;
+				try {
+					byte[] bytes = null;
+					if (!streaming) {
+						try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
+							IOUtils.copy(inputStream.getInputStream(), baos);
+							bytes = baos.toByteArray();
+						}
+						inputStream.setInputStream(new ByteArrayInputStream(bytes));
+					}
 
 					// Fetch Definition Nodes
 					final Request defNodesReq = new Request(request);
@@ -369,8 +381,14 @@ public class Graph extends AbstractDomainObject {
 							propertyDataMap.put(objectType, propMap);
 						}
 
-						final ImportData importData = GraphReaderFactory.getObject(getManager(), format, graphId,
-								inputStream.getInputStream(), propertyDataMap);
+						final ImportData importData;
+						if (streaming) {
+							nodeReader = new CSVNodeReader(graphId, inputStream.getInputStream(), propertyDataMap);
+							importData = new ImportData(nodeReader);
+						} else {
+							importData = GraphReaderFactory.getObject(getManager(), format, graphId,
+									inputStream.getInputStream(), propertyDataMap);
+						}
 						request.put(GraphDACParams.import_input_object.name(), importData);
 						request.put(GraphDACParams.task_id.name(), taskId);
 						// Use ImportData object and import Graph.
@@ -382,8 +400,14 @@ public class Graph extends AbstractDomainObject {
 						} else {
 							final Map<String, List<String>> importMsgMap = (Map<String, List<String>>) importResponse
 									.get(GraphDACParams.messages.name());
-							CSVImportMessageHandler msgHandler = new CSVImportMessageHandler(byteInputStream);
-							OutputStream outputStream = msgHandler.getOutputStream(importMsgMap);
+							OutputStream outputStream;
+							if (streaming) {
+								outputStream = CSVImportMessageHandler.getMessagesOutputStream(importMsgMap);
+							} else {
+								CSVImportMessageHandler msgHandler = new CSVImportMessageHandler(
+										new ByteArrayInputStream(bytes));
+								outputStream = msgHandler.getOutputStream(importMsgMap);
+							}
 							Map<String, Object> outputMap = new HashMap<String, Object>();
 							outputMap.put(GraphEngineParams.output_stream.name(), new OutputStreamValue(outputStream));
 							outputMap.put(GraphEngineParams.task_id.name(), taskId);
@@ -393,6 +417,8 @@ public class Graph extends AbstractDomainObject {
 					}
 				} catch (Exception e) {
 					manager.ERROR(e, GraphEngineParams.task_id.name(), taskId, getParent());
+				} finally {
+					IOUtils.closeQuietly(nodeReader);
 				}
 			}
 
@@ -757,17 +783,18 @@ public class Graph extends AbstractDomainObject {
 			if (null != request.get(GraphEngineParams.search_criteria.name()))
 				sc = (SearchCriteria) request.get(GraphEngineParams.search_criteria.name());
 
-			Response nodesResponse = null;
 			if (null == sc) {
-				Request nodesReq = new Request(request);
-				nodesResponse = searchMgr.getAllNodes(nodesReq);
-			} else {
-				Request nodesReq = new Request(request);
-				nodesReq.put(GraphDACParams.search_criteria.name(), sc);
-				nodesReq.put(GraphDACParams.get_tags.name(), true);
-				nodesResponse = searchMgr.searchNodes(nodesReq);
+				// the whole graph is streamed page by page to a file instead of
+				// being loaded with all its relations first.
+				startExport(request, format);
+				return;
 			}
 
+			Request nodesReq = new Request(request);
+			nodesReq.put(GraphDACParams.search_criteria.name(), sc);
+			nodesReq.put(GraphDACParams.get_tags.name(), true);
+			Response nodesResponse = searchMgr.searchNodes(nodesReq);
+
 			Response relationsResponse = null;
 			if (!StringUtils.equalsIgnoreCase(ImportType.CSV.name(), format)) {
 				Request relationsReq = new Request(request);
@@ -797,14 +824,7 @@ public class Graph extends AbstractDomainObject {
 			List<Relation> relations = (List<Relation>) relationsResponse.get(GraphDACParams.relations.name());
 			outputStream = new ByteArrayOutputStream();
 			outputStream = GraphWriterFactory.getData(format, nodes, relations);
-			Response response = new Response();
-			ResponseParams params = new ResponseParams();
-			params.setErr("0");
-			params.setStatus(StatusType.successful.name());
-			params.setErrmsg("Operation successful");
-			response.setParams(params);
-			response.put(GraphEngineParams.output_stream.name(), new OutputStreamValue(outputStream));
-			manager.returnResponse(Futures.successful(response), getParent());
+			returnExportResponse(outputStream);
 
 		} catch (Exception e) {
 			throw new ServerException(GraphEngineErrorCodes.ERR_GRAPH_EXPORT_UNKNOWN_ERROR.name(), e.getMessage(), e);
@@ -817,6 +837,97 @@ public class Graph extends AbstractDomainObject {
 		}
 	}
 
+	/**
+	 * Starts the export of the whole graph to a temporary file and returns its
+	 * export_id and progress without waiting for it. The export_id is taken
+	 * from the request or generated. The progress can be polled with
+	 * {@link #getExportProgress(Request)}, and the file is read once completed
+	 * with {@link #getExportFile(Request)}.
+	 */
+	private void startExport(Request request, String format) throws Exception {
+		String exportId = (String) request.get(GraphEngineParams.export_id.name());
+		if (StringUtils.isBlank(exportId))
+			exportId = UUID.randomUUID().toString();
+		File file = File.createTempFile("graph_export_" + graphId + "_", "." + format.toLowerCase());
+		ExportProgress progress = new GraphExporter(graphId, format).objectTypes(getExportObjectTypes(request))
+				.exportId(exportId).exportAsync(file);
+		Response response = getSuccessResponse();
+		response.put(GraphEngineParams.export_id.name(), exportId);
+		response.put(GraphEngineParams.export_progress.name(), progress.toMap());
+		manager.returnResponse(Futures.successful(response), getParent());
+	}
+
+	/**
+	 * Returns the path of the file of the completed export with the export_id
+	 * of the request as export_file. The file is handed out once; the caller
+	 * streams and deletes it.
+	 */
+	public void getExportFile(final Request request) {
+		String exportId = (String) request.get(GraphEngineParams.export_id.name());
+		ExportProgress progress = GraphExporter.getProgress(exportId);
+		if (null != progress && ExportProgress.Status.COMPLETED != progress.getStatus()) {
+			manager.ERROR(GraphEngineErrorCodes.ERR_GRAPH_EXPORT_NOT_READY.name(),
+					"Export " + exportId + " is " + progress.getStatus().name(), ResponseCode.CLIENT_ERROR, getParent());
+			return;
+		}
+		File file = GraphExporter.takeFile(exportId);
+		if (null == file) {
+			manager.ERROR(GraphEngineErrorCodes.ERR_GRAPH_EXPORT_NOT_FOUND.name(),
+					"Export file not found or already downloaded: " + exportId, ResponseCode.RESOURCE_NOT_FOUND,
+					getParent());
+			return;
+		}
+		Response response = getSuccessResponse();
+		response.put(GraphEngineParams.export_id.name(), exportId);
+		response.put(GraphEngineParams.export_file.name(), file.getAbsolutePath());
+		manager.returnResponse(Futures.successful(response), getParent());
+	}
+
+	/**
+	 * Returns the progress of the export with the export_id of the request.
+	 */
+	public void getExportProgress(final Request request) {
+		String exportId = (String) request.get(GraphEngineParams.export_id.name());
+		ExportProgress progress = GraphExporter.getProgress(exportId);
+		if (null == progress) {
+			manager.ERROR(GraphEngineErrorCodes.ERR_GRAPH_EXPORT_NOT_FOUND.name(), "Export not found: " + exportId,
+					ResponseCode.RESOURCE_NOT_FOUND, getParent());
+			return;
+		}
+		Response response = getSuccessResponse();
+		response.put(GraphEngineParams.export_progress.name(), progress.toMap());
+		manager.returnResponse(Futures.successful(response), getParent());
+	}
+
+	private void returnExportResponse(OutputStream outputStream) {
+		Response response = getSuccessResponse();
+		response.put(GraphEngineParams.output_stream.name(), new OutputStreamValue(outputStream));
+		manager.returnResponse(Futures.successful(response), getParent());
+	}
+
+	private Response getSuccessResponse() {
+		Response response = new Response();
+		ResponseParams params = new ResponseParams();
+		params.setErr("0");
+		params.setStatus(StatusType.successful.name());
+		params.setErrmsg("Operation successful");
+		response.setParams(params);
+		return response;
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<String> getExportObjectTypes(Request request) {
+		Object objectType = request.get(GraphEngineParams.objectType.name());
+		if (objectType instanceof List)
+			return (List<String>) objectType;
+		if (objectType instanceof String && StringUtils.isNotBlank((String) objectType)) {
+			List<String> objectTypes = new ArrayList<String>();
+			objectTypes.add((String) objectType);
+			return objectTypes;
+		}
+		return null;
+	}
+
 	@SuppressWarnings("unchecked")
 	private Map<String, List<String>> getNodesValidationsFuture(Response defNodesResponse, final Response nodesResponse,
 			final Request request) {
@@ -1,8 +1,10 @@
 package org.sunbird.graph.model.cache;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
 import org.sunbird.graph.cache.util.RedisStoreUtil;
@@ -39,15 +41,17 @@ public class CategoryCache {
 
 	private static void setFramework(String framework, List<Map<String, Object>> categories) {
 		if (null != categories && !categories.isEmpty()) {
+			Map<String, List<String>> categoryTerms = new HashMap<>();
 			for (Map<String, Object> category : categories) {
 				String catName = (String) category.get("code");
 				List<Object> terms = getTerms(category, "terms");
 				if (!terms.isEmpty()) {
 					String key = getKey(framework, catName);
 					TelemetryManager.info("Setting framework category cache with key: " + key);
-					RedisStoreUtil.saveList(key, terms);
+					categoryTerms.put(key, terms.stream().map(term -> (String) term).collect(Collectors.toList()));
 				}
 			}
+			RedisStoreUtil.saveStringLists(categoryTerms, 0);
 		}
 	}
 
@@ -77,4 +77,23 @@ public class CSVImportMessageHandler {
 		}
 	}
 
+	/**
+	 * Writes one row per identifier (or row number, for rows that could not be
+	 * read) with its validation messages, without re-reading the input.
+	 */
+	public static OutputStream getMessagesOutputStream(Map<String, List<String>> messages) throws Exception {
+		ObjectMapper mapper = new ObjectMapper();
+		try (OutputStream outputStream = new ByteArrayOutputStream();
+				CSVPrinter printer = new CSVPrinter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8),
+						CSVFormat.DEFAULT)) {
+			printer.printRecord(PROPERTY_ID, "Validation Messages");
+			if (null != messages) {
+				for (Map.Entry<String, List<String>> entry : messages.entrySet())
+					printer.printRecord(entry.getKey(), mapper.writeValueAsString(entry.getValue()));
+			}
+			printer.flush();
+			return outputStream;
+		}
+	}
+
 }
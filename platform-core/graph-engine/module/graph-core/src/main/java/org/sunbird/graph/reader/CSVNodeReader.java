@@ -0,0 +1,142 @@
+package org.sunbird.graph.reader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.apache.commons.lang3.StringUtils;
+import org.sunbird.common.exception.ClientException;
+import org.sunbird.graph.dac.enums.SystemNodeTypes;
+import org.sunbird.graph.dac.model.Node;
+import org.sunbird.graph.dac.model.Relation;
+import org.sunbird.graph.exception.GraphEngineErrorCodes;
+import org.sunbird.graph.model.node.MetadataDefinition;
+
+/**
+ * Reads the data nodes of a CSV import one row at a time.
+ *
+ * Only the header and the current row are held in memory. A row without
+ * identifier or objectType fails its own next() call with
+ * ERR_GRAPH_IMPORT_MISSING_REQ_COLUMN_DATA; the following rows can still be
+ * read. The tags column is skipped, as tags are not imported.
+ *
+ * Rows are numbered from 1 after the header, as in the import messages. The
+ * values are parsed with the helpers of {@link CSVGraphReader}.
+ */
+public class CSVNodeReader implements Iterator<Node>, Closeable {
+
+	private String graphId;
+	private Map<String, Map<String, MetadataDefinition>> propertyDataMap;
+	private CSVParser csvReader;
+	private Iterator<CSVRecord> records;
+	private List<String> allHeaders = new ArrayList<String>();
+	private Map<String, Integer> relHeaders = new HashMap<String, Integer>();
+	private List<Integer> skipIndexes;
+	private int uniqueIdIndex;
+	private int objectTypeIndex;
+
+	public CSVNodeReader(String graphId, InputStream inputStream,
+			Map<String, Map<String, MetadataDefinition>> propertyDataMap) throws Exception {
+		this.graphId = graphId;
+		this.propertyDataMap = propertyDataMap;
+		this.csvReader = new CSVParser(new InputStreamReader(inputStream, StandardCharsets.UTF_8), CSVFormat.DEFAULT);
+		this.records = csvReader.iterator();
+		if (!records.hasNext()) {
+			close();
+			throw new ClientException(GraphEngineErrorCodes.ERR_GRAPH_IMPORT_MISSING_REQ_COLUMNS.name(),
+					"Required columns are missing.");
+		}
+		CSVRecord headerRecord = records.next();
+		for (int i = 0; i < headerRecord.size(); i++) {
+			allHeaders.add(headerRecord.get(i));
+			if (headerRecord.get(i).startsWith(CSVGraphReader.REL_HEADER_START_WITH)) {
+				relHeaders.put(headerRecord.get(i), i);
+			}
+		}
+		uniqueIdIndex = allHeaders.indexOf(CSVGraphReader.PROPERTY_ID);
+		int nodeTypeIndex = allHeaders.indexOf(CSVGraphReader.PROPERTY_NODE_TYPE);
+		objectTypeIndex = allHeaders.indexOf(CSVGraphReader.PROPERTY_OBJECT_TYPE);
+		int tagsIndex = allHeaders.indexOf(CSVGraphReader.PROPERTY_TAGS);
+		skipIndexes = Arrays.asList(uniqueIdIndex, nodeTypeIndex, objectTypeIndex, tagsIndex);
+		if (!CSVGraphReader.hasValidIndexes(uniqueIdIndex, objectTypeIndex)) {
+			close();
+			throw new ClientException(GraphEngineErrorCodes.ERR_GRAPH_IMPORT_MISSING_REQ_COLUMNS.name(),
+					"Required columns are missing.");
+		}
+	}
+
+	@Override
+	public boolean hasNext() {
+		return records.hasNext();
+	}
+
+	@Override
+	public Node next() {
+		if (!records.hasNext())
+			throw new NoSuchElementException();
+		CSVRecord record = records.next();
+		String uniqueId = record.get(uniqueIdIndex);
+		String nodeType = SystemNodeTypes.DATA_NODE.name();
+		String objectType = record.get(objectTypeIndex);
+		if (StringUtils.isBlank(uniqueId) || StringUtils.isBlank(objectType)) {
+			throw new ClientException(GraphEngineErrorCodes.ERR_GRAPH_IMPORT_MISSING_REQ_COLUMN_DATA.name(),
+					"Required data(uniqueId, objectType) is missing for the row[" + (record.getRecordNumber() - 1) + "]: "
+							+ record);
+		}
+		Map<String, Object> metadata = new HashMap<String, Object>();
+		for (int j = 0; j < allHeaders.size(); j++) {
+			if (!skipIndexes.contains(j) && !relHeaders.values().contains(j)) {
+				String metadataKey = CSVGraphReader.getMetadataKey(propertyDataMap, objectType, allHeaders.get(j));
+				String val = record.get(j);
+				if (CSVGraphReader.isListProperty(propertyDataMap, objectType, allHeaders.get(j))) {
+					String[] valList = CSVGraphReader.getListFromString(val);
+					metadata.put(metadataKey, valList);
+				} else {
+					if (StringUtils.isNotBlank(val))
+						val = val.replaceAll("&lt;", "<").replaceAll("&gt;", ">");
+					else
+						val = null;
+					Object value = CSVGraphReader.getMetadataValue(propertyDataMap, objectType, metadataKey, val);
+					metadata.put(metadataKey, value);
+				}
+			}
+		}
+		Node node = new Node(graphId, metadata);
+		node.setIdentifier(uniqueId);
+		node.setNodeType(nodeType);
+		node.setObjectType(objectType);
+		List<Relation> relations = new ArrayList<Relation>();
+		for (String relHeader : relHeaders.keySet()) {
+			String relName = relHeader.replaceAll(CSVGraphReader.REL_HEADER_START_WITH, "");
+			String[] endNodeIds = record.get(relHeaders.get(relHeader)).toString().split(",");
+			for (String endNodeId : endNodeIds) {
+				endNodeId = endNodeId.trim();
+				if (StringUtils.isNotBlank(endNodeId)) {
+					Relation relation = new Relation(uniqueId, relName, endNodeId);
+					relations.add(relation);
+				}
+			}
+		}
+		if (!relHeaders.isEmpty()) {
+			node.setOutRelations(relations);
+		}
+		return node;
+	}
+
+	@Override
+	public void close() throws IOException {
+		csvReader.close();
+	}
+}
@@ -0,0 +1,110 @@
+package org.sunbird.graph.writer;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.apache.commons.lang3.StringUtils;
+import org.sunbird.graph.dac.enums.SystemNodeTypes;
+import org.sunbird.graph.dac.model.Node;
+import org.sunbird.graph.dac.model.Relation;
+import org.sunbird.graph.reader.CSVGraphReader;
+
+/**
+ * Streaming counterpart of {@link CSVGraphWriter}. The header is built from
+ * the metadata keys and relation types of all the exported nodes up front, so
+ * each row can be written as soon as its node is read.
+ */
+public class CSVGraphStreamWriter implements GraphStreamWriter {
+
+	private static final String NEW_LINE_SEPARATOR = "\n";
+
+	private OutputStreamWriter osWriter;
+	private CSVPrinter writer;
+	private List<String> headers;
+
+	public CSVGraphStreamWriter(OutputStream outputStream) {
+		this.osWriter = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+	}
+
+	@Override
+	public List<String> getNodeTypes() {
+		return Arrays.asList(SystemNodeTypes.DATA_NODE.name());
+	}
+
+	@Override
+	public boolean writesRelations() {
+		return false;
+	}
+
+	@Override
+	public void start(List<String> metadataKeys, List<String> relationTypes) throws Exception {
+		headers = new ArrayList<String>();
+		headers.add(CSVGraphReader.PROPERTY_ID);
+		headers.add(CSVGraphReader.PROPERTY_OBJECT_TYPE);
+		headers.add(CSVGraphReader.PROPERTY_TAGS);
+		if (null != metadataKeys) {
+			for (String key : metadataKeys) {
+				if (!headers.contains(key))
+					headers.add(key);
+			}
+		}
+		if (null != relationTypes) {
+			for (String relationType : relationTypes)
+				headers.add(CSVGraphReader.REL_HEADER_START_WITH + relationType);
+		}
+		writer = new CSVPrinter(osWriter, CSVFormat.DEFAULT.withRecordSeparator(NEW_LINE_SEPARATOR));
+		writer.printRecord(headers);
+	}
+
+	@Override
+	public void writeNode(Node node) throws Exception {
+		if (!SystemNodeTypes.DATA_NODE.name().equalsIgnoreCase(node.getNodeType()))
+			return;
+		Map<String, List<String>> relMap = new HashMap<String, List<String>>();
+		if (null != node.getOutRelations()) {
+			for (Relation rel : node.getOutRelations()) {
+				String relHeader = CSVGraphReader.REL_HEADER_START_WITH + rel.getRelationType();
+				List<String> relatedNodes = relMap.get(relHeader);
+				if (null == relatedNodes) {
+					relatedNodes = new ArrayList<String>();
+					relMap.put(relHeader, relatedNodes);
+				}
+				relatedNodes.add(rel.getEndNodeId());
+			}
+		}
+		List<String> row = new ArrayList<String>(headers.size());
+		for (String header : headers) {
+			String value;
+			if (CSVGraphReader.PROPERTY_ID.equals(header))
+				value = node.getIdentifier();
+			else if (CSVGraphReader.PROPERTY_OBJECT_TYPE.equals(header))
+				value = node.getObjectType();
+			else if (relMap.containsKey(header))
+				value = CSVGraphWriter.stringify(relMap.get(header), ",");
+			else
+				value = (null == node.getMetadata()) ? null : CSVGraphWriter.getStringValue(node.getMetadata().get(header));
+			if (StringUtils.isNotBlank(value))
+				row.add(value.replaceAll("<", "&lt;").replaceAll(">", "&gt;").replaceAll("\n", "").replaceAll("\r", ""));
+			else
+				row.add("");
+		}
+		writer.printRecord(row);
+	}
+
+	@Override
+	public void writeRelation(Relation relation) throws Exception {
+	}
+
+	@Override
+	public void end() throws Exception {
+		writer.flush();
+	}
+}
@@ -111,7 +111,7 @@ public class CSVGraphWriter implements GraphWriter {
 	}
 
 	@SuppressWarnings("rawtypes")
-	private String getStringValue(Object value) {
+	static String getStringValue(Object value) {
 		if (null != value) {
 			if (value instanceof String[]) {
 				List list = Arrays.asList((String[]) value);
@@ -127,7 +127,7 @@ public class CSVGraphWriter implements GraphWriter {
 	}
 
 	@SuppressWarnings("rawtypes")
-	private String stringify(List list, String delim) {
+	static String stringify(List list, String delim) {
 		if (null != list && !list.isEmpty()) {
 			String str = "";
 			for (int i = 0; i < list.size(); i++) {
@@ -0,0 +1,91 @@
+package org.sunbird.graph.writer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Progress of a {@link GraphExporter} run, safe to read from another thread
+ * while the export runs.
+ */
+public class ExportProgress {
+
+	public enum Status {
+		PENDING, RUNNING, COMPLETED, FAILED
+	}
+
+	private volatile Status status = Status.PENDING;
+	private volatile long totalNodes;
+	private volatile long nodesWritten;
+	private volatile long relationsWritten;
+	private volatile long startTime;
+	private volatile long endTime;
+	private volatile String error;
+
+	void start(long totalNodes) {
+		this.totalNodes = totalNodes;
+		this.startTime = System.currentTimeMillis();
+		this.status = Status.RUNNING;
+	}
+
+	void nodeWritten() {
+		nodesWritten++;
+	}
+
+	void relationWritten() {
+		relationsWritten++;
+	}
+
+	void completed() {
+		this.endTime = System.currentTimeMillis();
+		this.status = Status.COMPLETED;
+	}
+
+	void failed(String error) {
+		this.error = error;
+		this.endTime = System.currentTimeMillis();
+		this.status = Status.FAILED;
+	}
+
+	public Status getStatus() {
+		return status;
+	}
+
+	public long getTotalNodes() {
+		return totalNodes;
+	}
+
+	public long getNodesWritten() {
+		return nodesWritten;
+	}
+
+	public long getRelationsWritten() {
+		return relationsWritten;
+	}
+
+	/**
+	 * @return the nodes written in percent of the nodes counted at the start
+	 */
+	public double getPercentage() {
+		if (Status.COMPLETED == status)
+			return 100.0;
+		return (totalNodes == 0) ? 0.0 : Math.min(100.0, nodesWritten * 100.0 / totalNodes);
+	}
+
+	public String getError() {
+		return error;
+	}
+
+	public Map<String, Object> toMap() {
+		Map<String, Object> map = new HashMap<String, Object>();
+		map.put("status", status.name());
+		map.put("totalNodes", totalNodes);
+		map.put("nodesWritten", nodesWritten);
+		map.put("relationsWritten", relationsWritten);
+		map.put("percentage", getPercentage());
+		map.put("startTime", startTime);
+		map.put("endTime", endTime);
+		if (null != error)
+			map.put("error", error);
+		return map;
+	}
+}
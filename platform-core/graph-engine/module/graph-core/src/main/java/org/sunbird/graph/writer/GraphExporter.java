@@ -0,0 +1,311 @@
+package org.sunbird.graph.writer;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+
+import org.sunbird.common.Platform;
+import org.sunbird.common.cache.BoundedCache;
+import org.sunbird.common.dto.Request;
+import org.sunbird.common.dto.Response;
+import org.sunbird.common.dto.ResponseParams.StatusType;
+import org.sunbird.common.exception.ServerException;
+import org.sunbird.graph.common.enums.GraphHeaderParams;
+import org.sunbird.graph.dac.enums.GraphDACParams;
+import org.sunbird.graph.dac.mgr.IGraphDACSearchMgr;
+import org.sunbird.graph.dac.mgr.impl.Neo4JBoltSearchMgrImpl;
+import org.sunbird.graph.dac.model.Node;
+import org.sunbird.graph.dac.model.Relation;
+import org.sunbird.graph.exception.GraphEngineErrorCodes;
+import org.sunbird.telemetry.logger.TelemetryManager;
+
+/**
+ * Exports a graph to an output stream without loading it in memory.
+ *
+ * The nodes are read in pages of graph.export.page_size, ordered by
+ * identifier, each page starting after the last identifier of the previous
+ * one, and handed to a {@link GraphStreamWriter} as they are read. Relations
+ * are written from the out relations of a second pass over the nodes, so each
+ * relation is read once, with its start node.
+ *
+ * The progress of an export with an export id can be read with
+ * {@link #getProgress(String)} from another request while the export runs, and
+ * for graph.export.progress.ttl milliseconds (default one hour) after it ends.
+ *
+ * {@link #exportAsync(File)} runs the export to a file on one of
+ * graph.export.threads threads (default 2), so the caller can return the
+ * export id before the export starts. The file is handed out once with
+ * {@link #takeFile(String)}, and deleted by a later export if it is not taken
+ * before its progress expires.
+ */
+public class GraphExporter {
+
+	private static final int PAGE_SIZE = Platform.config.hasPath("graph.export.page_size")
+			? Platform.config.getInt("graph.export.page_size") : 1000;
+
+	private static BoundedCache<String, ExportProgress> exports = new BoundedCache<>("graph_export", 1000,
+			Platform.config.hasPath("graph.export.progress.ttl") ? Platform.config.getLong("graph.export.progress.ttl")
+					: 3600000);
+
+	private static final ExecutorService executor = Executors.newFixedThreadPool(
+			Platform.config.hasPath("graph.export.threads") ? Platform.config.getInt("graph.export.threads") : 2,
+			runnable -> {
+				Thread thread = new Thread(runnable, "graph-export");
+				thread.setDaemon(true);
+				return thread;
+			});
+	private static Map<String, File> files = new ConcurrentHashMap<>();
+
+	private final IGraphDACSearchMgr searchMgr;
+	private final String graphId;
+	private final String format;
+	private int pageSize = PAGE_SIZE;
+	private List<String> objectTypes;
+	private List<String> nodeTypes;
+	private boolean gzip;
+	private String exportId;
+	private final ExportProgress progress = new ExportProgress();
+
+	public GraphExporter(String graphId, String format) {
+		this(new Neo4JBoltSearchMgrImpl(), graphId, format);
+	}
+
+	GraphExporter(IGraphDACSearchMgr searchMgr, String graphId, String format) {
+		this.searchMgr = searchMgr;
+		this.graphId = graphId;
+		this.format = format;
+	}
+
+	GraphExporter pageSize(int pageSize) {
+		this.pageSize = pageSize;
+		return this;
+	}
+
+	/**
+	 * Exports only the nodes of these object types, and their relations.
+	 */
+	public GraphExporter objectTypes(List<String> objectTypes) {
+		this.objectTypes = (null == objectTypes || objectTypes.isEmpty()) ? null : objectTypes;
+		return this;
+	}
+
+	/**
+	 * Exports only the nodes of these node types (IL_SYS_NODE_TYPE), and
+	 * their relations.
+	 */
+	public GraphExporter nodeTypes(List<String> nodeTypes) {
+		this.nodeTypes = (null == nodeTypes || nodeTypes.isEmpty()) ? null : nodeTypes;
+		return this;
+	}
+
+	/**
+	 * Gzips the export.
+	 */
+	public GraphExporter gzip(boolean gzip) {
+		this.gzip = gzip;
+		return this;
+	}
+
+	/**
+	 * Publishes the progress of this export under the id, see
+	 * {@link #getProgress(String)}.
+	 */
+	public GraphExporter exportId(String exportId) {
+		this.exportId = exportId;
+		return this;
+	}
+
+	public ExportProgress getProgress() {
+		return progress;
+	}
+
+	/**
+	 * @return the progress of the export with the id, null if there is no
+	 *         such export or it ended more than graph.export.progress.ttl ago
+	 */
+	public static ExportProgress getProgress(String exportId) {
+		return (null == exportId) ? null : exports.get(exportId);
+	}
+
+	/**
+	 * Runs the export to the file on the export threads. The progress is
+	 * published under the export id, which is required, before this returns.
+	 * The file is deleted if the export fails.
+	 *
+	 * @return the progress of the export
+	 */
+	public ExportProgress exportAsync(File file) {
+		if (null == exportId)
+			throw new IllegalStateException("Export id is required to export in the background.");
+		deleteExpiredFiles();
+		exports.put(exportId, progress);
+		files.put(exportId, file);
+		executor.execute(() -> {
+			try (OutputStream fileStream = new BufferedOutputStream(new FileOutputStream(file))) {
+				export(fileStream);
+			} catch (Exception e) {
+				TelemetryManager.error("Export | Graph " + graphId + " export " + exportId + " failed: "
+						+ e.getMessage(), e);
+				files.remove(exportId, file);
+				file.delete();
+			}
+		});
+		return progress;
+	}
+
+	/**
+	 * Hands out the file of a completed background export. The caller deletes
+	 * it once read.
+	 *
+	 * @return the file, null if the export is not completed, expired or the
+	 *         file was already taken
+	 */
+	public static File takeFile(String exportId) {
+		ExportProgress exportProgress = getProgress(exportId);
+		if (null == exportProgress || ExportProgress.Status.COMPLETED != exportProgress.getStatus())
+			return null;
+		return files.remove(exportId);
+	}
+
+	private static void deleteExpiredFiles() {
+		for (String id : files.keySet()) {
+			if (null == getProgress(id)) {
+				File file = files.remove(id);
+				if (null != file)
+					file.delete();
+			}
+		}
+	}
+
+	/**
+	 * Writes the export to the output stream. The stream is flushed and left
+	 * open.
+	 */
+	public void export(OutputStream outputStream) throws Exception {
+		if (null != exportId)
+			exports.put(exportId, progress);
+		try {
+			GZIPOutputStream gzipStream = gzip ? new GZIPOutputStream(outputStream) : null;
+			OutputStream target = gzip ? gzipStream : outputStream;
+			GraphStreamWriter writer = GraphWriterFactory.getStreamWriter(format, target);
+			List<List<String>> passes = getNodeTypePasses(writer);
+			List<String> summaryNodeTypes = getSummaryNodeTypes(writer);
+
+			Response summary = searchMgr.getNodesSummary(getRequest(summaryNodeTypes));
+			checkError(summary);
+			progress.start((Long) summary.get(GraphDACParams.count.name()));
+			writer.start(getList(summary, GraphDACParams.keys.name()), getList(summary, "relationTypes"));
+			for (List<String> passNodeTypes : passes) {
+				readPages(passNodeTypes, node -> {
+					writer.writeNode(node);
+					progress.nodeWritten();
+				});
+			}
+			if (writer.writesRelations()) {
+				readPages(nodeTypes, node -> {
+					if (null != node.getOutRelations()) {
+						for (Relation relation : node.getOutRelations()) {
+							writer.writeRelation(relation);
+							progress.relationWritten();
+						}
+					}
+				});
+			}
+			writer.end();
+			if (gzip)
+				gzipStream.finish();
+			target.flush();
+			progress.completed();
+			TelemetryManager.info("Export | Graph " + graphId + " exported as " + format + ": "
+					+ progress.getNodesWritten() + " nodes, " + progress.getRelationsWritten() + " relations.");
+		} catch (Exception e) {
+			progress.failed(e.getMessage());
+			throw e;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void readPages(List<String> pageNodeTypes, NodeHandler handler) throws Exception {
+		String afterId = null;
+		while (true) {
+			Request request = getRequest(pageNodeTypes);
+			request.put(GraphDACParams.afterId.name(), afterId);
+			request.put(GraphDACParams.pageSize.name(), pageSize);
+			Response response = searchMgr.getNodesPage(request);
+			checkError(response);
+			List<Node> nodes = (List<Node>) response.get(GraphDACParams.node_list.name());
+			if (null == nodes || nodes.isEmpty())
+				return;
+			for (Node node : nodes)
+				handler.handle(node);
+			if (nodes.size() < pageSize)
+				return;
+			afterId = nodes.get(nodes.size() - 1).getIdentifier();
+		}
+	}
+
+	/**
+	 * One pass per node type the writer takes, restricted to the requested
+	 * node types; a single pass when the writer takes all node types.
+	 */
+	private List<List<String>> getNodeTypePasses(GraphStreamWriter writer) {
+		List<List<String>> passes = new ArrayList<List<String>>();
+		if (null == writer.getNodeTypes()) {
+			passes.add(nodeTypes);
+		} else {
+			for (String nodeType : writer.getNodeTypes()) {
+				if (null == nodeTypes || nodeTypes.contains(nodeType))
+					passes.add(Collections.singletonList(nodeType));
+			}
+		}
+		return passes;
+	}
+
+	private List<String> getSummaryNodeTypes(GraphStreamWriter writer) {
+		if (null == writer.getNodeTypes())
+			return nodeTypes;
+		List<String> summaryNodeTypes = new ArrayList<String>();
+		for (String nodeType : writer.getNodeTypes()) {
+			if (null == nodeTypes || nodeTypes.contains(nodeType))
+				summaryNodeTypes.add(nodeType);
+		}
+		return summaryNodeTypes;
+	}
+
+	private Request getRequest(List<String> requestNodeTypes) {
+		Request request = new Request();
+		request.getContext().put(GraphHeaderParams.graph_id.name(), graphId);
+		request.put(GraphDACParams.nodeType.name(), requestNodeTypes);
+		request.put(GraphDACParams.objectType.name(), objectTypes);
+		return request;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<String> getList(Response response, String key) {
+		List<String> list = (List<String>) response.get(key);
+		if (null == list)
+			return new ArrayList<String>();
+		List<String> sorted = new ArrayList<String>(list);
+		Collections.sort(sorted);
+		return sorted;
+	}
+
+	private static void checkError(Response response) {
+		if (StatusType.failed.name().equals(response.getParams().getStatus()))
+			throw new ServerException(GraphEngineErrorCodes.ERR_GRAPH_EXPORT_UNKNOWN_ERROR.name(),
+					response.getParams().getErrmsg());
+	}
+
+	private interface NodeHandler {
+		void handle(Node node) throws Exception;
+	}
+}
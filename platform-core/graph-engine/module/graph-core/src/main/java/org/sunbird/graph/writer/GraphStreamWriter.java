@@ -0,0 +1,35 @@
+package org.sunbird.graph.writer;
+
+import java.util.List;
+
+import org.sunbird.graph.dac.model.Node;
+import org.sunbird.graph.dac.model.Relation;
+
+/**
+ * Writes an export to its output stream as the nodes and relations are read.
+ */
+public interface GraphStreamWriter {
+
+    /**
+     * @return the node types to write, in the order they have to be written;
+     *         null to write the nodes of all types in one pass
+     */
+    List<String> getNodeTypes();
+
+    /**
+     * @return true if the export has a relations section
+     */
+    boolean writesRelations();
+
+    void start(List<String> metadataKeys, List<String> relationTypes) throws Exception;
+
+    void writeNode(Node node) throws Exception;
+
+    void writeRelation(Relation relation) throws Exception;
+
+    /**
+     * Ends the export and flushes it, leaving the output stream open.
+     */
+    void end() throws Exception;
+
+}
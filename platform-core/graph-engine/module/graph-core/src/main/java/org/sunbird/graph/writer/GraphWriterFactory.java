@@ -24,4 +24,16 @@ public class GraphWriterFactory {
         }
         return graphWriter.getData();
     }
+
+    public static GraphStreamWriter getStreamWriter(String format, OutputStream outputStream) {
+        if (ImportType.JSON.name().equalsIgnoreCase(format)) {
+            return new JsonGraphStreamWriter(outputStream);
+        } else if (ImportType.CSV.name().equalsIgnoreCase(format)) {
+            return new CSVGraphStreamWriter(outputStream);
+        } else if (ImportType.RDF.name().equalsIgnoreCase(format)) {
+            return new RDFGraphStreamWriter(outputStream);
+        } else {
+            throw new ClientException(GraphEngineErrorCodes.ERR_GRAPH_EXPORT_INVALID_FORMAT.name(), "Format:" + format + " is invalid.");
+        }
+    }
 }
@@ -0,0 +1,94 @@
+package org.sunbird.graph.writer;
+
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.codehaus.jackson.JsonEncoding;
+import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.sunbird.graph.dac.enums.SystemNodeTypes;
+import org.sunbird.graph.dac.model.Node;
+import org.sunbird.graph.dac.model.Relation;
+
+/**
+ * Streaming counterpart of {@link JsonGraphWriter}. The sections are written
+ * in the order definitionNodes, nodes, relations, with the node and relation
+ * counts after them, so the node types have to come in that order.
+ */
+public class JsonGraphStreamWriter implements GraphStreamWriter {
+
+	private static final String[] SECTIONS = { "definitionNodes", "nodes", "relations" };
+
+	private ObjectMapper mapper = new ObjectMapper();
+	private JsonGraphWriter graphWriter = new JsonGraphWriter(null, null);
+	private OutputStream outputStream;
+	private JsonGenerator generator;
+	private int section;
+	private long numberOfNodes;
+	private long numberOfRelations;
+
+	public JsonGraphStreamWriter(OutputStream outputStream) {
+		this.outputStream = outputStream;
+	}
+
+	@Override
+	public List<String> getNodeTypes() {
+		return Arrays.asList(SystemNodeTypes.DEFINITION_NODE.name(), SystemNodeTypes.DATA_NODE.name(),
+				SystemNodeTypes.SEQUENCE.name());
+	}
+
+	@Override
+	public boolean writesRelations() {
+		return true;
+	}
+
+	@Override
+	public void start(List<String> metadataKeys, List<String> relationTypes) throws Exception {
+		generator = mapper.getJsonFactory().createJsonGenerator(outputStream, JsonEncoding.UTF8);
+		generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		generator.writeStartObject();
+		section = 0;
+		generator.writeArrayFieldStart(SECTIONS[section]);
+	}
+
+	@Override
+	public void writeNode(Node node) throws Exception {
+		Map<String, Object> map = graphWriter.getNodeMap(node);
+		if (null == map)
+			return;
+		if (SystemNodeTypes.DEFINITION_NODE.name().equals(node.getNodeType())) {
+			mapper.writeValue(generator, map);
+		} else {
+			moveTo(1);
+			mapper.writeValue(generator, map);
+			numberOfNodes++;
+		}
+	}
+
+	@Override
+	public void writeRelation(Relation relation) throws Exception {
+		moveTo(2);
+		mapper.writeValue(generator, graphWriter.getRelationMap(relation));
+		numberOfRelations++;
+	}
+
+	@Override
+	public void end() throws Exception {
+		moveTo(2);
+		generator.writeEndArray();
+		generator.writeNumberField("numberOfNodes", numberOfNodes);
+		generator.writeNumberField("numberOfRelations", numberOfRelations);
+		generator.writeEndObject();
+		generator.flush();
+	}
+
+	private void moveTo(int next) throws Exception {
+		while (section < next) {
+			generator.writeEndArray();
+			section++;
+			generator.writeArrayFieldStart(SECTIONS[section]);
+		}
+	}
+}
@@ -29,7 +29,6 @@ public class JsonGraphWriter implements GraphWriter {
 		this.relations = null == relations ? new ArrayList<Relation>() : relations;
 	}
 
-	@SuppressWarnings("unchecked")
 	@Override
 	public OutputStream getData() throws Exception {
 		StringBuilder sb = new StringBuilder();
@@ -38,90 +37,18 @@ public class JsonGraphWriter implements GraphWriter {
 		List<Map<String, Object>> relationsList = new ArrayList<Map<String, Object>>();
 		if (nodes != null) {
 			for (Node node : nodes) {
-				Map<String, Object> map = new HashMap<String, Object>();
-				map.put("uniqueId", node.getIdentifier());
-				map.put("nodeType", node.getNodeType());
-				map.put("objectType", node.getObjectType());
-				if (StringUtils.isNotBlank(node.getNodeType())
-						&& node.getNodeType().equals(SystemNodeTypes.DEFINITION_NODE.name())) {
-					Map<String, Object> metadata = mapper.convertValue(node.getMetadata(), Map.class);
-					List<MetadataDefinition> indexedMetadata = new ArrayList<MetadataDefinition>();
-					if (StringUtils.isNotBlank((String) metadata.get(DefinitionNode.INDEXABLE_METADATA_KEY))) {
-						String metaList = (String) metadata.get(DefinitionNode.INDEXABLE_METADATA_KEY);
-						try {
-							List<Map<String, Object>> listMap = (List<Map<String, Object>>) mapper.readValue(metaList,
-									List.class);
-							for (Map<String, Object> metaMap : listMap) {
-								indexedMetadata.add(
-										(MetadataDefinition) mapper.convertValue(metaMap, MetadataDefinition.class));
-							}
-						} catch (Exception e) {
-						}
-					}
-					map.put("indexedMetadata", indexedMetadata);
-
-					List<MetadataDefinition> nonIndexedMetadata = new ArrayList<MetadataDefinition>();
-					if (StringUtils.isNotBlank((String) metadata.get(DefinitionNode.NON_INDEXABLE_METADATA_KEY))) {
-						String metaList = (String) metadata.get(DefinitionNode.NON_INDEXABLE_METADATA_KEY);
-						try {
-							List<Map<String, Object>> listMap = (List<Map<String, Object>>) mapper.readValue(metaList,
-									List.class);
-							for (Map<String, Object> metaMap : listMap) {
-								nonIndexedMetadata.add(
-										(MetadataDefinition) mapper.convertValue(metaMap, MetadataDefinition.class));
-							}
-						} catch (Exception e) {
-						}
-					}
-					map.put("nonIndexedMetadata", nonIndexedMetadata);
-
-					List<RelationDefinition> inRelationMetadata = new ArrayList<RelationDefinition>();
-					if (StringUtils.isNotBlank((String) metadata.get(DefinitionNode.IN_RELATIONS_KEY))) {
-						String inRelList = (String) metadata.get(DefinitionNode.IN_RELATIONS_KEY);
-						try {
-							List<Map<String, Object>> listMap = (List<Map<String, Object>>) mapper.readValue(inRelList,
-									List.class);
-							for (Map<String, Object> metaMap : listMap) {
-								inRelationMetadata.add(
-										(RelationDefinition) mapper.convertValue(metaMap, RelationDefinition.class));
-							}
-						} catch (Exception e) {
-						}
-					}
-					map.put("inRelations", inRelationMetadata);
-
-					List<RelationDefinition> outRelationMetadata = new ArrayList<RelationDefinition>();
-					if (StringUtils.isNotBlank((String) metadata.get(DefinitionNode.OUT_RELATIONS_KEY))) {
-						String outRelList = (String) metadata.get(DefinitionNode.OUT_RELATIONS_KEY);
-						try {
-							List<Map<String, Object>> listMap = (List<Map<String, Object>>) mapper.readValue(outRelList,
-									List.class);
-							for (Map<String, Object> metaMap : listMap) {
-								outRelationMetadata.add(
-										(RelationDefinition) mapper.convertValue(metaMap, RelationDefinition.class));
-							}
-						} catch (Exception e) {
-						}
-					}
-					map.put("outRelations", outRelationMetadata);
+				Map<String, Object> map = getNodeMap(node);
+				if (null == map)
+					continue;
+				if (SystemNodeTypes.DEFINITION_NODE.name().equals(node.getNodeType()))
 					definitionNodesList.add(map);
-				} else if (StringUtils.isNotBlank(node.getNodeType())
-						&& (node.getNodeType().equals(SystemNodeTypes.DATA_NODE.name())
-								|| node.getNodeType().equals(SystemNodeTypes.SEQUENCE.name()))) {
-					map.put("metadata", node.getMetadata());
+				else
 					dataNodesList.add(map);
-				}
 			}
 		}
 		if (relations != null) {
-			for (Relation relation : relations) {
-				Map<String, Object> map = new HashMap<String, Object>();
-				map.put("startNode", relation.getStartNodeId());
-				map.put("endNode", relation.getEndNodeId());
-				map.put("type", relation.getRelationType());
-				map.put("metadata", relation.getMetadata());
-				relationsList.add(map);
-			}
+			for (Relation relation : relations)
+				relationsList.add(getRelationMap(relation));
 		}
 		Map<String, Object> exportMap = new HashMap<String, Object>();
 		exportMap.put("definitionNodes", definitionNodesList);
@@ -137,4 +64,95 @@ public class JsonGraphWriter implements GraphWriter {
 		}
 	}
 
+	/**
+	 * @return the export map of a definition, data or sequence node, null for
+	 *         other nodes
+	 */
+	@SuppressWarnings("unchecked")
+	Map<String, Object> getNodeMap(Node node) {
+		Map<String, Object> map = new HashMap<String, Object>();
+		map.put("uniqueId", node.getIdentifier());
+		map.put("nodeType", node.getNodeType());
+		map.put("objectType", node.getObjectType());
+		if (StringUtils.isNotBlank(node.getNodeType())
+				&& node.getNodeType().equals(SystemNodeTypes.DEFINITION_NODE.name())) {
+			Map<String, Object> metadata = mapper.convertValue(node.getMetadata(), Map.class);
+			List<MetadataDefinition> indexedMetadata = new ArrayList<MetadataDefinition>();
+			if (StringUtils.isNotBlank((String) metadata.get(DefinitionNode.INDEXABLE_METADATA_KEY))) {
+				String metaList = (String) metadata.get(DefinitionNode.INDEXABLE_METADATA_KEY);
+				try {
+					List<Map<String, Object>> listMap = (List<Map<String, Object>>) mapper.readValue(metaList,
+							List.class);
+					for (Map<String, Object> metaMap : listMap) {
+						indexedMetadata.add(
+								(MetadataDefinition) mapper.convertValue(metaMap, MetadataDefinition.class));
+					}
+				} catch (Exception e) {
+				}
+			}
+			map.put("indexedMetadata", indexedMetadata);
+
+			List<MetadataDefinition> nonIndexedMetadata = new ArrayList<MetadataDefinition>();
+			if (StringUtils.isNotBlank((String) metadata.get(DefinitionNode.NON_INDEXABLE_METADATA_KEY))) {
+				String metaList = (String) metadata.get(DefinitionNode.NON_INDEXABLE_METADATA_KEY);
+				try {
+					List<Map<String, Object>> listMap = (List<Map<String, Object>>) mapper.readValue(metaList,
+							List.class);
+					for (Map<String, Object> metaMap : listMap) {
+						nonIndexedMetadata.add(
+								(MetadataDefinition) mapper.convertValue(metaMap, MetadataDefinition.class));
+					}
+				} catch (Exception e) {
+				}
+			}
+			map.put("nonIndexedMetadata", nonIndexedMetadata);
+
+			List<RelationDefinition> inRelationMetadata = new ArrayList<RelationDefinition>();
+			if (StringUtils.isNotBlank((String) metadata.get(DefinitionNode.IN_RELATIONS_KEY))) {
+				String inRelList = (String) metadata.get(DefinitionNode.IN_RELATIONS_KEY);
+				try {
+					List<Map<String, Object>> listMap = (List<Map<String, Object>>) mapper.readValue(inRelList,
+							List.class);
+					for (Map<String, Object> metaMap : listMap) {
+						inRelationMetadata.add(
+								(RelationDefinition) mapper.convertValue(metaMap, RelationDefinition.class));
+					}
+				} catch (Exception e) {
+				}
+			}
+			map.put("inRelations", inRelationMetadata);
+
+			List<RelationDefinition> outRelationMetadata = new ArrayList<RelationDefinition>();
+			if (StringUtils.isNotBlank((String) metadata.get(DefinitionNode.OUT_RELATIONS_KEY))) {
+				String outRelList = (String) metadata.get(DefinitionNode.OUT_RELATIONS_KEY);
+				try {
+					List<Map<String, Object>> listMap = (List<Map<String, Object>>) mapper.readValue(outRelList,
+							List.class);
+					for (Map<String, Object> metaMap : listMap) {
+						outRelationMetadata.add(
+								(RelationDefinition) mapper.convertValue(metaMap, RelationDefinition.class));
+					}
+				} catch (Exception e) {
+				}
+			}
+			map.put("outRelations", outRelationMetadata);
+			return map;
+		} else if (StringUtils.isNotBlank(node.getNodeType())
+				&& (node.getNodeType().equals(SystemNodeTypes.DATA_NODE.name())
+						|| node.getNodeType().equals(SystemNodeTypes.SEQUENCE.name()))) {
+			map.put("metadata", node.getMetadata());
+			return map;
+		}
+		return null;
+	}
+
+	Map<String, Object> getRelationMap(Relation relation) {
+		Map<String, Object> map = new HashMap<String, Object>();
+		map.put("startNode", relation.getStartNodeId());
+		map.put("endNode", relation.getEndNodeId());
+		map.put("type", relation.getRelationType());
+		map.put("metadata", relation.getMetadata());
+		return map;
+	}
+
 }
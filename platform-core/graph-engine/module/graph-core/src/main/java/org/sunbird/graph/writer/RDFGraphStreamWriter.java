@@ -0,0 +1,73 @@
+package org.sunbird.graph.writer;
+
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.sunbird.graph.dac.model.Node;
+import org.sunbird.graph.dac.model.Relation;
+import org.openrdf.model.URI;
+import org.openrdf.rio.RDFFormat;
+import org.openrdf.rio.RDFWriter;
+import org.openrdf.rio.Rio;
+
+/**
+ * Streaming counterpart of {@link RDFGraphWriter}, writing the statements of
+ * each node and relation to the output stream as they are read. The URI cache
+ * is cleared every URI_CACHE_SIZE entries so that it does not grow with the
+ * graph.
+ */
+public class RDFGraphStreamWriter extends RDFGraphWriter implements GraphStreamWriter {
+
+	private static final int URI_CACHE_SIZE = 10000;
+
+	private OutputStream outputStream;
+	private RDFWriter writer;
+	private Map<Object, URI> uriCache = new HashMap<Object, URI>();
+
+	public RDFGraphStreamWriter(OutputStream outputStream) {
+		super();
+		this.outputStream = outputStream;
+	}
+
+	@Override
+	public List<String> getNodeTypes() {
+		return null;
+	}
+
+	@Override
+	public boolean writesRelations() {
+		return true;
+	}
+
+	@Override
+	public void start(List<String> metadataKeys, List<String> relationTypes) throws Exception {
+		RDFFormat format = Rio.getWriterFormatForMIMEType(MIME_RDFXML, RDFFormat.RDFXML);
+		writer = Rio.createWriter(format, outputStream);
+		writer.startRDF();
+		for (String prefix : namespaceMap.keySet()) {
+			writer.handleNamespace(prefix, namespaceMap.get(prefix) + "#");
+		}
+	}
+
+	@Override
+	public void writeNode(Node node) throws Exception {
+		if (uriCache.size() > URI_CACHE_SIZE)
+			uriCache.clear();
+		handleNode(writer, node, uriCache);
+	}
+
+	@Override
+	public void writeRelation(Relation relation) throws Exception {
+		if (uriCache.size() > URI_CACHE_SIZE)
+			uriCache.clear();
+		handleRelation(writer, relation, uriCache);
+	}
+
+	@Override
+	public void end() throws Exception {
+		writer.endRDF();
+		outputStream.flush();
+	}
+}
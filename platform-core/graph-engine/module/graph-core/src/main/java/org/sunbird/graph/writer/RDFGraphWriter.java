@@ -24,6 +24,7 @@ import org.openrdf.model.impl.StatementImpl;
 import org.openrdf.model.impl.URIImpl;
 import org.openrdf.model.vocabulary.OWL;
 import org.openrdf.rio.RDFFormat;
+import org.openrdf.rio.RDFHandlerException;
 import org.openrdf.rio.RDFWriter;
 import org.openrdf.rio.Rio;
 
@@ -194,95 +195,108 @@ public class RDFGraphWriter implements GraphWriter {
 			writer.handleNamespace(prefix, namespaceMap.get(prefix) + "#");
 		}
 
-		for (Node node : nodes) {
-			URI subject = getUri(node, uriCache);
-
-			String idval = node.getIdentifier();
-			URI idPredicate = getUri(PROPERTY_ID, uriCache);
-			Value idObject = new LiteralImpl(idval);
-			Statement st = new StatementImpl(subject, idPredicate, idObject);
-			writer.handleStatement(st);
-			Statement nodeTypeSt = new StatementImpl(subject, getUri(PROPERTY_NODE_TYPE, uriCache),
-					new LiteralImpl(node.getNodeType()));
-			writer.handleStatement(nodeTypeSt);
-			if (StringUtils.isNotBlank(node.getObjectType())) {
-				Statement objTypeSt = new StatementImpl(subject, getUri(PROPERTY_OBJECT_TYPE, uriCache),
-						new LiteralImpl(node.getObjectType()));
-				writer.handleStatement(objTypeSt);
-			}
+		for (Node node : nodes)
+			handleNode(writer, node, uriCache);
 
-			if (SystemNodeTypes.DEFINITION_NODE.name().equals(node.getNodeType())) {
-				if (null != node.getMetadata().get("INDEXABLE_METADATA_KEY")) {
-					URI predIndMeta = getUri("indexedMetadata", uriCache);
-					Value indMeta = new LiteralImpl(node.getMetadata().get("INDEXABLE_METADATA_KEY").toString());
-					Statement stIndMeta = new StatementImpl(subject, predIndMeta, indMeta);
-					writer.handleStatement(stIndMeta);
-				}
-				if (null != node.getMetadata().get("NON_INDEXABLE_METADATA_KEY")) {
-					URI preNonIndMeta = getUri("nonIndexedMetadata", uriCache);
-					Value nonIndMeta = new LiteralImpl(node.getMetadata().get("NON_INDEXABLE_METADATA_KEY").toString());
-					Statement stNonIndMeta = new StatementImpl(subject, preNonIndMeta, nonIndMeta);
-					writer.handleStatement(stNonIndMeta);
-				}
+		for (Relation relation : relations)
+			handleRelation(writer, relation, uriCache);
 
-				if (null != node.getMetadata().get("IN_RELATIONS_KEY")) {
-					URI preInRelMeta = getUri("inRelations", uriCache);
-					Value inRelMeta = new LiteralImpl(node.getMetadata().get("IN_RELATIONS_KEY").toString());
-					Statement stInRelMeta = new StatementImpl(subject, preInRelMeta, inRelMeta);
-					writer.handleStatement(stInRelMeta);
-				}
+		writer.endRDF();
 
-				if (null != node.getMetadata().get("OUT_RELATIONS_KEY")) {
-					URI preOutRelMeta = getUri("outRelations", uriCache);
-					Value outRelMeta = new LiteralImpl(node.getMetadata().get("OUT_RELATIONS_KEY").toString());
-					Statement stOutRelMeta = new StatementImpl(subject, preOutRelMeta, outRelMeta);
-					writer.handleStatement(stOutRelMeta);
-				}
+		try (OutputStream outputStream = new ByteArrayOutputStream()) {
+			outputStream.write(out.toString().getBytes());
+			return outputStream;
+		}
+	}
 
-			} else if (!SystemNodeTypes.DEFINITION_NODE.name().equals(node.getNodeType())
-					&& !SystemNodeTypes.ROOT_NODE.name().equals(node.getNodeType())) {
-				// Serialize all properties as RDF statements
-				for (Entry<String, Object> entry : node.getMetadata().entrySet()) {
-					Object val = entry.getValue();
-					URI predicate = getUri(entry.getKey(), uriCache);
-					Value object = new LiteralImpl(val.toString());
-					Statement stMeta = new StatementImpl(subject, predicate, object);
-					writer.handleStatement(stMeta);
-				}
-			}
+	/**
+	 * Writes the statements of the node.
+	 */
+	protected void handleNode(RDFWriter writer, Node node, Map<Object, URI> uriCache)
+			throws RDFHandlerException {
+		URI subject = getUri(node, uriCache);
 
+		String idval = node.getIdentifier();
+		URI idPredicate = getUri(PROPERTY_ID, uriCache);
+		Value idObject = new LiteralImpl(idval);
+		Statement st = new StatementImpl(subject, idPredicate, idObject);
+		writer.handleStatement(st);
+		Statement nodeTypeSt = new StatementImpl(subject, getUri(PROPERTY_NODE_TYPE, uriCache),
+				new LiteralImpl(node.getNodeType()));
+		writer.handleStatement(nodeTypeSt);
+		if (StringUtils.isNotBlank(node.getObjectType())) {
+			Statement objTypeSt = new StatementImpl(subject, getUri(PROPERTY_OBJECT_TYPE, uriCache),
+					new LiteralImpl(node.getObjectType()));
+			writer.handleStatement(objTypeSt);
 		}
 
-		for (Relation relation : relations) {
-			URI subject = getUri(relation, uriCache);
+		if (SystemNodeTypes.DEFINITION_NODE.name().equals(node.getNodeType())) {
+			if (null != node.getMetadata().get("INDEXABLE_METADATA_KEY")) {
+				URI predIndMeta = getUri("indexedMetadata", uriCache);
+				Value indMeta = new LiteralImpl(node.getMetadata().get("INDEXABLE_METADATA_KEY").toString());
+				Statement stIndMeta = new StatementImpl(subject, predIndMeta, indMeta);
+				writer.handleStatement(stIndMeta);
+			}
+			if (null != node.getMetadata().get("NON_INDEXABLE_METADATA_KEY")) {
+				URI preNonIndMeta = getUri("nonIndexedMetadata", uriCache);
+				Value nonIndMeta = new LiteralImpl(node.getMetadata().get("NON_INDEXABLE_METADATA_KEY").toString());
+				Statement stNonIndMeta = new StatementImpl(subject, preNonIndMeta, nonIndMeta);
+				writer.handleStatement(stNonIndMeta);
+			}
 
-			if (null != relation.getMetadata()) {
-				for (Entry<String, Object> entry : relation.getMetadata().entrySet()) {
-					URI relPredicate = getUri(entry.getKey(), uriCache);
-					Value relObject = new LiteralImpl(entry.getValue().toString());
-					writer.handleStatement(new StatementImpl(subject, relPredicate, relObject));
-				}
+			if (null != node.getMetadata().get("IN_RELATIONS_KEY")) {
+				URI preInRelMeta = getUri("inRelations", uriCache);
+				Value inRelMeta = new LiteralImpl(node.getMetadata().get("IN_RELATIONS_KEY").toString());
+				Statement stInRelMeta = new StatementImpl(subject, preInRelMeta, inRelMeta);
+				writer.handleStatement(stInRelMeta);
 			}
 
-			URI relEnd = getUri(relation.getEndNodeId(), uriCache);
-			URI relPredicate = getUri(PROPERTY_RELATION_END, uriCache);
-			writer.handleStatement(new StatementImpl(subject, relPredicate, relEnd));
+			if (null != node.getMetadata().get("OUT_RELATIONS_KEY")) {
+				URI preOutRelMeta = getUri("outRelations", uriCache);
+				Value outRelMeta = new LiteralImpl(node.getMetadata().get("OUT_RELATIONS_KEY").toString());
+				Statement stOutRelMeta = new StatementImpl(subject, preOutRelMeta, outRelMeta);
+				writer.handleStatement(stOutRelMeta);
+			}
 
-			URI relFrom = getUri(relation.getStartNodeId(), uriCache);
-			relPredicate = getUri(PROPERTY_RELATION_START, uriCache);
-			writer.handleStatement(new StatementImpl(subject, relPredicate, relFrom));
+		} else if (!SystemNodeTypes.DEFINITION_NODE.name().equals(node.getNodeType())
+				&& !SystemNodeTypes.ROOT_NODE.name().equals(node.getNodeType())) {
+			// Serialize all properties as RDF statements
+			for (Entry<String, Object> entry : node.getMetadata().entrySet()) {
+				Object val = entry.getValue();
+				URI predicate = getUri(entry.getKey(), uriCache);
+				Value object = new LiteralImpl(val.toString());
+				Statement stMeta = new StatementImpl(subject, predicate, object);
+				writer.handleStatement(stMeta);
+			}
+		}
+	}
 
-			Literal label = new LiteralImpl(relation.getRelationType());
-			relPredicate = getUri(PROPERTY_RELATION_TYPE, uriCache);
-			writer.handleStatement(new StatementImpl(subject, relPredicate, label));
+	/**
+	 * Writes the statements of the relation.
+	 */
+	protected void handleRelation(RDFWriter writer, Relation relation, Map<Object, URI> uriCache)
+			throws RDFHandlerException {
+		URI subject = getUri(relation, uriCache);
+
+		if (null != relation.getMetadata()) {
+			for (Entry<String, Object> entry : relation.getMetadata().entrySet()) {
+				URI relPredicate = getUri(entry.getKey(), uriCache);
+				Value relObject = new LiteralImpl(entry.getValue().toString());
+				writer.handleStatement(new StatementImpl(subject, relPredicate, relObject));
+			}
 		}
 
-		writer.endRDF();
+		URI relEnd = getUri(relation.getEndNodeId(), uriCache);
+		URI relPredicate = getUri(PROPERTY_RELATION_END, uriCache);
+		writer.handleStatement(new StatementImpl(subject, relPredicate, relEnd));
 
-		try (OutputStream outputStream = new ByteArrayOutputStream()) {
-			outputStream.write(out.toString().getBytes());
-			return outputStream;
-		}
+		URI relFrom = getUri(relation.getStartNodeId(), uriCache);
+		relPredicate = getUri(PROPERTY_RELATION_START, uriCache);
+		writer.handleStatement(new StatementImpl(subject, relPredicate, relFrom));
+
+		Literal label = new LiteralImpl(relation.getRelationType());
+		relPredicate = getUri(PROPERTY_RELATION_TYPE, uriCache);
+		writer.handleStatement(new StatementImpl(subject, relPredicate, label));
 	}
 
 	/**
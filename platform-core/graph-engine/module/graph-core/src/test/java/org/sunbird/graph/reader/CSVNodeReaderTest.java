@@ -0,0 +1,110 @@
+package org.sunbird.graph.reader;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.sunbird.common.exception.ClientException;
+import org.sunbird.graph.dac.model.Node;
+import org.sunbird.graph.dac.model.Relation;
+import org.sunbird.graph.model.node.MetadataDefinition;
+
+public class CSVNodeReaderTest {
+
+	@Test
+	public void testQuotedValues() throws Exception {
+		String csv = "identifier,objectType,name,description\n"
+				+ "do_1,Content,\"Addition, Basic\",\"He said \"\"hi\"\"\n on two lines\"\n";
+		try (CSVNodeReader reader = getReader(csv, null)) {
+			Node node = reader.next();
+			Assert.assertEquals("do_1", node.getIdentifier());
+			Assert.assertEquals("Content", node.getObjectType());
+			Assert.assertEquals("Addition, Basic", node.getMetadata().get("name"));
+			Assert.assertEquals("He said \"hi\"\n on two lines", node.getMetadata().get("description"));
+			Assert.assertFalse(reader.hasNext());
+		}
+	}
+
+	@Test
+	public void testRelations() throws Exception {
+		String csv = "identifier,objectType,rel:hasSequenceMember,rel:associatedTo\n"
+				+ "do_1,Content,\"do_2, do_3\",\n"
+				+ "do_2,Content,,do_1\n";
+		try (CSVNodeReader reader = getReader(csv, null)) {
+			List<Relation> relations = reader.next().getOutRelations();
+			Assert.assertEquals(2, relations.size());
+			for (Relation relation : relations) {
+				Assert.assertEquals("do_1", relation.getStartNodeId());
+				Assert.assertEquals("hasSequenceMember", relation.getRelationType());
+			}
+			relations = reader.next().getOutRelations();
+			Assert.assertEquals(1, relations.size());
+			Assert.assertEquals("associatedTo", relations.get(0).getRelationType());
+			Assert.assertEquals("do_1", relations.get(0).getEndNodeId());
+		}
+	}
+
+	@Test
+	public void testTagsAreNotMetadata() throws Exception {
+		String csv = "identifier,objectType,tags,name\n" + "do_1,Content,maths::grade 1,Addition\n";
+		try (CSVNodeReader reader = getReader(csv, null)) {
+			Node node = reader.next();
+			Assert.assertFalse(node.getMetadata().containsKey("tags"));
+			Assert.assertEquals("Addition", node.getMetadata().get("name"));
+			Assert.assertNull(node.getOutRelations());
+		}
+	}
+
+	@Test
+	public void testListAndTypedProperties() throws Exception {
+		Map<String, MetadataDefinition> definitions = new HashMap<>();
+		definitions.put("keywords", getDefinition("keywords", "list"));
+		definitions.put("size", getDefinition("size", "number"));
+		Map<String, Map<String, MetadataDefinition>> propertyDataMap = new HashMap<>();
+		propertyDataMap.put("Content", definitions);
+		String csv = "identifier,objectType,keywords,size\n" + "do_1,Content,a :: b,12\n";
+		try (CSVNodeReader reader = getReader(csv, propertyDataMap)) {
+			Map<String, Object> metadata = reader.next().getMetadata();
+			Assert.assertArrayEquals(new String[] { "a", "b" }, (String[]) metadata.get("keywords"));
+			Assert.assertEquals(12.0, metadata.get("size"));
+		}
+	}
+
+	@Test
+	public void testRowWithoutIdentifierFailsAlone() throws Exception {
+		String csv = "identifier,objectType\n" + ",Content\n" + "do_2,Content\n";
+		try (CSVNodeReader reader = getReader(csv, null)) {
+			try {
+				reader.next();
+				Assert.fail("The row without identifier should fail.");
+			} catch (ClientException e) {
+				Assert.assertEquals("ERR_GRAPH_IMPORT_MISSING_REQ_COLUMN_DATA", e.getErrCode());
+				// rows are numbered after the header, as in the import messages.
+				Assert.assertTrue(e.getMessage().contains("row[1]"));
+			}
+			Assert.assertEquals("do_2", reader.next().getIdentifier());
+		}
+	}
+
+	@Test(expected = ClientException.class)
+	public void testMissingRequiredColumns() throws Exception {
+		getReader("identifier,name\n" + "do_1,Addition\n", null);
+	}
+
+	private CSVNodeReader getReader(String csv, Map<String, Map<String, MetadataDefinition>> propertyDataMap)
+			throws Exception {
+		return new CSVNodeReader("domain", new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+				propertyDataMap);
+	}
+
+	private MetadataDefinition getDefinition(String name, String dataType) {
+		MetadataDefinition definition = new MetadataDefinition();
+		definition.setPropertyName(name);
+		definition.setDataType(dataType);
+		return definition;
+	}
+}
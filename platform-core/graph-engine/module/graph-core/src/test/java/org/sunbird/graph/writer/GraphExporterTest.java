@@ -0,0 +1,186 @@
+package org.sunbird.graph.writer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.sunbird.common.dto.Request;
+import org.sunbird.common.dto.Response;
+import org.sunbird.common.dto.ResponseParams;
+import org.sunbird.common.dto.ResponseParams.StatusType;
+import org.sunbird.graph.dac.enums.GraphDACParams;
+import org.sunbird.graph.dac.enums.SystemNodeTypes;
+import org.sunbird.graph.dac.mgr.IGraphDACSearchMgr;
+import org.sunbird.graph.dac.model.Node;
+import org.sunbird.graph.dac.model.Relation;
+
+public class GraphExporterTest {
+
+	private List<Node> graph = new ArrayList<>();
+	private List<String> afterIds = new ArrayList<>();
+	private IGraphDACSearchMgr searchMgr;
+
+	@Before
+	public void setup() {
+		graph.add(getNode("def_content", SystemNodeTypes.DEFINITION_NODE.name(), "Content"));
+		for (int i = 1; i <= 5; i++)
+			graph.add(getNode("do_" + i, SystemNodeTypes.DATA_NODE.name(), (i <= 3) ? "Content" : "Concept"));
+		graph.get(1).setOutRelations(Arrays.asList(new Relation("do_1", "associatedTo", "do_2")));
+		searchMgr = (IGraphDACSearchMgr) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { IGraphDACSearchMgr.class }, (proxy, method, args) -> {
+					Request request = (Request) args[0];
+					if ("getNodesPage".equals(method.getName()))
+						return getNodesPage(request);
+					if ("getNodesSummary".equals(method.getName()))
+						return getNodesSummary(request);
+					throw new UnsupportedOperationException(method.getName());
+				});
+	}
+
+	@Test
+	public void testPagesFollowTheLastIdentifier() throws Exception {
+		String csv = export(new GraphExporter(searchMgr, "domain", "CSV").pageSize(2));
+		Assert.assertEquals(Arrays.asList("do_1", "do_2", "do_3", "do_4", "do_5"), getIdentifiers(csv));
+		Assert.assertEquals(Arrays.asList(null, "do_2", "do_4"), afterIds);
+	}
+
+	@Test
+	public void testFullLastPageReadsOneMorePage() throws Exception {
+		String csv = export(new GraphExporter(searchMgr, "domain", "CSV").pageSize(5));
+		Assert.assertEquals(5, getIdentifiers(csv).size());
+		// the last page is full, so an empty page after do_5 ends the read.
+		Assert.assertEquals(Arrays.asList(null, "do_5"), afterIds);
+	}
+
+	@Test
+	public void testObjectTypeFilter() throws Exception {
+		String csv = export(new GraphExporter(searchMgr, "domain", "CSV").pageSize(1)
+				.objectTypes(Collections.singletonList("Concept")));
+		Assert.assertEquals(Arrays.asList("do_4", "do_5"), getIdentifiers(csv));
+	}
+
+	@Test
+	public void testGzip() throws Exception {
+		String csv = export(new GraphExporter(searchMgr, "domain", "CSV").pageSize(2));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new GraphExporter(searchMgr, "domain", "CSV").pageSize(2).gzip(true).export(out);
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+			Assert.assertEquals(csv, IOUtils.toString(in, StandardCharsets.UTF_8));
+		}
+	}
+
+	@Test
+	public void testJsonWritesNodesThenRelations() throws Exception {
+		GraphExporter exporter = new GraphExporter(searchMgr, "domain", "JSON").pageSize(2).exportId("test_export");
+		String json = export(exporter);
+		Assert.assertTrue(json.indexOf("\"definitionNodes\"") < json.indexOf("\"nodes\""));
+		Assert.assertTrue(json.contains("\"numberOfNodes\":5"));
+		Assert.assertTrue(json.contains("\"numberOfRelations\":1"));
+		ExportProgress progress = GraphExporter.getProgress("test_export");
+		Assert.assertSame(exporter.getProgress(), progress);
+		Assert.assertEquals(ExportProgress.Status.COMPLETED, progress.getStatus());
+		Assert.assertEquals(1, progress.getRelationsWritten());
+	}
+
+	@Test
+	public void testExportAsyncHandsOutTheFileOnce() throws Exception {
+		File file = File.createTempFile("graph_export_test", ".csv");
+		ExportProgress progress = new GraphExporter(searchMgr, "domain", "CSV").pageSize(2).exportId("test_async")
+				.exportAsync(file);
+		Assert.assertSame(progress, GraphExporter.getProgress("test_async"));
+		long timeout = System.currentTimeMillis() + 10000;
+		while (ExportProgress.Status.COMPLETED != progress.getStatus() && System.currentTimeMillis() < timeout)
+			Thread.sleep(10);
+		Assert.assertEquals(file, GraphExporter.takeFile("test_async"));
+		Assert.assertNull(GraphExporter.takeFile("test_async"));
+		String csv = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+		Assert.assertEquals(Arrays.asList("do_1", "do_2", "do_3", "do_4", "do_5"), getIdentifiers(csv));
+		file.delete();
+	}
+
+	@Test
+	public void testFailedExportAsyncDeletesTheFile() throws Exception {
+		File file = File.createTempFile("graph_export_test", ".csv");
+		ExportProgress progress = new GraphExporter(searchMgr, "domain", "UNKNOWN").exportId("test_async_failed")
+				.exportAsync(file);
+		long timeout = System.currentTimeMillis() + 10000;
+		while (ExportProgress.Status.FAILED != progress.getStatus() && System.currentTimeMillis() < timeout)
+			Thread.sleep(10);
+		Assert.assertNull(GraphExporter.takeFile("test_async_failed"));
+		while (file.exists() && System.currentTimeMillis() < timeout)
+			Thread.sleep(10);
+		Assert.assertFalse(file.exists());
+	}
+
+	private String export(GraphExporter exporter) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		exporter.export(out);
+		return new String(out.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	private List<String> getIdentifiers(String csv) {
+		return Arrays.stream(csv.split("\n")).skip(1).map(row -> row.split(",")[0]).collect(Collectors.toList());
+	}
+
+	@SuppressWarnings("unchecked")
+	private Response getNodesPage(Request request) {
+		String afterId = (String) request.get(GraphDACParams.afterId.name());
+		afterIds.add(afterId);
+		int pageSize = (Integer) request.get(GraphDACParams.pageSize.name());
+		List<Node> page = getNodes(request).stream()
+				.filter(node -> null == afterId || node.getIdentifier().compareTo(afterId) > 0).limit(pageSize)
+				.collect(Collectors.toList());
+		return getResponse(GraphDACParams.node_list.name(), page);
+	}
+
+	private Response getNodesSummary(Request request) {
+		afterIds.clear();
+		Response response = getResponse(GraphDACParams.count.name(), (long) getNodes(request).size());
+		response.put(GraphDACParams.keys.name(), Arrays.asList("name"));
+		response.put("relationTypes", Arrays.asList("associatedTo"));
+		return response;
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<Node> getNodes(Request request) {
+		List<String> nodeTypes = (List<String>) request.get(GraphDACParams.nodeType.name());
+		List<String> objectTypes = (List<String>) request.get(GraphDACParams.objectType.name());
+		return graph.stream().filter(node -> null == nodeTypes || nodeTypes.contains(node.getNodeType()))
+				.filter(node -> null == objectTypes || objectTypes.contains(node.getObjectType()))
+				.collect(Collectors.toList());
+	}
+
+	private Response getResponse(String key, Object value) {
+		Response response = new Response();
+		ResponseParams params = new ResponseParams();
+		params.setStatus(StatusType.successful.name());
+		response.setParams(params);
+		response.put(key, value);
+		return response;
+	}
+
+	private Node getNode(String identifier, String nodeType, String objectType) {
+		Map<String, Object> metadata = new HashMap<>();
+		metadata.put("name", "Node " + identifier);
+		Node node = new Node("domain", metadata);
+		node.setIdentifier(identifier);
+		node.setNodeType(nodeType);
+		node.setObjectType(objectType);
+		return node;
+	}
+}
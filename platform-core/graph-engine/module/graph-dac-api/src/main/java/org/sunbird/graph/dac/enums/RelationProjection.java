@@ -0,0 +1,14 @@
+package org.sunbird.graph.dac.enums;
+
+/**
+ * How much of the relations of each node a node search returns.
+ */
+public enum RelationProjection {
+
+    /** relations with the metadata of the nodes at both ends. */
+    ALL,
+    /** relation id, type and the identifiers of the nodes at both ends. */
+    IDS,
+    /** no relations. */
+    NONE;
+}
@@ -0,0 +1,163 @@
+package org.sunbird.graph.dac.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+import org.sunbird.common.Platform;
+import org.sunbird.common.dto.Request;
+import org.sunbird.graph.dac.enums.SystemProperties;
+import org.sunbird.graph.service.operation.Neo4JBoltSearchOperations;
+import org.sunbird.telemetry.logger.TelemetryManager;
+import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.Value;
+
+/**
+ * Builds the paths of a traversal result.
+ *
+ * The records are added first, collecting the distinct node and relation ids
+ * of all the paths; the nodes and relations are then loaded with one batch
+ * query each (per graph.traversal.batch_size ids) and shared between the paths
+ * they appear in. In ids only mode nothing is loaded: nodes are built from the
+ * path records and relations carry only their type and end node identifiers.
+ */
+class PathHydrator {
+
+	private static final int BATCH_SIZE = Platform.config.hasPath("graph.traversal.batch_size")
+			? Platform.config.getInt("graph.traversal.batch_size") : 1000;
+
+	private final String graphId;
+	private final boolean idsOnly;
+	private final List<Record> records = new ArrayList<Record>();
+	private final Map<Long, org.neo4j.driver.v1.types.Node> dbNodes = new HashMap<Long, org.neo4j.driver.v1.types.Node>();
+	private final Set<Long> relationIds = new LinkedHashSet<Long>();
+
+	private Map<Long, Node> nodes;
+	private Map<Long, Relation> relations;
+
+	PathHydrator(String graphId, boolean idsOnly) {
+		this.graphId = graphId;
+		this.idsOnly = idsOnly;
+	}
+
+	void add(Record record) {
+		records.add(record);
+		addNode(record.get("startNode"));
+		addNode(record.get("endNode"));
+		Value nodesVal = record.get("nodes");
+		if (null != nodesVal && !nodesVal.isNull()) {
+			for (Object obj : nodesVal.asList())
+				addNode((org.neo4j.driver.v1.types.Node) obj);
+		}
+		Value relationsVal = record.get("relations");
+		if (null != relationsVal && !relationsVal.isNull()) {
+			for (Object obj : relationsVal.asList())
+				relationIds.add(((org.neo4j.driver.v1.types.Relationship) obj).id());
+		}
+	}
+
+	List<Path> getPaths() {
+		hydrate();
+		List<Path> paths = new ArrayList<Path>(records.size());
+		for (Record record : records)
+			paths.add(getPath(record));
+		return paths;
+	}
+
+	private void hydrate() {
+		nodes = new HashMap<Long, Node>();
+		relations = new HashMap<Long, Relation>();
+		if (idsOnly) {
+			for (org.neo4j.driver.v1.types.Node dbNode : dbNodes.values())
+				nodes.put(dbNode.id(), new Node(graphId, dbNode, null, null, null));
+			return;
+		}
+		Request request = new Request();
+		for (List<Long> batch : getBatches(dbNodes.keySet()))
+			nodes.putAll(Neo4JBoltSearchOperations.getNodesByIds(graphId, batch, request));
+		for (List<Long> batch : getBatches(relationIds))
+			relations.putAll(Neo4JBoltSearchOperations.getRelationsByIds(graphId, batch, request));
+		TelemetryManager.log("Hydrated traversal of " + records.size() + " paths with " + nodes.size() + " nodes and "
+				+ relations.size() + " relations.");
+	}
+
+	private Path getPath(Record record) {
+		Path path = new Path(graphId);
+		path.setStartNode(getNode(record.get("startNode")));
+		path.setEndNode(getNode(record.get("endNode")));
+		Value nodesVal = record.get("nodes");
+		if (null != nodesVal && !nodesVal.isNull()) {
+			List<Node> pathNodes = new ArrayList<Node>();
+			for (Object obj : nodesVal.asList()) {
+				Node node = nodes.get(((org.neo4j.driver.v1.types.Node) obj).id());
+				if (null != node)
+					pathNodes.add(node);
+			}
+			path.setNodes(pathNodes);
+		}
+		Value relationsVal = record.get("relations");
+		if (null != relationsVal && !relationsVal.isNull()) {
+			List<Relation> pathRelations = new ArrayList<Relation>();
+			for (Object obj : relationsVal.asList()) {
+				Relation relation = getRelation((org.neo4j.driver.v1.types.Relationship) obj);
+				if (null != relation)
+					pathRelations.add(relation);
+			}
+			path.setRelations(pathRelations);
+		}
+		return path;
+	}
+
+	private Node getNode(Value value) {
+		if (null != value && StringUtils.equalsIgnoreCase("NODE", value.type().name()))
+			return nodes.get(value.asNode().id());
+		return null;
+	}
+
+	private Relation getRelation(org.neo4j.driver.v1.types.Relationship dbRelation) {
+		if (!idsOnly)
+			return relations.get(dbRelation.id());
+		return relations.computeIfAbsent(dbRelation.id(), id -> {
+			Relation relation = new Relation(getIdentifier(dbRelation.startNodeId()), dbRelation.type(),
+					getIdentifier(dbRelation.endNodeId()));
+			relation.setId(id);
+			relation.setGraphId(graphId);
+			return relation;
+		});
+	}
+
+	private String getIdentifier(long nodeId) {
+		org.neo4j.driver.v1.types.Node dbNode = dbNodes.get(nodeId);
+		if (null == dbNode || !dbNode.containsKey(SystemProperties.IL_UNIQUE_ID.name()))
+			return null;
+		return dbNode.get(SystemProperties.IL_UNIQUE_ID.name()).asString();
+	}
+
+	private void addNode(Value value) {
+		if (null != value && StringUtils.equalsIgnoreCase("NODE", value.type().name()))
+			addNode(value.asNode());
+	}
+
+	private void addNode(org.neo4j.driver.v1.types.Node dbNode) {
+		dbNodes.putIfAbsent(dbNode.id(), dbNode);
+	}
+
+	private static List<List<Long>> getBatches(Set<Long> ids) {
+		List<List<Long>> batches = new ArrayList<List<Long>>();
+		List<Long> batch = new ArrayList<Long>();
+		for (Long id : ids) {
+			batch.add(id);
+			if (batch.size() >= BATCH_SIZE) {
+				batches.add(batch);
+				batch = new ArrayList<Long>();
+			}
+		}
+		if (!batch.isEmpty())
+			batches.add(batch);
+		return batches;
+	}
+}
@@ -9,6 +9,7 @@ import java.util.Map;
 
 import org.apache.commons.lang3.StringUtils;
 import org.codehaus.jackson.annotate.JsonIgnore;
+import org.sunbird.graph.dac.enums.RelationProjection;
 import org.sunbird.graph.dac.enums.SystemProperties;
 
 public class SearchCriteria implements Serializable {
@@ -25,6 +26,9 @@ public class SearchCriteria implements Serializable {
     private int startPosition = 0;
     private List<String> fields = new LinkedList<String>();
     private List<Sort> sortOrder = new LinkedList<Sort>();
+    private RelationProjection relationProjection;
+    private List<String> relationTypes;
+    private int relationLimit = 0;
 
     Map<String, Object> params = new HashMap<String, Object>();
     int pIndex = 1;
@@ -167,23 +171,9 @@ public class SearchCriteria implements Serializable {
         	boolean returnNode = true;
             if (null == fields || fields.isEmpty()) {
             	sb.append("WITH DISTINCT ee ");
-            	if (null != sortOrder && sortOrder.size() > 0) {
-                    sb.append("ORDER BY ");
-                    for (int i = 0; i < sortOrder.size(); i++) {
-                        Sort sort = sortOrder.get(i);
-                        sb.append("ee.").append(sort.getSortField()).append(" ");
-                        if (StringUtils.equals(Sort.SORT_DESC, sort.getSortOrder())) {
-                            sb.append("DESC ");
-                        }
-                        if (i < sortOrder.size() - 1)
-                            sb.append(", ");
-                    }
-                }
-            	if (startPosition > 0)
-                    sb.append("SKIP ").append(startPosition).append(" ");
-                if (resultSize > 0)
-                    sb.append("LIMIT ").append(resultSize).append(" ");
-                sb.append("OPTIONAL MATCH (ee)-[r]-() RETURN ee, r, startNode(r) as __startNode, endNode(r) as __endNode ");
+            	appendOrder(sb);
+            	appendPage(sb);
+            	appendRelations(sb);
             } else {
             	returnNode = false;
                 sb.append("RETURN ");
@@ -194,24 +184,8 @@ public class SearchCriteria implements Serializable {
                 }
             }
             if (!returnNode) {
-            	if (null != sortOrder && sortOrder.size() > 0) {
-                    sb.append("ORDER BY ");
-                    for (int i = 0; i < sortOrder.size(); i++) {
-                        Sort sort = sortOrder.get(i);
-                        sb.append("ee.").append(sort.getSortField()).append(" ");
-                        if (StringUtils.equals(Sort.SORT_DESC, sort.getSortOrder())) {
-                            sb.append("DESC ");
-                        }
-                        if (i < sortOrder.size() - 1)
-                            sb.append(", ");
-                    }
-                }
-            	if (startPosition > 0) {
-                    sb.append("SKIP ").append(startPosition).append(" ");
-                }
-                if (resultSize > 0) {
-                    sb.append("LIMIT ").append(resultSize).append(" ");
-                }
+            	appendOrder(sb);
+            	appendPage(sb);
             }
         } else {
             sb.append("RETURN count(ee) as __count");
@@ -219,6 +193,103 @@ public class SearchCriteria implements Serializable {
         return sb.toString();
     }
 
+    private void appendOrder(StringBuilder sb) {
+        if (null != sortOrder && sortOrder.size() > 0) {
+            sb.append("ORDER BY ");
+            for (int i = 0; i < sortOrder.size(); i++) {
+                Sort sort = sortOrder.get(i);
+                sb.append("ee.").append(sort.getSortField()).append(" ");
+                if (StringUtils.equals(Sort.SORT_DESC, sort.getSortOrder())) {
+                    sb.append("DESC ");
+                }
+                if (i < sortOrder.size() - 1)
+                    sb.append(", ");
+            }
+        }
+    }
+
+    /**
+     * Returns one row per node, with the outgoing and incoming relations
+     * collected into the __out and __in lists (each item has the relation and
+     * the node at the other end), instead of one row per relation.
+     */
+    private void appendRelations(StringBuilder sb) {
+        RelationProjection projection = getRelationProjection();
+        if (RelationProjection.NONE == projection) {
+            sb.append("RETURN ee ");
+            return;
+        }
+        if (null != relationTypes && !relationTypes.isEmpty())
+            params.put("relationTypes", relationTypes);
+        if (relationLimit > 0)
+            params.put("relationLimit", relationLimit);
+        appendRelationCollect(sb, projection, "(ee)-[r]->(__o)", "__o", "ee", "__out");
+        appendRelationCollect(sb, projection, "(ee)<-[r]-(__i)", "__i", "ee, __out", "__in");
+        sb.append("RETURN ee, __out, __in ");
+        // collect does not keep the row order.
+        appendOrder(sb);
+    }
+
+    private void appendRelationCollect(StringBuilder sb, RelationProjection projection, String pattern,
+            String otherNode, String carried, String alias) {
+        sb.append("OPTIONAL MATCH ").append(pattern).append(" ");
+        if (null != relationTypes && !relationTypes.isEmpty())
+            sb.append("WHERE type(r) IN {relationTypes} ");
+        sb.append("WITH ").append(carried).append(", collect(CASE WHEN r IS NULL THEN null ELSE ");
+        if (RelationProjection.IDS == projection)
+            sb.append("{id: id(r), type: type(r), node: ").append(otherNode).append(".")
+                    .append(SystemProperties.IL_UNIQUE_ID.name()).append("}");
+        else
+            sb.append("{rel: r, node: ").append(otherNode).append("}");
+        sb.append(" END)");
+        if (relationLimit > 0)
+            sb.append("[..{relationLimit}]");
+        sb.append(" AS ").append(alias).append(" ");
+    }
+
+    // skip and limit go in parameters too, so paging through results reuses one query plan.
+    private void appendPage(StringBuilder sb) {
+        if (startPosition > 0) {
+            sb.append("SKIP {skip} ");
+            params.put("skip", startPosition);
+        }
+        if (resultSize > 0) {
+            sb.append("LIMIT {limit} ");
+            params.put("limit", resultSize);
+        }
+    }
+
+    public RelationProjection getRelationProjection() {
+        return (null == relationProjection) ? RelationProjection.ALL : relationProjection;
+    }
+
+    public void setRelationProjection(RelationProjection relationProjection) {
+        this.relationProjection = relationProjection;
+    }
+
+    public List<String> getRelationTypes() {
+        return relationTypes;
+    }
+
+    /**
+     * Limits the relations returned with each node to these types.
+     */
+    public void setRelationTypes(List<String> relationTypes) {
+        this.relationTypes = relationTypes;
+    }
+
+    public int getRelationLimit() {
+        return relationLimit;
+    }
+
+    /**
+     * Limits the relations returned with each node to this many per direction,
+     * 0 (the default) returns all of them.
+     */
+    public void setRelationLimit(int relationLimit) {
+        this.relationLimit = relationLimit;
+    }
+
     public List<String> getFields() {
         return fields;
     }
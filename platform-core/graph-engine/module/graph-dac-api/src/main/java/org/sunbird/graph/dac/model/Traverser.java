@@ -6,16 +6,11 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import org.apache.commons.lang3.StringUtils;
-import org.sunbird.common.dto.Request;
 import org.sunbird.graph.service.common.GraphOperation;
-import org.sunbird.graph.service.operation.Neo4JBoltSearchOperations;
 import org.sunbird.graph.service.util.DriverUtil;
 import org.neo4j.driver.v1.Driver;
-import org.neo4j.driver.v1.Record;
 import org.neo4j.driver.v1.Session;
 import org.neo4j.driver.v1.StatementResult;
-import org.neo4j.driver.v1.Value;
 
 public class Traverser implements Serializable {
 
@@ -35,6 +30,7 @@ public class Traverser implements Serializable {
     private List<String> wordIds = new ArrayList<String>();
     private Map<String, String> relationMap = new HashMap<String, String>();
     private Map<String, Object> pathExpander = new HashMap<String, Object>();
+    private boolean idsOnly = false;
 
 	public Traverser(String graphId, String startNodeId) {
         this.graphId = graphId;
@@ -72,6 +68,16 @@ public class Traverser implements Serializable {
         return this;
     }
 
+    /**
+     * Returns the paths without loading their nodes and relations: nodes carry
+     * the properties in the traversal result, relations only their type and
+     * the identifiers of their end nodes.
+     */
+    public Traverser idsOnly(boolean idsOnly) {
+        this.idsOnly = idsOnly;
+        return this;
+    }
+
     public Traverser endNode(String nodeId) {
         this.endNodeIds.add(nodeId);
         return this;
@@ -93,10 +99,11 @@ public class Traverser implements Serializable {
         	String query = "CALL ekstep.procs.traverse";
         	Map<String, Object> params = getTraverserParams();
         	StatementResult result = session.run(query, params);
-        	for (Record record : result.list()) {
-				Path path = getPathObject(this.graphId, record);
-				subGraph.addPath(path);
-			}
+        	PathHydrator hydrator = new PathHydrator(this.graphId, this.idsOnly);
+        	while (result.hasNext())
+        		hydrator.add(result.next());
+        	for (Path path : hydrator.getPaths())
+        		subGraph.addPath(path);
         }
         return subGraph;
     }
@@ -111,8 +118,10 @@ public class Traverser implements Serializable {
         	List<Relation> relations = new ArrayList<Relation>();
         	Map<String, Object> params = getTraverserParams();
         	StatementResult result = session.run(query, params);
-        	for (Record record : result.list()) {
-				Path path = getPathObject(this.graphId, record);
+        	PathHydrator hydrator = new PathHydrator(this.graphId, this.idsOnly);
+        	while (result.hasNext())
+        		hydrator.add(result.next());
+        	for (Path path : hydrator.getPaths()) {
 				if (null != path.getNodes())
 					nodes.addAll(path.getNodes());
 				if (null != path.getRelations())
@@ -140,45 +149,6 @@ public class Traverser implements Serializable {
 		return params;
     }
     
-    private Path getPathObject(String graphId, Record record) {
-    	Request request = new Request();
-    	Value startNodeVal = record.get("startNode");
-    	Value endNodeVal = record.get("endNode");
-    	Value nodesVal = record.get("nodes");
-    	Value relationsVal = record.get("relations");
-    	Path path = new Path(graphId);
-    	if (null != startNodeVal && StringUtils.equalsIgnoreCase("NODE", startNodeVal.type().name())) {
-    		org.neo4j.driver.v1.types.Node node = startNodeVal.asNode();
-			Node startNode = Neo4JBoltSearchOperations.getNodeById(graphId, node.id(), true, request);
-    		path.setStartNode(startNode);
-    	}
-    	if (null != endNodeVal && StringUtils.equalsIgnoreCase("NODE", endNodeVal.type().name())) {
-    		org.neo4j.driver.v1.types.Node node = endNodeVal.asNode();
-			Node endNode = Neo4JBoltSearchOperations.getNodeById(graphId, node.id(), true, request);
-    		path.setEndNode(endNode);
-    	}
-    	if (null != nodesVal) {
-    		List<Object> list = nodesVal.asList();
-    		List<Node> nodes = new ArrayList<Node>();
-    		for (Object obj : list) {
-    			org.neo4j.driver.v1.types.Node node = (org.neo4j.driver.v1.types.Node) obj;
-				Node startNode = Neo4JBoltSearchOperations.getNodeById(graphId, node.id(), true, request);
-    			nodes.add(startNode);
-    		}
-    		path.setNodes(nodes);
-    	}
-    	if (null != relationsVal) {
-    		List<Object> list = relationsVal.asList();
-    		List<Relation> relations = new ArrayList<Relation>();
-    		for (Object obj : list) {
-    			org.neo4j.driver.v1.types.Relationship rel = (org.neo4j.driver.v1.types.Relationship) obj;
-				Relation relation = Neo4JBoltSearchOperations.getRelationById(graphId, rel.id(), request);
-    			relations.add(relation);
-    		}
-    		path.setRelations(relations);
-    	}
-    	return path;
-    }
 
 	public List<String> getUniqueness() {
 		return uniqueness;
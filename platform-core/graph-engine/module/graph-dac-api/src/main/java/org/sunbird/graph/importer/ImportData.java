@@ -1,6 +1,7 @@
 package org.sunbird.graph.importer;
 
 import java.io.Serializable;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -15,6 +16,7 @@ public class ImportData implements Serializable {
     private List<Node> dataNodes;
     private Map<String, List<String>> tagMembersMap;
     private List<Relation> relations;
+    private transient Iterator<Node> dataNodeIterator;
 
     public ImportData(List<Node> definitionNodes, List<Node> dataNodes, List<Relation> relations,
             Map<String, List<String>> tagMembersMap) {
@@ -24,6 +26,14 @@ public class ImportData implements Serializable {
         this.relations = relations;
     }
 
+    /**
+     * Import data that streams its data nodes. The nodes are read from the
+     * iterator as they are imported and are not held in memory.
+     */
+    public ImportData(Iterator<Node> dataNodeIterator) {
+        this.dataNodeIterator = dataNodeIterator;
+    }
+
     /**
      * @return the definitionNodes
      */
@@ -84,4 +94,11 @@ public class ImportData implements Serializable {
         this.tagMembersMap = tagMembersMap;
     }
 
+    /**
+     * @return the streamed data nodes, null if the data nodes are in the list
+     */
+    public Iterator<Node> getDataNodeIterator() {
+        return dataNodeIterator;
+    }
+
 }
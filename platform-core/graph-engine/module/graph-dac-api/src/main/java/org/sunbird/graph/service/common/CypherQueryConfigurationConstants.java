@@ -38,6 +38,10 @@ public class CypherQueryConfigurationConstants {
 
 	public final static String DEFAULT_CYPHER_COUNT_OBJECT = "__count";
 
+	public final static String DEFAULT_CYPHER_OUT_RELATIONS_OBJECT = "__out";
+
+	public final static String DEFAULT_CYPHER_IN_RELATIONS_OBJECT = "__in";
+
 	public final static String OPEN_SQUARE_BRACKETS = "[";
 
 	public final static String CLOSE_SQUARE_BRACKETS = "]";
@@ -0,0 +1,422 @@
+package org.sunbird.graph.service.operation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+import org.sunbird.common.Platform;
+import org.sunbird.graph.common.DateUtils;
+import org.sunbird.graph.dac.enums.AuditProperties;
+import org.sunbird.graph.dac.enums.GraphDACParams;
+import org.sunbird.graph.dac.enums.SystemProperties;
+import org.sunbird.graph.dac.model.Node;
+import org.sunbird.graph.dac.model.Relation;
+import org.sunbird.graph.service.common.GraphOperation;
+import org.sunbird.graph.service.util.DriverUtil;
+import org.sunbird.telemetry.logger.TelemetryManager;
+import org.neo4j.driver.v1.Driver;
+import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.Session;
+import org.neo4j.driver.v1.StatementResult;
+import org.neo4j.driver.v1.Transaction;
+import org.neo4j.driver.v1.summary.SummaryCounters;
+
+/**
+ * Imports a stream of data nodes in batches of graph.import.batch_size rows.
+ *
+ * Each batch is written in one transaction: one UNWIND query merges the nodes,
+ * one deletes the out relations that are not in the import any more and one
+ * per relation type merges the new relations. Relations whose end node is not
+ * in the graph yet are kept by end node and written with the batch that writes
+ * it, as the end node may come later in the stream. Beyond
+ * graph.import.pending_relations_limit such relations are spilled to a
+ * temporary file, and all the relations still pending are retried after the
+ * last batch.
+ *
+ * A batch that fails is written again one row per transaction, so that only
+ * the bad rows are reported.
+ */
+class BatchGraphImporter {
+
+	private static final int BATCH_SIZE = Platform.config.hasPath("graph.import.batch_size")
+			? Platform.config.getInt("graph.import.batch_size") : 1000;
+	private static final int PENDING_RELATIONS_LIMIT = Platform.config.hasPath("graph.import.pending_relations_limit")
+			? Platform.config.getInt("graph.import.pending_relations_limit") : 100000;
+
+	private final String graphId;
+	private final int batchSize;
+	private final Map<String, List<String>> messages = new LinkedHashMap<String, List<String>>();
+	private final int pendingRelationsLimit;
+	private final Map<String, List<Map<String, Object>>> pendingRelations = new HashMap<String, List<Map<String, Object>>>();
+	private int pendingCount;
+	private File spillFile;
+	private ObjectOutputStream spillStream;
+	private int spilledCount;
+	private int nodesCount;
+	private int relationsCount;
+
+	BatchGraphImporter(String graphId) {
+		this(graphId, BATCH_SIZE, PENDING_RELATIONS_LIMIT);
+	}
+
+	BatchGraphImporter(String graphId, int batchSize, int pendingRelationsLimit) {
+		this.graphId = graphId;
+		this.batchSize = Math.max(1, batchSize);
+		this.pendingRelationsLimit = Math.max(1, pendingRelationsLimit);
+	}
+
+	/**
+	 * Imports the nodes and their out relations.
+	 *
+	 * @param nodes
+	 *            the data nodes, read one at a time
+	 * @return the error messages by node identifier, or by row for the rows
+	 *         that could not be read, numbered from 1 without the CSV header
+	 */
+	Map<String, List<String>> importNodes(Iterator<Node> nodes) {
+		Driver driver = DriverUtil.getDriver(graphId, GraphOperation.WRITE);
+		try (Session session = driver.session()) {
+			return importNodes(session, nodes);
+		}
+	}
+
+	Map<String, List<String>> importNodes(Session session, Iterator<Node> nodes) {
+		try {
+			long row = 0;
+			List<Node> batch = new ArrayList<Node>(batchSize);
+			while (nodes.hasNext()) {
+				row++;
+				Node node;
+				try {
+					node = nodes.next();
+				} catch (Exception e) {
+					addMessage("row[" + row + "]", e.getMessage());
+					continue;
+				}
+				if (null == node || StringUtils.isBlank(node.getIdentifier())
+						|| StringUtils.isBlank(node.getNodeType())) {
+					addMessage("row[" + row + "]", "Required data(identifier, nodeType) is missing.");
+					continue;
+				}
+				batch.add(node);
+				if (batch.size() >= batchSize) {
+					writeBatch(session, batch, row);
+					batch.clear();
+				}
+			}
+			if (!batch.isEmpty())
+				writeBatch(session, batch, row);
+			retryPendingRelations(session);
+		} finally {
+			deleteSpillFile();
+		}
+		TelemetryManager.info("Import | Imported " + nodesCount + " nodes and " + relationsCount
+				+ " relations, errors on " + messages.size() + " rows.");
+		return messages;
+	}
+
+	int getNodesCount() {
+		return nodesCount;
+	}
+
+	int getRelationsCount() {
+		return relationsCount;
+	}
+
+	private void writeBatch(Session session, List<Node> batch, long row) {
+		List<String> written = new ArrayList<String>();
+		try {
+			BatchResult result = new BatchResult();
+			try (Transaction tx = session.beginTransaction()) {
+				write(tx, batch, result);
+				tx.success();
+			}
+			commit(result);
+			for (Node node : batch)
+				written.add(node.getIdentifier());
+		} catch (Exception e) {
+			TelemetryManager.error("Import | Batch ending at row " + row + " failed, writing its rows one at a time: "
+					+ e.getMessage(), e);
+			for (Node node : batch) {
+				try {
+					BatchResult result = new BatchResult();
+					try (Transaction tx = session.beginTransaction()) {
+						write(tx, Collections.singletonList(node), result);
+						tx.success();
+					}
+					commit(result);
+					written.add(node.getIdentifier());
+				} catch (Exception ex) {
+					addMessage(node.getIdentifier(), ex.getMessage());
+				}
+			}
+		}
+		writePendingRelations(session, written);
+	}
+
+	private void commit(BatchResult result) {
+		nodesCount += result.nodesCount;
+		relationsCount += result.relationsCount;
+		addPendingRelations(result.unresolved);
+		Neo4JBoltGraphOperations.updateRedisCache(graphId, result.records);
+	}
+
+	private void write(Transaction tx, List<Node> batch, BatchResult result) {
+		String date = DateUtils.formatCurrentDate();
+		String versionKey = Long.toString(DateUtils.parse(date).getTime());
+		List<Map<String, Object>> nodeRows = new ArrayList<Map<String, Object>>();
+		List<Map<String, Object>> relationRows = new ArrayList<Map<String, Object>>();
+		List<Map<String, Object>> syncRows = new ArrayList<Map<String, Object>>();
+		for (Node node : batch) {
+			Map<String, Object> metadata = new HashMap<String, Object>();
+			if (null != node.getMetadata())
+				metadata.putAll(node.getMetadata());
+			Object nodeVersionKey = metadata.remove(GraphDACParams.versionKey.name());
+			Map<String, Object> nodeRow = new HashMap<String, Object>();
+			nodeRow.put("identifier", node.getIdentifier());
+			nodeRow.put("nodeType", node.getNodeType());
+			nodeRow.put("objectType", StringUtils.isBlank(node.getObjectType()) ? null : node.getObjectType());
+			nodeRow.put("metadata", metadata);
+			// an existing node keeps its version key unless it has none, as in upsertNode.
+			nodeRow.put("versionKey", (null == nodeVersionKey || StringUtils.isBlank(nodeVersionKey.toString()))
+					? versionKey : null);
+			nodeRows.add(nodeRow);
+			if (null != node.getOutRelations()) {
+				List<String> relationKeys = new ArrayList<String>();
+				for (Relation relation : node.getOutRelations()) {
+					if (StringUtils.isBlank(relation.getEndNodeId()))
+						continue;
+					String endNodeId = relation.getEndNodeId().trim();
+					relationKeys.add(relation.getRelationType() + ":" + endNodeId);
+					relationRows.add(getRelationRow(node.getIdentifier(), relation.getRelationType(), endNodeId,
+							relation.getMetadata()));
+				}
+				Map<String, Object> syncRow = new HashMap<String, Object>();
+				syncRow.put("identifier", node.getIdentifier());
+				syncRow.put("relations", relationKeys);
+				syncRows.add(syncRow);
+			}
+		}
+		mergeNodes(tx, nodeRows, date, versionKey, result);
+		deleteStaleRelations(tx, syncRows, result);
+		mergeRelations(tx, relationRows, result);
+	}
+
+	private void mergeNodes(Transaction tx, List<Map<String, Object>> rows, String date, String versionKey,
+			BatchResult result) {
+		String query = "UNWIND {batch} AS row MERGE (n:" + graphId + " {" + SystemProperties.IL_UNIQUE_ID.name()
+				+ ": row.identifier}) ON CREATE SET n += row.metadata, n." + SystemProperties.IL_SYS_NODE_TYPE.name()
+				+ " = row.nodeType, n." + SystemProperties.IL_FUNC_OBJECT_TYPE.name() + " = row.objectType, n."
+				+ AuditProperties.createdOn.name() + " = {date}, n." + AuditProperties.lastUpdatedOn.name()
+				+ " = {date}, n." + GraphDACParams.versionKey.name() + " = {versionKey} ON MATCH SET n += row.metadata, n."
+				+ AuditProperties.lastUpdatedOn.name() + " = {date}, n." + GraphDACParams.versionKey.name()
+				+ " = coalesce(row.versionKey, n." + GraphDACParams.versionKey.name() + ") RETURN n";
+		Map<String, Object> params = new HashMap<String, Object>();
+		params.put("batch", rows);
+		params.put("date", date);
+		params.put("versionKey", versionKey);
+		StatementResult statementResult = tx.run(query, params);
+		result.records.addAll(statementResult.list());
+		result.nodesCount += statementResult.summary().counters().nodesCreated();
+	}
+
+	private void deleteStaleRelations(Transaction tx, List<Map<String, Object>> rows, BatchResult result) {
+		if (rows.isEmpty())
+			return;
+		String query = "UNWIND {batch} AS row MATCH (n:" + graphId + " {" + SystemProperties.IL_UNIQUE_ID.name()
+				+ ": row.identifier})-[r]->(e) WHERE NOT (type(r) + ':' + e." + SystemProperties.IL_UNIQUE_ID.name()
+				+ ") IN row.relations DELETE r";
+		Map<String, Object> params = new HashMap<String, Object>();
+		params.put("batch", rows);
+		SummaryCounters counters = tx.run(query, params).consume().counters();
+		result.relationsCount -= counters.relationshipsDeleted();
+	}
+
+	private void mergeRelations(Transaction tx, List<Map<String, Object>> rows, BatchResult result) {
+		if (rows.isEmpty())
+			return;
+		for (Entry<String, List<Map<String, Object>>> entry : Neo4JBoltGraphOperations.getRelationMap(rows)
+				.entrySet()) {
+			List<Map<String, Object>> typeRows = entry.getValue();
+			for (int i = 0; i < typeRows.size(); i++)
+				typeRows.get(i).put("index", i);
+			String query = "UNWIND {batch} AS row MATCH (from:" + graphId + " {"
+					+ SystemProperties.IL_UNIQUE_ID.name() + ": row.from}) MATCH (to:" + graphId + " {"
+					+ SystemProperties.IL_UNIQUE_ID.name() + ": row.to}) MERGE (from)-[rel:" + entry.getKey()
+					+ "]->(to) SET rel += row.metadata RETURN row.index AS index";
+			Map<String, Object> params = new HashMap<String, Object>();
+			params.put("batch", typeRows);
+			StatementResult statementResult = tx.run(query, params);
+			Set<Integer> resolved = new HashSet<Integer>();
+			for (Record record : statementResult.list())
+				resolved.add(record.get("index").asInt());
+			result.relationsCount += statementResult.summary().counters().relationshipsCreated();
+			for (int i = 0; i < typeRows.size(); i++) {
+				if (!resolved.contains(i))
+					result.unresolved.add(typeRows.get(i));
+			}
+		}
+	}
+
+	private void addPendingRelations(List<Map<String, Object>> rows) {
+		for (Map<String, Object> row : rows) {
+			String endNodeId = (String) row.get("to");
+			List<Map<String, Object>> endNodeRows = pendingRelations.get(endNodeId);
+			if (null == endNodeRows) {
+				endNodeRows = new ArrayList<Map<String, Object>>();
+				pendingRelations.put(endNodeId, endNodeRows);
+			}
+			endNodeRows.add(row);
+			pendingCount++;
+		}
+		if (pendingCount > pendingRelationsLimit)
+			spillPendingRelations();
+	}
+
+	/**
+	 * Writes the pending relations to the nodes just written.
+	 */
+	private void writePendingRelations(Session session, Collection<String> endNodeIds) {
+		if (pendingRelations.isEmpty())
+			return;
+		List<Map<String, Object>> rows = new ArrayList<Map<String, Object>>();
+		for (String endNodeId : endNodeIds) {
+			List<Map<String, Object>> endNodeRows = pendingRelations.remove(endNodeId);
+			if (null != endNodeRows)
+				rows.addAll(endNodeRows);
+		}
+		pendingCount -= rows.size();
+		mergePendingRelations(session, rows);
+	}
+
+	/**
+	 * Moves the pending relations to the spill file, to be retried after the
+	 * last batch.
+	 */
+	private void spillPendingRelations() {
+		try {
+			if (null == spillStream) {
+				spillFile = File.createTempFile("graph_import_relations_" + graphId + "_", ".tmp");
+				spillStream = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(spillFile)));
+			}
+			for (List<Map<String, Object>> endNodeRows : pendingRelations.values()) {
+				for (Map<String, Object> row : endNodeRows)
+					spillStream.writeObject(new HashMap<String, Object>(row));
+			}
+			// the stream keeps a reference to every object written until reset.
+			spillStream.reset();
+		} catch (IOException e) {
+			throw new IllegalStateException("Unable to spill pending relations: " + e.getMessage(), e);
+		}
+		TelemetryManager.info("Import | Spilled " + pendingCount + " relations to nodes not imported yet to "
+				+ spillFile.getName());
+		spilledCount += pendingCount;
+		pendingRelations.clear();
+		pendingCount = 0;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void retryPendingRelations(Session session) {
+		if (pendingCount + spilledCount == 0)
+			return;
+		TelemetryManager.info("Import | Retrying " + (pendingCount + spilledCount)
+				+ " relations to nodes not in the graph.");
+		List<Map<String, Object>> rows = new ArrayList<Map<String, Object>>();
+		for (List<Map<String, Object>> endNodeRows : pendingRelations.values())
+			rows.addAll(endNodeRows);
+		pendingRelations.clear();
+		pendingCount = 0;
+		mergePendingRelations(session, rows);
+		if (null == spillStream)
+			return;
+		try {
+			spillStream.close();
+			spillStream = null;
+			try (ObjectInputStream in = new ObjectInputStream(
+					new BufferedInputStream(new FileInputStream(spillFile)))) {
+				rows.clear();
+				for (int i = 0; i < spilledCount; i++) {
+					rows.add((Map<String, Object>) in.readObject());
+					if (rows.size() >= batchSize) {
+						mergePendingRelations(session, rows);
+						rows.clear();
+					}
+				}
+				mergePendingRelations(session, rows);
+			}
+		} catch (IOException | ClassNotFoundException e) {
+			throw new IllegalStateException("Unable to read spilled relations: " + e.getMessage(), e);
+		}
+	}
+
+	private void mergePendingRelations(Session session, List<Map<String, Object>> rows) {
+		for (int start = 0; start < rows.size(); start += batchSize) {
+			List<Map<String, Object>> batch = rows.subList(start, Math.min(start + batchSize, rows.size()));
+			BatchResult result = new BatchResult();
+			try (Transaction tx = session.beginTransaction()) {
+				mergeRelations(tx, batch, result);
+				tx.success();
+			}
+			relationsCount += result.relationsCount;
+			for (Map<String, Object> row : result.unresolved)
+				addMessage((String) row.get("from"),
+						"Node with id: " + row.get("to") + " not found to create relation:" + row.get("type"));
+		}
+	}
+
+	private void deleteSpillFile() {
+		try {
+			if (null != spillStream)
+				spillStream.close();
+		} catch (IOException e) {
+		}
+		spillStream = null;
+		if (null != spillFile && !spillFile.delete())
+			spillFile.deleteOnExit();
+		spillFile = null;
+		spilledCount = 0;
+	}
+
+	private static Map<String, Object> getRelationRow(String from, String type, String to,
+			Map<String, Object> metadata) {
+		Map<String, Object> row = new HashMap<String, Object>();
+		row.put("from", from);
+		row.put("type", type);
+		row.put("to", to);
+		row.put("metadata", (null == metadata) ? new HashMap<String, Object>() : metadata);
+		return row;
+	}
+
+	private void addMessage(String key, String message) {
+		List<String> rowMsgs = messages.get(key);
+		if (null == rowMsgs) {
+			rowMsgs = new ArrayList<String>();
+			messages.put(key, rowMsgs);
+		}
+		rowMsgs.add(message);
+	}
+
+	private static class BatchResult {
+		private int nodesCount;
+		private int relationsCount;
+		private final List<Record> records = new ArrayList<Record>();
+		private final List<Map<String, Object>> unresolved = new ArrayList<Map<String, Object>>();
+	}
+}
@@ -84,7 +84,7 @@ public class Neo4JBoltGraphOperations {
 					StatementResult result = tx.run(GraphQueryGenerationUtil.generateCreateUniqueConstraintCypherQuery(parameterMap));
 					tx.success();
 					for (Record record : result.list()) {
-						TelemetryManager.log("'Create Unique' Constraint Operation Finished.", record.asMap());
+						TelemetryManager.log("'Create Unique' Constraint Operation Finished.", record::asMap);
 					}
 				}
 			}
@@ -129,7 +129,7 @@ public class Neo4JBoltGraphOperations {
 					StatementResult result = tx.run(GraphQueryGenerationUtil.generateCreateIndexCypherQuery(parameterMap));
 					tx.success();
 					for (Record record : result.list()) {
-						TelemetryManager.log("'Create Index' Operation Finished.", record.asMap());
+						TelemetryManager.log("'Create Index' Operation Finished.", record::asMap);
 					}
 				}
 			}
@@ -164,7 +164,7 @@ public class Neo4JBoltGraphOperations {
 				StatementResult result = tx.run(GraphQueryGenerationUtil.generateDeleteGraphCypherQuery(parameterMap));
 				tx.success();
 				for (Record record : result.list()) {
-					TelemetryManager.log("'Delete Graph' Operation Finished.", record.asMap());
+					TelemetryManager.log("'Delete Graph' Operation Finished.", record::asMap);
 				}
 			}
 		} catch (Exception e) {
@@ -231,7 +231,7 @@ public class Neo4JBoltGraphOperations {
 						result = tx.run(query);
 					tx.success();
 					for (Record record : result.list())
-						TelemetryManager.log("'Create Relation' Operation Finished.", record.asMap());
+						TelemetryManager.log("'Create Relation' Operation Finished.", record::asMap);
 				}
 				NodeCacheManager.deleteDataNode(graphId, startNodeId);
 				NodeCacheManager.deleteDataNode(graphId, endNodeId);
@@ -303,7 +303,7 @@ public class Neo4JBoltGraphOperations {
 							result = tx.run(query);
 						tx.success();
 						for (Record record : result.list()) {
-							TelemetryManager.log("'Update Relation' Operation Finished.", record.asMap());
+							TelemetryManager.log("'Update Relation' Operation Finished.", record::asMap);
 						}
 					}
 					NodeCacheManager.deleteDataNode(graphId, startNodeId);
@@ -363,7 +363,7 @@ public class Neo4JBoltGraphOperations {
 				StatementResult result = tx.run(GraphQueryGenerationUtil.generateDeleteRelationCypherQuery(parameterMap));
 				tx.success();
 				for (Record record : result.list()) {
-					TelemetryManager.log("'Delete Relation' Operation Finished.", record.asMap());
+					TelemetryManager.log("'Delete Relation' Operation Finished.", record::asMap);
 				}
 			}
 			NodeCacheManager.deleteDataNode(graphId, startNodeId);
@@ -599,7 +599,7 @@ public class Neo4JBoltGraphOperations {
 			StatementResult result = session
 					.run(GraphQueryGenerationUtil.generateRemoveRelationMetadataCypherQuery(parameterMap));
 			for (Record record : result.list()) {
-				TelemetryManager.log("'Remove Relation Metadata' Operation Finished.", record.asMap());
+				TelemetryManager.log("'Remove Relation Metadata' Operation Finished.", record::asMap);
 			}
 			NodeCacheManager.deleteDataNode(graphId, startNodeId);
 			NodeCacheManager.deleteDataNode(graphId, endNodeId);
@@ -674,7 +674,8 @@ public class Neo4JBoltGraphOperations {
 	}
 
 	/**
-	 * Import graph.
+	 * Import graph. Input that streams its data nodes is imported in batches,
+	 * see {@link BatchGraphImporter}.
 	 *
 	 * @param graphId
 	 *            the graph id
@@ -698,6 +699,14 @@ public class Neo4JBoltGraphOperations {
 		if (null == input)
 			throw new ClientException(DACErrorCodeConstants.INVALID_DATA.name(),
 					DACErrorMessageConstants.INVALID_IMPORT_DATA + " | ['Import Graph' Operation Failed.]");
+		if (null != input.getDataNodeIterator()) {
+			BatchGraphImporter importer = new BatchGraphImporter(graphId);
+			Map<String, List<String>> messages = importer.importNodes(input.getDataNodeIterator());
+			upsertRootNode(graphId, importer.getNodesCount(), importer.getRelationsCount(), request);
+			if (StringUtils.isNotBlank(taskId))
+				updateTaskStatus(graphId, taskId, request);
+			return messages;
+		}
 		Map<String, List<String>> messages = new HashMap<String, List<String>>();
 		// CHECK - write driver, session and transaction created for this - START
 		Map<String, org.sunbird.graph.dac.model.Node> existingNodes = new HashMap<String, org.sunbird.graph.dac.model.Node>();
@@ -1064,7 +1073,7 @@ public class Neo4JBoltGraphOperations {
 		}
 	}
 
-	private static Map<String, List<Map<String, Object>>> getRelationMap(List<Map<String, Object>> relations) {
+	static Map<String, List<Map<String, Object>>> getRelationMap(List<Map<String, Object>> relations) {
 		Map<String, List<Map<String, Object>>> relationTypeMap = null;
 		if (null != relations) {
 			relationTypeMap = new HashMap<String, List<Map<String, Object>>>();
@@ -1079,7 +1088,7 @@ public class Neo4JBoltGraphOperations {
 		}
 		return relationTypeMap;
 	}
-	private static void updateRedisCache(String graphId, List<Record> listNode) {
+	static void updateRedisCache(String graphId, List<Record> listNode) {
 		if (!graphId.equalsIgnoreCase("domain"))
 			return;
 		if(!listNode.isEmpty())
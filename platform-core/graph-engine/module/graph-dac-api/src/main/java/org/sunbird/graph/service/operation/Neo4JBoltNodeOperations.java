@@ -389,7 +389,7 @@ public class Neo4JBoltNodeOperations {
 						.run(NodeQueryGenerationUtil.generateRemovePropertyValueCypherQuery(parameterMap));
 				tx.success();
 				for (Record record : result.list())
-					TelemetryManager.log("Remove Property Value Operation | ", record.asMap());
+					TelemetryManager.log("Remove Property Value Operation | ", record::asMap);
 			}
 
 			NodeCacheManager.deleteDataNode(graphId, nodeId);
@@ -428,7 +428,7 @@ public class Neo4JBoltNodeOperations {
 						.run(NodeQueryGenerationUtil.generateRemovePropertyValuesCypherQuery(parameterMap));
 				tx.success();
 				for (Record record : result.list())
-					TelemetryManager.log("Update Property Values Operation | ", record.asMap());
+					TelemetryManager.log("Update Property Values Operation | ", record::asMap);
 			}
 
 			NodeCacheManager.deleteDataNode(graphId, nodeId);
@@ -460,7 +460,7 @@ public class Neo4JBoltNodeOperations {
 				StatementResult result = tx.run(NodeQueryGenerationUtil.generateDeleteNodeCypherQuery(parameterMap));
 				tx.success();
 				for (Record record : result.list())
-					TelemetryManager.log("Delete Node Operation | ", record.asMap());
+					TelemetryManager.log("Delete Node Operation | ", record::asMap);
 			}
 
 			NodeCacheManager.deleteDataNode(graphId, nodeId);
@@ -511,7 +511,7 @@ public class Neo4JBoltNodeOperations {
 						.run(NodeQueryGenerationUtil.generateUpsertRootNodeCypherQuery(parameterMap));
 				tx.success();
 				for (Record record : result.list())
-					TelemetryManager.log("Upsert Root Node Operation | ", record.asMap());
+					TelemetryManager.log("Upsert Root Node Operation | ", record::asMap);
 			}
 		} catch (Exception e) {
 			throw new ServerException(DACErrorCodeConstants.CONNECTION_PROBLEM.name(),
@@ -1,8 +1,8 @@
 package org.sunbird.graph.service.operation;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -13,6 +13,8 @@ import org.sunbird.common.dto.Request;
 import org.sunbird.common.exception.ResourceNotFoundException;
 import org.sunbird.graph.cache.mgr.impl.NodeCacheManager;
 import org.sunbird.graph.dac.enums.GraphDACParams;
+import org.sunbird.graph.dac.enums.RelationProjection;
+import org.sunbird.graph.dac.enums.SystemProperties;
 import org.sunbird.graph.dac.model.Graph;
 import org.sunbird.graph.dac.model.Node;
 import org.sunbird.graph.dac.model.Relation;
@@ -24,6 +26,7 @@ import org.sunbird.graph.service.common.DACErrorCodeConstants;
 import org.sunbird.graph.service.common.DACErrorMessageConstants;
 import org.sunbird.graph.service.common.GraphOperation;
 import org.sunbird.graph.service.util.DriverUtil;
+import org.sunbird.graph.service.util.QueryTemplateCache;
 import org.sunbird.graph.service.util.SearchQueryGenerationUtil;
 import org.sunbird.telemetry.logger.TelemetryManager;
 import org.neo4j.driver.v1.Driver;
@@ -70,7 +73,8 @@ public class Neo4JBoltSearchOperations {
 			parameterMap.put(GraphDACParams.request.name(), request);
 
 			StatementResult result = session
-					.run(SearchQueryGenerationUtil.generateGetNodeByIdCypherQuery(parameterMap));
+					.run(SearchQueryGenerationUtil.generateGetNodeByIdCypherQuery(parameterMap),
+							SearchQueryGenerationUtil.getParams(parameterMap));
 			if (null == result || !result.hasNext())
 				throw new ResourceNotFoundException(DACErrorCodeConstants.NOT_FOUND.name(),
 						DACErrorMessageConstants.NODE_NOT_FOUND + " | [Invalid Node Id.]");
@@ -80,7 +84,7 @@ public class Neo4JBoltSearchOperations {
 			Map<Long, Object> startNodeMap = new HashMap<Long, Object>();
 			Map<Long, Object> endNodeMap = new HashMap<Long, Object>();
 			for (Record record : result.list()) {
-				TelemetryManager.log("'Get Node By Id' Operation Finished.", record.asMap());
+				TelemetryManager.log("'Get Node By Id' Operation Finished.", record::asMap);
 				if (null != record)
 					getRecordValues(record, nodeMap, relationMap, startNodeMap, endNodeMap);
 			}
@@ -95,6 +99,45 @@ public class Neo4JBoltSearchOperations {
 		return node;
 	}
 
+	/**
+	 * Gets the nodes with the given database ids in one query. Ids that do not
+	 * match a node are left out of the result.
+	 *
+	 * @param graphId
+	 *            the graph id
+	 * @param nodeIds
+	 *            the database ids of the nodes
+	 * @param request
+	 *            the request
+	 * @return the nodes by database id
+	 */
+	public static Map<Long, Node> getNodesByIds(String graphId, Collection<Long> nodeIds, Request request) {
+		if (StringUtils.isBlank(graphId))
+			throw new ClientException(DACErrorCodeConstants.INVALID_GRAPH.name(),
+					DACErrorMessageConstants.INVALID_GRAPH_ID + " | ['Get Nodes By Ids' Operation Failed.]");
+
+		Map<Long, Node> nodes = new HashMap<Long, Node>();
+		if (null == nodeIds || nodeIds.isEmpty())
+			return nodes;
+		Driver driver = DriverUtil.getDriver(graphId, GraphOperation.READ);
+		try (Session session = driver.session()) {
+			Map<String, Object> parameterMap = new HashMap<String, Object>();
+			parameterMap.put(GraphDACParams.graphId.name(), graphId);
+			parameterMap.put(GraphDACParams.node_ids.name(), nodeIds);
+			parameterMap.put(GraphDACParams.request.name(), request);
+
+			StatementResult result = session.run(SearchQueryGenerationUtil.generateGetNodesByIdsCypherQuery(parameterMap),
+					SearchQueryGenerationUtil.getParams(parameterMap));
+			List<Node> nodeList = new ArrayList<Node>();
+			if (null != result)
+				readNodes(graphId, result, RelationProjection.ALL, nodeList);
+			for (Node node : nodeList)
+				nodes.put(node.getId(), node);
+		}
+		TelemetryManager.log("Returning Nodes By Ids: " + nodes.size());
+		return nodes;
+	}
+
 	/**
 	 * Gets the node by unique id.
 	 *
@@ -135,7 +178,8 @@ public class Neo4JBoltSearchOperations {
 				parameterMap.put(GraphDACParams.request.name(), request);
 
 				StatementResult result = session
-						.run(SearchQueryGenerationUtil.generateGetNodeByUniqueIdCypherQuery(parameterMap));
+						.run(SearchQueryGenerationUtil.generateGetNodeByUniqueIdCypherQuery(parameterMap),
+							SearchQueryGenerationUtil.getParams(parameterMap));
 				if (null == result || !result.hasNext())
 					throw new ResourceNotFoundException(DACErrorCodeConstants.NOT_FOUND.name(),
 							DACErrorMessageConstants.NODE_NOT_FOUND + " | [Invalid Node Id.]: " + nodeId, nodeId);
@@ -145,10 +189,11 @@ public class Neo4JBoltSearchOperations {
 				Map<Long, Object> startNodeMap = new HashMap<Long, Object>();
 				Map<Long, Object> endNodeMap = new HashMap<Long, Object>();
 				for (Record record : result.list()) {
-					TelemetryManager.log("'Get Node By Unique Id' Operation Finished.", record.asMap());
+					TelemetryManager.log("'Get Node By Unique Id' Operation Finished.", record::asMap);
 					if (null != record)
 						getRecordValues(record, nodeMap, relationMap, startNodeMap, endNodeMap);
 				}
+				QueryTemplateCache.record("getNodeByUniqueId", result.summary());
 
 				if (!nodeMap.isEmpty()) {
 					for (Entry<Long, Object> entry : nodeMap.entrySet())
@@ -195,17 +240,19 @@ public class Neo4JBoltSearchOperations {
 			parameterMap.put(GraphDACParams.request.name(), request);
 
 			StatementResult result = session
-					.run(SearchQueryGenerationUtil.generateGetNodesByPropertyCypherQuery(parameterMap));
+					.run(SearchQueryGenerationUtil.generateGetNodesByPropertyCypherQuery(parameterMap),
+							SearchQueryGenerationUtil.getParams(parameterMap));
 			Map<Long, Object> nodeMap = new HashMap<Long, Object>();
 			Map<Long, Object> relationMap = new HashMap<Long, Object>();
 			Map<Long, Object> startNodeMap = new HashMap<Long, Object>();
 			Map<Long, Object> endNodeMap = new HashMap<Long, Object>();
 			if (null != result) {
 				for (Record record : result.list()) {
-					TelemetryManager.log("'Get Nodes By Property Id' Operation Finished.", record.asMap());
+					TelemetryManager.log("'Get Nodes By Property Id' Operation Finished.", record::asMap);
 					if (null != record)
 						getRecordValues(record, nodeMap, relationMap, startNodeMap, endNodeMap);
 				}
+				QueryTemplateCache.record("getNodesByProperty", result.summary());
 			}
 
 			if (!nodeMap.isEmpty()) {
@@ -253,23 +300,8 @@ public class Neo4JBoltSearchOperations {
 			String query = SearchQueryGenerationUtil.generateGetNodeByUniqueIdsCypherQuery(parameterMap);
 			Map<String, Object> params = searchCriteria.getParams();
 			StatementResult result = session.run(query, params);
-			Map<Long, Object> nodeMap = new HashMap<Long, Object>();
-			Map<Long, Object> relationMap = new HashMap<Long, Object>();
-			Map<Long, Object> startNodeMap = new HashMap<Long, Object>();
-			Map<Long, Object> endNodeMap = new HashMap<Long, Object>();
-			if (null != result) {
-				for (Record record : result.list()) {
-					TelemetryManager.log("'Get Nodes By Search Criteria' Operation Finished.", record.asMap());
-					if (null != record)
-						getRecordValues(record, nodeMap, relationMap, startNodeMap, endNodeMap);
-				}
-			}
-
-			if (!nodeMap.isEmpty()) {
-				for (Entry<Long, Object> entry : nodeMap.entrySet())
-					nodes.add(new Node(graphId, (org.neo4j.driver.v1.types.Node) entry.getValue(), relationMap,
-							startNodeMap, endNodeMap));
-			}
+			if (null != result)
+				readNodes(graphId, result, searchCriteria.getRelationProjection(), nodes);
 		}
 		TelemetryManager.log("Returning Node By Search Criteria: " + nodes.size());
 		return nodes;
@@ -343,10 +375,11 @@ public class Neo4JBoltSearchOperations {
 			parameterMap.put(GraphDACParams.request.name(), request);
 
 			StatementResult result = session
-					.run(SearchQueryGenerationUtil.generateGetNodePropertyCypherQuery(parameterMap));
+					.run(SearchQueryGenerationUtil.generateGetNodePropertyCypherQuery(parameterMap),
+							SearchQueryGenerationUtil.getParams(parameterMap));
 			if (null != result) {
 				for (Record record : result.list()) {
-					TelemetryManager.log("'Get Node Property' Operation Finished.", record.asMap());
+					TelemetryManager.log("'Get Node Property' Operation Finished.", record::asMap);
 					if (null != record && null != record.get(key)) {
 						property.setPropertyName(key);
 						property.setPropertyValue(record.get(key));
@@ -388,7 +421,7 @@ public class Neo4JBoltSearchOperations {
 			Map<Long, Object> endNodeMap = new HashMap<Long, Object>();
 			if (null != result) {
 				for (Record record : result.list()) {
-					TelemetryManager.log("'Get All Nodes' Operation Finished.", record.asMap());
+					TelemetryManager.log("'Get All Nodes' Operation Finished.", record::asMap);
 					if (null != record)
 						getRecordValues(record, nodeMap, relationMap, startNodeMap, endNodeMap);
 				}
@@ -434,7 +467,7 @@ public class Neo4JBoltSearchOperations {
 			Map<Long, Object> endNodeMap = new HashMap<Long, Object>();
 			if (null != result) {
 				for (Record record : result.list()) {
-					TelemetryManager.log("'Get All Relations' Operation Finished.", record.asMap());
+					TelemetryManager.log("'Get All Relations' Operation Finished.", record::asMap);
 					if (null != record)
 						getRecordValues(record, null, relationMap, startNodeMap, endNodeMap);
 				}
@@ -452,6 +485,103 @@ public class Neo4JBoltSearchOperations {
 		return relations;
 	}
 
+	/**
+	 * Gets the next page of nodes, ordered by identifier, with their out
+	 * relations (ids, types, end node identifiers and metadata).
+	 *
+	 * @param graphId
+	 *            the graph id
+	 * @param afterId
+	 *            the identifier of the last node of the previous page, null
+	 *            for the first page
+	 * @param pageSize
+	 *            the page size
+	 * @param nodeTypes
+	 *            the node types to read, null for all
+	 * @param objectTypes
+	 *            the object types to read, null for all
+	 * @param request
+	 *            the request
+	 * @return the nodes
+	 */
+	public static List<Node> getNodesPage(String graphId, String afterId, int pageSize, List<String> nodeTypes,
+			List<String> objectTypes, Request request) {
+		if (StringUtils.isBlank(graphId))
+			throw new ClientException(DACErrorCodeConstants.INVALID_GRAPH.name(),
+					DACErrorMessageConstants.INVALID_GRAPH_ID + " | ['Get Nodes Page' Operation Failed.]");
+
+		List<Node> nodes = new ArrayList<Node>();
+		Driver driver = DriverUtil.getDriver(graphId, GraphOperation.READ);
+		try (Session session = driver.session()) {
+			Map<String, Object> parameterMap = new HashMap<String, Object>();
+			parameterMap.put(GraphDACParams.graphId.name(), graphId);
+			parameterMap.put(GraphDACParams.afterId.name(), afterId);
+			parameterMap.put(GraphDACParams.pageSize.name(), pageSize);
+			parameterMap.put(GraphDACParams.nodeType.name(), nodeTypes);
+			parameterMap.put(GraphDACParams.objectType.name(), objectTypes);
+			parameterMap.put(GraphDACParams.request.name(), request);
+
+			StatementResult result = session.run(SearchQueryGenerationUtil.generateGetNodesPageCypherQuery(parameterMap),
+					SearchQueryGenerationUtil.getParams(parameterMap));
+			if (null != result) {
+				readNodes(graphId, result, RelationProjection.IDS, nodes);
+				QueryTemplateCache.record("getNodesPage", result.consume());
+			}
+		}
+		return nodes;
+	}
+
+	/**
+	 * Gets the count, metadata keys and out relation types of the nodes.
+	 *
+	 * @param graphId
+	 *            the graph id
+	 * @param nodeTypes
+	 *            the node types, null for all
+	 * @param objectTypes
+	 *            the object types, null for all
+	 * @param request
+	 *            the request
+	 * @return the map with count, keys and relationTypes
+	 */
+	public static Map<String, Object> getNodesSummary(String graphId, List<String> nodeTypes,
+			List<String> objectTypes, Request request) {
+		if (StringUtils.isBlank(graphId))
+			throw new ClientException(DACErrorCodeConstants.INVALID_GRAPH.name(),
+					DACErrorMessageConstants.INVALID_GRAPH_ID + " | ['Get Nodes Summary' Operation Failed.]");
+
+		Map<String, Object> summary = new HashMap<String, Object>();
+		summary.put(GraphDACParams.count.name(), 0L);
+		summary.put(GraphDACParams.keys.name(), new ArrayList<String>());
+		summary.put("relationTypes", new ArrayList<String>());
+		Driver driver = DriverUtil.getDriver(graphId, GraphOperation.READ);
+		try (Session session = driver.session()) {
+			Map<String, Object> parameterMap = new HashMap<String, Object>();
+			parameterMap.put(GraphDACParams.graphId.name(), graphId);
+			parameterMap.put(GraphDACParams.nodeType.name(), nodeTypes);
+			parameterMap.put(GraphDACParams.objectType.name(), objectTypes);
+			parameterMap.put(GraphDACParams.request.name(), request);
+
+			StatementResult result = session.run(
+					SearchQueryGenerationUtil.generateGetNodesSummaryCypherQuery(parameterMap),
+					SearchQueryGenerationUtil.getParams(parameterMap));
+			if (null != result && result.hasNext()) {
+				Record record = result.next();
+				List<String> keys = new ArrayList<String>();
+				for (Object key : record.get(GraphDACParams.keys.name()).asList()) {
+					if (!StringUtils.equals((String) key, SystemProperties.IL_UNIQUE_ID.name())
+							&& !StringUtils.equals((String) key, SystemProperties.IL_SYS_NODE_TYPE.name())
+							&& !StringUtils.equals((String) key, SystemProperties.IL_FUNC_OBJECT_TYPE.name()))
+						keys.add((String) key);
+				}
+				summary.put(GraphDACParams.count.name(), record.get(GraphDACParams.count.name()).asLong());
+				summary.put(GraphDACParams.keys.name(), keys);
+				summary.put("relationTypes", record.get("relationTypes").asList());
+			}
+		}
+		return summary;
+	}
+
 	/**
 	 * Gets the relation property.
 	 *
@@ -509,10 +639,11 @@ public class Neo4JBoltSearchOperations {
 			parameterMap.put(GraphDACParams.request.name(), request);
 
 			StatementResult result = session
-					.run(SearchQueryGenerationUtil.generateGetRelationPropertyCypherQuery(parameterMap));
+					.run(SearchQueryGenerationUtil.generateGetRelationPropertyCypherQuery(parameterMap),
+							SearchQueryGenerationUtil.getParams(parameterMap));
 			if (null != result) {
 				for (Record record : result.list()) {
-					TelemetryManager.log("'Get Relation Property' Operation Finished.", record.asMap());
+					TelemetryManager.log("'Get Relation Property' Operation Finished.", record::asMap);
 					if (null != record && null != record.get(key)) {
 						property.setPropertyName(key);
 						property.setPropertyValue(record.get(key));
@@ -544,13 +675,14 @@ public class Neo4JBoltSearchOperations {
 			parameterMap.put(GraphDACParams.request.name(), request);
 			
 			StatementResult result = session
-					.run(SearchQueryGenerationUtil.generateGetRelationByIdCypherQuery(parameterMap));
+					.run(SearchQueryGenerationUtil.generateGetRelationByIdCypherQuery(parameterMap),
+							SearchQueryGenerationUtil.getParams(parameterMap));
 			Map<Long, Object> relationMap = new HashMap<Long, Object>();
 			Map<Long, Object> startNodeMap = new HashMap<Long, Object>();
 			Map<Long, Object> endNodeMap = new HashMap<Long, Object>();
 			if (null != result) {
 				for (Record record : result.list()) {
-					TelemetryManager.log("'Get Relation' Operation Finished.", record.asMap());
+					TelemetryManager.log("'Get Relation' Operation Finished.", record::asMap);
 					if (null != record)
 						getRecordValues(record, null, relationMap, startNodeMap, endNodeMap);
 				}
@@ -567,6 +699,51 @@ public class Neo4JBoltSearchOperations {
 		return relation;
 	}
 
+	/**
+	 * Gets the relations with the given database ids in one query. Ids that do
+	 * not match a relation are left out of the result.
+	 *
+	 * @param graphId
+	 *            the graph id
+	 * @param relationIds
+	 *            the database ids of the relations
+	 * @param request
+	 *            the request
+	 * @return the relations by database id
+	 */
+	public static Map<Long, Relation> getRelationsByIds(String graphId, Collection<Long> relationIds,
+			Request request) {
+		if (StringUtils.isBlank(graphId))
+			throw new ClientException(DACErrorCodeConstants.INVALID_GRAPH.name(),
+					DACErrorMessageConstants.INVALID_GRAPH_ID + " | ['Get Relations By Ids' Operation Failed.]");
+
+		Map<Long, Relation> relations = new HashMap<Long, Relation>();
+		if (null == relationIds || relationIds.isEmpty())
+			return relations;
+		Driver driver = DriverUtil.getDriver(graphId, GraphOperation.READ);
+		try (Session session = driver.session()) {
+			Map<String, Object> parameterMap = new HashMap<String, Object>();
+			parameterMap.put(GraphDACParams.graphId.name(), graphId);
+			parameterMap.put(GraphDACParams.relations.name(), relationIds);
+			parameterMap.put(GraphDACParams.request.name(), request);
+
+			StatementResult result = session.run(
+					SearchQueryGenerationUtil.generateGetRelationsByIdsCypherQuery(parameterMap),
+					SearchQueryGenerationUtil.getParams(parameterMap));
+			Map<Long, Object> startNodeMap = new HashMap<Long, Object>();
+			Map<Long, Object> endNodeMap = new HashMap<Long, Object>();
+			while (null != result && result.hasNext()) {
+				Record record = result.next();
+				getRecordValues(record, null, null, startNodeMap, endNodeMap);
+				org.neo4j.driver.v1.types.Relationship relationship = record
+						.get(CypherQueryConfigurationConstants.DEFAULT_CYPHER_RELATION_OBJECT).asRelationship();
+				relations.put(relationship.id(), new Relation(graphId, relationship, startNodeMap, endNodeMap));
+			}
+		}
+		TelemetryManager.log("Returning Relations By Ids: " + relations.size());
+		return relations;
+	}
+
 	/**
 	 * Gets the relation.
 	 *
@@ -613,7 +790,8 @@ public class Neo4JBoltSearchOperations {
 			parameterMap.put(GraphDACParams.request.name(), request);
 			
 			StatementResult result = session
-					.run(SearchQueryGenerationUtil.generateGetRelationCypherQuery(parameterMap));
+					.run(SearchQueryGenerationUtil.generateGetRelationCypherQuery(parameterMap),
+							SearchQueryGenerationUtil.getParams(parameterMap));
 			if (null == result || !result.hasNext())
 				throw new ResourceNotFoundException(DACErrorCodeConstants.NOT_FOUND.name(),
 						DACErrorMessageConstants.NODE_NOT_FOUND + " | [No Relation found.]");
@@ -622,7 +800,7 @@ public class Neo4JBoltSearchOperations {
 			Map<Long, Object> startNodeMap = new HashMap<Long, Object>();
 			Map<Long, Object> endNodeMap = new HashMap<Long, Object>();
 			for (Record record : result.list()) {
-				TelemetryManager.log("'Get Relation' Operation Finished.", record.asMap());
+				TelemetryManager.log("'Get Relation' Operation Finished.", record::asMap);
 				if (null != record)
 					getRecordValues(record, null, relationMap, startNodeMap, endNodeMap);
 			}
@@ -687,7 +865,8 @@ public class Neo4JBoltSearchOperations {
 			parameterMap.put(GraphDACParams.request.name(), request);
 
 			StatementResult result = session
-					.run(SearchQueryGenerationUtil.generateCheckCyclicLoopCypherQuery(parameterMap));
+					.run(SearchQueryGenerationUtil.generateCheckCyclicLoopCypherQuery(parameterMap),
+							SearchQueryGenerationUtil.getParams(parameterMap));
 			if (null != result && result.hasNext()) {
 				cyclicLoopMap.put(GraphDACParams.loop.name(), new Boolean(true));
 				cyclicLoopMap.put(GraphDACParams.message.name(),
@@ -744,7 +923,7 @@ public class Neo4JBoltSearchOperations {
 			StatementResult result = session.run(SearchQueryGenerationUtil.generateExecuteQueryCypherQuery(parameterMap),
 					paramMap);
 			for (Record record : result.list()) {
-				TelemetryManager.log("'Execute Query' Operation Finished.", record.asMap());
+				TelemetryManager.log("'Execute Query' Operation Finished.", record::asMap);
 				Map<String, Object> recordMap = record.asMap();
 				Map<String, Object> map = new HashMap<String, Object>();
 				if (null != recordMap && !recordMap.isEmpty()) {
@@ -803,31 +982,18 @@ public class Neo4JBoltSearchOperations {
 			Map<String, Object> params = searchCriteria.getParams();
 			TelemetryManager.log("Search Params: " + params);
 			StatementResult result = session.run(query, params);
-			Map<Long, Object> nodeMap = new LinkedHashMap<Long, Object>();
-			Map<Long, Object> relationMap = new HashMap<Long, Object>();
-			Map<Long, Object> startNodeMap = new HashMap<Long, Object>();
-			Map<Long, Object> endNodeMap = new HashMap<Long, Object>();
 			if (null != result) {
 				TelemetryManager.log("'Search Nodes' result: " + result);
-				for (Record record : result.list()) {
-					TelemetryManager.log("'Search Nodes' Operation Finished.", record.asMap());
-					if (null != record) {
-						if (returnNode)
-							getRecordValues(record, nodeMap, relationMap, startNodeMap, endNodeMap);
-						else {
-							Node node = new Node(graphId, record.asMap());
-							nodes.add(node);
-						}
+				if (returnNode) {
+					readNodes(graphId, result, searchCriteria.getRelationProjection(), nodes);
+				} else {
+					while (result.hasNext()) {
+						Record record = result.next();
+						TelemetryManager.log("'Search Nodes' Operation Finished.", record::asMap);
+						nodes.add(new Node(graphId, record.asMap()));
 					}
 				}
-			}
-			TelemetryManager.log("Node Map: " + nodeMap + "\nRelation Map: " + relationMap + "\nStart Node Map: "
-					+ startNodeMap + "\nEnd Node Map: " + endNodeMap);
-
-			if (!nodeMap.isEmpty()) {
-				for (Entry<Long, Object> entry : nodeMap.entrySet())
-					nodes.add(new Node(graphId, (org.neo4j.driver.v1.types.Node) entry.getValue(), relationMap,
-							startNodeMap, endNodeMap));
+				QueryTemplateCache.record("searchNodes", result.summary());
 			}
 		}
 		TelemetryManager.log("Returning Search Nodes: " + nodes);
@@ -872,10 +1038,11 @@ public class Neo4JBoltSearchOperations {
 			StatementResult result = session.run(query, params);
 			if (null != result) {
 				for (Record record : result.list()) {
-					TelemetryManager.log("'Get Nodes Count' Operation Finished.", record.asMap());
+					TelemetryManager.log("'Get Nodes Count' Operation Finished.", record::asMap);
 					if (null != record && null != record.get(CypherQueryConfigurationConstants.DEFAULT_CYPHER_COUNT_OBJECT))
 						count = record.get(CypherQueryConfigurationConstants.DEFAULT_CYPHER_COUNT_OBJECT).asLong();
 				}
+				QueryTemplateCache.record("getNodesCount", result.summary());
 			}
 		}
 		TelemetryManager.log("Returning Nodes Count: " + count);
@@ -967,6 +1134,68 @@ public class Neo4JBoltSearchOperations {
 		return subGraph;
 	}
 
+	/**
+	 * Reads the nodes of a node search result, one record per node with its
+	 * relations collected by direction, without holding the whole result.
+	 */
+	private static void readNodes(String graphId, StatementResult result, RelationProjection projection,
+			List<Node> nodes) {
+		while (result.hasNext()) {
+			Record record = result.next();
+			org.neo4j.driver.v1.types.Node neo4jNode = record
+					.get(CypherQueryConfigurationConstants.DEFAULT_CYPHER_NODE_OBJECT).asNode();
+			if (RelationProjection.NONE == projection) {
+				nodes.add(new Node(graphId, neo4jNode, null, null, null));
+			} else if (RelationProjection.IDS == projection) {
+				Node node = new Node(graphId, neo4jNode, null, null, null);
+				node.setOutRelations(getRelationIds(node.getIdentifier(),
+						record.get(CypherQueryConfigurationConstants.DEFAULT_CYPHER_OUT_RELATIONS_OBJECT), true));
+				node.setInRelations(getRelationIds(node.getIdentifier(),
+						record.get(CypherQueryConfigurationConstants.DEFAULT_CYPHER_IN_RELATIONS_OBJECT), false));
+				nodes.add(node);
+			} else {
+				Map<Long, Object> relationMap = new HashMap<Long, Object>();
+				Map<Long, Object> startNodeMap = new HashMap<Long, Object>();
+				Map<Long, Object> endNodeMap = new HashMap<Long, Object>();
+				for (Value item : record.get(CypherQueryConfigurationConstants.DEFAULT_CYPHER_OUT_RELATIONS_OBJECT)
+						.values()) {
+					org.neo4j.driver.v1.types.Relationship relationship = item.get("rel").asRelationship();
+					org.neo4j.driver.v1.types.Node endNode = item.get("node").asNode();
+					relationMap.put(relationship.id(), relationship);
+					startNodeMap.put(neo4jNode.id(), neo4jNode);
+					endNodeMap.put(endNode.id(), endNode);
+				}
+				for (Value item : record.get(CypherQueryConfigurationConstants.DEFAULT_CYPHER_IN_RELATIONS_OBJECT)
+						.values()) {
+					org.neo4j.driver.v1.types.Relationship relationship = item.get("rel").asRelationship();
+					org.neo4j.driver.v1.types.Node startNode = item.get("node").asNode();
+					relationMap.put(relationship.id(), relationship);
+					startNodeMap.put(startNode.id(), startNode);
+					endNodeMap.put(neo4jNode.id(), neo4jNode);
+				}
+				nodes.add(new Node(graphId, neo4jNode, relationMap, startNodeMap, endNodeMap));
+			}
+		}
+	}
+
+	private static List<Relation> getRelationIds(String identifier, Value items, boolean outgoing) {
+		List<Relation> relations = new ArrayList<Relation>();
+		if (items.isNull())
+			return relations;
+		for (Value item : items.values()) {
+			Value otherNode = item.get("node");
+			String otherNodeId = otherNode.isNull() ? null : otherNode.asString();
+			Relation relation = outgoing ? new Relation(identifier, item.get("type").asString(), otherNodeId)
+					: new Relation(otherNodeId, item.get("type").asString(), identifier);
+			relation.setId(item.get("id").asLong());
+			Value metadata = item.get("metadata");
+			if (!metadata.isNull())
+				relation.setMetadata(new HashMap<String, Object>(metadata.asMap()));
+			relations.add(relation);
+		}
+		return relations;
+	}
+
 	private static void getRecordValues(Record record, Map<Long, Object> nodeMap, Map<Long, Object> relationMap,
 			Map<Long, Object> startNodeMap, Map<Long, Object> endNodeMap) {
 		if (null != nodeMap) {
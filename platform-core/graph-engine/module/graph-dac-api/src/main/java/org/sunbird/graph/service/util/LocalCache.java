@@ -1,7 +1,11 @@
 package org.sunbird.graph.service.util;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
 import org.sunbird.common.Platform;
 import org.sunbird.graph.cache.util.CacheKeyGenerator;
@@ -10,18 +14,35 @@ import org.sunbird.telemetry.logger.TelemetryManager;
 /**
  * The Class LocalCache, is used to cache any object in current java instance
  * local heap until the cached object time to live(ttl) expired as per
- * configured ttl
+ * configured ttl.
+ *
+ * Values can be read through a loader. Concurrent misses for the same key share
+ * one load, and a hit on an entry older than the refresh-ahead window reloads
+ * it in the background while the current value keeps being served.
  *
  * @author karthik
  */
 public class LocalCache {
 
 	/** The cache map. */
-	private static Map<String, CacheObject> cacheMap = null;
+	private static ConcurrentHashMap<String, CacheObject> cacheMap = new ConcurrentHashMap<>();
+
+	/** The loads in progress, used to coalesce concurrent misses. */
+	private static ConcurrentHashMap<String, CompletableFuture<Object>> loadsInFlight = new ConcurrentHashMap<>();
 
 	/** The ttl. */
 	private static long ttl = 36000000; // default 10 hour
 
+	/** The refresh-ahead window, as a fraction of ttl. */
+	private static double refreshAheadFactor = 0.8;
+
+	/** The refresh executor. */
+	private static ExecutorService refreshExecutor = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "local-cache-refresh");
+		thread.setDaemon(true);
+		return thread;
+	});
+
 	/**
 	 * The Class CacheObject.
 	 *
@@ -30,32 +51,41 @@ public class LocalCache {
 	protected static class CacheObject {
 
 		/** The create on. */
-		public long createOn = System.currentTimeMillis();
+		public final long createOn = System.currentTimeMillis();
 
 		/** The value. */
-		public Object value;
+		public final Object value;
+
+		/** The loader used to refresh the value, if any. */
+		protected final Supplier<Object> loader;
+
+		/** Set while a background refresh is running. */
+		protected final AtomicBoolean refreshing = new AtomicBoolean(false);
 
 		/**
 		 * Instantiates a new cache object.
 		 *
 		 * @param value
 		 *            the value
+		 * @param loader
+		 *            the loader
 		 */
-		protected CacheObject(Object value) {
+		protected CacheObject(Object value, Supplier<Object> loader) {
 			this.value = value;
-			TelemetryManager.log("Local cache object value=" + value.toString() + "createOn=" + createOn);
+			this.loader = loader;
 		}
 	}
 
 	static {
-		init();
+		setTTL();
 	}
 
 	/**
 	 * Inits the.
 	 */
 	public static void init() {
-		cacheMap = new HashMap<String, CacheObject>();
+		cacheMap.clear();
+		loadsInFlight.clear();
 		setTTL();
 	}
 
@@ -67,20 +97,49 @@ public class LocalCache {
 	 * @return the object
 	 */
 	public static Object get(String key) {
-		CacheObject c = (CacheObject) cacheMap.get(key);
-
+		CacheObject c = cacheMap.get(key);
 		if (c == null)
 			return null;
-		else {
-			long now = System.currentTimeMillis();
-			if (now - c.createOn > ttl) {
-				TelemetryManager.log("Local cache object value=" + c.value.toString() + "createOn=" + c.createOn
-						+ " is expired now");
-				cacheMap.remove(key);
-				return null;
-			}
-			return c.value;
+		long age = System.currentTimeMillis() - c.createOn;
+		if (age > ttl) {
+			cacheMap.remove(key, c);
+			return null;
+		}
+		if (null != c.loader && age > ttl * refreshAheadFactor)
+			refreshAhead(key, c);
+		return c.value;
+	}
+
+	/**
+	 * Gets the value, loading it on a miss. Concurrent callers missing the same
+	 * key wait for a single load. Null values are returned but not cached.
+	 *
+	 * @param key
+	 *            the key
+	 * @param loader
+	 *            the loader
+	 * @return the object
+	 */
+	public static Object get(String key, Supplier<Object> loader) {
+		Object value = get(key);
+		if (null != value)
+			return value;
+		CompletableFuture<Object> load = new CompletableFuture<>();
+		CompletableFuture<Object> inFlight = loadsInFlight.putIfAbsent(key, load);
+		if (null != inFlight)
+			return inFlight.join();
+		try {
+			value = loader.get();
+			if (null != value)
+				cacheMap.put(key, new CacheObject(value, loader));
+			load.complete(value);
+		} catch (RuntimeException e) {
+			load.completeExceptionally(e);
+			throw e;
+		} finally {
+			loadsInFlight.remove(key, load);
 		}
+		return value;
 	}
 
 	/**
@@ -92,11 +151,41 @@ public class LocalCache {
 	 *            the value
 	 */
 	public static void set(String key, Object value) {
+		cacheMap.put(key, new CacheObject(value, null));
+	}
 
-		CacheObject cacheObj = new CacheObject(value);
-		cacheMap.put(key, cacheObj);
-		TelemetryManager.log("Local cache object value=" + cacheObj.value.toString() + "cacheObj.createOn="
-				+ cacheObj.createOn + " is set now");
+	/**
+	 * Removes the.
+	 *
+	 * @param key
+	 *            the key
+	 */
+	public static void remove(String key) {
+		cacheMap.remove(key);
+	}
+
+	/**
+	 * Reloads the value in the background, at most one refresh per entry.
+	 *
+	 * @param key
+	 *            the key
+	 * @param c
+	 *            the cache object
+	 */
+	private static void refreshAhead(String key, CacheObject c) {
+		if (!c.refreshing.compareAndSet(false, true))
+			return;
+		refreshExecutor.execute(() -> {
+			try {
+				Object value = c.loader.get();
+				if (null != value)
+					cacheMap.replace(key, c, new CacheObject(value, c.loader));
+			} catch (Exception e) {
+				TelemetryManager.error("Local cache refresh failed for key: " + key, e);
+			} finally {
+				c.refreshing.set(false);
+			}
+		});
 	}
 
 	/**
@@ -105,8 +194,23 @@ public class LocalCache {
 	 * @return the ttl
 	 */
 	private static void setTTL() {
-		if(Platform.config.hasPath("platform.cache.ttl"))
-			ttl = Long.parseLong(Platform.config.getString("platform.cache.ttl"));
+		setTTL(Platform.config.hasPath("platform.cache.ttl")
+				? Long.parseLong(Platform.config.getString("platform.cache.ttl")) : 36000000,
+				Platform.config.hasPath("platform.cache.refresh_ahead_factor")
+						? Platform.config.getDouble("platform.cache.refresh_ahead_factor") : 0.8);
+	}
+
+	/**
+	 * sets the ttl and the refresh-ahead window.
+	 *
+	 * @param ttl
+	 *            the ttl
+	 * @param refreshAheadFactor
+	 *            the refresh-ahead window, as a fraction of ttl
+	 */
+	static void setTTL(long ttl, double refreshAheadFactor) {
+		LocalCache.ttl = ttl;
+		LocalCache.refreshAheadFactor = refreshAheadFactor;
 	}
 
 	/**
@@ -125,6 +229,25 @@ public class LocalCache {
 		return value == null ? null : value.toString();
 	}
 
+	/**
+	 * Gets the def node property, loading it on a miss.
+	 *
+	 * @param graphId
+	 *            the graph id
+	 * @param objectType
+	 *            the object type
+	 * @param nodeProperty
+	 *            the node property
+	 * @param loader
+	 *            the loader
+	 * @return the def node property
+	 */
+	public static String getDefNodeProperty(String graphId, String objectType, String nodeProperty,
+			Supplier<Object> loader) {
+		Object value = get(getDefNodePropertyKey(graphId, objectType, nodeProperty), loader);
+		return value == null ? null : value.toString();
+	}
+
 	/**
 	 * Sets the def node property.
 	 *
@@ -0,0 +1,104 @@
+package org.sunbird.graph.service.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.sunbird.common.Platform;
+import org.neo4j.driver.v1.summary.ResultSummary;
+
+/**
+ * Cache of the generated Cypher query texts, keyed by query shape (query name
+ * plus the labels, relation types and keys that have to be in the text).
+ *
+ * Values always go in parameters, so one shape maps to one text and Neo4j
+ * plans it once. The Bolt summary carries no plan cache flag, so the metrics
+ * count the executions and the distinct texts of every query and the time the
+ * server took to the first result, which includes planning; a text executed
+ * many times with a low first result time is being served from the plan cache.
+ */
+public class QueryTemplateCache {
+
+	private static final int MAX_SIZE = Platform.config.hasPath("graph.query.template.cache.max_size")
+			? Platform.config.getInt("graph.query.template.cache.max_size") : 10000;
+
+	private static final Map<String, String> templates = new ConcurrentHashMap<>();
+	private static final Map<String, QueryMetrics> queryMetrics = new ConcurrentHashMap<>();
+	private static final LongAdder hits = new LongAdder();
+	private static final LongAdder misses = new LongAdder();
+
+	/**
+	 * Gets the query text of the shape, generating it on first use.
+	 *
+	 * @param shape
+	 *            the query name and every value that is part of the text
+	 * @param generator
+	 *            builds the text
+	 * @return the query text
+	 */
+	public static String get(String shape, Supplier<String> generator) {
+		String template = templates.get(shape);
+		if (null != template) {
+			hits.increment();
+			return template;
+		}
+		misses.increment();
+		template = generator.get();
+		if (templates.size() < MAX_SIZE)
+			templates.putIfAbsent(shape, template);
+		return template;
+	}
+
+	/**
+	 * Records an execution of the query from its result summary.
+	 *
+	 * @param queryName
+	 *            the query name
+	 * @param summary
+	 *            the summary of the consumed result
+	 */
+	public static void record(String queryName, ResultSummary summary) {
+		if (null == summary)
+			return;
+		QueryMetrics metrics = queryMetrics.computeIfAbsent(queryName, name -> new QueryMetrics());
+		metrics.executions.increment();
+		metrics.firstResultMs.add(summary.resultAvailableAfter(TimeUnit.MILLISECONDS));
+		metrics.consumedMs.add(summary.resultConsumedAfter(TimeUnit.MILLISECONDS));
+		if (null != summary.statement() && metrics.statements.size() < MAX_SIZE)
+			metrics.statements.putIfAbsent(summary.statement().text(), Boolean.TRUE);
+	}
+
+	public static Map<String, Object> getMetrics() {
+		Map<String, Object> queries = new HashMap<>();
+		for (Map.Entry<String, QueryMetrics> entry : queryMetrics.entrySet()) {
+			QueryMetrics metrics = entry.getValue();
+			long executions = metrics.executions.sum();
+			Map<String, Object> query = new HashMap<>();
+			query.put("executions", executions);
+			query.put("distinctStatements", metrics.statements.size());
+			query.put("avgFirstResultMs", (executions == 0) ? 0.0 : (double) metrics.firstResultMs.sum() / executions);
+			query.put("avgConsumedMs", (executions == 0) ? 0.0 : (double) metrics.consumedMs.sum() / executions);
+			queries.put(entry.getKey(), query);
+		}
+		long hitCount = hits.sum();
+		long lookups = hitCount + misses.sum();
+		Map<String, Object> metrics = new HashMap<>();
+		metrics.put("templates", templates.size());
+		metrics.put("templateHits", hitCount);
+		metrics.put("templateMisses", misses.sum());
+		metrics.put("templateHitRatio", (lookups == 0) ? 0.0 : (double) hitCount / lookups);
+		metrics.put("queries", queries);
+		return metrics;
+	}
+
+	private static class QueryMetrics {
+		private final LongAdder executions = new LongAdder();
+		private final LongAdder firstResultMs = new LongAdder();
+		private final LongAdder consumedMs = new LongAdder();
+		// texts are stable per shape, so this stays small unless a query inlines values.
+		private final Map<String, Boolean> statements = new ConcurrentHashMap<>();
+	}
+}
@@ -1,5 +1,9 @@
 package org.sunbird.graph.service.util;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.commons.lang3.StringUtils;
@@ -28,8 +32,9 @@ public class SearchQueryGenerationUtil {
 				throw new ClientException(DACErrorCodeConstants.INVALID_IDENTIFIER.name(),
 						DACErrorMessageConstants.INVALID_NODE_ID + " | ['Get Node By Id' Query Generation Failed.]");
 
-			query.append("MATCH (ee:" + graphId + ") WHERE id(ee) = " + nodeId
-					+ " OPTIONAL MATCH (ee)-[r]-() RETURN ee, r, startNode(r) as __startNode, endNode(r) as __endNode");
+			query.append(QueryTemplateCache.get("getNodeById:" + graphId, () -> "MATCH (ee:" + graphId
+					+ ") WHERE id(ee) = {nodeId} OPTIONAL MATCH (ee)-[r]-() RETURN ee, r, startNode(r) as __startNode, endNode(r) as __endNode"));
+			setParams(parameterMap, "nodeId", nodeId);
 
 		}
 
@@ -37,6 +42,32 @@ public class SearchQueryGenerationUtil {
 		return query.toString();
 	}
 
+	@SuppressWarnings("unchecked")
+	public static String generateGetNodesByIdsCypherQuery(Map<String, Object> parameterMap) {
+		StringBuilder query = new StringBuilder();
+		if (null != parameterMap) {
+			String graphId = (String) parameterMap.get(GraphDACParams.graphId.name());
+			if (StringUtils.isBlank(graphId))
+				throw new ClientException(DACErrorCodeConstants.INVALID_GRAPH.name(),
+						DACErrorMessageConstants.INVALID_GRAPH_ID + " | ['Get Nodes By Ids' Query Generation Failed.]");
+
+			Collection<Long> nodeIds = (Collection<Long>) parameterMap.get(GraphDACParams.node_ids.name());
+			if (null == nodeIds || nodeIds.isEmpty())
+				throw new ClientException(DACErrorCodeConstants.INVALID_IDENTIFIER.name(),
+						DACErrorMessageConstants.INVALID_NODE_ID + " | ['Get Nodes By Ids' Query Generation Failed.]");
+
+			query.append(QueryTemplateCache.get("getNodesByIds:" + graphId, () -> "UNWIND {nodeIds} AS nodeId MATCH (ee:"
+					+ graphId + ") WHERE id(ee) = nodeId "
+					+ "OPTIONAL MATCH (ee)-[r]->(__o) WITH ee, collect(CASE WHEN r IS NULL THEN null ELSE {rel: r, node: __o} END) AS __out "
+					+ "OPTIONAL MATCH (ee)<-[r]-(__i) WITH ee, __out, collect(CASE WHEN r IS NULL THEN null ELSE {rel: r, node: __i} END) AS __in "
+					+ "RETURN ee, __out, __in"));
+			setParams(parameterMap, "nodeIds", new ArrayList<Long>(nodeIds));
+		}
+
+		TelemetryManager.log("Returning Get Nodes By Ids Cypher Query: " + query);
+		return query.toString();
+	}
+
 	public static String generateGetNodeByUniqueIdCypherQuery(Map<String, Object> parameterMap) {
 
 		StringBuilder query = new StringBuilder();
@@ -52,8 +83,10 @@ public class SearchQueryGenerationUtil {
 						DACErrorMessageConstants.INVALID_IDENTIFIER
 								+ " | ['Get Node By Unique Id' Query Generation Failed.]");
 
-			query.append("MATCH (ee:" + graphId + " {" + SystemProperties.IL_UNIQUE_ID.name() + ": '" + nodeId
-					+ "'}) OPTIONAL MATCH (ee)-[r]-() RETURN ee, r, startNode(r) as __startNode, endNode(r) as __endNode");
+			query.append(QueryTemplateCache.get("getNodeByUniqueId:" + graphId, () -> "MATCH (ee:" + graphId + " {"
+					+ SystemProperties.IL_UNIQUE_ID.name()
+					+ ": {nodeId}}) OPTIONAL MATCH (ee)-[r]-() RETURN ee, r, startNode(r) as __startNode, endNode(r) as __endNode"));
+			setParams(parameterMap, "nodeId", nodeId);
 
 		}
 
@@ -76,9 +109,11 @@ public class SearchQueryGenerationUtil {
 						DACErrorMessageConstants.INVALID_PROPERTY
 								+ " | ['Get Nodes By Property' Query Generation Failed.]");
 
-			query.append("MATCH (ee:" + graphId + " {" + property.getPropertyName() + ": '"
-					+ property.getPropertyValue()
-					+ "'}) OPTIONAL MATCH (ee)-[r]-() RETURN ee, r, startNode(r) as __startNode, endNode(r) as __endNode");
+			query.append(QueryTemplateCache.get("getNodesByProperty:" + graphId + ":" + property.getPropertyName(),
+					() -> "MATCH (ee:" + graphId + " {" + property.getPropertyName()
+							+ ": {value}}) OPTIONAL MATCH (ee)-[r]-() RETURN ee, r, startNode(r) as __startNode, endNode(r) as __endNode"));
+			// the value used to be quoted into the query, so it is always matched as a string.
+			setParams(parameterMap, "value", String.valueOf(property.getPropertyValue()));
 		}
 
 		TelemetryManager.log("Returning Get Nodes By Property Cypher Query: " + query);
@@ -129,8 +164,10 @@ public class SearchQueryGenerationUtil {
 						DACErrorMessageConstants.INVALID_PROPERTY_KEY
 								+ " | ['Get Node Property' Query Generation Failed.]");
 
-			query.append("MATCH (ee:" + graphId + " {" + SystemProperties.IL_UNIQUE_ID.name() + ": '" + nodeId
-					+ "'}) OPTIONAL MATCH (ee)-[r]-() RETURN ee." + key + " as " + key + "");
+			query.append(QueryTemplateCache.get("getNodeProperty:" + graphId + ":" + key,
+					() -> "MATCH (ee:" + graphId + " {" + SystemProperties.IL_UNIQUE_ID.name()
+							+ ": {nodeId}}) OPTIONAL MATCH (ee)-[r]-() RETURN ee." + key + " as " + key + ""));
+			setParams(parameterMap, "nodeId", nodeId);
 		}
 
 		TelemetryManager.log("Returning Get Node Property Cypher Query: " + query);
@@ -170,6 +207,84 @@ public class SearchQueryGenerationUtil {
 		return query.toString();
 	}
 
+	/**
+	 * Page of nodes ordered by IL_UNIQUE_ID after the given identifier, with
+	 * the ids, types, end node identifiers and properties of their out
+	 * relations. Keyset paging reads the next page from the unique id index
+	 * however deep into the graph it is, where SKIP re-reads all the skipped
+	 * nodes.
+	 */
+	@SuppressWarnings("unchecked")
+	public static String generateGetNodesPageCypherQuery(Map<String, Object> parameterMap) {
+		StringBuilder query = new StringBuilder();
+		if (null != parameterMap) {
+			String graphId = (String) parameterMap.get(GraphDACParams.graphId.name());
+			if (StringUtils.isBlank(graphId))
+				throw new ClientException(DACErrorCodeConstants.INVALID_GRAPH.name(),
+						DACErrorMessageConstants.INVALID_GRAPH_ID + " | ['Get Nodes Page' Query Generation Failed.]");
+
+			List<String> nodeTypes = (List<String>) parameterMap.get(GraphDACParams.nodeType.name());
+			List<String> objectTypes = (List<String>) parameterMap.get(GraphDACParams.objectType.name());
+			String afterId = (String) parameterMap.get(GraphDACParams.afterId.name());
+			Integer pageSize = (Integer) parameterMap.get(GraphDACParams.pageSize.name());
+			query.append(QueryTemplateCache.get("getNodesPage:" + graphId + ":" + (null != nodeTypes) + ":"
+					+ (null != objectTypes), () -> "MATCH (ee:" + graphId + ") WHERE ee."
+					+ SystemProperties.IL_UNIQUE_ID.name() + " > {afterId}"
+					+ getNodeFilter(" AND ", nodeTypes, objectTypes) + " WITH ee ORDER BY ee."
+					+ SystemProperties.IL_UNIQUE_ID.name() + " LIMIT {pageSize} OPTIONAL MATCH (ee)-[r]->(__o:" + graphId
+					+ ")" + ((null == objectTypes) ? "" : " WHERE __o." + SystemProperties.IL_FUNC_OBJECT_TYPE.name()
+							+ " IN {objectTypes}")
+					+ " WITH ee, collect(CASE WHEN r IS NULL THEN null ELSE {id: id(r), type: type(r), node: __o."
+					+ SystemProperties.IL_UNIQUE_ID.name() + ", metadata: properties(r)} END) AS __out RETURN ee, __out ORDER BY ee."
+					+ SystemProperties.IL_UNIQUE_ID.name()));
+			setParams(parameterMap, "afterId", (null == afterId) ? "" : afterId, "pageSize",
+					(null == pageSize) ? 1000 : pageSize, "nodeTypes", nodeTypes, "objectTypes", objectTypes);
+		}
+
+		TelemetryManager.log("Returning Get Nodes Page Cypher Query: " + query);
+		return query.toString();
+	}
+
+	/**
+	 * Count, metadata keys and out relation types of the nodes, to size an
+	 * export and write its header before the first page is read.
+	 */
+	@SuppressWarnings("unchecked")
+	public static String generateGetNodesSummaryCypherQuery(Map<String, Object> parameterMap) {
+		StringBuilder query = new StringBuilder();
+		if (null != parameterMap) {
+			String graphId = (String) parameterMap.get(GraphDACParams.graphId.name());
+			if (StringUtils.isBlank(graphId))
+				throw new ClientException(DACErrorCodeConstants.INVALID_GRAPH.name(),
+						DACErrorMessageConstants.INVALID_GRAPH_ID + " | ['Get Nodes Summary' Query Generation Failed.]");
+
+			List<String> nodeTypes = (List<String>) parameterMap.get(GraphDACParams.nodeType.name());
+			List<String> objectTypes = (List<String>) parameterMap.get(GraphDACParams.objectType.name());
+			String filter = getNodeFilter(" WHERE ", nodeTypes, objectTypes);
+			query.append(QueryTemplateCache.get("getNodesSummary:" + graphId + ":" + (null != nodeTypes) + ":"
+					+ (null != objectTypes), () -> "MATCH (ee:" + graphId + ")" + filter
+					+ " WITH count(ee) AS count MATCH (ee:" + graphId + ")" + filter
+					+ " UNWIND keys(ee) AS key WITH count, collect(DISTINCT key) AS keys OPTIONAL MATCH (ee:" + graphId
+					+ ")-[r]->(__o:" + graphId + ")" + filter
+					+ ((null == objectTypes) ? "" : (filter.isEmpty() ? " WHERE " : " AND ") + "__o."
+							+ SystemProperties.IL_FUNC_OBJECT_TYPE.name() + " IN {objectTypes}")
+					+ " RETURN count, keys, collect(DISTINCT type(r)) AS relationTypes"));
+			setParams(parameterMap, "nodeTypes", nodeTypes, "objectTypes", objectTypes);
+		}
+
+		TelemetryManager.log("Returning Get Nodes Summary Cypher Query: " + query);
+		return query.toString();
+	}
+
+	private static String getNodeFilter(String prefix, List<String> nodeTypes, List<String> objectTypes) {
+		List<String> conditions = new ArrayList<String>();
+		if (null != nodeTypes)
+			conditions.add("ee." + SystemProperties.IL_SYS_NODE_TYPE.name() + " IN {nodeTypes}");
+		if (null != objectTypes)
+			conditions.add("ee." + SystemProperties.IL_FUNC_OBJECT_TYPE.name() + " IN {objectTypes}");
+		return conditions.isEmpty() ? "" : prefix + StringUtils.join(conditions, " AND ");
+	}
+
 	public static String generateGetRelationPropertyCypherQuery(Map<String, Object> parameterMap) {
 		StringBuilder query = new StringBuilder();
 		if (null != parameterMap) {
@@ -203,9 +318,11 @@ public class SearchQueryGenerationUtil {
 						DACErrorMessageConstants.INVALID_PROPERTY_KEY
 								+ " | ['Get Relation Property' Query Generation Failed.]");
 
-			query.append("MATCH (ee:" + graphId + " {" + SystemProperties.IL_UNIQUE_ID.name() + ": '" + startNodeId
-					+ "'})-[r:" + relationType + "]-(aa:" + graphId + " {" + SystemProperties.IL_UNIQUE_ID.name()
-					+ ": '" + endNodeId + "'}) RETURN r." + key + " as " + key + "");
+			query.append(QueryTemplateCache.get("getRelationProperty:" + graphId + ":" + relationType + ":" + key,
+					() -> "MATCH (ee:" + graphId + " {" + SystemProperties.IL_UNIQUE_ID.name() + ": {startNodeId}})-[r:"
+							+ relationType + "]-(aa:" + graphId + " {" + SystemProperties.IL_UNIQUE_ID.name()
+							+ ": {endNodeId}}) RETURN r." + key + " as " + key + ""));
+			setParams(parameterMap, "startNodeId", startNodeId, "endNodeId", endNodeId);
 		}
 
 		TelemetryManager.log("Returning Get Relation Property Cypher Query: " + query);
@@ -226,13 +343,38 @@ public class SearchQueryGenerationUtil {
 						DACErrorMessageConstants.INVALID_IDENTIFIER
 								+ " | ['Get Relation By Id' Query Generation Failed.]");
 
-			query.append("MATCH ()-[r]-() where ID(r)= " + id + " RETURN r, startNode(r) as __startNode, endNode(r) as __endNode");
+			query.append("MATCH ()-[r]-() where ID(r)= {id} RETURN r, startNode(r) as __startNode, endNode(r) as __endNode");
+			setParams(parameterMap, "id", id);
 		}
 
 		TelemetryManager.log("Returning Get Relation By Id Cypher Query: " + query);
 		return query.toString();
 	}
 
+	@SuppressWarnings("unchecked")
+	public static String generateGetRelationsByIdsCypherQuery(Map<String, Object> parameterMap) {
+		StringBuilder query = new StringBuilder();
+		if (null != parameterMap) {
+			String graphId = (String) parameterMap.get(GraphDACParams.graphId.name());
+			if (StringUtils.isBlank(graphId))
+				throw new ClientException(DACErrorCodeConstants.INVALID_GRAPH.name(),
+						DACErrorMessageConstants.INVALID_GRAPH_ID + " | ['Get Relations By Ids' Query Generation Failed.]");
+
+			Collection<Long> relationIds = (Collection<Long>) parameterMap.get(GraphDACParams.relations.name());
+			if (null == relationIds || relationIds.isEmpty())
+				throw new ClientException(DACErrorCodeConstants.INVALID_IDENTIFIER.name(),
+						DACErrorMessageConstants.INVALID_IDENTIFIER
+								+ " | ['Get Relations By Ids' Query Generation Failed.]");
+
+			query.append("UNWIND {relationIds} AS relationId MATCH ()-[r]->() WHERE id(r) = relationId "
+					+ "RETURN r, startNode(r) as __startNode, endNode(r) as __endNode");
+			setParams(parameterMap, "relationIds", new ArrayList<Long>(relationIds));
+		}
+
+		TelemetryManager.log("Returning Get Relations By Ids Cypher Query: " + query);
+		return query.toString();
+	}
+
 	public static String generateGetRelationCypherQuery(Map<String, Object> parameterMap) {
 		StringBuilder query = new StringBuilder();
 		if (null != parameterMap) {
@@ -258,9 +400,11 @@ public class SearchQueryGenerationUtil {
 				throw new ClientException(DACErrorCodeConstants.INVALID_IDENTIFIER.name(),
 						DACErrorMessageConstants.INVALID_END_NODE_ID + " | ['Get Relation' Query Generation Failed.]");
 
-			query.append("MATCH (ee:" + graphId + " {" + SystemProperties.IL_UNIQUE_ID.name() + ": '" + startNodeId
-					+ "'})-[r:" + relationType + "]-(aa:" + graphId + " {" + SystemProperties.IL_UNIQUE_ID.name()
-					+ ": '" + endNodeId + "'}) RETURN r, startNode(r) as __startNode, endNode(r) as __endNode");
+			query.append(QueryTemplateCache.get("getRelation:" + graphId + ":" + relationType,
+					() -> "MATCH (ee:" + graphId + " {" + SystemProperties.IL_UNIQUE_ID.name() + ": {startNodeId}})-[r:"
+							+ relationType + "]-(aa:" + graphId + " {" + SystemProperties.IL_UNIQUE_ID.name()
+							+ ": {endNodeId}}) RETURN r, startNode(r) as __startNode, endNode(r) as __endNode"));
+			setParams(parameterMap, "startNodeId", startNodeId, "endNodeId", endNodeId);
 
 		}
 
@@ -295,9 +439,11 @@ public class SearchQueryGenerationUtil {
 						DACErrorMessageConstants.INVALID_END_NODE_ID
 								+ " | ['Check Cyclic Loop' Query Generation Failed.]");
 
-			query.append("MATCH (ee:" + graphId + " { " + SystemProperties.IL_UNIQUE_ID.name() + ": '" + startNodeId
-					+ "' })-[:" + relationType + "*1..]->(aa:" + graphId + "{" + SystemProperties.IL_UNIQUE_ID.name()
-					+ ": '" + endNodeId + "'}) RETURN aa");
+			query.append(QueryTemplateCache.get("checkCyclicLoop:" + graphId + ":" + relationType,
+					() -> "MATCH (ee:" + graphId + " { " + SystemProperties.IL_UNIQUE_ID.name() + ": {startNodeId} })-[:"
+							+ relationType + "*1..]->(aa:" + graphId + "{" + SystemProperties.IL_UNIQUE_ID.name()
+							+ ": {endNodeId}}) RETURN aa"));
+			setParams(parameterMap, "startNodeId", startNodeId, "endNodeId", endNodeId);
 
 		}
 
@@ -443,4 +589,21 @@ public class SearchQueryGenerationUtil {
 		return query.toString();
 	}
 
+	/**
+	 * Gets the parameter values of the last query generated from the parameter
+	 * map, to be passed along with the query text.
+	 */
+	@SuppressWarnings("unchecked")
+	public static Map<String, Object> getParams(Map<String, Object> parameterMap) {
+		Map<String, Object> params = (Map<String, Object>) parameterMap.get(GraphDACParams.paramValueMap.name());
+		return (null == params) ? new HashMap<String, Object>() : params;
+	}
+
+	private static void setParams(Map<String, Object> parameterMap, Object... keyValues) {
+		Map<String, Object> params = new HashMap<String, Object>();
+		for (int i = 0; i < keyValues.length; i += 2)
+			params.put((String) keyValues[i], keyValues[i + 1]);
+		parameterMap.put(GraphDACParams.paramValueMap.name(), params);
+	}
+
 }
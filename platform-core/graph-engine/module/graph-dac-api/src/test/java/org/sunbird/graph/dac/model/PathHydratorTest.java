@@ -0,0 +1,50 @@
+package org.sunbird.graph.dac.model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.neo4j.driver.internal.InternalNode;
+import org.neo4j.driver.internal.InternalRecord;
+import org.neo4j.driver.internal.InternalRelationship;
+import org.neo4j.driver.internal.value.ListValue;
+import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.Value;
+import org.neo4j.driver.v1.Values;
+
+public class PathHydratorTest {
+
+	private static InternalNode getNode(long id, String identifier) {
+		return new InternalNode(id, Collections.singletonList("domain"),
+				Collections.singletonMap("IL_UNIQUE_ID", Values.value(identifier)));
+	}
+
+	private static Record getRecord(InternalNode start, InternalNode end, InternalRelationship relation) {
+		return new InternalRecord(Arrays.asList("startNode", "endNode", "nodes", "relations"),
+				new Value[] { start.asValue(), end.asValue(), new ListValue(start.asValue(), end.asValue()),
+						new ListValue(relation.asValue()) });
+	}
+
+	@Test
+	public void testIdsOnlyPathsShareNodes() {
+		InternalNode root = getNode(1, "do_1");
+		InternalNode first = getNode(2, "do_2");
+		InternalNode second = getNode(3, "do_3");
+		PathHydrator hydrator = new PathHydrator("domain", true);
+		hydrator.add(getRecord(root, first, new InternalRelationship(10, 1, 2, "hasSequenceMember")));
+		hydrator.add(getRecord(root, second, new InternalRelationship(11, 1, 3, "hasSequenceMember")));
+		List<Path> paths = hydrator.getPaths();
+
+		Assert.assertEquals(2, paths.size());
+		Assert.assertSame(paths.get(0).getStartNode(), paths.get(1).getStartNode());
+		Assert.assertEquals("do_1", paths.get(0).getStartNode().getIdentifier());
+		Assert.assertEquals("do_3", paths.get(1).getEndNode().getIdentifier());
+		Relation relation = paths.get(1).getRelations().get(0);
+		Assert.assertEquals(11, relation.getId());
+		Assert.assertEquals("do_1", relation.getStartNodeId());
+		Assert.assertEquals("hasSequenceMember", relation.getRelationType());
+		Assert.assertEquals("do_3", relation.getEndNodeId());
+	}
+}
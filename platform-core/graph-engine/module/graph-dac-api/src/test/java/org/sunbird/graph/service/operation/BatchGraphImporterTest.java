@@ -0,0 +1,193 @@
+package org.sunbird.graph.service.operation;
+
+import static org.mockito.Matchers.anyMapOf;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.Session;
+import org.neo4j.driver.v1.StatementResult;
+import org.neo4j.driver.v1.Transaction;
+import org.neo4j.driver.v1.Value;
+import org.neo4j.driver.v1.summary.ResultSummary;
+import org.neo4j.driver.v1.summary.SummaryCounters;
+import org.sunbird.graph.dac.model.Node;
+import org.sunbird.graph.dac.model.Relation;
+
+public class BatchGraphImporterTest {
+
+	private Set<String> graphNodes = new HashSet<>();
+	private List<Integer> transactionSizes = new ArrayList<>();
+	// the nodes and the relations to nodes of earlier transactions, in write order.
+	private List<String> writes = new ArrayList<>();
+	private Session session;
+
+	@Before
+	public void setup() {
+		session = mock(Session.class);
+		when(session.beginTransaction()).then(invocation -> getTransaction());
+	}
+
+	@Test
+	public void testNodesAreWrittenInBatches() {
+		BatchGraphImporter importer = new BatchGraphImporter("test", 2, 100);
+		Map<String, List<String>> messages = importer.importNodes(session,
+				Arrays.asList(getNode("do_1"), getNode("do_2"), getNode("do_3")).iterator());
+		Assert.assertTrue(messages.isEmpty());
+		Assert.assertEquals(Arrays.asList(2, 1), transactionSizes);
+		Assert.assertEquals(3, importer.getNodesCount());
+	}
+
+	@Test
+	public void testFailedBatchIsWrittenOneRowAtATime() {
+		BatchGraphImporter importer = new BatchGraphImporter("test", 3, 100);
+		Map<String, List<String>> messages = importer.importNodes(session,
+				Arrays.asList(getNode("do_1"), getNode("bad"), getNode("do_3")).iterator());
+		Assert.assertEquals(Collections.singleton("bad"), messages.keySet());
+		Assert.assertEquals(Arrays.asList(3, 1, 1, 1), transactionSizes);
+		Assert.assertEquals(new HashSet<>(Arrays.asList("do_1", "do_3")), graphNodes);
+		Assert.assertEquals(2, importer.getNodesCount());
+	}
+
+	@Test
+	public void testRelationToLaterNodeIsRetried() {
+		BatchGraphImporter importer = new BatchGraphImporter("test", 1, 100);
+		Node first = getNode("do_1");
+		first.setOutRelations(Arrays.asList(new Relation("do_1", "associatedTo", "do_2"),
+				new Relation("do_1", "associatedTo", "do_missing")));
+		Map<String, List<String>> messages = importer.importNodes(session,
+				Arrays.asList(first, getNode("do_2")).iterator());
+		// do_2 is created by the second batch, so only do_missing is reported.
+		Assert.assertEquals(1, importer.getRelationsCount());
+		Assert.assertEquals(1, messages.get("do_1").size());
+		Assert.assertTrue(messages.get("do_1").get(0).contains("do_missing"));
+	}
+
+	@Test
+	public void testRelationIsWrittenWithItsEndNode() {
+		BatchGraphImporter importer = new BatchGraphImporter("test", 1, 100);
+		Node first = getNode("do_1");
+		first.setOutRelations(Arrays.asList(new Relation("do_1", "associatedTo", "do_2")));
+		importer.importNodes(session, Arrays.asList(first, getNode("do_2"), getNode("do_3")).iterator());
+		// written after the batch of do_2, before the batch of do_3.
+		Assert.assertEquals(Arrays.asList(1, 1, 1), transactionSizes);
+		Assert.assertEquals(Arrays.asList("do_1", "do_2", "do_1->do_2", "do_3"), writes);
+		Assert.assertEquals(1, importer.getRelationsCount());
+	}
+
+	@Test
+	public void testPendingRelationsAreSpilled() {
+		BatchGraphImporter importer = new BatchGraphImporter("test", 1, 1);
+		Node first = getNode("do_1");
+		first.setOutRelations(Arrays.asList(new Relation("do_1", "associatedTo", "do_3"),
+				new Relation("do_1", "hasSequenceMember", "do_4"), new Relation("do_1", "associatedTo", "do_5")));
+		Map<String, List<String>> messages = importer.importNodes(session,
+				Arrays.asList(first, getNode("do_2"), getNode("do_3"), getNode("do_4")).iterator());
+		// spilled relations are written after the last batch, do_5 is never imported.
+		Assert.assertEquals(Arrays.asList("do_1", "do_2", "do_3", "do_4"), writes.subList(0, 4));
+		Assert.assertEquals(new HashSet<>(Arrays.asList("do_1->do_3", "do_1->do_4")),
+				new HashSet<>(writes.subList(4, writes.size())));
+		Assert.assertEquals(2, importer.getRelationsCount());
+		Assert.assertEquals(1, messages.get("do_1").size());
+		Assert.assertTrue(messages.get("do_1").get(0).contains("do_5"));
+	}
+
+	@Test
+	public void testUnreadableRowIsReported() {
+		BatchGraphImporter importer = new BatchGraphImporter("test", 10, 100);
+		Node noType = getNode("do_2");
+		noType.setNodeType(null);
+		Map<String, List<String>> messages = importer.importNodes(session,
+				Arrays.asList(getNode("do_1"), noType).iterator());
+		Assert.assertEquals(Collections.singleton("row[2]"), messages.keySet());
+		Assert.assertEquals(1, importer.getNodesCount());
+	}
+
+	private Node getNode(String identifier) {
+		Node node = new Node("test", new HashMap<>());
+		node.setIdentifier(identifier);
+		node.setNodeType("DATA_NODE");
+		node.setObjectType("Content");
+		return node;
+	}
+
+	/**
+	 * Fake transaction over graphNodes: the nodes merged in it are only added
+	 * to the graph on success, and a batch with the node "bad" fails.
+	 */
+	@SuppressWarnings("unchecked")
+	private Transaction getTransaction() {
+		Transaction tx = mock(Transaction.class);
+		Set<String> merged = new HashSet<>();
+		boolean[] success = new boolean[1];
+		when(tx.run(anyString(), anyMapOf(String.class, Object.class))).then(invocation -> {
+			String query = (String) invocation.getArguments()[0];
+			List<Map<String, Object>> batch = (List<Map<String, Object>>) ((Map<String, Object>) invocation
+					.getArguments()[1]).get("batch");
+			if (query.contains("MERGE (n:")) {
+				transactionSizes.add(batch.size());
+				for (Map<String, Object> row : batch) {
+					if ("bad".equals(row.get("identifier")))
+						throw new IllegalStateException("Invalid node bad");
+					merged.add((String) row.get("identifier"));
+					writes.add((String) row.get("identifier"));
+				}
+				return getResult(Collections.emptyList(), merged.size(), 0);
+			}
+			if (query.contains("MERGE (from)")) {
+				List<Record> records = new ArrayList<>();
+				for (Map<String, Object> row : batch) {
+					if (graphNodes.contains(row.get("to")) || merged.contains(row.get("to"))) {
+						records.add(getRecord((Integer) row.get("index")));
+						if (!merged.contains(row.get("to")))
+							writes.add(row.get("from") + "->" + row.get("to"));
+					}
+				}
+				return getResult(records, 0, records.size());
+			}
+			return getResult(Collections.emptyList(), 0, 0);
+		});
+		doAnswer(invocation -> success[0] = true).when(tx).success();
+		doAnswer(invocation -> {
+			if (success[0])
+				graphNodes.addAll(merged);
+			return null;
+		}).when(tx).close();
+		return tx;
+	}
+
+	private StatementResult getResult(List<Record> records, int nodesCreated, int relationshipsCreated) {
+		SummaryCounters counters = mock(SummaryCounters.class);
+		when(counters.nodesCreated()).thenReturn(nodesCreated);
+		when(counters.relationshipsCreated()).thenReturn(relationshipsCreated);
+		ResultSummary summary = mock(ResultSummary.class);
+		when(summary.counters()).thenReturn(counters);
+		StatementResult result = mock(StatementResult.class);
+		when(result.list()).thenReturn(records);
+		when(result.summary()).thenReturn(summary);
+		when(result.consume()).thenReturn(summary);
+		return result;
+	}
+
+	private Record getRecord(int index) {
+		Value value = mock(Value.class);
+		when(value.asInt()).thenReturn(index);
+		Record record = mock(Record.class);
+		when(record.get("index")).thenReturn(value);
+		return record;
+	}
+}
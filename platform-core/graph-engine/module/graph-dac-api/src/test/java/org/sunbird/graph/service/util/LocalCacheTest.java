@@ -0,0 +1,112 @@
+package org.sunbird.graph.service.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LocalCacheTest {
+
+	@Before
+	public void init() {
+		LocalCache.init();
+	}
+
+	@Test
+	public void testSetAndGet() {
+		LocalCache.setDefNodeProperty("domain", "Content", "versionCheckMode", "STRICT");
+		Assert.assertEquals("STRICT", LocalCache.getDefNodeProperty("domain", "Content", "versionCheckMode"));
+		Assert.assertNull(LocalCache.getDefNodeProperty("domain", "Asset", "versionCheckMode"));
+	}
+
+	@Test
+	public void testGetWithLoaderCachesValue() {
+		AtomicInteger loads = new AtomicInteger();
+		for (int i = 0; i < 5; i++) {
+			String value = LocalCache.getDefNodeProperty("domain", "Content", "versionCheckMode", () -> {
+				loads.incrementAndGet();
+				return "OFF";
+			});
+			Assert.assertEquals("OFF", value);
+		}
+		Assert.assertEquals(1, loads.get());
+	}
+
+	@Test
+	public void testGetWithLoaderDoesNotCacheNull() {
+		AtomicInteger loads = new AtomicInteger();
+		for (int i = 0; i < 3; i++) {
+			Assert.assertNull(LocalCache.get("domain:Content:none", () -> {
+				loads.incrementAndGet();
+				return null;
+			}));
+		}
+		Assert.assertEquals(3, loads.get());
+	}
+
+	@Test
+	public void testConcurrentMissesShareOneLoad() throws Exception {
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		List<Thread> threads = new ArrayList<>();
+		List<Object> values = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			Thread thread = new Thread(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				Object value = LocalCache.get("domain:Content:versionCheckMode", () -> {
+					loads.incrementAndGet();
+					try {
+						Thread.sleep(200);
+					} catch (InterruptedException e) {
+					}
+					return "STRICT";
+				});
+				synchronized (values) {
+					values.add(value);
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		start.countDown();
+		for (Thread thread : threads)
+			thread.join();
+		Assert.assertEquals(1, loads.get());
+		Assert.assertEquals(50, values.size());
+		for (Object value : values)
+			Assert.assertEquals("STRICT", value);
+	}
+
+	@Test
+	public void testRefreshReturningNullIsRetried() throws Exception {
+		LocalCache.setTTL(2000, 0.05);
+		AtomicInteger loads = new AtomicInteger();
+		AtomicReference<Object> next = new AtomicReference<>("STRICT");
+		String key = "domain:Content:refresh";
+		Assert.assertEquals("STRICT", LocalCache.get(key, () -> {
+			loads.incrementAndGet();
+			return next.get();
+		}));
+		next.set(null);
+		Thread.sleep(200);
+		getUntilLoaded(key, loads, 2);
+		getUntilLoaded(key, loads, 3);
+	}
+
+	private void getUntilLoaded(String key, AtomicInteger loads, int expected) throws InterruptedException {
+		for (int i = 0; i < 50 && loads.get() < expected; i++) {
+			Assert.assertEquals("STRICT", LocalCache.get(key));
+			Thread.sleep(20);
+		}
+		Assert.assertEquals(expected, loads.get());
+	}
+}
@@ -0,0 +1,99 @@
+package org.sunbird.graph.service.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.sunbird.common.dto.Property;
+import org.sunbird.graph.dac.enums.GraphDACParams;
+import org.sunbird.graph.dac.enums.RelationProjection;
+import org.sunbird.graph.dac.model.SearchCriteria;
+
+public class SearchQueryGenerationUtilTest {
+
+	private static Map<String, Object> getParameterMap(String nodeId) {
+		Map<String, Object> parameterMap = new HashMap<String, Object>();
+		parameterMap.put(GraphDACParams.graphId.name(), "domain");
+		parameterMap.put(GraphDACParams.nodeId.name(), nodeId);
+		return parameterMap;
+	}
+
+	@Test
+	public void testGetNodeByUniqueIdQueryIsStable() {
+		Map<String, Object> first = getParameterMap("do_1");
+		Map<String, Object> second = getParameterMap("do_2");
+		String query = SearchQueryGenerationUtil.generateGetNodeByUniqueIdCypherQuery(first);
+		Assert.assertEquals(query, SearchQueryGenerationUtil.generateGetNodeByUniqueIdCypherQuery(second));
+		Assert.assertFalse(query.contains("do_1"));
+		Assert.assertEquals("do_1", SearchQueryGenerationUtil.getParams(first).get("nodeId"));
+		Assert.assertEquals("do_2", SearchQueryGenerationUtil.getParams(second).get("nodeId"));
+	}
+
+	@Test
+	public void testGetNodesByPropertyQueryIsStable() {
+		Map<String, Object> parameterMap = new HashMap<String, Object>();
+		parameterMap.put(GraphDACParams.graphId.name(), "domain");
+		parameterMap.put(GraphDACParams.property.name(), new Property("name", "it's a test"));
+		String query = SearchQueryGenerationUtil.generateGetNodesByPropertyCypherQuery(parameterMap);
+		Assert.assertTrue(query.contains("name: {value}"));
+		Assert.assertEquals("it's a test", SearchQueryGenerationUtil.getParams(parameterMap).get("value"));
+	}
+
+	@Test
+	public void testSearchCriteriaPagesWithParams() {
+		SearchCriteria searchCriteria = new SearchCriteria();
+		searchCriteria.setObjectType("Content");
+		searchCriteria.setStartPosition(20);
+		searchCriteria.setResultSize(10);
+		Map<String, Object> parameterMap = new HashMap<String, Object>();
+		parameterMap.put(GraphDACParams.graphId.name(), "domain");
+		parameterMap.put(GraphDACParams.searchCriteria.name(), searchCriteria);
+		String query = SearchQueryGenerationUtil.generateSearchNodesCypherQuery(parameterMap);
+		Assert.assertTrue(query.contains("SKIP {skip} LIMIT {limit}"));
+		Assert.assertEquals(20, searchCriteria.getParams().get("skip"));
+		Assert.assertEquals(10, searchCriteria.getParams().get("limit"));
+	}
+
+	@Test
+	public void testSearchCriteriaRelationProjection() {
+		SearchCriteria searchCriteria = new SearchCriteria();
+		searchCriteria.setObjectType("Content");
+		searchCriteria.setGraphId("domain");
+		String query = searchCriteria.getQuery();
+		Assert.assertTrue(query.contains("RETURN ee, __out, __in"));
+		Assert.assertFalse(query.contains("__startNode"));
+
+		searchCriteria.setRelationProjection(RelationProjection.IDS);
+		searchCriteria.setRelationTypes(Arrays.asList("hasSequenceMember"));
+		searchCriteria.setRelationLimit(100);
+		query = searchCriteria.getQuery();
+		Assert.assertTrue(query.contains("WHERE type(r) IN {relationTypes}"));
+		Assert.assertTrue(query.contains("[..{relationLimit}] AS __out"));
+		Assert.assertEquals(100, searchCriteria.getParams().get("relationLimit"));
+
+		searchCriteria.setRelationProjection(RelationProjection.NONE);
+		query = searchCriteria.getQuery();
+		Assert.assertTrue(query.endsWith("RETURN ee "));
+	}
+
+	@Test
+	public void testGetNodesPageUsesKeysetParams() {
+		Map<String, Object> parameterMap = new HashMap<String, Object>();
+		parameterMap.put(GraphDACParams.graphId.name(), "domain");
+		parameterMap.put(GraphDACParams.afterId.name(), "do_9");
+		parameterMap.put(GraphDACParams.pageSize.name(), 500);
+		parameterMap.put(GraphDACParams.objectType.name(), Arrays.asList("Content"));
+		String query = SearchQueryGenerationUtil.generateGetNodesPageCypherQuery(parameterMap);
+		Assert.assertTrue(query.contains("ee.IL_UNIQUE_ID > {afterId}"));
+		Assert.assertTrue(query.contains("ee.IL_FUNC_OBJECT_TYPE IN {objectTypes}"));
+		// relations are exported only between nodes of the object types.
+		Assert.assertTrue(query.contains("WHERE __o.IL_FUNC_OBJECT_TYPE IN {objectTypes}"));
+		Assert.assertFalse(query.contains("IL_SYS_NODE_TYPE"));
+		Assert.assertFalse(query.contains("SKIP"));
+		Map<String, Object> params = SearchQueryGenerationUtil.getParams(parameterMap);
+		Assert.assertEquals("do_9", params.get("afterId"));
+		Assert.assertEquals(500, params.get("pageSize"));
+	}
+}
@@ -149,6 +149,40 @@ public class Neo4JBoltSearchMgrImpl extends BaseDACMgr implements IGraphDACSearc
         }
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+	public Response getNodesPage(Request request) {
+        String graphId = (String) request.getContext().get(GraphHeaderParams.graph_id.name());
+        String afterId = (String) request.get(GraphDACParams.afterId.name());
+        Integer pageSize = (Integer) request.get(GraphDACParams.pageSize.name());
+        List<String> nodeTypes = (List<String>) request.get(GraphDACParams.nodeType.name());
+        List<String> objectTypes = (List<String>) request.get(GraphDACParams.objectType.name());
+        if (!validateRequired(pageSize))
+            throw new ClientException(GraphDACErrorCodes.ERR_SEARCH_NODES_MISSING_REQ_PARAMS.name(), "Required parameters are missing");
+        try {
+			List<Node> nodes = Neo4JBoltSearchOperations.getNodesPage(graphId, afterId, pageSize, nodeTypes,
+					objectTypes, request);
+			return OK(GraphDACParams.node_list.name(), nodes);
+        } catch (Exception e) {
+			return ERROR(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+	public Response getNodesSummary(Request request) {
+        String graphId = (String) request.getContext().get(GraphHeaderParams.graph_id.name());
+        List<String> nodeTypes = (List<String>) request.get(GraphDACParams.nodeType.name());
+        List<String> objectTypes = (List<String>) request.get(GraphDACParams.objectType.name());
+        try {
+			Map<String, Object> summary = Neo4JBoltSearchOperations.getNodesSummary(graphId, nodeTypes, objectTypes,
+					request);
+			return OK(summary);
+        } catch (Exception e) {
+			return ERROR(e);
+        }
+    }
+
     @Override
 	public Response getAllRelations(Request request) {
         String graphId = (String) request.getContext().get(GraphHeaderParams.graph_id.name());
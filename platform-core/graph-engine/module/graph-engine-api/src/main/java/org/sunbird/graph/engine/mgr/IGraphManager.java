@@ -77,14 +77,37 @@ public interface IGraphManager {
     void importGraph(Request request);
     
     /**
-     * Exports the graph database into RDF or JSON format.
+     * Exports the graph database into RDF or JSON format. The whole graph is
+     * exported in the background: the response only has the export id, see
+     * getExportProgress and getExportFile.
      * 
      * @request - GRAPH_ID as request context variable
      * @request - FORMAT format of the output
-     * @response - OUTPUT Graph in the specified format
+     * @response - OUTPUT Graph in the specified format, for a search export
+     * @response - EXPORT_ID id of the export, for a whole graph export
      * @response - STATUS API call status 
      */
     void exportGraph(Request request);
+
+    /**
+     * Gets the progress of a running or recently ended graph export.
+     * 
+     * @request - GRAPH_ID as request context variable
+     * @request - EXPORT_ID id of the export
+     * @response - EXPORT_PROGRESS status and node and relation counts
+     * @response - STATUS API call status 
+     */
+    void getExportProgress(Request request);
+
+    /**
+     * Gets the file of a completed graph export. The file is handed out once.
+     * 
+     * @request - GRAPH_ID as request context variable
+     * @request - EXPORT_ID id of the export
+     * @response - EXPORT_FILE path of the export file, to be deleted once read
+     * @response - STATUS API call status 
+     */
+    void getExportFile(Request request);
     
     /**
      * Creates the specified relation between two given nodes. Relation
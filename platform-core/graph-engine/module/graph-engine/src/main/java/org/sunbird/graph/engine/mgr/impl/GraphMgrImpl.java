@@ -149,6 +149,38 @@ public class GraphMgrImpl extends BaseGraphManager implements IGraphManager {
         }
     }
 
+    @Override
+    public void getExportProgress(Request request) {
+        String graphId = (String) request.getContext().get(GraphHeaderParams.graph_id.name());
+        String exportId = (String) request.get(GraphEngineParams.export_id.name());
+        if (!validateRequired(exportId)) {
+            throw new ClientException(GraphEngineErrorCodes.ERR_GRAPH_EXPORT_NOT_FOUND.name(), "Required parameters are missing...");
+        } else {
+            try {
+                Graph graph = new Graph(this, graphId);
+                graph.getExportProgress(request);
+            } catch (Exception e) {
+                handleException(e, getSender());
+            }
+        }
+    }
+
+    @Override
+    public void getExportFile(Request request) {
+        String graphId = (String) request.getContext().get(GraphHeaderParams.graph_id.name());
+        String exportId = (String) request.get(GraphEngineParams.export_id.name());
+        if (!validateRequired(exportId)) {
+            throw new ClientException(GraphEngineErrorCodes.ERR_GRAPH_EXPORT_NOT_FOUND.name(), "Required parameters are missing...");
+        } else {
+            try {
+                Graph graph = new Graph(this, graphId);
+                graph.getExportFile(request);
+            } catch (Exception e) {
+                handleException(e, getSender());
+            }
+        }
+    }
+
 	@SuppressWarnings("unchecked")
 	@Override
     public void createRelation(Request request) {
@@ -0,0 +1,241 @@
+package org.sunbird.common.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
+
+/**
+ * In-process cache bounded by entry count and total weight, with a per-entry
+ * time to live.
+ *
+ * Reads are lock-free: a hit only marks the entry as referenced. Eviction uses
+ * the CLOCK (second chance) approximation of LRU over the insertion queue, so
+ * entries read since the hand last passed them survive one more round.
+ * Expired entries are dropped on read and whenever the hand reaches them.
+ */
+public class BoundedCache<K, V> {
+
+	private static final int MAX_EVICTION_SCAN_FACTOR = 2;
+
+	private final String name;
+	private final long maxSize;
+	private final long maxWeight;
+	private final long ttl;
+	private final ToLongFunction<V> weigher;
+
+	private final ConcurrentHashMap<K, CacheEntry<K, V>> data = new ConcurrentHashMap<>();
+	private final ConcurrentLinkedQueue<CacheEntry<K, V>> clock = new ConcurrentLinkedQueue<>();
+	private final ReentrantLock evictionLock = new ReentrantLock();
+	private final AtomicLong weight = new AtomicLong();
+	private final AtomicLong clockLength = new AtomicLong();
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	private final LongAdder expirations = new LongAdder();
+
+	/**
+	 * Creates a cache bounded by entry count only. Every entry weighs 1.
+	 *
+	 * @param name
+	 *            cache name, used for metrics
+	 * @param maxSize
+	 *            maximum number of entries
+	 * @param ttl
+	 *            time to live in milliseconds, 0 or less for no expiry
+	 */
+	public BoundedCache(String name, long maxSize, long ttl) {
+		this(name, maxSize, Long.MAX_VALUE, ttl, null);
+	}
+
+	/**
+	 * Creates a cache bounded by entry count and total weight.
+	 *
+	 * @param name
+	 *            cache name, used for metrics
+	 * @param maxSize
+	 *            maximum number of entries
+	 * @param maxWeight
+	 *            maximum sum of entry weights
+	 * @param ttl
+	 *            time to live in milliseconds, 0 or less for no expiry
+	 * @param weigher
+	 *            computes the weight of a value, null to weigh every entry as 1
+	 */
+	public BoundedCache(String name, long maxSize, long maxWeight, long ttl, ToLongFunction<V> weigher) {
+		if (maxSize <= 0 || maxWeight <= 0)
+			throw new IllegalArgumentException("maxSize and maxWeight should be greater than zero.");
+		this.name = name;
+		this.maxSize = maxSize;
+		this.maxWeight = maxWeight;
+		this.ttl = ttl;
+		this.weigher = weigher;
+	}
+
+	public V get(K key) {
+		CacheEntry<K, V> entry = data.get(key);
+		if (null == entry) {
+			misses.increment();
+			return null;
+		}
+		if (entry.isExpired(System.currentTimeMillis())) {
+			if (removeEntry(entry))
+				expirations.increment();
+			misses.increment();
+			return null;
+		}
+		entry.referenced = true;
+		hits.increment();
+		return entry.value;
+	}
+
+	public void put(K key, V value) {
+		if (null == key || null == value)
+			throw new NullPointerException("key and value should not be null.");
+		long entryWeight = (null == weigher) ? 1 : Math.max(0, weigher.applyAsLong(value));
+		long expiresAt = (ttl > 0) ? System.currentTimeMillis() + ttl : Long.MAX_VALUE;
+		CacheEntry<K, V> entry = new CacheEntry<>(key, value, entryWeight, expiresAt);
+		CacheEntry<K, V> previous = data.put(key, entry);
+		weight.addAndGet(entryWeight);
+		if (null != previous)
+			weight.addAndGet(-previous.weight);
+		offer(entry);
+		if (isOverLimit() || needsCompaction())
+			evict();
+	}
+
+	public V remove(K key) {
+		CacheEntry<K, V> entry = data.remove(key);
+		if (null == entry)
+			return null;
+		weight.addAndGet(-entry.weight);
+		return entry.value;
+	}
+
+	public void clear() {
+		data.clear();
+		clock.clear();
+		clockLength.set(0);
+		weight.set(0);
+	}
+
+	public long size() {
+		return data.size();
+	}
+
+	public long weight() {
+		return weight.get();
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+
+	public long getExpirationCount() {
+		return expirations.sum();
+	}
+
+	public Map<String, Object> getStats() {
+		Map<String, Object> stats = new HashMap<>();
+		stats.put("name", name);
+		stats.put("size", size());
+		stats.put("weight", weight());
+		stats.put("hits", getHitCount());
+		stats.put("misses", getMissCount());
+		stats.put("evictions", getEvictionCount());
+		stats.put("expirations", getExpirationCount());
+		return stats;
+	}
+
+	private void evict() {
+		evictionLock.lock();
+		try {
+			long now = System.currentTimeMillis();
+			long budget = MAX_EVICTION_SCAN_FACTOR * clockLength.get();
+			while ((isOverLimit() || needsCompaction()) && budget-- > 0) {
+				CacheEntry<K, V> entry = clock.poll();
+				if (null == entry)
+					break;
+				clockLength.decrementAndGet();
+				// stale queue node: the key was removed or replaced since.
+				if (data.get(entry.key) != entry)
+					continue;
+				if (entry.isExpired(now)) {
+					if (removeEntry(entry))
+						expirations.increment();
+				} else if (!isOverLimit()) {
+					// only compacting the queue, keep the entry as it is.
+					offer(entry);
+				} else if (entry.referenced) {
+					entry.referenced = false;
+					offer(entry);
+				} else if (removeEntry(entry)) {
+					evictions.increment();
+				}
+			}
+		} finally {
+			evictionLock.unlock();
+		}
+	}
+
+	private void offer(CacheEntry<K, V> entry) {
+		clock.offer(entry);
+		clockLength.incrementAndGet();
+	}
+
+	private boolean isOverLimit() {
+		return data.size() > maxSize || weight.get() > maxWeight;
+	}
+
+	/**
+	 * Replaced and removed entries leave stale nodes in the clock queue. The
+	 * queue is compacted once they outnumber the live entries.
+	 */
+	private boolean needsCompaction() {
+		return clockLength.get() > MAX_EVICTION_SCAN_FACTOR * (long) data.size() + 16;
+	}
+
+	private boolean removeEntry(CacheEntry<K, V> entry) {
+		if (data.remove(entry.key, entry)) {
+			weight.addAndGet(-entry.weight);
+			return true;
+		}
+		return false;
+	}
+
+	private static class CacheEntry<K, V> {
+		private final K key;
+		private final V value;
+		private final long weight;
+		private final long expiresAt;
+		private volatile boolean referenced;
+
+		private CacheEntry(K key, V value, long weight, long expiresAt) {
+			this.key = key;
+			this.value = value;
+			this.weight = weight;
+			this.expiresAt = expiresAt;
+		}
+
+		private boolean isExpired(long now) {
+			return now >= expiresAt;
+		}
+	}
+}
@@ -1,6 +1,7 @@
 package org.sunbird.telemetry;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import org.apache.commons.lang3.StringUtils;
 import org.sunbird.common.Platform;
 import org.sunbird.telemetry.dto.Actor;
@@ -9,6 +10,7 @@ import org.sunbird.telemetry.dto.Producer;
 import org.sunbird.telemetry.dto.Target;
 import org.sunbird.telemetry.dto.Telemetry;
 
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -25,6 +27,10 @@ import java.util.Map.Entry;
 public class TelemetryGenerator {
 
 	private static ObjectMapper mapper = new ObjectMapper();
+	private static ObjectWriter telemetryWriter = mapper.writerFor(Telemetry.class);
+	private static final int BUFFER_SIZE = 1024;
+	private static final int MAX_BUFFER_SIZE = 64 * 1024;
+	private static ThreadLocal<StringWriter> eventBuffer = ThreadLocal.withInitial(() -> new StringWriter(BUFFER_SIZE));
 	private static final String ENVIRONMENT = Platform.config.hasPath("telemetry_env")?Platform.config.getString("telemetry_env"):"dev";
 	private static final String INSTALLATION_ID = Platform.config.hasPath("installation.id")?Platform.config.getString("installation.id"):"ekstep";
 	private static final String DEFAULT_PRODUCER_ID = ENVIRONMENT + "." + INSTALLATION_ID + ".learning.platform";
@@ -262,12 +268,23 @@ public class TelemetryGenerator {
 		return paramsList;
 	}
 
+	/**
+	 * Serializes the event into a buffer reused by the thread. A buffer grown
+	 * past MAX_BUFFER_SIZE by a large event is dropped instead of kept.
+	 */
 	private static String getTelemetry(Telemetry telemetry) {
 		String event = "";
+		StringWriter buffer = eventBuffer.get();
 		try {
-			event = mapper.writeValueAsString(telemetry);
+			telemetryWriter.writeValue(buffer, telemetry);
+			event = buffer.toString();
 		} catch (Exception e) {
 			e.printStackTrace();
+		} finally {
+			if (buffer.getBuffer().capacity() > MAX_BUFFER_SIZE)
+				eventBuffer.set(new StringWriter(BUFFER_SIZE));
+			else
+				buffer.getBuffer().setLength(0);
 		}
 		return event;
 	}
@@ -0,0 +1,341 @@
+package org.sunbird.telemetry.event;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.sunbird.common.Platform;
+import org.sunbird.common.exception.ServerException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Publishes events off the caller's thread. Callers only enqueue the event
+ * into a bounded ring buffer; a single consumer thread serializes the events
+ * and hands them to the {@link EventSink} in batches of up to batchSize,
+ * waiting at most lingerMs for a batch to fill.
+ *
+ * When the buffer is full the emitter either drops the event (DROP) or waits
+ * up to blockTimeoutMs for space before dropping it (BLOCK). A negative
+ * blockTimeoutMs waits without a deadline. Dropped events are counted, and
+ * the count is logged at most once every 10 seconds.
+ * The consumer thread parks while there is nothing to publish and is woken by
+ * the next event or at the end of the linger period.
+ *
+ * Instances are configured per name, with these keys read as
+ * telemetry.event.&lt;name&gt;.&lt;key&gt; and then telemetry.event.&lt;key&gt;:
+ * sink (logger, kafka or file), topic, file, queue_size, batch_size,
+ * linger_ms, overflow_policy and block_timeout_ms.
+ */
+public class AsyncEventEmitter {
+
+	public enum OverflowPolicy {
+		DROP, BLOCK
+	}
+
+	private static final String CONFIG_PREFIX = "telemetry.event.";
+	private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+	private static final long CLOSE_TIMEOUT_MS = 5000;
+	private static final long DROP_LOG_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+	private static final Map<String, AsyncEventEmitter> emitters = new ConcurrentHashMap<>();
+	private static ObjectWriter writer = new ObjectMapper().writer();
+	private static final Logger LOGGER = LogManager.getLogger("DefaultPlatformLogger");
+
+	private final String name;
+	private final EventSink sink;
+	private final EventRingBuffer<QueuedEvent> queue;
+	private final int batchSize;
+	private final long lingerNanos;
+	private final OverflowPolicy overflowPolicy;
+	private final long blockTimeoutNanos;
+	private final Thread consumer;
+	private volatile boolean running = true;
+	private volatile boolean idle;
+
+	private final LongAdder enqueued = new LongAdder();
+	private final LongAdder dropped = new LongAdder();
+	private final LongAdder published = new LongAdder();
+	private final LongAdder failed = new LongAdder();
+	private final LongAdder batches = new LongAdder();
+	private final LongAdder totalLatencyNanos = new LongAdder();
+	private final AtomicLong maxLatencyNanos = new AtomicLong();
+	private final AtomicLong droppedSinceLog = new AtomicLong();
+	private final AtomicLong lastDropLog = new AtomicLong(System.nanoTime() - DROP_LOG_INTERVAL_NANOS);
+
+	static {
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			for (AsyncEventEmitter emitter : emitters.values())
+				emitter.close();
+		}, "async-event-emitter-shutdown"));
+	}
+
+	public AsyncEventEmitter(String name, EventSink sink, int queueSize, int batchSize, long lingerMs,
+			OverflowPolicy overflowPolicy, long blockTimeoutMs) {
+		this.name = name;
+		this.sink = sink;
+		this.queue = new EventRingBuffer<>(queueSize);
+		this.batchSize = Math.max(1, batchSize);
+		this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, lingerMs));
+		this.overflowPolicy = overflowPolicy;
+		this.blockTimeoutNanos = (blockTimeoutMs < 0) ? -1 : TimeUnit.MILLISECONDS.toNanos(blockTimeoutMs);
+		this.consumer = new Thread(this::consume, "async-event-emitter-" + name);
+		this.consumer.setDaemon(true);
+		this.consumer.start();
+	}
+
+	/**
+	 * Gets the emitter configured for the name, creating it on first use.
+	 *
+	 * @param name
+	 *            the emitter name
+	 * @param loggerName
+	 *            the logger used when the sink is not configured
+	 * @return the emitter
+	 */
+	public static AsyncEventEmitter getInstance(String name, String loggerName) {
+		return getInstance(name, loggerName, 100);
+	}
+
+	/**
+	 * Gets the emitter configured for the name, creating it on first use.
+	 *
+	 * @param name
+	 *            the emitter name
+	 * @param loggerName
+	 *            the logger used when the sink is not configured
+	 * @param blockTimeoutMs
+	 *            the block_timeout_ms used when it is not configured
+	 * @return the emitter
+	 */
+	public static AsyncEventEmitter getInstance(String name, String loggerName, long blockTimeoutMs) {
+		return emitters.computeIfAbsent(name, key -> new AsyncEventEmitter(key, createSink(key, loggerName),
+				getConfig(key, "queue_size", 8192), getConfig(key, "batch_size", 500),
+				getConfig(key, "linger_ms", 100), OverflowPolicy.valueOf(getConfig(key, "overflow_policy", "BLOCK")),
+				Long.parseLong(getConfig(key, "block_timeout_ms", String.valueOf(blockTimeoutMs)))));
+	}
+
+	public static Map<String, Map<String, Object>> getAllMetrics() {
+		Map<String, Map<String, Object>> metrics = new HashMap<>();
+		for (AsyncEventEmitter emitter : emitters.values())
+			metrics.put(emitter.getName(), emitter.getMetrics());
+		return metrics;
+	}
+
+	/**
+	 * Queues the event. A String is published as it is, any other object is
+	 * serialized to JSON on the consumer thread, so it must not be modified
+	 * after this call.
+	 *
+	 * @return false if the event was dropped
+	 */
+	public boolean emit(Object event) {
+		if (null == event || offer(event))
+			return null != event;
+		dropped.increment();
+		droppedSinceLog.incrementAndGet();
+		logDropped();
+		return false;
+	}
+
+	/**
+	 * Queues the event as {@link #emit(Object)} does, but leaves an event that
+	 * could not be queued to the caller instead of dropping it.
+	 *
+	 * @return false if the event was not queued
+	 */
+	public boolean offer(Object event) {
+		if (null == event)
+			return false;
+		QueuedEvent queued = new QueuedEvent(event, System.nanoTime());
+		if (running && (queue.offer(queued) || waitAndOffer(queued))) {
+			enqueued.increment();
+			if (idle)
+				LockSupport.unpark(consumer);
+			return true;
+		}
+		return false;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public int getQueueDepth() {
+		return queue.size();
+	}
+
+	public Map<String, Object> getMetrics() {
+		long count = published.sum() + failed.sum();
+		Map<String, Object> metrics = new HashMap<>();
+		metrics.put("name", name);
+		metrics.put("queueDepth", getQueueDepth());
+		metrics.put("queueCapacity", queue.capacity());
+		metrics.put("enqueued", enqueued.sum());
+		metrics.put("dropped", dropped.sum());
+		metrics.put("published", published.sum());
+		metrics.put("failed", failed.sum());
+		metrics.put("batches", batches.sum());
+		metrics.put("avgLatencyMs", (count == 0) ? 0 : TimeUnit.NANOSECONDS.toMillis(totalLatencyNanos.sum() / count));
+		metrics.put("maxLatencyMs", TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos.get()));
+		return metrics;
+	}
+
+	/**
+	 * Stops accepting events, publishes the queued ones and closes the sink.
+	 */
+	public void close() {
+		if (!running)
+			return;
+		running = false;
+		LockSupport.unpark(consumer);
+		try {
+			consumer.join(CLOSE_TIMEOUT_MS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Logs the count of the events dropped since the last log, if it was
+	 * logged more than 10 seconds ago.
+	 */
+	private void logDropped() {
+		long now = System.nanoTime();
+		long last = lastDropLog.get();
+		if (now - last < DROP_LOG_INTERVAL_NANOS || !lastDropLog.compareAndSet(last, now))
+			return;
+		LOGGER.error("Dropped " + droppedSinceLog.getAndSet(0) + " " + name + " events, "
+				+ (running ? "the queue is full" : "the emitter is closed") + ". Total dropped: " + dropped.sum());
+	}
+
+	private boolean waitAndOffer(QueuedEvent queued) {
+		if (overflowPolicy != OverflowPolicy.BLOCK || Thread.currentThread() == consumer)
+			return false;
+		long deadline = System.nanoTime() + blockTimeoutNanos;
+		while (running && (blockTimeoutNanos < 0 || System.nanoTime() < deadline)) {
+			LockSupport.parkNanos(BLOCK_PARK_NANOS);
+			if (queue.offer(queued))
+				return true;
+		}
+		return false;
+	}
+
+	private void consume() {
+		List<QueuedEvent> pending = new ArrayList<>(batchSize);
+		long batchStart = 0;
+		while (running || !queue.isEmpty() || !pending.isEmpty()) {
+			int drained = queue.drainTo(pending, batchSize - pending.size());
+			if (!pending.isEmpty() && drained > 0 && pending.size() == drained)
+				batchStart = System.nanoTime();
+			if (pending.size() >= batchSize || !running
+					|| (!pending.isEmpty() && System.nanoTime() - batchStart >= lingerNanos)) {
+				publish(pending);
+				pending.clear();
+			} else if (drained == 0) {
+				park(pending.isEmpty() ? -1 : batchStart + lingerNanos - System.nanoTime());
+			}
+		}
+		try {
+			sink.close();
+		} catch (Exception e) {
+			LOGGER.error("Error while closing the sink of " + name + " events", e);
+		}
+	}
+
+	/**
+	 * Parks the consumer until an event is queued, the emitter is closed or,
+	 * if nanos is not negative, the time runs out. The idle flag is set before
+	 * the queue is checked again, so an event queued meanwhile is not missed.
+	 */
+	private void park(long nanos) {
+		idle = true;
+		if (running && queue.isEmpty()) {
+			if (nanos < 0)
+				LockSupport.park(this);
+			else if (nanos > 0)
+				LockSupport.parkNanos(this, nanos);
+		}
+		idle = false;
+	}
+
+	private void publish(List<QueuedEvent> events) {
+		List<String> batch = new ArrayList<>(events.size());
+		for (QueuedEvent queued : events) {
+			try {
+				String event = (queued.event instanceof String) ? (String) queued.event
+						: writer.writeValueAsString(queued.event);
+				if (StringUtils.isNotBlank(event))
+					batch.add(event);
+			} catch (Exception e) {
+				failed.increment();
+				LOGGER.error("Error while serializing " + name + " event: " + queued.event, e);
+			}
+		}
+		try {
+			sink.send(batch);
+			published.add(batch.size());
+		} catch (Exception e) {
+			failed.add(batch.size());
+			LOGGER.error("Error while publishing " + batch.size() + " " + name + " events: " + batch, e);
+		}
+		batches.increment();
+		long now = System.nanoTime();
+		for (QueuedEvent queued : events) {
+			long latency = now - queued.enqueuedAt;
+			totalLatencyNanos.add(latency);
+			maxLatencyNanos.accumulateAndGet(latency, Math::max);
+		}
+	}
+
+	private static EventSink createSink(String name, String loggerName) {
+		String type = getConfig(name, "sink", "logger");
+		try {
+			switch (type) {
+			case "logger":
+				return new LoggerEventSink(loggerName);
+			case "kafka":
+				return new KafkaEventSink(Platform.config.getString(CONFIG_PREFIX + name + ".topic"));
+			case "file":
+				return new FileEventSink(Platform.config.getString(CONFIG_PREFIX + name + ".file"));
+			default:
+				throw new IllegalArgumentException("Unknown sink type: " + type);
+			}
+		} catch (Exception e) {
+			throw new ServerException("ERR_EVENT_SINK_CONFIG",
+					"Unable to create the " + type + " sink of " + name + " events: " + e.getMessage(), e);
+		}
+	}
+
+	private static int getConfig(String name, String key, int defaultValue) {
+		return Integer.parseInt(getConfig(name, key, String.valueOf(defaultValue)));
+	}
+
+	private static String getConfig(String name, String key, String defaultValue) {
+		if (Platform.config.hasPath(CONFIG_PREFIX + name + "." + key))
+			return Platform.config.getString(CONFIG_PREFIX + name + "." + key);
+		if (Platform.config.hasPath(CONFIG_PREFIX + key))
+			return Platform.config.getString(CONFIG_PREFIX + key);
+		return defaultValue;
+	}
+
+	private static class QueuedEvent {
+		private final Object event;
+		private final long enqueuedAt;
+
+		private QueuedEvent(Object event, long enqueuedAt) {
+			this.event = event;
+			this.enqueuedAt = enqueuedAt;
+		}
+	}
+}
@@ -0,0 +1,115 @@
+package org.sunbird.telemetry.event;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free ring buffer for many producers and a single consumer.
+ *
+ * Every slot carries a sequence number telling whether it is free for the
+ * producer claiming position p (sequence == p) or holds the element published
+ * at position p (sequence == p + 1). Producers claim positions with a CAS on
+ * the tail; the consumer owns the head and never contends with them.
+ *
+ * @param <E>
+ *            the element type
+ */
+public class EventRingBuffer<E> {
+
+	private final Object[] buffer;
+	private final AtomicLongArray sequences;
+	private final int mask;
+	private final AtomicLong tail = new AtomicLong();
+	private volatile long head;
+
+	/**
+	 * @param capacity
+	 *            requested capacity, rounded up to the next power of two
+	 */
+	public EventRingBuffer(int capacity) {
+		if (capacity <= 0)
+			throw new IllegalArgumentException("capacity should be greater than zero.");
+		int size = 1;
+		while (size < capacity)
+			size <<= 1;
+		this.buffer = new Object[size];
+		this.sequences = new AtomicLongArray(size);
+		for (int i = 0; i < size; i++)
+			sequences.set(i, i);
+		this.mask = size - 1;
+	}
+
+	/**
+	 * Adds the element, without blocking.
+	 *
+	 * @return false if the buffer is full
+	 */
+	public boolean offer(E element) {
+		if (null == element)
+			throw new NullPointerException("element should not be null.");
+		long position = tail.get();
+		while (true) {
+			int index = (int) (position & mask);
+			long diff = sequences.get(index) - position;
+			if (diff == 0) {
+				if (tail.compareAndSet(position, position + 1)) {
+					buffer[index] = element;
+					sequences.lazySet(index, position + 1);
+					return true;
+				}
+				position = tail.get();
+			} else if (diff < 0) {
+				return false;
+			} else {
+				position = tail.get();
+			}
+		}
+	}
+
+	/**
+	 * Removes the oldest element. Must only be called from the consumer thread.
+	 *
+	 * @return the element, or null if the buffer is empty
+	 */
+	@SuppressWarnings("unchecked")
+	public E poll() {
+		long position = head;
+		int index = (int) (position & mask);
+		if (sequences.get(index) != position + 1)
+			return null;
+		E element = (E) buffer[index];
+		buffer[index] = null;
+		sequences.lazySet(index, position + mask + 1);
+		head = position + 1;
+		return element;
+	}
+
+	/**
+	 * Moves up to max elements into the list. Must only be called from the
+	 * consumer thread.
+	 *
+	 * @return the number of elements moved
+	 */
+	public int drainTo(List<? super E> list, int max) {
+		int count = 0;
+		E element;
+		while (count < max && null != (element = poll())) {
+			list.add(element);
+			count++;
+		}
+		return count;
+	}
+
+	public int size() {
+		return (int) Math.max(0, tail.get() - head);
+	}
+
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	public int capacity() {
+		return buffer.length;
+	}
+}
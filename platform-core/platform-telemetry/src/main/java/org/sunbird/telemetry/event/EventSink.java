@@ -0,0 +1,23 @@
+package org.sunbird.telemetry.event;
+
+import java.util.List;
+
+/**
+ * Destination of the serialized events published by an
+ * {@link AsyncEventEmitter}. Sinks are only called from the emitter's consumer
+ * thread.
+ */
+public interface EventSink {
+
+	/**
+	 * Writes one batch of serialized events.
+	 */
+	public void send(List<String> events) throws Exception;
+
+	public default void flush() throws Exception {
+	}
+
+	public default void close() throws Exception {
+		flush();
+	}
+}
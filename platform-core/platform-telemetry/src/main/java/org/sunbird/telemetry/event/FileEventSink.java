@@ -0,0 +1,46 @@
+package org.sunbird.telemetry.event;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends events to a local file, one per line. Meant for tests and local
+ * setups without Kafka.
+ */
+public class FileEventSink implements EventSink {
+
+	private final BufferedWriter writer;
+
+	public FileEventSink(String file) throws IOException {
+		Path path = Paths.get(file);
+		if (null != path.getParent())
+			Files.createDirectories(path.getParent());
+		this.writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+				StandardOpenOption.APPEND);
+	}
+
+	@Override
+	public void send(List<String> events) throws IOException {
+		for (String event : events) {
+			writer.write(event);
+			writer.newLine();
+		}
+		writer.flush();
+	}
+
+	@Override
+	public void flush() throws IOException {
+		writer.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		writer.close();
+	}
+}
@@ -0,0 +1,58 @@
+package org.sunbird.telemetry.event;
+
+import java.util.List;
+import java.util.Properties;
+
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.sunbird.common.Platform;
+import org.sunbird.telemetry.logger.TelemetryManager;
+
+/**
+ * Publishes events straight to a Kafka topic. The producer batches records on
+ * its own, the sink only waits for acknowledgements on flush and close.
+ */
+public class KafkaEventSink implements EventSink {
+
+	private final String topic;
+	private final Producer<String, String> producer;
+
+	public KafkaEventSink(String topic) {
+		this.topic = topic;
+		Properties props = new Properties();
+		props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, Platform.config.getString("kafka.urls"));
+		props.put(ProducerConfig.CLIENT_ID_CONFIG, "AsyncEventProducer-" + topic);
+		props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+		props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+		props.put(ProducerConfig.LINGER_MS_CONFIG, getConfig("telemetry.event.kafka.linger_ms", "5"));
+		props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, getConfig("telemetry.event.kafka.compression", "none"));
+		this.producer = new KafkaProducer<>(props);
+	}
+
+	@Override
+	public void send(List<String> events) {
+		for (String event : events) {
+			producer.send(new ProducerRecord<String, String>(topic, event), (metadata, e) -> {
+				if (null != e)
+					TelemetryManager.error("Failed to publish event to topic: " + topic, e);
+			});
+		}
+	}
+
+	@Override
+	public void flush() {
+		producer.flush();
+	}
+
+	@Override
+	public void close() {
+		producer.close();
+	}
+
+	private static String getConfig(String key, String defaultValue) {
+		return Platform.config.hasPath(key) ? Platform.config.getString(key) : defaultValue;
+	}
+}
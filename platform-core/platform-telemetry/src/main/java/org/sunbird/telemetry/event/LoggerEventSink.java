@@ -0,0 +1,25 @@
+package org.sunbird.telemetry.event;
+
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Writes events through a log4j logger, so the configured appenders (and the
+ * log shipping to Kafka) stay as they are.
+ */
+public class LoggerEventSink implements EventSink {
+
+	private final Logger logger;
+
+	public LoggerEventSink(String loggerName) {
+		this.logger = LogManager.getLogger(loggerName);
+	}
+
+	@Override
+	public void send(List<String> events) {
+		for (String event : events)
+			logger.info(event);
+	}
+}
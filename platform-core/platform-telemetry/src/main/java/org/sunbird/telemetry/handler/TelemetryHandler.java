@@ -21,4 +21,15 @@ public interface TelemetryHandler {
 	public void send(String event, Level level);
 	
 	public void send(String event, Level level, boolean telemetry);
+
+	/**
+	 * Whether events of the level are handled at all. Callers check this before
+	 * generating an event, so a disabled level costs nothing.
+	 * 
+	 * @param level
+	 * @return
+	 */
+	public default boolean isEnabled(Level level) {
+		return true;
+	}
 }
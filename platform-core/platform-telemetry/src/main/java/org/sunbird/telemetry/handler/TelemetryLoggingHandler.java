@@ -5,6 +5,7 @@ package org.sunbird.telemetry.handler;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.sunbird.telemetry.event.AsyncEventEmitter;
 
 /**
  * This is the custom logger implementation to carry out platform Logging. This
@@ -16,7 +17,8 @@ import org.apache.logging.log4j.Logger;
 public class TelemetryLoggingHandler implements TelemetryHandler {
 
 	private static final Logger rootLogger = LogManager.getLogger("DefaultPlatformLogger");
-	private static final Logger telemetryLogger = LogManager.getLogger("TelemetryEventLogger");
+	private static final AsyncEventEmitter telemetryEmitter = AsyncEventEmitter.getInstance("telemetry",
+			"TelemetryEventLogger");
 	
 
 	public void send(String event, Level level) {
@@ -28,7 +30,7 @@ public class TelemetryLoggingHandler implements TelemetryHandler {
 	 */
 	public void send(String event, Level level, boolean telemetry) {
 		if (telemetry) {
-			telemetryLogger.info(event);
+			telemetryEmitter.emit(event);
 		} else {
 			switch(level) {
 				case INFO:
@@ -54,4 +56,24 @@ public class TelemetryLoggingHandler implements TelemetryHandler {
 		
 	}
 
+	@Override
+	public boolean isEnabled(Level level) {
+		switch(level) {
+			case INFO:
+				return rootLogger.isInfoEnabled();
+			case DEBUG:
+				return rootLogger.isDebugEnabled();
+			case ERROR:
+				return rootLogger.isErrorEnabled();
+			case WARN:
+				return rootLogger.isWarnEnabled();
+			case TRACE:
+				return rootLogger.isTraceEnabled();
+			case FATAL:
+				return rootLogger.isFatalEnabled();
+			default:
+				return true;
+		}
+	}
+
 }
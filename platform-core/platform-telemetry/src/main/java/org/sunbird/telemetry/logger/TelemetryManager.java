@@ -3,6 +3,7 @@ package org.sunbird.telemetry.logger;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
@@ -59,6 +60,29 @@ public class TelemetryManager {
 	public static void log(String message, Map<String, Object> params) {
 		log(message, params, Level.DEBUG.name());
 	}
+
+	/**
+	 * To log a lazily built message as a telemetry event. The message is built
+	 * only if DEBUG is enabled.
+	 * 
+	 * @param message
+	 */
+	public static void log(Supplier<String> message) {
+		if (isEnabled(Level.DEBUG))
+			log(message.get(), null, Level.DEBUG.name());
+	}
+
+	/**
+	 * To log message with lazily built params as a telemetry event. The params
+	 * are built only if DEBUG is enabled.
+	 * 
+	 * @param message
+	 * @param params
+	 */
+	public static void log(String message, Supplier<Map<String, Object>> params) {
+		if (isEnabled(Level.DEBUG))
+			log(message, params.get(), Level.DEBUG.name());
+	}
 	
 	/**
 	 * To log only message as a telemetry event.
@@ -78,6 +102,32 @@ public class TelemetryManager {
 	public static void info(String message, Map<String, Object> params) {
 		log(message, params, Level.INFO.name());
 	}
+
+	/**
+	 * To log a lazily built message as a telemetry event. The message is built
+	 * only if INFO is enabled.
+	 * 
+	 * @param message
+	 */
+	public static void info(Supplier<String> message) {
+		if (isEnabled(Level.INFO))
+			log(message.get(), null, Level.INFO.name());
+	}
+
+	/**
+	 * Whether log events of the level are handled. Use this to guard any costly
+	 * work done only for logging.
+	 * 
+	 * @param level
+	 * @return
+	 */
+	public static boolean isEnabled(Level level) {
+		return telemetryHandler.isEnabled(level);
+	}
+
+	public static boolean isDebugEnabled() {
+		return isEnabled(Level.DEBUG);
+	}
 	
 	/**
 	 * 
@@ -132,6 +182,8 @@ public class TelemetryManager {
 	 * @param object
 	 */
 	public static void error(String message, Throwable e, Object object) {
+		if (!isEnabled(Level.ERROR))
+			return;
 		Map<String, String> context = getContext();
 		String stacktrace = ExceptionUtils.getStackTrace(e);
 		String code = ResponseCode.SERVER_ERROR.name();
@@ -218,9 +270,12 @@ public class TelemetryManager {
 	 * @param logLevel
 	 */
 	private static void log(String message, Map<String, Object> params, String logLevel) {
+		Level level = Level.getLevel(logLevel);
+		if (!isEnabled(level))
+			return;
 		Map<String, String> context = getContext();
 		String event = TelemetryGenerator.log(context, "system", logLevel, message, null, params);
-		telemetryHandler.send(event, Level.getLevel(logLevel));
+		telemetryHandler.send(event, level);
 	}
 
 	private static Map<String, String> getContext() {
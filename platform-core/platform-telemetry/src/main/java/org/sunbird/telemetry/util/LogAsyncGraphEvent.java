@@ -3,28 +3,41 @@ package org.sunbird.telemetry.util;
 import java.util.List;
 import java.util.Map;
 
-import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.sunbird.telemetry.event.AsyncEventEmitter;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 public class LogAsyncGraphEvent {
 
 	private static final Logger graphEventLogger = LogManager.getLogger("GraphEventLogger");
-	private static ObjectMapper mapper = new ObjectMapper();
-	
-	
+	private static final Logger rootLogger = LogManager.getLogger("DefaultPlatformLogger");
+	private static final ObjectMapper mapper = new ObjectMapper();
+	// Graph events must not be lost, so callers wait for queue space without a deadline.
+	private static final AsyncEventEmitter graphEventEmitter = AsyncEventEmitter.getInstance("graph",
+			"GraphEventLogger", -1);
+
+	/**
+	 * Queues the messages for publishing. They are serialized and written on
+	 * the emitter thread, so callers must not modify them afterwards. A message
+	 * the emitter does not take (e.g. during shutdown) is written to the graph
+	 * event logger right away.
+	 */
 	public static void pushMessageToLogger(List<Map<String, Object>> messages) {
 		if (null == messages || messages.size() <= 0) return; 
 		for (Map<String, Object> message : messages) {
-			try{
-				String jsonMessage = mapper.writeValueAsString(message);
-				if (StringUtils.isNotBlank(jsonMessage))
-					graphEventLogger.info(jsonMessage);
-			}catch(Exception e){
-				e.printStackTrace();
-			}
+			if (null != message && !graphEventEmitter.offer(message))
+				writeMessage(message);
+		}
+	}
+
+	private static void writeMessage(Map<String, Object> message) {
+		try {
+			rootLogger.warn("Graph event not queued, writing it synchronously: " + message.get("nodeUniqueId"));
+			graphEventLogger.info(mapper.writeValueAsString(message));
+		} catch (Exception e) {
+			rootLogger.error("Dropped graph event, unable to write it: " + message, e);
 		}
 	}
 }
@@ -0,0 +1,159 @@
+package org.sunbird.telemetry.event;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.sunbird.telemetry.event.AsyncEventEmitter.OverflowPolicy;
+
+public class AsyncEventEmitterTest {
+
+	private AsyncEventEmitter emitter;
+
+	@After
+	public void tearDown() {
+		if (null != emitter)
+			emitter.close();
+	}
+
+	@Test
+	public void testEventsArePublishedInBatches() throws Exception {
+		ListSink sink = new ListSink(10);
+		emitter = new AsyncEventEmitter("test", sink, 64, 5, 10000, OverflowPolicy.BLOCK, -1);
+		for (int i = 0; i < 10; i++)
+			Assert.assertTrue(emitter.emit("event_" + i));
+		sink.await();
+		Assert.assertEquals(2, sink.batches.size());
+		Assert.assertEquals(5, sink.batches.get(0).size());
+		Assert.assertEquals("event_0", sink.events().get(0));
+		// The sink sees the events before the emitter counts them.
+		awaitMetric("published", 10L);
+	}
+
+	@Test
+	public void testObjectEventIsSerialized() throws Exception {
+		ListSink sink = new ListSink(1);
+		emitter = new AsyncEventEmitter("test", sink, 64, 1, 10000, OverflowPolicy.BLOCK, -1);
+		Map<String, Object> event = new HashMap<>();
+		event.put("nodeUniqueId", "do_1");
+		emitter.emit(event);
+		sink.await();
+		Assert.assertEquals("{\"nodeUniqueId\":\"do_1\"}", sink.events().get(0));
+	}
+
+	@Test
+	public void testIdleConsumerIsWokenByEvent() throws Exception {
+		ListSink sink = new ListSink(1);
+		emitter = new AsyncEventEmitter("test", sink, 64, 1, 60000, OverflowPolicy.BLOCK, -1);
+		// Let the consumer park with nothing queued.
+		Thread.sleep(100);
+		emitter.emit("event");
+		Assert.assertTrue(sink.latch.await(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testPartialBatchIsPublishedAfterLinger() throws Exception {
+		ListSink sink = new ListSink(1);
+		emitter = new AsyncEventEmitter("test", sink, 64, 100, 50, OverflowPolicy.BLOCK, -1);
+		emitter.emit("event");
+		Assert.assertTrue(sink.latch.await(5, TimeUnit.SECONDS));
+		Assert.assertEquals(Collections.singletonList("event"), sink.events());
+	}
+
+	@Test
+	public void testBlockWithoutDeadlineDropsNothing() throws Exception {
+		ListSink sink = new ListSink(20);
+		sink.blocked = new CountDownLatch(1);
+		emitter = new AsyncEventEmitter("test", sink, 2, 1, 0, OverflowPolicy.BLOCK, -1);
+		Thread producer = new Thread(() -> {
+			for (int i = 0; i < 20; i++)
+				emitter.emit("event_" + i);
+		});
+		producer.start();
+		producer.join(200);
+		// The sink holds the first batch, so the producer waits for queue space.
+		Assert.assertTrue(producer.isAlive());
+		sink.blocked.countDown();
+		producer.join(5000);
+		sink.await();
+		Assert.assertEquals(20, sink.events().size());
+		Assert.assertEquals(0L, emitter.getMetrics().get("dropped"));
+	}
+
+	@Test
+	public void testDropWhenFull() throws Exception {
+		ListSink sink = new ListSink(1);
+		sink.blocked = new CountDownLatch(1);
+		emitter = new AsyncEventEmitter("test", sink, 2, 1, 0, OverflowPolicy.DROP, 0);
+		int accepted = 0;
+		for (int i = 0; i < 10; i++)
+			accepted += emitter.emit("event_" + i) ? 1 : 0;
+		Assert.assertTrue(accepted < 10);
+		Assert.assertEquals((long) (10 - accepted), emitter.getMetrics().get("dropped"));
+		sink.blocked.countDown();
+	}
+
+	@Test
+	public void testOfferAfterCloseIsLeftToCaller() throws Exception {
+		ListSink sink = new ListSink(1);
+		emitter = new AsyncEventEmitter("test", sink, 64, 100, 60000, OverflowPolicy.BLOCK, -1);
+		emitter.emit("event");
+		emitter.close();
+		// Queued events are published on close.
+		Assert.assertEquals(Collections.singletonList("event"), sink.events());
+		Assert.assertFalse(emitter.offer("late"));
+		Assert.assertEquals(0L, emitter.getMetrics().get("dropped"));
+		Assert.assertTrue(sink.closed);
+	}
+
+	private void awaitMetric(String key, long expected) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (!Long.valueOf(expected).equals(emitter.getMetrics().get(key)) && System.currentTimeMillis() < deadline)
+			Thread.sleep(10);
+		Assert.assertEquals(expected, emitter.getMetrics().get(key));
+	}
+
+	private static class ListSink implements EventSink {
+		private final List<List<String>> batches = Collections.synchronizedList(new ArrayList<>());
+		private final CountDownLatch latch;
+		private volatile CountDownLatch blocked;
+		private volatile boolean closed;
+
+		ListSink(int expected) {
+			this.latch = new CountDownLatch(expected);
+		}
+
+		@Override
+		public void send(List<String> events) throws Exception {
+			if (null != blocked)
+				blocked.await();
+			batches.add(new ArrayList<>(events));
+			for (int i = 0; i < events.size(); i++)
+				latch.countDown();
+		}
+
+		@Override
+		public void close() {
+			closed = true;
+		}
+
+		void await() throws InterruptedException {
+			Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+		}
+
+		List<String> events() {
+			List<String> events = new ArrayList<>();
+			synchronized (batches) {
+				batches.forEach(events::addAll);
+			}
+			return events;
+		}
+	}
+}
@@ -1,13 +1,16 @@
 package org.sunbird.jobs.samza.serializers;
 
-import java.io.UnsupportedEncodingException;
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 
 import org.apache.samza.SamzaException;
 import org.apache.samza.serializers.Serde;
 import org.codehaus.jackson.map.ObjectMapper;
-import org.codehaus.jackson.type.TypeReference;
+import org.codehaus.jackson.map.ObjectReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -20,14 +23,25 @@ import org.slf4j.LoggerFactory;
  *     enforces the 'dash-separated' property naming convention.
  * </ol>
  *
+ * Messages are read straight from their bytes with a shared mapper. With an
+ * event class (a {@link JsonEvent}), messages are read lazily as that class
+ * and an unchanged event is written back as the bytes it was read from; a
+ * message that can not be read is then an error event of that class. Other
+ * messages are written through a buffer kept per thread.
+ *
  * @author Mahesh Kumar Gangula
  */
 
 public class EkstepJsonSerde<T> implements Serde<T> {
 
 	private static final Logger LOG = LoggerFactory.getLogger(EkstepJsonSerde.class);
-	private final Class<T> clazz;
-	private transient ObjectMapper mapper = new ObjectMapper();
+	private static final ObjectMapper mapper = new ObjectMapper();
+	private static final ObjectReader mapReader = mapper.reader(Object.class);
+	private static final int MAX_POOLED_BUFFER_SIZE = 1024 * 1024;
+	private static final ThreadLocal<ByteArrayOutputStream> buffers = ThreadLocal
+			.withInitial(() -> new ByteArrayOutputStream(8192));
+	private final ObjectReader reader;
+	private final Constructor<? extends JsonEvent> eventConstructor;
 
 	/**
 	 * Constructs a EkstepJsonSerde that returns a LinkedHashMap&lt;String,
@@ -45,19 +59,39 @@ public class EkstepJsonSerde<T> implements Serde<T> {
 	 *            the class of the POJO being (de)serialized.
 	 */
 	public EkstepJsonSerde(Class<T> clazz) {
-		this.clazz = clazz;
+		this(clazz, null);
+	}
+
+	private EkstepJsonSerde(Class<T> clazz, Constructor<? extends JsonEvent> eventConstructor) {
+		this.reader = (null == clazz) ? mapReader : mapper.reader(clazz);
+		this.eventConstructor = eventConstructor;
 	}
 
 	public static <T> EkstepJsonSerde<T> of(Class<T> clazz) {
 		return new EkstepJsonSerde<>(clazz);
 	}
 
+	/**
+	 * Constructs a EkstepJsonSerde that reads messages lazily as events of
+	 * class {@code eventClass}.
+	 *
+	 * @param eventClass
+	 *            the class of the events, with a constructor taking the bytes.
+	 */
+	public static <T> EkstepJsonSerde<T> ofEvent(Class<? extends JsonEvent> eventClass) throws NoSuchMethodException {
+		return new EkstepJsonSerde<>(null, eventClass.getConstructor(byte[].class));
+	}
+
 	@Override
 	public byte[] toBytes(T obj) {
 		if (obj != null) {
 			try {
-				String str = mapper.writeValueAsString(obj);
-				return str.getBytes("UTF-8");
+				if (obj instanceof JsonEvent) {
+					byte[] bytes = ((JsonEvent) obj).getOriginalBytes();
+					if (null != bytes)
+						return bytes;
+				}
+				return write(obj);
 			} catch (Exception e) {
 				throw new SamzaException("Error serializing data.", e);
 			}
@@ -66,32 +100,65 @@ public class EkstepJsonSerde<T> implements Serde<T> {
 		}
 	}
 
-	@SuppressWarnings("unchecked")
 	@Override
 	public T fromBytes(byte[] bytes) {
 		if (bytes != null) {
-			String str = null;
 			try {
-				str = new String(bytes, "UTF-8");
-				if (clazz != null) {
-					return mapper.readValue(str, clazz);
-				} else {
-					return mapper.readValue(str, new TypeReference<T>() {
-					});
-				}
-			} catch (UnsupportedEncodingException e) {
-				LOG.error("Error deserializing data. Unsupported encoding: " + bytes, e);
-				Map<String, Object> map = exceptionMap(bytes, "Error deserializing data. Unsupported encoding", e);
-				return (T) map;
+				if (null != eventConstructor)
+					return newEvent(bytes);
+				return reader.readValue(bytes, 0, bytes.length);
 			} catch (Exception e) {
+				String str = new String(bytes, StandardCharsets.UTF_8);
 				LOG.error("Error deserializing data: " + str, e);
 				Map<String, Object> map = exceptionMap(str, "Error deserializing data", e);
-				return (T) map;
+				return error(map);
 			}
 		} else {
 			LOG.error("Bytes data is null");
 			Map<String, Object> map = exceptionMap(bytes, "Bytes data is null", null);
+			return error(map);
+		}
+	}
+
+	/**
+	 * Writes the object to the buffer of the thread, which is dropped once it
+	 * grew over MAX_POOLED_BUFFER_SIZE.
+	 */
+	private byte[] write(Object obj) throws Exception {
+		ByteArrayOutputStream buffer = buffers.get();
+		buffer.reset();
+		try {
+			mapper.writeValue(buffer, obj);
+			return buffer.toByteArray();
+		} finally {
+			if (buffer.size() > MAX_POOLED_BUFFER_SIZE)
+				buffers.remove();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private T newEvent(byte[] bytes) throws Exception {
+		try {
+			return (T) eventConstructor.newInstance(bytes);
+		} catch (InvocationTargetException e) {
+			throw (e.getCause() instanceof Exception) ? (Exception) e.getCause() : e;
+		}
+	}
+
+	/**
+	 * @return the error map, as an event of the event class if there is one
+	 */
+	@SuppressWarnings("unchecked")
+	private T error(Map<String, Object> map) {
+		if (null == eventConstructor)
 			return (T) map;
+		Map<String, Object> fields = new HashMap<String, Object>(map);
+		if (null != fields.get("exception"))
+			fields.put("exception", fields.get("exception").toString());
+		try {
+			return newEvent(mapper.writeValueAsBytes(fields));
+		} catch (Exception e) {
+			throw new SamzaException("Error creating the error event.", e);
 		}
 	}
 
@@ -1,16 +1,29 @@
 package org.sunbird.jobs.samza.serializers;
 
+import org.apache.commons.lang3.StringUtils;
+import org.apache.samza.SamzaException;
 import org.apache.samza.config.Config;
 import org.apache.samza.serializers.SerdeFactory;
 
 /**
- * 
+ * Creates the serde of a job. With serializers.&lt;name&gt;.event.class set
+ * (e.g. org.sunbird.jobs.samza.serializers.MVCEvent), messages are read
+ * lazily as events of that class, else as maps.
+ *
  * @author Mahesh Kumar Gangula
  *
  */
 
 public class EkstepJsonSerdeFactory implements SerdeFactory<Object> {
+	@SuppressWarnings("unchecked")
 	public EkstepJsonSerde<Object> getSerde(String name, Config config) {
-		return new EkstepJsonSerde<>();
+		String eventClass = config.get("serializers." + name + ".event.class");
+		if (StringUtils.isBlank(eventClass))
+			return new EkstepJsonSerde<>();
+		try {
+			return EkstepJsonSerde.ofEvent((Class<? extends JsonEvent>) Class.forName(eventClass));
+		} catch (Exception e) {
+			throw new SamzaException("Invalid event class for serde " + name + ": " + eventClass, e);
+		}
 	}
 }
@@ -0,0 +1,42 @@
+package org.sunbird.jobs.samza.serializers;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * A learning graph event, sent for each change of a node.
+ */
+public class GraphEvent extends JsonEvent {
+
+	public GraphEvent(byte[] data) throws IOException {
+		super(data);
+	}
+
+	public String getNodeUniqueId() {
+		return getString("nodeUniqueId");
+	}
+
+	public String getObjectType() {
+		return getString("objectType");
+	}
+
+	public String getNodeType() {
+		return getString("nodeType");
+	}
+
+	public String getGraphId() {
+		return getString("graphId");
+	}
+
+	public String getOperationType() {
+		return getString("operationType");
+	}
+
+	public Long getEts() {
+		return getLong("ets");
+	}
+
+	public Map<String, Object> getTransactionData() {
+		return getMap("transactionData");
+	}
+}
@@ -0,0 +1,52 @@
+package org.sunbird.jobs.samza.serializers;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * A BE_JOB_REQUEST event, e.g. a publish request.
+ */
+public class JobRequestEvent extends JsonEvent {
+
+	public JobRequestEvent(byte[] data) throws IOException {
+		super(data);
+	}
+
+	public String getEid() {
+		return getString("eid");
+	}
+
+	public Long getEts() {
+		return getLong("ets");
+	}
+
+	public String getMid() {
+		return getString("mid");
+	}
+
+	public Map<String, Object> getObject() {
+		return getMap("object");
+	}
+
+	public String getObjectId() {
+		return getString(getObject(), "id");
+	}
+
+	public Map<String, Object> getEdata() {
+		return getMap("edata");
+	}
+
+	public String getAction() {
+		return getString(getEdata(), "action");
+	}
+
+	public String getStatus() {
+		return getString(getEdata(), "status");
+	}
+
+	public int getIteration() {
+		Map<String, Object> edata = getEdata();
+		Object iteration = (null == edata) ? null : edata.get("iteration");
+		return (iteration instanceof Number) ? ((Number) iteration).intValue() : 1;
+	}
+}
@@ -0,0 +1,322 @@
+package org.sunbird.jobs.samza.serializers;
+
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.codehaus.jackson.JsonFactory;
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.map.ObjectReader;
+
+/**
+ * A JSON event read lazily from the bytes it was consumed as.
+ *
+ * The whole event is validated when it is read, so a malformed event fails
+ * in the serde, but only the top level fields are decoded: objects and
+ * arrays are kept as their position in the bytes and only decoded on first
+ * access. An event that is sent on as it was read (no field changed or
+ * decoded) is written back as its original bytes.
+ *
+ * The event is a {@code Map<String, Object>}, so the tasks and services
+ * reading messages as maps take it unchanged.
+ */
+public class JsonEvent extends AbstractMap<String, Object> {
+
+	private static final ObjectMapper mapper = new ObjectMapper();
+	private static final ObjectReader reader = mapper.reader(Object.class);
+	private static final JsonFactory factory = mapper.getJsonFactory();
+
+	private final byte[] data;
+	private final Map<String, Object> fields = new LinkedHashMap<>();
+	private boolean modified;
+
+	public JsonEvent(byte[] data) throws IOException {
+		this.data = data;
+		index();
+	}
+
+	/**
+	 * @return the bytes the event was read from, null once a field was
+	 *         changed or decoded
+	 */
+	public byte[] getOriginalBytes() {
+		return modified ? null : data;
+	}
+
+	@SuppressWarnings("unchecked")
+	protected Map<String, Object> getMap(String key) {
+		Object value = get(key);
+		return (value instanceof Map) ? (Map<String, Object>) value : null;
+	}
+
+	protected String getString(String key) {
+		Object value = get(key);
+		return (null == value) ? null : value.toString();
+	}
+
+	protected static String getString(Map<String, Object> map, String key) {
+		Object value = (null == map) ? null : map.get(key);
+		return (null == value) ? null : value.toString();
+	}
+
+	protected Long getLong(String key) {
+		Object value = get(key);
+		return (value instanceof Number) ? ((Number) value).longValue() : null;
+	}
+
+	@Override
+	public Object get(Object key) {
+		Object value = fields.get(key);
+		if (value instanceof RawValue) {
+			value = decode((RawValue) value);
+			fields.put((String) key, value);
+			// the decoded value may be changed by the caller.
+			modified = true;
+		}
+		return value;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return fields.containsKey(key);
+	}
+
+	@Override
+	public int size() {
+		return fields.size();
+	}
+
+	@Override
+	public Object put(String key, Object value) {
+		modified = true;
+		return fields.put(key, value);
+	}
+
+	@Override
+	public Object remove(Object key) {
+		modified = true;
+		Object value = get(key);
+		fields.remove(key);
+		return value;
+	}
+
+	/**
+	 * Iterating the entries decodes the values read (as {@link #get(Object)}
+	 * does), and changing an entry, removing through the iterator or clearing
+	 * the event marks it as changed, also through keySet() and values().
+	 */
+	@Override
+	public Set<Entry<String, Object>> entrySet() {
+		return new AbstractSet<Entry<String, Object>>() {
+			@Override
+			public Iterator<Entry<String, Object>> iterator() {
+				Iterator<Entry<String, Object>> iterator = fields.entrySet().iterator();
+				return new Iterator<Entry<String, Object>>() {
+					@Override
+					public boolean hasNext() {
+						return iterator.hasNext();
+					}
+
+					@Override
+					public Entry<String, Object> next() {
+						return new EventEntry(iterator.next());
+					}
+
+					@Override
+					public void remove() {
+						modified = true;
+						iterator.remove();
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return fields.size();
+			}
+
+			@Override
+			public void clear() {
+				modified = true;
+				fields.clear();
+			}
+		};
+	}
+
+	/**
+	 * Scans the top level of the event. Nested objects and arrays are matched
+	 * bracket to bracket and validated token by token here; their values are
+	 * only built on access.
+	 */
+	private void index() throws IOException {
+		int pos = skipWhitespace(0);
+		if (pos >= data.length || data[pos] != '{')
+			throw new IOException("Event is not a JSON object.");
+		pos = skipWhitespace(pos + 1);
+		if (pos < data.length && data[pos] == '}') {
+			if (skipWhitespace(pos + 1) < data.length)
+				throw new IOException("Unexpected content after the event at " + (pos + 1));
+			return;
+		}
+		while (true) {
+			if (pos >= data.length || data[pos] != '"')
+				throw new IOException("Expected a field name at " + pos);
+			int end = skipString(pos);
+			String name = mapper.readValue(data, pos, end - pos, String.class);
+			pos = skipWhitespace(end);
+			if (pos >= data.length || data[pos] != ':')
+				throw new IOException("Expected ':' at " + pos);
+			int start = skipWhitespace(pos + 1);
+			end = skipValue(start);
+			if (data[start] == '{' || data[start] == '[') {
+				validate(start, end - start);
+				fields.put(name, new RawValue(start, end - start));
+			} else {
+				fields.put(name, reader.readValue(data, start, end - start));
+			}
+			pos = skipWhitespace(end);
+			if (pos < data.length && data[pos] == ',') {
+				pos = skipWhitespace(pos + 1);
+			} else if (pos < data.length && data[pos] == '}') {
+				if (skipWhitespace(pos + 1) < data.length)
+					throw new IOException("Unexpected content after the event at " + (pos + 1));
+				return;
+			} else {
+				throw new IOException("Expected ',' or '}' at " + pos);
+			}
+		}
+	}
+
+	private int skipWhitespace(int pos) {
+		while (pos < data.length && (data[pos] == ' ' || data[pos] == '\n' || data[pos] == '\r' || data[pos] == '\t'))
+			pos++;
+		return pos;
+	}
+
+	/**
+	 * @return the position after the string starting at pos
+	 */
+	private int skipString(int pos) throws IOException {
+		for (int i = pos + 1; i < data.length; i++) {
+			if (data[i] == '\\')
+				i++;
+			else if (data[i] == '"')
+				return i + 1;
+		}
+		throw new IOException("Unterminated string at " + pos);
+	}
+
+	/**
+	 * @return the position after the value starting at pos
+	 */
+	private int skipValue(int pos) throws IOException {
+		if (pos >= data.length)
+			throw new IOException("Expected a value at " + pos);
+		if (data[pos] == '"')
+			return skipString(pos);
+		if (data[pos] == '{' || data[pos] == '[') {
+			int depth = 0;
+			for (int i = pos; i < data.length; i++) {
+				byte b = data[i];
+				if (b == '"') {
+					i = skipString(i) - 1;
+				} else if (b == '{' || b == '[') {
+					depth++;
+				} else if (b == '}' || b == ']') {
+					if (--depth == 0)
+						return i + 1;
+				}
+			}
+			throw new IOException("Unterminated value at " + pos);
+		}
+		int i = pos;
+		while (i < data.length && data[i] != ',' && data[i] != '}' && data[i] != ']' && data[i] != ' '
+				&& data[i] != '\n' && data[i] != '\r' && data[i] != '\t')
+			i++;
+		return i;
+	}
+
+	/**
+	 * Reads the nested value token by token, without building it.
+	 */
+	private void validate(int offset, int length) throws IOException {
+		JsonParser parser = factory.createJsonParser(data, offset, length);
+		try {
+			parser.nextToken();
+			parser.skipChildren();
+			if (parser.nextToken() != null)
+				throw new IOException("Unexpected content after the value at " + offset);
+		} finally {
+			parser.close();
+		}
+	}
+
+	private Object decode(RawValue value) {
+		try {
+			return reader.readValue(data, value.offset, value.length);
+		} catch (IOException e) {
+			throw new IllegalStateException("Error decoding event field.", e);
+		}
+	}
+
+	private class EventEntry implements Entry<String, Object> {
+		private final Entry<String, Object> entry;
+
+		EventEntry(Entry<String, Object> entry) {
+			this.entry = entry;
+		}
+
+		@Override
+		public String getKey() {
+			return entry.getKey();
+		}
+
+		@Override
+		public Object getValue() {
+			return get(entry.getKey());
+		}
+
+		@Override
+		public Object setValue(Object value) {
+			Object previous = getValue();
+			modified = true;
+			entry.setValue(value);
+			return previous;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Entry))
+				return false;
+			Entry<?, ?> e = (Entry<?, ?>) o;
+			Object value = getValue();
+			return getKey().equals(e.getKey()) && (null == value ? null == e.getValue() : value.equals(e.getValue()));
+		}
+
+		@Override
+		public int hashCode() {
+			Object value = getValue();
+			return getKey().hashCode() ^ (null == value ? 0 : value.hashCode());
+		}
+
+		@Override
+		public String toString() {
+			return getKey() + "=" + getValue();
+		}
+	}
+
+	private static class RawValue {
+		final int offset;
+		final int length;
+
+		RawValue(int offset, int length) {
+			this.offset = offset;
+			this.length = length;
+		}
+	}
+}
@@ -0,0 +1,38 @@
+package org.sunbird.jobs.samza.serializers;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * An event of the MVC indexer, carrying the data of a content to index.
+ */
+public class MVCEvent extends JsonEvent {
+
+	public MVCEvent(byte[] data) throws IOException {
+		super(data);
+	}
+
+	public Map<String, Object> getObject() {
+		return getMap("object");
+	}
+
+	public String getObjectId() {
+		return getString(getObject(), "id");
+	}
+
+	public Map<String, Object> getEventData() {
+		return getMap("eventData");
+	}
+
+	public String getAction() {
+		return getString(getEventData(), "action");
+	}
+
+	/**
+	 * @return false only when the event asks not to be indexed
+	 */
+	public boolean shouldIndex() {
+		Object index = get("index");
+		return null == index || !"false".equalsIgnoreCase(index.toString());
+	}
+}
@@ -0,0 +1,38 @@
+package org.sunbird.jobs.samza.serializers;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A BE_QR_IMAGE_GENERATOR event, requesting the QR images of a batch of
+ * DIAL codes.
+ */
+public class QRImageEvent extends JsonEvent {
+
+	public QRImageEvent(byte[] data) throws IOException {
+		super(data);
+	}
+
+	public String getEid() {
+		return getString("eid");
+	}
+
+	public String getProcessId() {
+		return getString("processId");
+	}
+
+	@SuppressWarnings("unchecked")
+	public List<Map<String, Object>> getDialcodes() {
+		Object dialcodes = get("dialcodes");
+		return (dialcodes instanceof List) ? (List<Map<String, Object>>) dialcodes : null;
+	}
+
+	public Map<String, Object> getConfig() {
+		return getMap("config");
+	}
+
+	public Map<String, Object> getStorage() {
+		return getMap("storage");
+	}
+}
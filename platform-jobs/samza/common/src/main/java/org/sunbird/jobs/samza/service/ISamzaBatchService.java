@@ -0,0 +1,25 @@
+package org.sunbird.jobs.samza.service;
+
+import java.util.List;
+import java.util.Map;
+
+import org.apache.samza.task.MessageCollector;
+import org.sunbird.jobs.samza.service.task.JobMetrics;
+
+/**
+ * A service that processes the messages of a micro-batch together, e.g. to
+ * read or write them in one store round trip. Tasks only hand batches to it
+ * when task.batch.size is more than 1.
+ */
+public interface ISamzaBatchService extends ISamzaService {
+
+	/**
+	 * Processes the messages of a batch. The offsets of the batch are
+	 * committed once this returns; an exception fails the task and the batch
+	 * is consumed again.
+	 *
+	 * @param messages The messages of the batch, in the order they were consumed
+	 */
+	public void processMessages(List<Map<String, Object>> messages, JobMetrics metrics, MessageCollector collector) throws Exception;
+
+}
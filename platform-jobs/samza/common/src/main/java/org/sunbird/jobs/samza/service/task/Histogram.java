@@ -0,0 +1,72 @@
+package org.sunbird.jobs.samza.service.task;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Distribution of values over fixed buckets, cleared with the other job
+ * metrics. Percentiles are reported as the upper bound of the bucket they
+ * fall in.
+ */
+public class Histogram {
+
+	public static final long[] LATENCY_BUCKETS = { 1, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000, 60000 };
+	public static final long[] SIZE_BUCKETS = { 1, 2, 5, 10, 20, 50, 100, 200, 500, 1000 };
+
+	private final long[] bounds;
+	private final AtomicLongArray counts;
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong sum = new AtomicLong();
+	private final AtomicLong max = new AtomicLong();
+
+	public Histogram(long[] bounds) {
+		this.bounds = bounds;
+		this.counts = new AtomicLongArray(bounds.length + 1);
+	}
+
+	public void update(long value) {
+		int bucket = 0;
+		while (bucket < bounds.length && value > bounds[bucket])
+			bucket++;
+		counts.incrementAndGet(bucket);
+		count.incrementAndGet();
+		sum.addAndGet(value);
+		max.accumulateAndGet(value, Math::max);
+	}
+
+	public void clear() {
+		for (int i = 0; i < counts.length(); i++)
+			counts.set(i, 0);
+		count.set(0);
+		sum.set(0);
+		max.set(0);
+	}
+
+	/**
+	 * Adds the count, average, max and percentiles to the metrics event as
+	 * flat keys, e.g. "process-p95" for the prefix "process".
+	 */
+	public void collect(String prefix, Map<String, Object> event) {
+		long total = count.get();
+		event.put(prefix + "-count", total);
+		event.put(prefix + "-avg", total == 0 ? 0 : sum.get() / total);
+		event.put(prefix + "-max", max.get());
+		event.put(prefix + "-p50", getPercentile(total, 0.50));
+		event.put(prefix + "-p95", getPercentile(total, 0.95));
+		event.put(prefix + "-p99", getPercentile(total, 0.99));
+	}
+
+	private long getPercentile(long total, double percentile) {
+		if (total == 0)
+			return 0;
+		long rank = (long) Math.ceil(total * percentile);
+		long seen = 0;
+		for (int i = 0; i < bounds.length; i++) {
+			seen += counts.get(i);
+			if (seen >= rank)
+				return bounds[i];
+		}
+		return max.get();
+	}
+}
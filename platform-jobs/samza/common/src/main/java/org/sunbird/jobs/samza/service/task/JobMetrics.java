@@ -23,6 +23,8 @@ public class JobMetrics {
 	private final Counter skippedMessageCount;
 	private final Counter errorMessageCount;
 	private int partition;
+	private final Map<String, Histogram> stageLatencies = new ConcurrentHashMap<>();
+	private final Histogram batchSizes = new Histogram(Histogram.SIZE_BUCKETS);
 
 	public JobMetrics(TaskContext context) {
 		this(context, null, null);
@@ -44,6 +46,22 @@ public class JobMetrics {
 		failedMessageCount.clear();
 		skippedMessageCount.clear();
 		errorMessageCount.clear();
+		for (Histogram histogram : stageLatencies.values())
+			histogram.clear();
+		batchSizes.clear();
+	}
+
+	/**
+	 * Records the time (in ms) a message or batch spent in a stage, e.g.
+	 * "process" or a store read of the service. The stage is reported as
+	 * flat keys, e.g. "process-p95".
+	 */
+	public void recordLatency(String stage, long timeMs) {
+		stageLatencies.computeIfAbsent(stage, key -> new Histogram(Histogram.LATENCY_BUCKETS)).update(timeMs);
+	}
+
+	public void recordBatchSize(int size) {
+		batchSizes.update(size);
 	}
 
 	public void incSuccessCounter() {
@@ -121,6 +139,9 @@ public class JobMetrics {
 		metricsEvent.put("error-message-count", errorMessageCount.getCount());		
 		metricsEvent.put("skipped-message-count", skippedMessageCount.getCount());
 		metricsEvent.put("partition",partition);
+		for (Map.Entry<String, Histogram> entry : stageLatencies.entrySet())
+			entry.getValue().collect(entry.getKey(), metricsEvent);
+		batchSizes.collect("batch-size", metricsEvent);
 		metricsEvent.put("consumer-lag",
 				computeConsumerLag(((MetricsRegistryMap) context.getSamzaContainerContext().metricsRegistry).metrics()));
 		return metricsEvent;
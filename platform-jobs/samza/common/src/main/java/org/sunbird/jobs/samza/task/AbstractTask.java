@@ -1,6 +1,8 @@
 package org.sunbird.jobs.samza.task;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -16,6 +18,7 @@ import org.apache.samza.task.TaskContext;
 import org.apache.samza.task.TaskCoordinator;
 import org.apache.samza.task.WindowableTask;
 import org.sunbird.common.Platform;
+import org.sunbird.jobs.samza.service.ISamzaBatchService;
 import org.sunbird.jobs.samza.service.ISamzaService;
 import org.sunbird.jobs.samza.service.task.JobMetrics;
 import org.sunbird.jobs.samza.util.SamzaCommonParams;
@@ -24,7 +27,15 @@ import org.sunbird.telemetry.TelemetryGenerator;
 import org.sunbird.telemetry.TelemetryParams;
 import org.sunbird.telemetry.handler.Level;
 
-public abstract class AbstractTask extends BaseTask {
+/**
+ * Base class of the jobs processing BE_JOB_REQUEST events.
+ *
+ * With task.batch.size above 1, the events of the job are processed as
+ * micro-batches (see {@link BaseBatchTask}); the batch window is also checked on
+ * each window() call. A batch is handed to the service in one call when it
+ * is an {@link ISamzaBatchService}, otherwise event by event.
+ */
+public abstract class AbstractTask extends BaseBatchTask {
 
 	protected JobMetrics metrics;
 	private Config config = null;
@@ -40,13 +51,16 @@ public abstract class AbstractTask extends BaseTask {
 	private static int MAXITERTIONCOUNT= 2;
 	private static ControllerUtil controllerUtil = new ControllerUtil();
 
+	private ISamzaService service;
+
 	@Override
 	public void init(Config config, TaskContext context) throws Exception {
 		metrics = new JobMetrics(context, config.get("output.metrics.job.name"), config.get("output.metrics.topic.name"));
-		ISamzaService service = initialize();
+		service = initialize();
 		service.initialize(config);
 		this.config = config;
 		this.eventId = "BE_JOB_REQUEST";
+		initBatch(config);
 	}
 
 	public abstract ISamzaService initialize() throws Exception;
@@ -69,10 +83,16 @@ public abstract class AbstractTask extends BaseTask {
 		if(StringUtils.equalsIgnoreCase(this.eventId, eid)) {
 			String requestedJobType = (String) edata.get(SamzaCommonParams.action.name());
 			if(StringUtils.equalsIgnoreCase(this.jobType, requestedJobType)) {
-				int currentIteration = ((Number) edata.get(SamzaCommonParams.iteration.name())).intValue();
-				preProcess(message, collector, execution, maxIterations, currentIteration);
-				process(message, collector, coordinator);
-				postProcess(message, collector, execution, maxIterations, currentIteration);
+				if (isBatchEnabled()) {
+					addToBatch(message);
+				} else {
+					int currentIteration = ((Number) edata.get(SamzaCommonParams.iteration.name())).intValue();
+					preProcess(message, collector, execution, maxIterations, currentIteration);
+					long startTime = System.currentTimeMillis();
+					process(message, collector, coordinator);
+					metrics.recordLatency("process", System.currentTimeMillis() - startTime);
+					postProcess(message, collector, execution, maxIterations, currentIteration);
+				}
 			} else if(StringUtils.equalsIgnoreCase("definition_update", requestedJobType)){
 				String graphId = edata.getOrDefault("graphId","").toString();
 				String objectType = edata.getOrDefault("objectType","").toString();
@@ -83,10 +103,44 @@ public abstract class AbstractTask extends BaseTask {
 		} else {
 			//Throw exception has to be added.
 		}
+		processBatchIfReady(metrics, collector, coordinator);
 	}
 
 	public abstract void process(Map<String, Object> message, MessageCollector collector, TaskCoordinator coordinator) throws Exception;
 
+	/**
+	 * Processes the messages of a batch, through the batch service if there
+	 * is one, else one by one.
+	 */
+	protected void processMessages(List<Map<String, Object>> messages, MessageCollector collector, TaskCoordinator coordinator) throws Exception {
+		if (service instanceof ISamzaBatchService) {
+			((ISamzaBatchService) service).processMessages(messages, metrics, collector);
+		} else {
+			for (Map<String, Object> message : messages)
+				process(message, collector, coordinator);
+		}
+	}
+
+	@Override
+	protected void processBatch(List<Map<String, Object>> messages, MessageCollector collector, TaskCoordinator coordinator) throws Exception {
+		int maxIterations = getMaxIterations();
+		List<Map<String, Object>> executions = new ArrayList<>();
+		for (Map<String, Object> message : messages) {
+			Map<String, Object> execution = new HashMap<>();
+			preProcess(message, collector, execution, maxIterations, getIteration(message));
+			executions.add(execution);
+		}
+		processMessages(messages, collector, coordinator);
+		for (int i = 0; i < messages.size(); i++)
+			postProcess(messages.get(i), collector, executions.get(i), maxIterations, getIteration(messages.get(i)));
+	}
+
+	@SuppressWarnings("unchecked")
+	private int getIteration(Map<String, Object> message) {
+		Map<String, Object> edata = (Map<String, Object>) message.get(SamzaCommonParams.edata.name());
+		return ((Number) edata.get(SamzaCommonParams.iteration.name())).intValue();
+	}
+
 	public void preProcess(Map<String, Object> message, MessageCollector collector, Map<String, Object> execution, int maxIterationCount, int iterationCount) {
 		if (isInvalidMessage(message)) {
 			String event = generateEvent(Level.ERROR.name(), "Samza job de-serialization error", message);
@@ -197,6 +251,7 @@ public abstract class AbstractTask extends BaseTask {
 
 	@Override
 	public void window(MessageCollector collector, TaskCoordinator coordinator) throws Exception {
+		processBatchOnWindow(metrics, collector, coordinator);
 		Map<String, Object> event = metrics.collect();
 		collector.send(new OutgoingMessageEnvelope(new SystemStream("kafka", metrics.getTopic()), event));
 		metrics.clear();
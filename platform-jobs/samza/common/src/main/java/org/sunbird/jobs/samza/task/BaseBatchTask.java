@@ -0,0 +1,100 @@
+package org.sunbird.jobs.samza.task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.samza.config.Config;
+import org.apache.samza.config.ConfigException;
+import org.apache.samza.task.MessageCollector;
+import org.apache.samza.task.TaskCoordinator;
+import org.sunbird.jobs.samza.service.task.JobMetrics;
+
+/**
+ * Base Class for the Samza Tasks processing their events as micro-batches.
+ *
+ * Tasks calling {@link #initBatch(Config)} process their events as
+ * micro-batches: with task.batch.size above 1, the events added with
+ * {@link #addToBatch(Map)} are handed to {@link #processBatch(List,
+ * MessageCollector, TaskCoordinator)} once task.batch.size events are
+ * buffered or the first of them has waited task.batch.window.ms, and the
+ * offsets are committed once the batch is processed. Such jobs must set
+ * task.commit.ms=-1, so that the offsets of buffered events are never
+ * committed by the periodic commit; the task fails to start otherwise. The
+ * offsets of the events handled without being batched are committed while no
+ * event is buffered, at most once per task.batch.window.ms and on each
+ * window() call.
+ *
+ * @author Kumar Gauraw
+ */
+public abstract class BaseBatchTask extends BaseTask {
+
+    private int batchSize = 1;
+    private long batchWindowMs;
+    private List<Map<String, Object>> batch = new ArrayList<>();
+    private long batchStartTime;
+    private long lastCommitTime;
+
+    protected void initBatch(Config config) {
+        this.batchSize = config.getInt("task.batch.size", 1);
+        this.batchWindowMs = config.getLong("task.batch.window.ms", 1000);
+        if (batchSize > 1 && config.getLong("task.commit.ms", 60000) >= 0)
+            throw new ConfigException("task.batch.size is " + batchSize + " but task.commit.ms is not -1: offsets of buffered events would be committed before they are processed.");
+    }
+
+    protected boolean isBatchEnabled() {
+        return batchSize > 1;
+    }
+
+    protected void addToBatch(Map<String, Object> message) {
+        if (batch.isEmpty())
+            batchStartTime = System.currentTimeMillis();
+        batch.add(message);
+    }
+
+    /**
+     * Processes the buffered events once the batch is full or its window has
+     * elapsed, then commits the offsets. When processing fails, the exception
+     * fails the task and nothing is committed, so the batch is consumed again.
+     */
+    protected void processBatchIfReady(JobMetrics metrics, MessageCollector collector, TaskCoordinator coordinator) throws Exception {
+        if (batch.isEmpty()) {
+            if (isBatchEnabled() && System.currentTimeMillis() - lastCommitTime >= batchWindowMs)
+                commit(coordinator);
+            return;
+        }
+        if (batch.size() < batchSize && System.currentTimeMillis() - batchStartTime < batchWindowMs)
+            return;
+        List<Map<String, Object>> messages = batch;
+        batch = new ArrayList<>();
+        metrics.recordBatchSize(messages.size());
+        metrics.recordLatency("batch-wait", System.currentTimeMillis() - batchStartTime);
+        long startTime = System.currentTimeMillis();
+        processBatch(messages, collector, coordinator);
+        metrics.recordLatency("process", System.currentTimeMillis() - startTime);
+        commit(coordinator);
+    }
+
+    /**
+     * Processes the buffered events once ready, like {@link
+     * #processBatchIfReady(JobMetrics, MessageCollector, TaskCoordinator)},
+     * and commits the offsets of the events handled without being batched
+     * when none is buffered. To call from window().
+     */
+    protected void processBatchOnWindow(JobMetrics metrics, MessageCollector collector, TaskCoordinator coordinator) throws Exception {
+        if (isBatchEnabled() && batch.isEmpty())
+            commit(coordinator);
+        else
+            processBatchIfReady(metrics, collector, coordinator);
+    }
+
+    private void commit(TaskCoordinator coordinator) {
+        coordinator.commit(TaskCoordinator.RequestScope.CURRENT_TASK);
+        lastCommitTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Processes the events of a batch, in the order they were consumed.
+     */
+    protected abstract void processBatch(List<Map<String, Object>> messages, MessageCollector collector, TaskCoordinator coordinator) throws Exception;
+}
@@ -0,0 +1,208 @@
+package org.eksep.samza.jobs.test;
+
+import org.apache.samza.Partition;
+import org.apache.samza.config.Config;
+import org.apache.samza.config.ConfigException;
+import org.apache.samza.config.MapConfig;
+import org.apache.samza.metrics.Counter;
+import org.apache.samza.metrics.MetricsRegistry;
+import org.apache.samza.system.IncomingMessageEnvelope;
+import org.apache.samza.system.SystemStreamPartition;
+import org.apache.samza.task.MessageCollector;
+import org.apache.samza.task.TaskContext;
+import org.apache.samza.task.TaskCoordinator;
+import org.junit.Before;
+import org.junit.Test;
+import org.sunbird.jobs.samza.service.ISamzaBatchService;
+import org.sunbird.jobs.samza.service.ISamzaService;
+import org.sunbird.jobs.samza.service.task.JobMetrics;
+import org.sunbird.jobs.samza.task.AbstractTask;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.stub;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Micro-batching of AbstractTask: batches are handed to the batch service
+ * and committed only once processed.
+ */
+public class AbstractTaskBatchTest {
+
+    private static final SystemStreamPartition PARTITION = new SystemStreamPartition("kafka", "test.job.request", new Partition(0));
+
+    private TaskContext contextMock;
+    private MessageCollector collector;
+    private TaskCoordinator coordinator;
+    private BatchServiceStub service;
+
+    @Before
+    public void setUp() {
+        contextMock = mock(TaskContext.class);
+        MetricsRegistry metricsRegistry = mock(MetricsRegistry.class);
+        Counter counter = mock(Counter.class);
+        stub(metricsRegistry.newCounter(anyString(), anyString())).toReturn(counter);
+        stub(contextMock.getMetricsRegistry()).toReturn(metricsRegistry);
+        collector = mock(MessageCollector.class);
+        coordinator = mock(TaskCoordinator.class);
+        service = new BatchServiceStub();
+    }
+
+    @Test
+    public void testBatchIsCommittedOnceProcessed() throws Exception {
+        TestTask task = new TestTask(service);
+        task.init(getConfig("2", "-1"), contextMock);
+
+        task.process(getEnvelope("do_1"), collector, coordinator);
+        assertEquals(0, service.batches.size());
+        verify(coordinator, never()).commit(TaskCoordinator.RequestScope.CURRENT_TASK);
+
+        task.process(getEnvelope("do_2"), collector, coordinator);
+        assertEquals(1, service.batches.size());
+        assertEquals(2, service.batches.get(0).size());
+        assertEquals("do_1", service.batches.get(0).get(0).get("mid"));
+        verify(coordinator, times(1)).commit(TaskCoordinator.RequestScope.CURRENT_TASK);
+    }
+
+    @Test
+    public void testFailedBatchIsNotCommitted() throws Exception {
+        service.fail = true;
+        TestTask task = new TestTask(service);
+        task.init(getConfig("2", "-1"), contextMock);
+
+        task.process(getEnvelope("do_1"), collector, coordinator);
+        try {
+            task.process(getEnvelope("do_2"), collector, coordinator);
+            fail("The batch should have failed.");
+        } catch (Exception e) {
+            assertEquals("Batch failed.", e.getMessage());
+        }
+        verify(coordinator, never()).commit(TaskCoordinator.RequestScope.CURRENT_TASK);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testEventsNotBatchedAreCommitted() throws Exception {
+        TestTask task = new TestTask(service);
+        task.init(getConfig("2", "-1"), contextMock);
+        task.mockMetrics();
+
+        IncomingMessageEnvelope envelope = getEnvelope("do_1");
+        ((Map<String, Object>) envelope.getMessage()).put("eid", "BE_OBJECT_LIFECYCLE");
+        task.process(envelope, collector, coordinator);
+        verify(coordinator, times(1)).commit(TaskCoordinator.RequestScope.CURRENT_TASK);
+        // Within the batch window, the next events are committed on window().
+        task.process(envelope, collector, coordinator);
+        verify(coordinator, times(1)).commit(TaskCoordinator.RequestScope.CURRENT_TASK);
+        task.window(collector, coordinator);
+        verify(coordinator, times(2)).commit(TaskCoordinator.RequestScope.CURRENT_TASK);
+        assertEquals(0, service.batches.size());
+    }
+
+    @Test
+    public void testBufferedEventsAreNotCommittedOnWindow() throws Exception {
+        TestTask task = new TestTask(service);
+        task.init(getConfig("2", "-1"), contextMock);
+        task.mockMetrics();
+
+        task.process(getEnvelope("do_1"), collector, coordinator);
+        task.window(collector, coordinator);
+        verify(coordinator, never()).commit(TaskCoordinator.RequestScope.CURRENT_TASK);
+    }
+
+    @Test(expected = ConfigException.class)
+    public void testBatchingRequiresPeriodicCommitDisabled() throws Exception {
+        new TestTask(service).init(getConfig("2", null), contextMock);
+    }
+
+    @Test
+    public void testMessageIsProcessedWithoutBatching() throws Exception {
+        TestTask task = new TestTask(service);
+        task.init(getConfig(null, null), contextMock);
+
+        task.process(getEnvelope("do_1"), collector, coordinator);
+        assertEquals(1, task.processed.size());
+        assertEquals(0, service.batches.size());
+        verify(coordinator, never()).commit(TaskCoordinator.RequestScope.CURRENT_TASK);
+    }
+
+    private Config getConfig(String batchSize, String commitMs) {
+        Map<String, String> config = new HashMap<>();
+        config.put("output.metrics.job.name", "TestJob");
+        config.put("output.metrics.topic.name", "test.metrics");
+        if (null != batchSize)
+            config.put("task.batch.size", batchSize);
+        if (null != commitMs)
+            config.put("task.commit.ms", commitMs);
+        config.put("task.batch.window.ms", "600000");
+        return new MapConfig(config);
+    }
+
+    private IncomingMessageEnvelope getEnvelope(String mid) {
+        Map<String, Object> edata = new HashMap<>();
+        edata.put("action", TestTask.JOB_TYPE);
+        edata.put("iteration", 1);
+        Map<String, Object> message = new HashMap<>();
+        message.put("eid", "BE_JOB_REQUEST");
+        message.put("ets", System.currentTimeMillis());
+        message.put("mid", mid);
+        message.put("edata", edata);
+        return new IncomingMessageEnvelope(PARTITION, "0", null, message);
+    }
+
+    private static class TestTask extends AbstractTask {
+        static final String JOB_TYPE = "test-job";
+
+        private final ISamzaService service;
+        private final List<Map<String, Object>> processed = new ArrayList<>();
+
+        TestTask(ISamzaService service) {
+            this.service = service;
+            this.jobType = JOB_TYPE;
+        }
+
+        // window() collects the metrics, which needs a container context.
+        void mockMetrics() {
+            metrics = mock(JobMetrics.class);
+        }
+
+        @Override
+        public ISamzaService initialize() {
+            return service;
+        }
+
+        @Override
+        public void process(Map<String, Object> message, MessageCollector collector, TaskCoordinator coordinator) {
+            processed.add(message);
+        }
+    }
+
+    private static class BatchServiceStub implements ISamzaBatchService {
+        private final List<List<Map<String, Object>>> batches = new ArrayList<>();
+        private boolean fail;
+
+        @Override
+        public void initialize(Config config) {
+        }
+
+        @Override
+        public void processMessage(Map<String, Object> message, JobMetrics metrics, MessageCollector collector) {
+        }
+
+        @Override
+        public void processMessages(List<Map<String, Object>> messages, JobMetrics metrics, MessageCollector collector) throws Exception {
+            if (fail)
+                throw new Exception("Batch failed.");
+            batches.add(messages);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.eksep.samza.jobs.test;
+
+import org.junit.Test;
+import org.sunbird.jobs.samza.service.task.Histogram;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class HistogramTest {
+
+    @Test
+    public void testPercentilesAreBucketUpperBounds() {
+        Histogram histogram = new Histogram(Histogram.LATENCY_BUCKETS);
+        for (int i = 0; i < 90; i++)
+            histogram.update(3);
+        for (int i = 0; i < 9; i++)
+            histogram.update(80);
+        histogram.update(120000);
+
+        Map<String, Object> event = new HashMap<>();
+        histogram.collect("process", event);
+        assertEquals(100L, event.get("process-count"));
+        assertEquals((90 * 3 + 9 * 80 + 120000) / 100L, event.get("process-avg"));
+        assertEquals(120000L, event.get("process-max"));
+        assertEquals(5L, event.get("process-p50"));
+        assertEquals(100L, event.get("process-p95"));
+        assertEquals(100L, event.get("process-p99"));
+    }
+
+    @Test
+    public void testValueAboveLastBucketIsReportedAsMax() {
+        Histogram histogram = new Histogram(Histogram.SIZE_BUCKETS);
+        histogram.update(5000);
+
+        Map<String, Object> event = new HashMap<>();
+        histogram.collect("batch-size", event);
+        assertEquals(5000L, event.get("batch-size-p50"));
+        assertEquals(5000L, event.get("batch-size-p99"));
+    }
+
+    @Test
+    public void testClear() {
+        Histogram histogram = new Histogram(Histogram.SIZE_BUCKETS);
+        histogram.update(10);
+        histogram.clear();
+
+        Map<String, Object> event = new HashMap<>();
+        histogram.collect("batch-size", event);
+        assertEquals(0L, event.get("batch-size-count"));
+        assertEquals(0L, event.get("batch-size-avg"));
+        assertEquals(0L, event.get("batch-size-max"));
+        assertEquals(0L, event.get("batch-size-p95"));
+        assertEquals(6, event.size());
+    }
+}
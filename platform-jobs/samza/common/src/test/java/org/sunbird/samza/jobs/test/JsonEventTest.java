@@ -0,0 +1,163 @@
+package org.eksep.samza.jobs.test;
+
+import org.junit.Test;
+import org.sunbird.jobs.samza.serializers.EkstepJsonSerde;
+import org.sunbird.jobs.samza.serializers.JsonEvent;
+import org.sunbird.jobs.samza.serializers.MVCEvent;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class JsonEventTest {
+
+    private static final String EVENT = " {\n\t\"eid\" : \"MVC\\\"EVENT\\u00e9\",\r\n \"ets\":1565589612345, \"index\":false, \"ver\":null,"
+            + "\"object\":{\"id\":\"do_1\",\"name\":\"a } ] \\\" b\",\"tags\":[1,[2,{\"x\":\"]\"}]]},"
+            + "\"eventData\" : { \"action\" : \"update-es-index\" } } ";
+
+    @Test
+    public void testScalarsAndEscapesAreRead() throws Exception {
+        JsonEvent event = read(EVENT);
+        assertEquals("MVC\"EVENT\u00e9", event.get("eid"));
+        assertEquals(1565589612345L, ((Number) event.get("ets")).longValue());
+        assertEquals(false, event.get("index"));
+        assertTrue(event.containsKey("ver"));
+        assertNull(event.get("ver"));
+        assertEquals(6, event.size());
+        assertNotNull(event.getOriginalBytes());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testNestedValuesAreDecodedOnAccess() throws Exception {
+        MVCEvent event = read(EVENT);
+        assertEquals("do_1", event.getObjectId());
+        assertEquals("a } ] \" b", event.getObject().get("name"));
+        List<Object> tags = (List<Object>) event.getObject().get("tags");
+        assertEquals(1, tags.get(0));
+        assertEquals("update-es-index", event.getAction());
+        assertNull(event.getOriginalBytes());
+    }
+
+    @Test
+    public void testUnchangedEventIsWrittenAsRead() throws Exception {
+        byte[] bytes = EVENT.getBytes(StandardCharsets.UTF_8);
+        EkstepJsonSerde<Object> serde = EkstepJsonSerde.ofEvent(MVCEvent.class);
+        Object event = serde.fromBytes(bytes);
+        assertTrue(event instanceof MVCEvent);
+        ((MVCEvent) event).get("eid");
+        assertSame(bytes, serde.toBytes(event));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testChangedEventIsWrittenAgain() throws Exception {
+        EkstepJsonSerde<Object> serde = EkstepJsonSerde.ofEvent(MVCEvent.class);
+        MVCEvent event = (MVCEvent) serde.fromBytes(EVENT.getBytes(StandardCharsets.UTF_8));
+        event.put("eid", "BE_JOB_REQUEST");
+        event.remove("ver");
+
+        Map<String, Object> written = (Map<String, Object>) new EkstepJsonSerde<>().fromBytes(serde.toBytes(event));
+        assertEquals("BE_JOB_REQUEST", written.get("eid"));
+        assertFalse(written.containsKey("ver"));
+        assertEquals("do_1", ((Map<String, Object>) written.get("object")).get("id"));
+        List<Object> tags = (List<Object>) ((Map<String, Object>) written.get("object")).get("tags");
+        assertEquals("]", ((Map<String, Object>) ((List<Object>) tags.get(1)).get(1)).get("x"));
+    }
+
+    @Test
+    public void testChangesThroughViewsMarkTheEvent() throws Exception {
+        JsonEvent event = read("{\"a\":1,\"b\":2}");
+        event.keySet().remove("a");
+        assertNull(event.getOriginalBytes());
+        assertEquals(1, event.size());
+
+        event = read("{\"a\":1,\"b\":2}");
+        event.entrySet().iterator().next().setValue(3);
+        assertNull(event.getOriginalBytes());
+        assertEquals(3, event.get("a"));
+
+        event = read("{\"a\":1,\"b\":2}");
+        Iterator<Object> values = event.values().iterator();
+        values.next();
+        values.remove();
+        assertNull(event.getOriginalBytes());
+        assertFalse(event.containsKey("a"));
+
+        event = read("{\"a\":1,\"b\":2}");
+        event.clear();
+        assertNull(event.getOriginalBytes());
+        assertTrue(event.isEmpty());
+    }
+
+    @Test
+    public void testReadingThroughViewsKeepsTheBytes() throws Exception {
+        JsonEvent event = read("{\"a\":1,\"b\":\"c\"}");
+        assertEquals("{a=1, b=c}", event.toString());
+        assertEquals(Arrays.asList("a", "b"), Arrays.asList(event.keySet().toArray()));
+        assertNotNull(event.getOriginalBytes());
+    }
+
+    @Test
+    public void testEmptyEvent() throws Exception {
+        assertTrue(read(" { } ").isEmpty());
+    }
+
+    @Test
+    public void testMalformedEventsAreRejected() throws Exception {
+        String[] malformed = { "", "[1]", "{", "{\"a\"}", "{\"a\":}", "{\"a\":1,}", "{\"a\":1 \"b\":2}",
+                "{\"a\":\"b}", "{\"a\":{\"b\":}}", "{\"a\":[1,}", "{\"a\":{\"b\":1]}", "{\"a\":1} x" };
+        for (String json : malformed) {
+            try {
+                read(json);
+                fail("The event should have been rejected: " + json);
+            } catch (IOException e) {
+            }
+        }
+    }
+
+    @Test
+    public void testMalformedEventIsASerdeError() throws Exception {
+        EkstepJsonSerde<Object> serde = EkstepJsonSerde.ofEvent(MVCEvent.class);
+        Object event = serde.fromBytes("{\"eid\":\"MVC\",\"object\":{\"id\":}}".getBytes(StandardCharsets.UTF_8));
+        assertTrue(event instanceof MVCEvent);
+        assertEquals("error", ((MVCEvent) event).get("serde"));
+        assertEquals("Error deserializing data", ((MVCEvent) event).get("message"));
+        assertNotNull(((MVCEvent) event).get("exception"));
+        assertTrue(serde.fromBytes(null) instanceof MVCEvent);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testMapsAreWrittenThroughThePooledBuffer() throws Exception {
+        EkstepJsonSerde<Object> serde = new EkstepJsonSerde<>();
+        Map<String, Object> large = new HashMap<>();
+        char[] chars = new char[2 * 1024 * 1024];
+        Arrays.fill(chars, 'a');
+        large.put("data", new String(chars));
+        Map<String, Object> written = (Map<String, Object>) serde.fromBytes(serde.toBytes(large));
+        assertEquals(chars.length, ((String) written.get("data")).length());
+        for (int i = 0; i < 3; i++) {
+            written = (Map<String, Object>) serde.fromBytes(serde.toBytes(Collections.singletonMap("i", i)));
+            assertEquals(1, written.size());
+            assertEquals(i, written.get("i"));
+        }
+    }
+
+    private static MVCEvent read(String json) throws IOException {
+        return new MVCEvent(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -6,32 +6,53 @@ import org.apache.samza.system.SystemStream;
 import org.apache.samza.task.MessageCollector;
 import org.sunbird.jobs.samza.exception.PlatformErrorCodes;
 import org.sunbird.jobs.samza.exception.PlatformException;
-import org.sunbird.jobs.samza.service.ISamzaService;
+import org.sunbird.jobs.samza.service.ISamzaBatchService;
 import org.sunbird.jobs.samza.service.task.JobMetrics;
 import org.sunbird.mvcjobs.samza.service.util.ContentUtil;
+import org.sunbird.mvcjobs.samza.service.util.MLEnrichmentClient.CircuitOpenException;
 import org.sunbird.mvcjobs.samza.service.util.MVCProcessorCassandraIndexer;
 import org.sunbird.mvcjobs.samza.service.util.MVCProcessorESIndexer;
 import org.sunbird.jobs.samza.util.FailedEventsUtil;
 import org.sunbird.jobs.samza.util.JSONUtils;
 import org.sunbird.jobs.samza.util.JobLogger;
 import org.sunbird.searchindex.util.CompositeSearchConstants;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.DocWriteRequest;
 import org.elasticsearch.client.transport.NoNodeAvailableException;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
-public class MVCProcessorService implements ISamzaService {
+public class MVCProcessorService implements ISamzaBatchService {
 
 	private JobLogger LOGGER = new JobLogger(MVCProcessorService.class);
 	private Config config = null;
 	private MVCProcessorESIndexer mvcIndexer = null;
 	private SystemStream systemStream = null;
 	private MVCProcessorCassandraIndexer cassandraManager ;
+	private Queue<FailedEnrichment> failedEnrichments = new ConcurrentLinkedQueue<>();
+	private int maxEnrichmentRetries = 3;
+	private int maxPendingEnrichments = 10000;
 	public MVCProcessorService() {}
 
 	public MVCProcessorService(MVCProcessorESIndexer mvcIndexer) throws Exception {
 		this.mvcIndexer = mvcIndexer;
 	}
 
+	public MVCProcessorService(MVCProcessorESIndexer mvcIndexer, MVCProcessorCassandraIndexer cassandraManager) throws Exception {
+		this.mvcIndexer = mvcIndexer;
+		this.cassandraManager = cassandraManager;
+	}
+
 	@Override
 	public void initialize(Config config) throws Exception {
 		this.config = config;
@@ -41,55 +62,225 @@ public class MVCProcessorService implements ISamzaService {
 		mvcIndexer = mvcIndexer == null ? new MVCProcessorESIndexer(): mvcIndexer;
 		mvcIndexer.createMVCSearchIndex();
 		LOGGER.info(CompositeSearchConstants.MVC_SEARCH_INDEX + " created");
-		cassandraManager  = new MVCProcessorCassandraIndexer();
+		cassandraManager  = cassandraManager == null ? new MVCProcessorCassandraIndexer() : cassandraManager;
+		maxEnrichmentRetries = config.getInt("ml.enrichment.max_retries", 3);
+		maxPendingEnrichments = config.getInt("ml.enrichment.max_pending_retries", 10000);
+	}
+
+	/**
+	 * Closes the ML client, then pushes the events whose ML request is still
+	 * queued for retry: their offsets may be committed already, so they would
+	 * be lost with the container.
+	 */
+	public void close(JobMetrics metrics, MessageCollector collector) {
+		if (null != cassandraManager)
+			cassandraManager.close();
+		FailedEnrichment failed;
+		while (null != (failed = failedEnrichments.poll())) {
+			LOGGER.error("ML request not retried before shutdown for message:", failed.message, failed.error);
+			FailedEventsUtil.pushEventForRetry(systemStream, failed.message, metrics, collector,
+					PlatformErrorCodes.SYSTEM_ERROR.name(), failed.error);
+		}
 	}
 
 	@Override
 	public void processMessage(Map<String, Object> message, JobMetrics metrics, MessageCollector collector)
 			throws Exception {
-		Object index = message.get("index");
-		Boolean shouldindex = BooleanUtils.toBoolean(null == index ? "true" : index.toString());
-		String identifier = (String) ((Map<String, Object>) message.get("object")).get("id");
-		if (!BooleanUtils.isFalse(shouldindex)) {
+		String identifier = getObjectId(message);
+		if (shouldIndex(message)) {
 			LOGGER.debug("Indexing event into ES");
 			try {
 				processMessage(message);
 				LOGGER.debug("Record Added/Updated into mvc index for " + identifier);
 				metrics.incSuccessCounter();
-			} catch (PlatformException ex) {
-				LOGGER.error("Error while processing message:", message, ex);
-				metrics.incFailedCounter();
-				FailedEventsUtil.pushEventForRetry(systemStream, message, metrics, collector,
-						PlatformErrorCodes.SYSTEM_ERROR.name(), ex);
 			} catch (Exception ex) {
-				LOGGER.error("Error while processing message:", message, ex);
-				metrics.incErrorCounter();
-				if (null != message) {
-					String errorCode = ex instanceof NoNodeAvailableException ? PlatformErrorCodes.SYSTEM_ERROR.name()
-							: PlatformErrorCodes.PROCESSING_ERROR.name();
-					FailedEventsUtil.pushEventForRetry(systemStream, message, metrics, collector,
-							errorCode, ex);
-				}
+				handleError(message, ex, metrics, collector);
 			}
+			cassandraManager.flushMLRequests();
 		} else {
 			LOGGER.info("Learning event not qualified for indexing");
 		}
 	}
 
+	/**
+	 * Writes the events of the batch to Cassandra one by one, and their ES
+	 * updates in one bulk request. An event is pushed for retry when any of
+	 * its updates failed.
+	 */
+	@Override
+	public void processMessages(List<Map<String, Object>> messages, JobMetrics metrics, MessageCollector collector)
+			throws Exception {
+		List<DocWriteRequest<?>> requests = new ArrayList<>();
+		List<Map<String, Object>> requestMessages = new ArrayList<>();
+		for (Map<String, Object> message : messages) {
+			if (!shouldIndex(message)) {
+				LOGGER.info("Learning event not qualified for indexing");
+				continue;
+			}
+			try {
+				Map<String, Object> eventData = getEventData(message);
+				if (null == eventData)
+					continue;
+				for (DocWriteRequest<?> request : mvcIndexer.getWriteRequests(getObjectId(message), eventData)) {
+					requests.add(request);
+					requestMessages.add(message);
+				}
+			} catch (Exception ex) {
+				handleError(message, ex, metrics, collector);
+			}
+		}
+		cassandraManager.flushMLRequests();
+		if (requests.isEmpty())
+			return;
+
+		Map<Map<String, Object>, Exception> errors = new IdentityHashMap<>();
+		try {
+			BulkItemResponse[] items = mvcIndexer.write(requests).getItems();
+			for (int i = 0; i < items.length; i++) {
+				if (mvcIndexer.isFailed(items[i]) && !errors.containsKey(requestMessages.get(i)))
+					errors.put(requestMessages.get(i), new Exception("Error while updating ES document "
+							+ items[i].getId() + ": " + items[i].getFailureMessage()));
+			}
+		} catch (Exception ex) {
+			for (Map<String, Object> message : requestMessages)
+				errors.put(message, ex);
+		}
+		Set<Map<String, Object>> processed = Collections.newSetFromMap(new IdentityHashMap<>());
+		for (Map<String, Object> message : requestMessages) {
+			if (!processed.add(message))
+				continue;
+			if (errors.containsKey(message)) {
+				handleError(message, errors.get(message), metrics, collector);
+			} else {
+				LOGGER.debug("Record Added/Updated into mvc index for " + getObjectId(message));
+				metrics.incSuccessCounter();
+			}
+		}
+	}
+
 	public void processMessage(Map<String, Object> message) throws Exception {
+		Map<String, Object> eventData = getEventData(message);
+		if (null != eventData) {
+			String objectId = getObjectId(message);
+			LOGGER.info("MVCProcessorService :: processMessage  ::: Calling elasticsearch insertion for " + objectId);
+			mvcIndexer.upsertDocument(objectId, eventData);
+		}
+	}
+
+	/**
+	 * Sends the ML requests that failed since the last call again, without
+	 * writing their events to Cassandra or ES again. The requests complete on
+	 * the HTTP client threads, so they are only queued there and sent from
+	 * the task thread here, on window(). While the circuit of their ML service is open the
+	 * requests stay queued, and the requests failing right away on the open
+	 * circuit are not counted as attempts. An event is pushed for retry once
+	 * its request failed ml.enrichment.max_retries times, or when more than
+	 * ml.enrichment.max_pending_retries requests are queued.
+	 */
+	public void retryFailedEnrichments(JobMetrics metrics, MessageCollector collector) {
+		int pending = failedEnrichments.size();
+		for (int i = 0; i < pending; i++) {
+			FailedEnrichment failed = failedEnrichments.poll();
+			if (null == failed)
+				break;
+			if (failed.attempts > maxEnrichmentRetries || pending - i > maxPendingEnrichments) {
+				LOGGER.error("ML request failed for message:", failed.message, failed.error);
+				FailedEventsUtil.pushEventForRetry(systemStream, failed.message, metrics, collector,
+						PlatformErrorCodes.SYSTEM_ERROR.name(), failed.error);
+			} else if (cassandraManager.isMLServiceAvailable(failed.data)) {
+				LOGGER.info("MVCProcessorService :: retryFailedEnrichments ::: Retrying ML request for " + failed.identifier);
+				requestEnrichment(failed.message, failed.data, failed.identifier,
+						cassandraManager.submitMLRequest(failed.data, failed.identifier), failed.attempts);
+			} else {
+				failedEnrichments.add(failed);
+			}
+		}
+		cassandraManager.flushMLRequests();
+	}
+
+	/**
+	 * Reads the content metadata for the events indexing it and writes the
+	 * event to Cassandra, requesting its ML enrichment.
+	 *
+	 * @return the data to write to ES, null if the event has none
+	 */
+	private Map<String, Object> getEventData(Map<String, Object> message) throws Exception {
 		if (message != null && message.get("eventData") != null) {
 			Map<String, Object> eventData = (Map<String, Object>) message.get("eventData");
 			String action = eventData.get("action").toString();
-			String objectId = (String) ((Map<String, Object>) message.get("object")).get("id");
+			String objectId = getObjectId(message);
 			if(!action.equalsIgnoreCase("update-content-rating")) {
 				if (action.equalsIgnoreCase("update-es-index")) {
 					eventData = ContentUtil.getContentMetaData(eventData, objectId);
 				}
 				LOGGER.info("MVCProcessorService :: processMessage  ::: Calling cassandra insertion for " + objectId);
-				cassandraManager.insertIntoCassandra(eventData, objectId);
+				Map<String, Object> data = new HashMap<>(eventData);
+				requestEnrichment(message, data, objectId, cassandraManager.insertIntoCassandra(eventData, objectId), 0);
 			}
-			LOGGER.info("MVCProcessorService :: processMessage  ::: Calling elasticsearch insertion for " + objectId);
-			mvcIndexer.upsertDocument(objectId, eventData);
+			return eventData;
+		}
+		return null;
+	}
+
+	/**
+	 * Queues the ML request for retry when it fails. The data of the event is
+	 * a copy, as the event data is changed for ES.
+	 */
+	private void requestEnrichment(Map<String, Object> message, Map<String, Object> data, String identifier,
+			CompletableFuture<String> request, int attempts) {
+		request.whenComplete((resp, error) -> {
+			if (null != error) {
+				Throwable cause = error instanceof CompletionException && null != error.getCause() ? error.getCause() : error;
+				int failures = cause instanceof CircuitOpenException ? attempts : attempts + 1;
+				failedEnrichments.add(new FailedEnrichment(message, data, identifier, cause, failures));
+			} else if (null != resp) {
+				LOGGER.info("MVCProcessorService :: processMessage  ::: ML request response for " + identifier + " is " + resp);
+			}
+		});
+	}
+
+	private boolean shouldIndex(Map<String, Object> message) {
+		Object index = message.get("index");
+		Boolean shouldindex = BooleanUtils.toBoolean(null == index ? "true" : index.toString());
+		return !BooleanUtils.isFalse(shouldindex);
+	}
+
+	private String getObjectId(Map<String, Object> message) {
+		return (String) ((Map<String, Object>) message.get("object")).get("id");
+	}
+
+	private void handleError(Map<String, Object> message, Exception ex, JobMetrics metrics, MessageCollector collector)
+			throws Exception {
+		LOGGER.error("Error while processing message:", message, ex);
+		if (ex instanceof PlatformException) {
+			metrics.incFailedCounter();
+			FailedEventsUtil.pushEventForRetry(systemStream, message, metrics, collector,
+					PlatformErrorCodes.SYSTEM_ERROR.name(), ex);
+		} else {
+			metrics.incErrorCounter();
+			if (null != message) {
+				String errorCode = ex instanceof NoNodeAvailableException ? PlatformErrorCodes.SYSTEM_ERROR.name()
+						: PlatformErrorCodes.PROCESSING_ERROR.name();
+				FailedEventsUtil.pushEventForRetry(systemStream, message, metrics, collector,
+						errorCode, ex);
+			}
+		}
+	}
+
+	private static class FailedEnrichment {
+		final Map<String, Object> message;
+		final Map<String, Object> data;
+		final String identifier;
+		final Throwable error;
+		final int attempts;
+
+		FailedEnrichment(Map<String, Object> message, Map<String, Object> data, String identifier, Throwable error,
+				int attempts) {
+			this.message = message;
+			this.data = data;
+			this.identifier = identifier;
+			this.error = error;
+			this.attempts = attempts;
 		}
 	}
 
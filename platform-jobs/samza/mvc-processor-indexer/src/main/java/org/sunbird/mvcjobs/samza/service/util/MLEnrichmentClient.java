@@ -0,0 +1,286 @@
+package org.sunbird.mvcjobs.samza.service.util;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.util.EntityUtils;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.sunbird.common.Platform;
+import org.sunbird.jobs.samza.util.JobLogger;
+
+/**
+ * Client of the ML keyword (workbench) and vector services, which run the
+ * models and send their results back as MVC events.
+ *
+ * The requests are sent with an async HTTP client: the task thread waits at
+ * most for a free slot (ml.enrichment.max_concurrent_requests requests are
+ * in flight at a time), never for a model, and the returned futures complete
+ * on the client threads. Each request times out after
+ * ml.enrichment.timeout.ms. The contents submitted for keywords are sent
+ * together, up to ml.enrichment.keywords.batch_size per workbench job, on
+ * {@link #flush()}. The vector service takes a single content id per
+ * request, so vectors are requested one content at a time.
+ *
+ * Each service has a circuit breaker: after
+ * ml.enrichment.circuit_breaker.failures consecutive failures its requests
+ * fail right away for ml.enrichment.circuit_breaker.reset.ms, then one
+ * request is let through to probe it. The requests failing right away
+ * complete with a {@link CircuitOpenException}.
+ */
+public class MLEnrichmentClient {
+
+	private static final int MAX_CONCURRENT_REQUESTS = Platform.config.hasPath("ml.enrichment.max_concurrent_requests")
+			? Platform.config.getInt("ml.enrichment.max_concurrent_requests") : 16;
+	private static final int TIMEOUT = Platform.config.hasPath("ml.enrichment.timeout.ms")
+			? Platform.config.getInt("ml.enrichment.timeout.ms") : 30000;
+	private static final int KEYWORDS_BATCH_SIZE = Platform.config.hasPath("ml.enrichment.keywords.batch_size")
+			? Platform.config.getInt("ml.enrichment.keywords.batch_size") : 10;
+	private static final int FAILURE_THRESHOLD = Platform.config.hasPath("ml.enrichment.circuit_breaker.failures")
+			? Platform.config.getInt("ml.enrichment.circuit_breaker.failures") : 5;
+	private static final long RESET_TIMEOUT = Platform.config.hasPath("ml.enrichment.circuit_breaker.reset.ms")
+			? Platform.config.getLong("ml.enrichment.circuit_breaker.reset.ms") : 60000;
+
+	private static final String KEYWORDS_REQUEST = "{\"request\":{ \"input\" :{ \"content\" : [] } } }";
+	private static final String VECTOR_REQUEST = "{\"request\":{\"text\":[],\"cid\": \"\",\"language\":\"en\",\"method\":\"BERT\",\"params\":{\"dim\":768,\"seq_len\":25}}}";
+	private static final String KEYWORDS_JOB = "vidyadaan_content_keyword_tagging";
+
+	private JobLogger LOGGER = new JobLogger(MLEnrichmentClient.class);
+	private final String keywordsUrl;
+	private final String vectorUrl;
+	private final int timeout;
+	private final int keywordsBatchSize;
+	private final Semaphore permits;
+	private final CircuitBreaker keywordsBreaker;
+	private final CircuitBreaker vectorBreaker;
+	private final CloseableHttpAsyncClient client;
+	private List<Map<String, Object>> keywordsBatch = new ArrayList<>();
+	private List<CompletableFuture<String>> keywordsFutures = new ArrayList<>();
+
+	public MLEnrichmentClient() {
+		this("http://" + getHost("ml.keyword.api") + ":3579/daggit/submit",
+				"http://" + getHost("ml.vector.api") + ":1729/ml/vector/ContentText", MAX_CONCURRENT_REQUESTS,
+				TIMEOUT, KEYWORDS_BATCH_SIZE, FAILURE_THRESHOLD, RESET_TIMEOUT);
+	}
+
+	public MLEnrichmentClient(String keywordsUrl, String vectorUrl, int maxConcurrentRequests, int timeout,
+			int keywordsBatchSize, int failureThreshold, long resetTimeout) {
+		this.keywordsUrl = keywordsUrl;
+		this.vectorUrl = vectorUrl;
+		this.timeout = timeout;
+		this.keywordsBatchSize = Math.max(1, keywordsBatchSize);
+		this.permits = new Semaphore(maxConcurrentRequests);
+		this.keywordsBreaker = new CircuitBreaker("keywords", failureThreshold, resetTimeout);
+		this.vectorBreaker = new CircuitBreaker("vector", failureThreshold, resetTimeout);
+		RequestConfig requestConfig = RequestConfig.custom().setConnectTimeout(timeout).setSocketTimeout(timeout)
+				.setConnectionRequestTimeout(timeout).build();
+		this.client = HttpAsyncClients.custom().setDefaultRequestConfig(requestConfig)
+				.setMaxConnTotal(maxConcurrentRequests).setMaxConnPerRoute(maxConcurrentRequests).build();
+		this.client.start();
+	}
+
+	private static String getHost(String key) {
+		return Platform.config.hasPath(key) ? Platform.config.getString(key) : "";
+	}
+
+	/**
+	 * Adds the content to the next keywords request, sent once
+	 * ml.enrichment.keywords.batch_size contents are added or on
+	 * {@link #flush()}. The content is copied, as it is sent later.
+	 *
+	 * @return the response of the request
+	 */
+	public CompletableFuture<String> submitKeywords(Map<String, Object> content) {
+		CompletableFuture<String> future = new CompletableFuture<>();
+		keywordsBatch.add(new HashMap<>(content));
+		keywordsFutures.add(future);
+		if (keywordsBatch.size() >= keywordsBatchSize)
+			flush();
+		return future;
+	}
+
+	/**
+	 * Sends the contents added for keywords since the last request.
+	 */
+	public void flush() {
+		if (keywordsBatch.isEmpty())
+			return;
+		List<Map<String, Object>> contents = keywordsBatch;
+		List<CompletableFuture<String>> futures = keywordsFutures;
+		keywordsBatch = new ArrayList<>();
+		keywordsFutures = new ArrayList<>();
+
+		JSONObject obj = new JSONObject(KEYWORDS_REQUEST);
+		JSONObject req = (JSONObject) obj.get("request");
+		JSONArray content = (JSONArray) ((JSONObject) req.get("input")).get("content");
+		for (Map<String, Object> contentdef : contents)
+			content.put(contentdef);
+		req.put("job", KEYWORDS_JOB);
+		LOGGER.info("MLEnrichmentClient :: flush ::: Requesting keywords of " + contents.size() + " contents from " + keywordsUrl);
+		post(keywordsUrl, obj.toString(), keywordsBreaker).whenComplete((resp, error) -> {
+			for (CompletableFuture<String> future : futures) {
+				if (null == error)
+					future.complete(resp);
+				else
+					future.completeExceptionally(error);
+			}
+		});
+	}
+
+	/**
+	 * Requests the vector of the content text.
+	 *
+	 * @return the response of the request
+	 */
+	public CompletableFuture<String> submitVector(String identifier, String contentText) {
+		JSONObject obj = new JSONObject(VECTOR_REQUEST);
+		JSONObject req = (JSONObject) obj.get("request");
+		req.put("cid", identifier);
+		((JSONArray) req.get("text")).put(contentText);
+		LOGGER.info("MLEnrichmentClient :: submitVector ::: Requesting vector of " + identifier + " from " + vectorUrl);
+		return post(vectorUrl, obj.toString(), vectorBreaker);
+	}
+
+	private CompletableFuture<String> post(String url, String body, CircuitBreaker breaker) {
+		CompletableFuture<String> future = new CompletableFuture<>();
+		if (!breaker.allowRequest()) {
+			future.completeExceptionally(new CircuitOpenException("ML " + breaker.name + " service circuit is open, request to " + url + " not sent."));
+			return future;
+		}
+		try {
+			if (!permits.tryAcquire(timeout, TimeUnit.MILLISECONDS)) {
+				breaker.onFailure();
+				future.completeExceptionally(new IOException("Timed out waiting for a slot to request " + url));
+				return future;
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			future.completeExceptionally(e);
+			return future;
+		}
+		HttpPost post = new HttpPost(url);
+		post.setEntity(new StringEntity(body, ContentType.APPLICATION_JSON.withCharset(StandardCharsets.UTF_8)));
+		client.execute(post, new FutureCallback<HttpResponse>() {
+			@Override
+			public void completed(HttpResponse response) {
+				permits.release();
+				try {
+					String resp = EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
+					int status = response.getStatusLine().getStatusCode();
+					if (status != 200)
+						throw new IOException("ML " + breaker.name + " service unavailable: " + status + " : "
+								+ response.getStatusLine().getReasonPhrase());
+					breaker.onSuccess();
+					future.complete(resp);
+				} catch (IOException e) {
+					breaker.onFailure();
+					future.completeExceptionally(e);
+				}
+			}
+
+			@Override
+			public void failed(Exception e) {
+				permits.release();
+				breaker.onFailure();
+				future.completeExceptionally(e);
+			}
+
+			@Override
+			public void cancelled() {
+				permits.release();
+				breaker.onFailure();
+				future.completeExceptionally(new IOException("Request to " + url + " cancelled."));
+			}
+		});
+		return future;
+	}
+
+	/**
+	 * @return false while the circuit of the keywords service is open
+	 */
+	public boolean isKeywordsServiceAvailable() {
+		return !keywordsBreaker.isOpen();
+	}
+
+	/**
+	 * @return false while the circuit of the vector service is open
+	 */
+	public boolean isVectorServiceAvailable() {
+		return !vectorBreaker.isOpen();
+	}
+
+	public void close() {
+		try {
+			client.close();
+		} catch (IOException e) {
+			LOGGER.error("Error while closing the ML service client", e);
+		}
+	}
+
+	private class CircuitBreaker {
+		final String name;
+		final int failureThreshold;
+		final long resetTimeout;
+		int failures;
+		long openedAt;
+		boolean probing;
+
+		CircuitBreaker(String name, int failureThreshold, long resetTimeout) {
+			this.name = name;
+			this.failureThreshold = failureThreshold;
+			this.resetTimeout = resetTimeout;
+		}
+
+		synchronized boolean allowRequest() {
+			if (failures < failureThreshold)
+				return true;
+			if (probing || System.currentTimeMillis() - openedAt < resetTimeout)
+				return false;
+			probing = true;
+			return true;
+		}
+
+		synchronized boolean isOpen() {
+			return failures >= failureThreshold && (probing || System.currentTimeMillis() - openedAt < resetTimeout);
+		}
+
+		synchronized void onSuccess() {
+			if (failures >= failureThreshold)
+				LOGGER.info("ML " + name + " service circuit closed.");
+			failures = 0;
+			probing = false;
+		}
+
+		synchronized void onFailure() {
+			failures++;
+			if (probing || failures == failureThreshold) {
+				openedAt = System.currentTimeMillis();
+				LOGGER.info("ML " + name + " service circuit opened after " + failures + " failures.");
+			}
+			probing = false;
+		}
+	}
+
+	public static class CircuitOpenException extends IOException {
+		private static final long serialVersionUID = 1L;
+
+		public CircuitOpenException(String message) {
+			super(message);
+		}
+	}
+}
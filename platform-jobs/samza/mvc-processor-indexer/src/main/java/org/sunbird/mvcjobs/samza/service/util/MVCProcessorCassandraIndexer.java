@@ -1,36 +1,41 @@
 package org.sunbird.mvcjobs.samza.service.util;
 
 import org.apache.commons.lang3.StringUtils;
-import org.sunbird.common.Platform;
 import org.sunbird.jobs.samza.util.JobLogger;
-import org.sunbird.searchindex.util.HTTPUtil;
-import org.json.JSONArray;
-import org.json.JSONObject;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 
 public class MVCProcessorCassandraIndexer  {
-    String  mlworkbenchapirequest = "", mlvectorListRequest = "" , jobname = ""   ;
     Map<String,Object> mapStage1 = new HashMap<>();
     List<String> level1concept = null,level2concept  = null, level3concept = null , textbook_name , level1_name , level2_name , level3_name ;
     private JobLogger LOGGER = new JobLogger(MVCProcessorCassandraIndexer.class);
+    private MLEnrichmentClient mlClient;
     public MVCProcessorCassandraIndexer() {
-        mlworkbenchapirequest = "{\"request\":{ \"input\" :{ \"content\" : [] } } }";
-        mlvectorListRequest = "{\"request\":{\"text\":[],\"cid\": \"\",\"language\":\"en\",\"method\":\"BERT\",\"params\":{\"dim\":768,\"seq_len\":25}}}";
-        jobname = "vidyadaan_content_keyword_tagging";
+        this(new MLEnrichmentClient());
+    }
+
+    public MVCProcessorCassandraIndexer(MLEnrichmentClient mlClient) {
+        this.mlClient = mlClient;
+    }
 
+    // Sends the ML requests batched so far
+    public void flushMLRequests() {
+        mlClient.flush();
     }
+
     // Insert to cassandra
-    public  void insertIntoCassandra(Map<String,Object> obj, String identifier) throws Exception {
+    // Returns the ML request made for the event, completed if none; the request is not waited for.
+    public  CompletableFuture<String> insertIntoCassandra(Map<String,Object> obj, String identifier) throws Exception {
         String action = obj.get("action").toString();
+        CompletableFuture<String> mlRequest = CompletableFuture.completedFuture(null);
 
         if(StringUtils.isNotBlank(action)) {
             if(action.equalsIgnoreCase("update-es-index")) {
                 LOGGER.info("MVCProcessorCassandraIndexer :: getContentMetaData ::: extracting required fields" + obj);
                 extractFieldsToBeInserted(obj);
                 LOGGER.info("MVCProcessorCassandraIndexer :: getContentMetaData ::: making ml workbench api request");
-                getMLKeywords(obj);
+                mlRequest = submitMLRequest(obj, identifier);
                 LOGGER.info("MVCProcessorCassandraIndexer :: insertIntoCassandra ::: update-es-index-1 event");
                 LOGGER.info("MVCProcessorCassandraIndexer :: insertIntoCassandra ::: Inserting into cassandra stage-1");
                 CassandraConnector.updateContentProperties(identifier,mapStage1);
@@ -41,7 +46,7 @@ public class MVCProcessorCassandraIndexer  {
                  ml_contentText = obj.get("ml_contentText") != null ? obj.get("ml_contentText").toString() : null;
                  ml_Keywords = obj.get("ml_Keywords") != null ? (List<String>) obj.get("ml_Keywords") : null;
 
-                getMLVectors(ml_contentText,identifier);
+                mlRequest = submitMLRequest(obj, identifier);
                 Map<String,Object> mapForStage2 = new HashMap<>();
                 mapForStage2.put("ml_keywords",ml_Keywords);
                 mapForStage2.put("ml_content_text",ml_contentText);
@@ -65,6 +70,32 @@ public class MVCProcessorCassandraIndexer  {
 
             }
         }
+        return mlRequest;
+    }
+
+    // Sends the ML request of the event, without writing it to cassandra: the keywords of update-es-index
+    // events, the vector of update-ml-keywords events. Returns a completed future for the other events.
+    public CompletableFuture<String> submitMLRequest(Map<String,Object> obj, String identifier) {
+        String action = String.valueOf(obj.get("action"));
+        if(action.equalsIgnoreCase("update-es-index"))
+            return mlClient.submitKeywords(obj);
+        if(action.equalsIgnoreCase("update-ml-keywords"))
+            return mlClient.submitVector(identifier, obj.get("ml_contentText") != null ? obj.get("ml_contentText").toString() : null);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    // Whether the ML service the event is sent to takes requests, i.e. its circuit is not open
+    public boolean isMLServiceAvailable(Map<String,Object> obj) {
+        String action = String.valueOf(obj.get("action"));
+        if(action.equalsIgnoreCase("update-es-index"))
+            return mlClient.isKeywordsServiceAvailable();
+        if(action.equalsIgnoreCase("update-ml-keywords"))
+            return mlClient.isVectorServiceAvailable();
+        return true;
+    }
+
+    public void close() {
+        mlClient.close();
     }
 
     //Getting Fields to be inserted into cassandra
@@ -107,43 +138,4 @@ public class MVCProcessorCassandraIndexer  {
 
     }
 
-    // POST reqeuest for ml keywords api
-    void getMLKeywords(Map<String, Object> contentdef) throws Exception {
-        JSONObject obj = new JSONObject(mlworkbenchapirequest);
-        JSONObject req = ((JSONObject) (obj.get("request")));
-        JSONObject input = (JSONObject) req.get("input");
-        JSONArray content = (JSONArray) input.get("content");
-        content.put(contentdef);
-        req.put("job", jobname);
-        LOGGER.info("MVCProcessorCassandraIndexer :: getMLKeywords  ::: The ML workbench URL is " + "http://" + Platform.config.getString("ml.keyword.api") + ":3579/daggit/submit");
-
-        try {
-            String resp = HTTPUtil.makePostRequest("http://" + Platform.config.getString("ml.keyword.api") + ":3579/daggit/submit", obj.toString());
-            LOGGER.info("MVCProcessorCassandraIndexer :: getMLKeywords  ::: The ML workbench response is " + resp);
-
-        } catch (Exception e) {
-            LOGGER.info("MVCProcessorCassandraIndexer :: getMLKeywords  ::: ML workbench api request failed ");
-        }
-
-    }
-
-
-    // Post reqeuest for vector api
-    public void getMLVectors(String contentText, String identifier) throws Exception {
-        String mlVectorApi = Platform.config.hasPath("ml.vector.api") ? Platform.config.getString("ml.vector.api") : "";
-        JSONObject obj = new JSONObject(mlvectorListRequest);
-        JSONObject req = ((JSONObject) (obj.get("request")));
-        JSONArray text = (JSONArray) req.get("text");
-        req.put("cid", identifier);
-        text.put(contentText);
-        LOGGER.info("MVCProcessorCassandraIndexer :: getMLVectors  ::: The ML vector URL is " + "http://" + mlVectorApi + ":1729/ml/vector/ContentText");
-
-        try {
-            String resp = HTTPUtil.makePostRequest("http://" + mlVectorApi + ":1729/ml/vector/ContentText", obj.toString());
-            LOGGER.info("MVCProcessorCassandraIndexer :: getMLVectors  ::: ML vector api request response is " + resp);
-        } catch (Exception e) {
-            LOGGER.info("MVCProcessorCassandraIndexer :: getMLVectors  ::: ML vector api request failed ");
-        }
-    }
-
 }
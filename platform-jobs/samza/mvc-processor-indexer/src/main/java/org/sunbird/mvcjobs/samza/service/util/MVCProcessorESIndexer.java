@@ -6,6 +6,13 @@ package org.sunbird.mvcjobs.samza.service.util;
 import org.apache.commons.collections4.MapUtils;
 import org.codehaus.jackson.map.ObjectMapper;
 import org.codehaus.jackson.type.TypeReference;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.update.UpdateRequest;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.rest.RestStatus;
 import org.sunbird.common.Platform;
 import org.sunbird.jobs.samza.service.util.AbstractESIndexer;
 import org.sunbird.jobs.samza.util.JobLogger;
@@ -15,7 +22,6 @@ import org.sunbird.searchindex.util.CompositeSearchConstants;
 
 import java.io.IOException;
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
 
 
 /**
@@ -28,6 +34,8 @@ public class MVCProcessorESIndexer extends AbstractESIndexer {
 	private ObjectMapper mapper = new ObjectMapper();
 	private ControllerUtil util = new ControllerUtil();
 	private static List<String>  NESTED_FIELDS = Platform.config.hasPath("nested.fields")? Arrays.asList(Platform.config.getString("nested.fields").split(",")): new ArrayList<String>();
+	private static final int RETRY_ON_CONFLICT = Platform.config.hasPath("mvc.es.retry_on_conflict")
+			? Platform.config.getInt("mvc.es.retry_on_conflict") : 3;
 
 	@Override
 	public void init() {
@@ -49,60 +57,100 @@ public class MVCProcessorESIndexer extends AbstractESIndexer {
 				CompositeSearchConstants.MVC_SEARCH_INDEX_TYPE, settings, mappings,alias,esindex);
 	}
 
-	@SuppressWarnings({ "rawtypes", "unchecked" })
-
-
+	/**
+	 * Writes the event to the document of the content in one bulk request,
+	 * see {@link #getWriteRequests(String, Map)}.
+	 */
 	public void upsertDocument(String uniqueId, Map<String,Object> jsonIndexDocument) throws Exception {
+		List<DocWriteRequest<?>> requests = getWriteRequests(uniqueId, jsonIndexDocument);
+		if (requests.isEmpty())
+			return;
+		BulkResponse response = write(requests);
+		for (BulkItemResponse item : response.getItems()) {
+			if (isFailed(item))
+				throw new Exception("Error while updating ES document " + uniqueId + ": " + item.getFailureMessage());
+		}
+	}
 
+	/**
+	 * Sends the writes, of one or more events, in one bulk request.
+	 */
+	public BulkResponse write(List<DocWriteRequest<?>> requests) throws IOException {
+		return ElasticSearchUtil.bulkUpdate(CompositeSearchConstants.MVC_SEARCH_INDEX, requests);
+	}
 
+	/**
+	 * @return whether the update failed. An update of a document which is not
+	 *         indexed yet (only "update-es-index" creates it) is skipped, not
+	 *         failed.
+	 */
+	public boolean isFailed(BulkItemResponse item) {
+		if (!item.isFailed())
+			return false;
+		if (RestStatus.NOT_FOUND == item.getFailure().getStatus()) {
+			LOGGER.info("ES Document Not Found With Identifier " + item.getId() + " | Skipped Updating It.");
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * The writes of the event to the document. "update-es-index" carries the
+	 * whole content, so it replaces the document, as before: fields removed
+	 * from the content are removed from the index too. The other events are
+	 * partial updates, which Elastic Search merges into the stored document,
+	 * retrying the merge on a version conflict (mvc.es.retry_on_conflict
+	 * times), so the document is never read here and concurrent updates of
+	 * different fields are not lost. The content text vector is written by an
+	 * update of its own.
+	 */
+	@SuppressWarnings("unchecked")
+	public List<DocWriteRequest<?>> getWriteRequests(String uniqueId, Map<String,Object> jsonIndexDocument) throws Exception {
 		String action = jsonIndexDocument.get("action").toString();
 		jsonIndexDocument = removeExtraParams(jsonIndexDocument);
 		proocessNestedProps(jsonIndexDocument);
-		String jsonAsString = mapper.writeValueAsString(jsonIndexDocument);
+		List<DocWriteRequest<?>> requests = new ArrayList<>();
 		switch (action) {
 			case "update-es-index": {
-				// Insert a new doc
-				ElasticSearchUtil.addDocumentWithId(CompositeSearchConstants.MVC_SEARCH_INDEX,
-						uniqueId, jsonAsString);
+				// Insert a new doc or replace the existing one
+				requests.add(new IndexRequest(CompositeSearchConstants.MVC_SEARCH_INDEX).id(uniqueId)
+						.source(mapper.writeValueAsString(jsonIndexDocument), XContentType.JSON));
 				break;
 			}
-			case "update-content-rating" : {
-				String resp = ElasticSearchUtil.getDocumentAsStringById(CompositeSearchConstants.MVC_SEARCH_INDEX,
-						uniqueId);
-				if (null != resp && resp.contains(uniqueId)) {
-					LOGGER.info("ES Document Found With Identifier " + uniqueId + " | Updating Content Rating.");
-					Map<String, Object> metadata = (Map<String, Object>) jsonIndexDocument.get("metadata");
-					String finalJsonindexasString = mapper.writeValueAsString(metadata);
-					CompletableFuture.runAsync(() -> {
-						ElasticSearchUtil.updateDocument(CompositeSearchConstants.MVC_SEARCH_INDEX,
-								uniqueId, finalJsonindexasString);
-
-					});
-				} else
-					LOGGER.info("ES Document Not Found With Identifier " + uniqueId + " | Skipped Updating Content Rating.");
+			case "update-content-rating": {
+				LOGGER.info("Updating Content Rating Of ES Document With Identifier " + uniqueId);
+				Map<String, Object> metadata = (Map<String, Object>) jsonIndexDocument.get("metadata");
+				if (MapUtils.isNotEmpty(metadata))
+					requests.add(getUpdateRequest(uniqueId, metadata));
+				break;
 			}
 			case "update-ml-contenttextvector": {
-				List<List<Double>> ml_contentTextVectorList;
+				List<List<Double>> ml_contentTextVectorList = (List<List<Double>>) jsonIndexDocument.remove("ml_contentTextVector");
 				Set<Double> ml_contentTextVector = null;
-				ml_contentTextVectorList = jsonIndexDocument.get("ml_contentTextVector") != null ? (List<List<Double>>) jsonIndexDocument.get("ml_contentTextVector") : null;
 				if (ml_contentTextVectorList != null) {
 					ml_contentTextVector = new HashSet<Double>(ml_contentTextVectorList.get(0));
-
 				}
-				jsonIndexDocument.put("ml_contentTextVector", ml_contentTextVector);
-				jsonAsString = mapper.writeValueAsString(jsonIndexDocument);
+				Map<String, Object> vector = new HashMap<>();
+				vector.put("ml_contentTextVector", ml_contentTextVector);
+				requests.add(getUpdateRequest(uniqueId, vector));
+				if (MapUtils.isNotEmpty(jsonIndexDocument))
+					requests.add(getUpdateRequest(uniqueId, jsonIndexDocument));
+				break;
 			}
 			case "update-ml-keywords": {
 				// Update a doc
-				ElasticSearchUtil.updateDocument(CompositeSearchConstants.MVC_SEARCH_INDEX,
-						uniqueId, jsonAsString);
-
+				requests.add(getUpdateRequest(uniqueId, jsonIndexDocument));
 				break;
 			}
 			default:
 				LOGGER.info("No Action Matched. Skipped Processing Event For " + uniqueId);
 		}
+		return requests;
+	}
 
+	private UpdateRequest getUpdateRequest(String uniqueId, Map<String, Object> doc) throws IOException {
+		return new UpdateRequest().id(uniqueId).doc(mapper.writeValueAsString(doc), XContentType.JSON)
+				.retryOnConflict(RETRY_ON_CONFLICT);
 	}
 
 	private void proocessNestedProps(Map<String, Object> jsonIndexDocument) throws IOException {
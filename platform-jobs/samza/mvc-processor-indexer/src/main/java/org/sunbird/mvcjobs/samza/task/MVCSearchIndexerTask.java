@@ -6,11 +6,13 @@ import org.apache.samza.config.Config;
 import org.apache.samza.system.IncomingMessageEnvelope;
 import org.apache.samza.system.OutgoingMessageEnvelope;
 import org.apache.samza.system.SystemStream;
+import org.apache.samza.task.ClosableTask;
 import org.apache.samza.task.MessageCollector;
 import org.apache.samza.task.TaskContext;
 import org.apache.samza.task.TaskCoordinator;
-import org.sunbird.jobs.samza.task.BaseTask;
+import org.sunbird.jobs.samza.task.BaseBatchTask;
 import org.sunbird.mvcjobs.samza.service.MVCProcessorService;
+import org.sunbird.jobs.samza.service.ISamzaBatchService;
 import org.sunbird.jobs.samza.service.ISamzaService;
 import org.sunbird.jobs.samza.service.task.JobMetrics;
 import org.sunbird.jobs.samza.util.JobLogger;
@@ -18,16 +20,24 @@ import org.sunbird.jobs.samza.util.SamzaCommonParams;
 import org.sunbird.learning.util.ControllerUtil;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 
-public class MVCSearchIndexerTask extends BaseTask {
+/**
+ * With task.batch.size above 1, the events are written as micro-batches (one
+ * ES bulk request each, see {@link BaseBatchTask}). A batch that fails fails the
+ * task, so that it is consumed again.
+ */
+public class MVCSearchIndexerTask extends BaseBatchTask implements ClosableTask {
 	
 	private JobLogger LOGGER = new JobLogger(MVCSearchIndexerTask.class);
 	private ControllerUtil controllerUtil = new ControllerUtil();
 
 	private ISamzaService service;
 	private JobMetrics metrics;
+	// The collector of the task, to push the events still queued for retry on close().
+	private MessageCollector collector;
 
 	public ISamzaService getService() {
 		return service;
@@ -46,6 +56,7 @@ public class MVCSearchIndexerTask extends BaseTask {
 			metrics = new JobMetrics(context, config.get("output.metrics.job.name"), config.get("output.metrics.topic.name"));
 			this.service = (service == null ? new MVCProcessorService() : service);
 			this.service.initialize(config);
+			initBatch(config);
 			LOGGER.info("Task initialized");
 		} catch (Exception ex) {
 			LOGGER.error("Task initialization failed", ex);
@@ -61,6 +72,7 @@ public class MVCSearchIndexerTask extends BaseTask {
 	
 	@Override
 	public void process(IncomingMessageEnvelope envelope, MessageCollector collector, TaskCoordinator coordinator) throws Exception {
+		this.collector = collector;
 		Map<String, Object> outgoingMap = getMessage(envelope);
 		try {
 			if (outgoingMap.containsKey(SamzaCommonParams.edata.name())) {
@@ -71,13 +83,18 @@ public class MVCSearchIndexerTask extends BaseTask {
 					String objectType = edata.getOrDefault("objectType", "").toString();
 					controllerUtil.updateDefinitionCache(graphId, objectType);
 				}
+			} else if (isBatchEnabled()) {
+				addToBatch(outgoingMap);
 			} else {
+				long startTime = System.currentTimeMillis();
 				service.processMessage(outgoingMap, metrics, collector);
+				metrics.recordLatency("process", System.currentTimeMillis() - startTime);
 			}
 		} catch (Exception e) {
 			metrics.incErrorCounter();
 			LOGGER.error("Error while processing message:", outgoingMap, e);
 		}
+		processBatchIfReady(metrics, collector, coordinator);
 	}
 	
 	@SuppressWarnings("unchecked")
@@ -92,9 +109,36 @@ public class MVCSearchIndexerTask extends BaseTask {
 	}
 	
 	@Override
-	public void window(MessageCollector collector, TaskCoordinator coordinator) {
+	protected void processBatch(List<Map<String, Object>> messages, MessageCollector collector, TaskCoordinator coordinator) throws Exception {
+		try {
+			if (service instanceof ISamzaBatchService) {
+				((ISamzaBatchService) service).processMessages(messages, metrics, collector);
+			} else {
+				for (Map<String, Object> message : messages)
+					service.processMessage(message, metrics, collector);
+			}
+		} catch (Exception e) {
+			metrics.incErrorCounter();
+			LOGGER.error("Error while processing batch of " + messages.size() + " messages", e);
+			throw e;
+		}
+	}
+
+	@Override
+	public void window(MessageCollector collector, TaskCoordinator coordinator) throws Exception {
+		this.collector = collector;
+		processBatchOnWindow(metrics, collector, coordinator);
+		if (service instanceof MVCProcessorService)
+			((MVCProcessorService) service).retryFailedEnrichments(metrics, collector);
 		Map<String, Object> event = metrics.collect();
 		collector.send(new OutgoingMessageEnvelope(new SystemStream("kafka", metrics.getTopic()), event));
 		metrics.clear();
 	}
-}
\ No newline at end of file
+
+	@Override
+	public void close() throws Exception {
+		if (service instanceof MVCProcessorService)
+			((MVCProcessorService) service).close(metrics, collector);
+		LOGGER.info("MVCSearchIndexerTask:close: Task closed");
+	}
+}
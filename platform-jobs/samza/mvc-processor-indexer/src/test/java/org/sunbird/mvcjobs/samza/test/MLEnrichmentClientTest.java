@@ -0,0 +1,103 @@
+package org.sunbird.mvcjobs.samza.test;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sunbird.mvcjobs.samza.service.util.MLEnrichmentClient;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class MLEnrichmentClientTest {
+
+    private MLServiceStub stub;
+    private MLEnrichmentClient client;
+
+    @Before
+    public void setup() throws Exception {
+        stub = new MLServiceStub();
+        client = new MLEnrichmentClient(stub.getUrl(MLServiceStub.KEYWORDS_PATH), stub.getUrl(MLServiceStub.VECTOR_PATH),
+                4, 1000, 3, 2, 60000);
+    }
+
+    @After
+    public void tearDown() {
+        client.close();
+        stub.stop();
+    }
+
+    @Test
+    public void testKeywordsRequestsAreBatched() throws Exception {
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 4; i++)
+            futures.add(client.submitKeywords(getContent("do_" + i)));
+        client.flush();
+        for (CompletableFuture<String> future : futures)
+            assertTrue(future.get(5, TimeUnit.SECONDS).contains("api.daggit"));
+        // do_0 to do_2 fill a batch, do_3 is sent on flush.
+        assertEquals(2, stub.getKeywordRequests().size());
+        for (String request : stub.getKeywordRequests())
+            assertEquals(request.contains("do_3"), !request.contains("do_2"));
+    }
+
+    @Test
+    public void testVectorRequest() throws Exception {
+        String resp = client.submitVector("do_1", "This is the content text.").get(5, TimeUnit.SECONDS);
+        assertTrue(resp.contains("api.ml.vector"));
+        assertEquals(1, stub.getVectorRequests().size());
+        assertTrue(stub.getVectorRequests().get(0).contains("\"cid\":\"do_1\""));
+    }
+
+    @Test
+    public void testRequestTimesOut() throws Exception {
+        stub.setDelay(3000);
+        assertFailed(client.submitVector("do_1", "This is the content text."));
+    }
+
+    @Test
+    public void testCircuitOpensAfterFailures() throws Exception {
+        stub.setStatus(500);
+        assertFailed(client.submitVector("do_1", "text"));
+        assertTrue(client.isVectorServiceAvailable());
+        assertFailed(client.submitVector("do_2", "text"));
+        assertFalse(client.isVectorServiceAvailable());
+        try {
+            client.submitVector("do_3", "text").get(5, TimeUnit.SECONDS);
+            fail("The request should have failed.");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof MLEnrichmentClient.CircuitOpenException);
+        }
+        assertEquals(2, stub.getVectorRequests().size());
+        // The keywords service has a circuit of its own.
+        assertTrue(client.isKeywordsServiceAvailable());
+        stub.setStatus(200);
+        CompletableFuture<String> keywords = client.submitKeywords(getContent("do_1"));
+        client.flush();
+        keywords.get(5, TimeUnit.SECONDS);
+    }
+
+    private void assertFailed(CompletableFuture<String> future) throws Exception {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail("The request should have failed.");
+        } catch (ExecutionException e) {
+        }
+    }
+
+    private Map<String, Object> getContent(String identifier) {
+        Map<String, Object> content = new HashMap<>();
+        content.put("identifier", identifier);
+        content.put("name", "Resource Content");
+        return content;
+    }
+}
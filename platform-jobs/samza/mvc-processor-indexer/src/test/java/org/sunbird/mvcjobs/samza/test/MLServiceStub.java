@@ -0,0 +1,85 @@
+package org.sunbird.mvcjobs.samza.test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Scanner;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+
+/**
+ * Local stand-in for the ML keyword (workbench) and vector services, so the
+ * ML requests can be tested offline. It records the request bodies and
+ * answers with the given status, after the given delay.
+ */
+public class MLServiceStub {
+
+    public static final String KEYWORDS_PATH = "/daggit/submit";
+    public static final String VECTOR_PATH = "/ml/vector/ContentText";
+
+    private static final String KEYWORDS_RESPONSE = "{\"id\":\"api.daggit\",\"params\":{\"status\":\"success\"},\"responseCode\":\"OK\",\"result\":{\"status\":200}}";
+    private static final String VECTOR_RESPONSE = "{\"id\":\"api.ml.vector\",\"params\":{\"status\":\"success\"},\"result\":{\"action\":\"get_BERT_embedding\",\"vector\":[[]]}}";
+
+    private final HttpServer server;
+    private final List<String> keywordRequests = new CopyOnWriteArrayList<>();
+    private final List<String> vectorRequests = new CopyOnWriteArrayList<>();
+    private volatile int status = 200;
+    private volatile long delay;
+
+    public MLServiceStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext(KEYWORDS_PATH, exchange -> respond(exchange, keywordRequests, KEYWORDS_RESPONSE));
+        server.createContext(VECTOR_PATH, exchange -> respond(exchange, vectorRequests, VECTOR_RESPONSE));
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    public String getUrl(String path) {
+        return "http://localhost:" + server.getAddress().getPort() + path;
+    }
+
+    public List<String> getKeywordRequests() {
+        return keywordRequests;
+    }
+
+    public List<String> getVectorRequests() {
+        return vectorRequests;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public void setDelay(long delay) {
+        this.delay = delay;
+    }
+
+    public void stop() {
+        server.stop(0);
+    }
+
+    private void respond(HttpExchange exchange, List<String> requests, String response) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            Scanner scanner = new Scanner(in, StandardCharsets.UTF_8.name()).useDelimiter("\\A");
+            requests.add(scanner.hasNext() ? scanner.next() : "");
+        }
+        try {
+            if (delay > 0)
+                Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] body = response.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -5,8 +5,16 @@ import com.google.gson.Gson;
 import org.apache.commons.lang.StringUtils;
 import org.sunbird.mvcjobs.samza.service.util.MVCProcessorESIndexer;
 import org.sunbird.mvcsearchindex.elasticsearch.ElasticSearchUtil;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.update.UpdateRequest;
+
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -19,6 +27,7 @@ import org.powermock.modules.junit4.PowerMockRunner;
 import org.apache.samza.config.Config;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 
 import static org.mockito.Mockito.*;
@@ -41,12 +50,15 @@ public class MVCProcessorESIndexerTest {
         configMock = mock(Config.class);
         stub(configMock.get("nested.fields")).toReturn("badgeAssertions,targets,badgeAssociations,plugins,me_totalTimeSpent,me_totalPlaySessionCount,me_totalTimeSpentInSec,batches");
         PowerMockito.mockStatic(ElasticSearchUtil.class);
-        PowerMockito.doNothing().when(ElasticSearchUtil.class);
+        try {
+            when(ElasticSearchUtil.bulkUpdate(Mockito.anyString(), Mockito.anyList())).thenReturn(new BulkResponse(new BulkItemResponse[0], 0));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
     }
 
     @Test
     public void testUpsertDocumentCaseUpdateEsIndex() throws Exception {
-        ElasticSearchUtil.addDocumentWithId(Mockito.anyString(),Mockito.anyString(),Mockito.anyString());
         mvcProcessorESIndexer.upsertDocument(uniqueId,getEvent(eventDataNewDoc));
         when(ElasticSearchUtil.getDocumentAsStringById(Mockito.anyString(),Mockito.anyString())).thenReturn(uniqueId);
         String doc = ElasticSearchUtil.getDocumentAsStringById(Mockito.anyString(),Mockito.anyString());
@@ -55,7 +67,6 @@ public class MVCProcessorESIndexerTest {
 
     @Test
     public void testUpsertDocumentUpdateMlKeywords() throws Exception {
-        ElasticSearchUtil.updateDocument(Mockito.anyString(),Mockito.anyString(),Mockito.anyString());
         mvcProcessorESIndexer.upsertDocument(uniqueId,getEvent(eventDataMlKeywords));
         when(ElasticSearchUtil.getDocumentAsStringById(Mockito.anyString(),Mockito.anyString())).thenReturn(uniqueId);
         String doc = ElasticSearchUtil.getDocumentAsStringById(Mockito.anyString(),Mockito.anyString());
@@ -64,7 +75,6 @@ public class MVCProcessorESIndexerTest {
 
     @Test
     public void testUpsertDocumentUpdateMlContentTextVector() throws Exception {
-        ElasticSearchUtil.updateDocument(Mockito.anyString(),Mockito.anyString(),Mockito.anyString());
         mvcProcessorESIndexer.upsertDocument(uniqueId,getEvent(eventDataContentTextVector));
         when(ElasticSearchUtil.getDocumentAsStringById(Mockito.anyString(),Mockito.anyString())).thenReturn(uniqueId);
         String doc = ElasticSearchUtil.getDocumentAsStringById(Mockito.anyString(),Mockito.anyString());
@@ -73,13 +83,42 @@ public class MVCProcessorESIndexerTest {
 
     @Test
     public void testUpsertDocumentUpdateContentRating() throws Exception {
-        ElasticSearchUtil.updateDocument(Mockito.anyString(),Mockito.anyString(),Mockito.anyString());
         when(ElasticSearchUtil.getDocumentAsStringById(Mockito.anyString(),Mockito.anyString())).thenReturn(uniqueId);
         mvcProcessorESIndexer.upsertDocument(uniqueId,getEvent(eventDataContentRating));
         String doc = ElasticSearchUtil.getDocumentAsStringById(Mockito.anyString(),Mockito.anyString());
         assertTrue(StringUtils.contains(doc, uniqueId));
     }
 
+    @Test
+    public void testWriteRequestsCaseUpdateEsIndex() throws Exception {
+        List<DocWriteRequest<?>> requests = mvcProcessorESIndexer.getWriteRequests(uniqueId, getEvent(eventDataNewDoc));
+        assertEquals(1, requests.size());
+        assertTrue(requests.get(0) instanceof IndexRequest);
+        Map<String, Object> source = ((IndexRequest) requests.get(0)).sourceAsMap();
+        assertTrue(source.containsKey("identifier"));
+        assertFalse(source.containsKey("action"));
+    }
+
+    @Test
+    public void testWriteRequestsCaseContentRating() throws Exception {
+        List<DocWriteRequest<?>> requests = mvcProcessorESIndexer.getWriteRequests(uniqueId, getEvent(eventDataContentRating));
+        assertEquals(1, requests.size());
+        UpdateRequest request = (UpdateRequest) requests.get(0);
+        assertFalse(request.docAsUpsert());
+        assertTrue(request.doc().sourceAsMap().containsKey("me_averageRating"));
+        assertFalse(request.doc().sourceAsMap().containsKey("metadata"));
+    }
+
+    @Test
+    public void testWriteRequestsCaseContentTextVector() throws Exception {
+        Map<String, Object> event = getEvent(eventDataContentTextVector);
+        event.put("ml_contentText", "This is the content text for addition of two numbers.");
+        List<DocWriteRequest<?>> requests = mvcProcessorESIndexer.getWriteRequests(uniqueId, event);
+        assertEquals(2, requests.size());
+        assertEquals(1, ((UpdateRequest) requests.get(0)).doc().sourceAsMap().size());
+        assertTrue(((UpdateRequest) requests.get(0)).doc().sourceAsMap().containsKey("ml_contentTextVector"));
+        assertFalse(((UpdateRequest) requests.get(1)).doc().sourceAsMap().containsKey("ml_contentTextVector"));
+    }
 
     public  Map<String, Object> getEvent(String message) throws IOException {
         return  new Gson().fromJson(message, Map.class);
@@ -2,6 +2,7 @@ package org.sunbird.jobs.samza.task;
 
 import org.apache.samza.config.Config;
 import org.apache.samza.system.IncomingMessageEnvelope;
+import org.apache.samza.task.ClosableTask;
 import org.apache.samza.task.StreamTask;
 import org.apache.samza.task.InitableTask;
 import org.apache.samza.task.TaskContext;
@@ -12,11 +13,12 @@ import org.sunbird.jobs.samza.service.QRCodeImageGeneratorService;
 import org.sunbird.jobs.samza.service.task.JobMetrics;
 import org.sunbird.jobs.samza.util.JobLogger;
 import org.sunbird.jobs.samza.util.QRCodeImageGeneratorParams;
+import org.sunbird.jobs.samza.util.QRCodeImageGeneratorUtil;
 
 import java.util.HashMap;
 import java.util.Map;
 
-public class QRCodeImageGeneratorTask implements StreamTask, InitableTask {
+public class QRCodeImageGeneratorTask implements StreamTask, InitableTask, ClosableTask {
 	
 	private JobLogger LOGGER = new JobLogger(QRCodeImageGeneratorTask.class);
 
@@ -42,7 +44,9 @@ public class QRCodeImageGeneratorTask implements StreamTask, InitableTask {
 		Map<String, Object> outgoingMap = getMessage(envelope);
 		try {
 			service.processMessage(outgoingMap, metrics, collector);
+			metrics.incSuccessCounter();
 		} catch (Exception e) {
+			metrics.incFailedCounter();
 			LOGGER.error("QRCodeImageGeneratorTask:process: Error while processing message for process_id:: " + 
 					(String) outgoingMap.get(QRCodeImageGeneratorParams.processId.name()), outgoingMap, e);
 			e.printStackTrace();
@@ -50,6 +54,12 @@ public class QRCodeImageGeneratorTask implements StreamTask, InitableTask {
 		}
 	}
 	
+	@Override
+	public void close() throws Exception {
+		QRCodeImageGeneratorUtil.shutdown();
+		LOGGER.info("QRCodeImageGeneratorTask:close: Task closed");
+	}
+
 	@SuppressWarnings("unchecked")
 	private Map<String, Object> getMessage(IncomingMessageEnvelope envelope) {
 		try {
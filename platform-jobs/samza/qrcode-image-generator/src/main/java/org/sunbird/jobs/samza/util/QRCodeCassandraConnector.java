@@ -1,8 +1,12 @@
 package org.sunbird.jobs.samza.util;
 
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.ResultSet;
 import com.datastax.driver.core.Session;
 import org.sunbird.cassandra.connector.util.CassandraConnector;
 
+import java.util.concurrent.CompletionStage;
+
 public class QRCodeCassandraConnector {
 
     public static void updateDownloadUrl(String id, String downloadUrl) {
@@ -10,6 +14,17 @@ public class QRCodeCassandraConnector {
         executeQuery(query);
     }
 
+    /**
+     * Updates the download url of the image asynchronously, as a single row
+     * write to its own partition.
+     */
+    public static CompletionStage<ResultSet> updateDownloadUrlAsync(String id, String downloadUrl) {
+        Session session = CassandraConnector.getSession("sunbird");
+        PreparedStatement statement = CassandraConnector.prepare(session,
+                "update dialcodes.dialcode_images set status=2, url=? where filename=?");
+        return CassandraConnector.executeAsync(session, statement.bind(downloadUrl, id));
+    }
+
     public static void updateDownloadZIPUrl(String id, String downloadZIPUrl) {
         String query = "update dialcodes.dialcode_batch set status=2, url='"+downloadZIPUrl+"' where processid="+id;
         executeQuery(query);
@@ -27,22 +27,88 @@ import java.io.InputStream;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.List;
-import java.util.ArrayList;
-
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates the QR code images of a batch as a pipeline of three stages (see
+ * {@link QRImagePipeline}): images are rendered on a pool of
+ * qr_image_render_threads threads (one per core by default), each rendered
+ * image is handed to a pool of qr_image_upload_threads threads uploading to
+ * the cloud storage, and the download urls are written to Cassandra one row
+ * at a time as the uploads complete, with at most
+ * qr_image_update_max_in_flight writes pending.
+ *
+ * Uploads and writes are retried qr_image_upload_retries times, with a delay
+ * doubling from qr_image_retry_delay_ms. A code whose upload or write still
+ * fails fails the batch, once the other codes are done; the codes done so far
+ * keep their status. The count, failures and busy time of each stage are
+ * logged at the end of a batch.
+ */
 public class QRCodeImageGeneratorUtil {
 
     private static QRCodeWriter qrCodeWriter = new QRCodeWriter();
-    private static Map<String, Font> fontStore = new HashMap();
+    private static Map<String, Font> fontStore = new ConcurrentHashMap<String, Font>();
     private static JobLogger LOGGER = new JobLogger(QRCodeImageGeneratorUtil.class);
 
-    public static List<File> createQRImages(QRCodeGenerationRequest qrGenRequest, Config appConfig, String container, String path) throws WriterException, IOException, NotFoundException, FontFormatException {
+    private static ExecutorService renderPool = null;
+    private static ExecutorService uploadPool = null;
 
-        List<File> fileList = new ArrayList<File>();
+    public static List<File> createQRImages(QRCodeGenerationRequest qrGenRequest, Config appConfig, String container, String path) throws WriterException, IOException, NotFoundException, FontFormatException {
 
         List<String> dataList = qrGenRequest.getData();
         List<String> textList = qrGenRequest.getText();
         List<String> fileNameList = qrGenRequest.getFileName();
 
+        int retries = appConfig.getInt("qr_image_upload_retries", 2);
+        long retryDelay = appConfig.getLong("qr_image_retry_delay_ms", 1000);
+        int maxInFlightUpdates = appConfig.getInt("qr_image_update_max_in_flight", 16);
+        initPools(appConfig);
+
+        long startTime = System.currentTimeMillis();
+        QRImagePipeline pipeline = new QRImagePipeline(renderPool, uploadPool, retries, retryDelay, maxInFlightUpdates);
+        List<File> fileList = pipeline.run(fileNameList,
+                i -> createQRImage(qrGenRequest, dataList.get(i), textList.get(i), fileNameList.get(i)),
+                file -> CloudStorageUtil.uploadFile(container, path, file, false),
+                QRCodeCassandraConnector::updateDownloadUrlAsync);
+
+        LOGGER.info("QRCodeImageGeneratorUtil:createQRImages: " + dataList.size() + " images in "
+                + (System.currentTimeMillis() - startTime) + "ms - " + pipeline);
+
+        if (null != pipeline.getRenderError())
+            throwRenderError(pipeline.getRenderError());
+        if (!pipeline.getFailed().isEmpty())
+            throw new IOException("Error while uploading or storing the QR images of " + pipeline.getFailed());
+        return fileList;
+
+    }
+
+    /**
+     * Shuts the render and upload pools down, letting the running images
+     * complete. The next batch creates them again.
+     */
+    public static synchronized void shutdown() {
+        for (ExecutorService pool : new ExecutorService[] { renderPool, uploadPool }) {
+            if (null == pool)
+                continue;
+            pool.shutdown();
+            try {
+                if (!pool.awaitTermination(30, TimeUnit.SECONDS))
+                    pool.shutdownNow();
+            } catch (InterruptedException e) {
+                pool.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+        renderPool = null;
+        uploadPool = null;
+    }
+
+    private static File createQRImage(QRCodeGenerationRequest qrGenRequest, String data, String text, String fileName) throws WriterException, IOException, NotFoundException, FontFormatException {
         String errorCorrectionLevel = qrGenRequest.getErrorCorrectionLevel();
         int pixelsPerBlock = qrGenRequest.getPixelsPerBlock();
         int qrMargin = qrGenRequest.getQrCodeMargin();
@@ -56,39 +122,57 @@ public class QRCodeImageGeneratorUtil {
         int imageMargin = qrGenRequest.getImageMargin();
         String tempFilePath = qrGenRequest.getTempFilePath();
 
-        for (int i = 0; i < dataList.size(); i++) {
-            String data = dataList.get(i);
-            String text = textList.get(i);
-            String fileName = fileNameList.get(i);
+        BufferedImage qrImage = generateBaseImage(data, errorCorrectionLevel, pixelsPerBlock, qrMargin, colorModel);
 
-            BufferedImage qrImage = generateBaseImage(data, errorCorrectionLevel, pixelsPerBlock, qrMargin, colorModel);
+        if (null != text || "" != text) {
+            BufferedImage textImage = getTextImage(text, fontName, fontSize, tracking, colorModel);
+            qrImage = addTextToBaseImage(qrImage, textImage, colorModel, qrMargin, pixelsPerBlock, qrMarginBottom, imageMargin);
+        }
 
-            if (null != text || "" != text) {
-                BufferedImage textImage = getTextImage(text, fontName, fontSize, tracking, colorModel);
-                qrImage = addTextToBaseImage(qrImage, textImage, colorModel, qrMargin, pixelsPerBlock, qrMarginBottom, imageMargin);
-            }
+        if (borderSize > 0) {
+            drawBorder(qrImage, borderSize, imageMargin);
+        }
 
-            if (borderSize > 0) {
-                drawBorder(qrImage, borderSize, imageMargin);
-            }
+        File finalImageFile = new File(tempFilePath + File.separator + fileName + "." + imageFormat);
+        LOGGER.info("QRCodeImageGeneratorUtil:createQRImages: creating file - " + finalImageFile.getAbsolutePath());
+        finalImageFile.createNewFile();
+        LOGGER.info("QRCodeImageGeneratorUtil:createQRImages: created file - " + finalImageFile.getAbsolutePath());
+        ImageIO.write(qrImage, imageFormat, finalImageFile);
+        return finalImageFile;
+    }
 
-            File finalImageFile = new File(tempFilePath + File.separator + fileName + "." + imageFormat);
-            LOGGER.info("QRCodeImageGeneratorUtil:createQRImages: creating file - " + finalImageFile.getAbsolutePath());
-            finalImageFile.createNewFile();
-            LOGGER.info("QRCodeImageGeneratorUtil:createQRImages: created file - " + finalImageFile.getAbsolutePath());
-            ImageIO.write(qrImage, imageFormat, finalImageFile);
-            fileList.add(finalImageFile);
+    private static void throwRenderError(Throwable error) throws WriterException, IOException, NotFoundException, FontFormatException {
+        if (error instanceof WriterException)
+            throw (WriterException) error;
+        if (error instanceof IOException)
+            throw (IOException) error;
+        if (error instanceof NotFoundException)
+            throw (NotFoundException) error;
+        if (error instanceof FontFormatException)
+            throw (FontFormatException) error;
+        if (error instanceof RuntimeException)
+            throw (RuntimeException) error;
+        throw new RuntimeException(error);
+    }
 
-            try {
-                String imageDownloadUrl = CloudStorageUtil.uploadFile(container, path, finalImageFile, false);
-                QRCodeCassandraConnector.updateDownloadUrl(fileName, imageDownloadUrl);
-            } catch(Exception e) {
-                //ignore exception and proceed
-            }
+    private static synchronized void initPools(Config appConfig) {
+        if (null == renderPool) {
+            int renderThreads = appConfig.getInt("qr_image_render_threads", Runtime.getRuntime().availableProcessors());
+            renderPool = Executors.newFixedThreadPool(renderThreads, getThreadFactory("qr-render-"));
         }
+        if (null == uploadPool) {
+            int uploadThreads = appConfig.getInt("qr_image_upload_threads", 8);
+            uploadPool = Executors.newFixedThreadPool(uploadThreads, getThreadFactory("qr-upload-"));
+        }
+    }
 
-        return fileList;
-
+    private static ThreadFactory getThreadFactory(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
     }
 
     private static BufferedImage addTextToBaseImage(BufferedImage qrImage, BufferedImage textImage, String colorModel, int qrMargin, int pixelsPerBlock, int qrMarginBottom, int imageMargin) throws NotFoundException {
@@ -0,0 +1,256 @@
+package org.sunbird.jobs.samza.util;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs the QR code images of a batch through three stages: each image is
+ * rendered on the render pool, handed to the upload pool once rendered, and
+ * its download url is written to the store once uploaded. At most
+ * maxInFlightUpdates writes are pending at a time; the task thread waits for
+ * a free slot.
+ *
+ * A failed upload is retried on the upload thread, a failed write once all
+ * the writes of the batch are done, both up to the given retries with a
+ * delay doubling from retryDelay. The codes whose upload or write still
+ * fails are returned by {@link #getFailed()}, the first render error by
+ * {@link #getRenderError()}.
+ */
+class QRImagePipeline {
+
+    interface Renderer {
+        File render(int index) throws Exception;
+    }
+
+    interface Uploader {
+        String upload(File file) throws Exception;
+    }
+
+    interface UrlStore {
+        CompletionStage<?> update(String id, String downloadUrl);
+    }
+
+    private static JobLogger LOGGER = new JobLogger(QRImagePipeline.class);
+
+    private final ExecutorService renderPool;
+    private final ExecutorService uploadPool;
+    private final int retries;
+    private final long retryDelay;
+    private final Semaphore updatePermits;
+    private final StageMetrics render = new StageMetrics("render");
+    private final StageMetrics upload = new StageMetrics("upload");
+    private final StageMetrics update = new StageMetrics("update");
+    private final List<String> failed = new ArrayList<String>();
+    private Throwable renderError;
+
+    QRImagePipeline(ExecutorService renderPool, ExecutorService uploadPool, int retries, long retryDelay,
+            int maxInFlightUpdates) {
+        this.renderPool = renderPool;
+        this.uploadPool = uploadPool;
+        this.retries = retries;
+        this.retryDelay = retryDelay;
+        this.updatePermits = new Semaphore(Math.max(1, maxInFlightUpdates));
+    }
+
+    /**
+     * @param ids
+     *            the file names of the codes, the index of a code is passed to
+     *            the renderer
+     * @return the rendered images
+     */
+    List<File> run(List<String> ids, Renderer renderer, Uploader uploader, UrlStore store) {
+        List<CompletableFuture<File>> renders = new ArrayList<CompletableFuture<File>>();
+        List<CompletableFuture<String>> uploads = new ArrayList<CompletableFuture<String>>();
+        for (int i = 0; i < ids.size(); i++) {
+            int index = i;
+            CompletableFuture<File> rendered = CompletableFuture.supplyAsync(() -> render.time(() ->
+                    renderer.render(index)), renderPool);
+            renders.add(rendered);
+            uploads.add(rendered.thenApplyAsync(file -> upload.time(() -> uploadWithRetry(uploader, file)), uploadPool));
+        }
+
+        List<File> files = new ArrayList<File>();
+        Map<String, String> downloadUrls = new HashMap<String, String>();
+        Map<String, CompletableFuture<?>> updates = new LinkedHashMap<String, CompletableFuture<?>>();
+        for (int i = 0; i < ids.size(); i++) {
+            String id = ids.get(i);
+            try {
+                files.add(renders.get(i).join());
+            } catch (CompletionException e) {
+                LOGGER.error("QRImagePipeline:run: Error while rendering - " + id, e.getCause());
+                if (null == renderError)
+                    renderError = e.getCause();
+                continue;
+            }
+            try {
+                downloadUrls.put(id, uploads.get(i).join());
+            } catch (CompletionException e) {
+                LOGGER.error("QRImagePipeline:run: Error while uploading - " + id, e.getCause());
+                failed.add(id);
+                continue;
+            }
+            updates.put(id, update(store, id, downloadUrls.get(id)));
+        }
+
+        List<String> pending = await(updates);
+        for (int retry = 1; retry <= retries && !pending.isEmpty(); retry++) {
+            if (!sleep(getBackoff(retry)))
+                break;
+            LOGGER.warn("QRImagePipeline:run: Retrying the update of the download urls of " + pending);
+            updates = new LinkedHashMap<String, CompletableFuture<?>>();
+            for (String id : pending)
+                updates.put(id, update(store, id, downloadUrls.get(id)));
+            pending = await(updates);
+        }
+        update.failed(pending.size());
+        failed.addAll(pending);
+        return files;
+    }
+
+    /**
+     * @return the codes whose image could not be uploaded or whose download url
+     *         could not be stored
+     */
+    List<String> getFailed() {
+        return failed;
+    }
+
+    Throwable getRenderError() {
+        return renderError;
+    }
+
+    private String uploadWithRetry(Uploader uploader, File file) throws Exception {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return uploader.upload(file);
+            } catch (Exception e) {
+                if (attempt >= retries)
+                    throw e;
+                LOGGER.warn("QRImagePipeline:uploadWithRetry: Retrying the upload of " + file.getName() + ": " + e.getMessage());
+                Thread.sleep(getBackoff(attempt + 1));
+            }
+        }
+    }
+
+    private CompletableFuture<?> update(UrlStore store, String id, String downloadUrl) {
+        updatePermits.acquireUninterruptibly();
+        long start = System.nanoTime();
+        CompletableFuture<Object> result = new CompletableFuture<Object>();
+        try {
+            store.update(id, downloadUrl).whenComplete((value, error) -> {
+                if (null == error)
+                    result.complete(value);
+                else
+                    result.completeExceptionally(error);
+            });
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+        return result.whenComplete((value, error) -> {
+            updatePermits.release();
+            update.busy(System.nanoTime() - start);
+        });
+    }
+
+    /**
+     * @return the ids whose update failed
+     */
+    private List<String> await(Map<String, CompletableFuture<?>> updates) {
+        List<String> failedIds = new ArrayList<String>();
+        for (Map.Entry<String, CompletableFuture<?>> entry : updates.entrySet()) {
+            try {
+                entry.getValue().join();
+                update.done(1);
+            } catch (CompletionException e) {
+                LOGGER.error("QRImagePipeline:await: Error while updating the download url of " + entry.getKey(), e.getCause());
+                failedIds.add(entry.getKey());
+            }
+        }
+        return failedIds;
+    }
+
+    private long getBackoff(int retry) {
+        return retryDelay << Math.min(retry - 1, 10);
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return render + ", " + upload + ", " + update;
+    }
+
+    private interface StageTask<T> {
+        T call() throws Exception;
+    }
+
+    /**
+     * Count, failures and busy time of a stage of the pipeline.
+     */
+    private static class StageMetrics {
+        private final String name;
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong busyNanos = new AtomicLong();
+
+        StageMetrics(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Runs a task of the stage; a failure is thrown as a CompletionException.
+         */
+        <T> T time(StageTask<T> task) {
+            long start = System.nanoTime();
+            try {
+                T result = task.call();
+                count.incrementAndGet();
+                return result;
+            } catch (Exception e) {
+                failures.incrementAndGet();
+                throw (e instanceof CompletionException) ? (CompletionException) e : new CompletionException(e);
+            } finally {
+                busyNanos.addAndGet(System.nanoTime() - start);
+            }
+        }
+
+        void done(int items) {
+            count.addAndGet(items);
+        }
+
+        void failed(int items) {
+            failures.addAndGet(items);
+        }
+
+        void busy(long nanos) {
+            busyNanos.addAndGet(nanos);
+        }
+
+        @Override
+        public String toString() {
+            long busyMs = TimeUnit.NANOSECONDS.toMillis(busyNanos.get());
+            long rate = busyMs == 0 ? count.get() : count.get() * 1000 / busyMs;
+            return name + ": " + count.get() + " done, " + failures.get() + " failed, " + busyMs + "ms busy ("
+                    + rate + "/s per thread)";
+        }
+    }
+}
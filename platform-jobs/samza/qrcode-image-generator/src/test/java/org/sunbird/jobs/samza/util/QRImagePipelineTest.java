@@ -0,0 +1,168 @@
+package org.sunbird.jobs.samza.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class QRImagePipelineTest {
+
+    private static final List<String> IDS = Arrays.asList("Q1", "Q2", "Q3", "Q4", "Q5");
+
+    private ExecutorService renderPool;
+    private ExecutorService uploadPool;
+    private ScheduledExecutorService cassandra;
+    private File tempDir;
+    private Map<String, String> stored = new ConcurrentHashMap<String, String>();
+    private Map<String, List<Long>> uploadAttempts = new ConcurrentHashMap<String, List<Long>>();
+    private Map<String, AtomicInteger> updateAttempts = new ConcurrentHashMap<String, AtomicInteger>();
+
+    @Before
+    public void setup() throws Exception {
+        renderPool = Executors.newFixedThreadPool(2);
+        uploadPool = Executors.newFixedThreadPool(2);
+        cassandra = Executors.newScheduledThreadPool(4);
+        tempDir = Files.createTempDirectory("qr_pipeline_test").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        renderPool.shutdownNow();
+        uploadPool.shutdownNow();
+        cassandra.shutdownNow();
+        FileUtils.deleteQuietly(tempDir);
+    }
+
+    @Test
+    public void testImagesAreRenderedUploadedAndStored() {
+        QRImagePipeline pipeline = new QRImagePipeline(renderPool, uploadPool, 2, 10, 4);
+        List<File> files = pipeline.run(IDS, this::render, file -> upload(file, 0), this::store);
+        Assert.assertEquals(IDS.size(), files.size());
+        Assert.assertEquals(IDS.size(), stored.size());
+        Assert.assertEquals("https://storage/Q3.png", stored.get("Q3"));
+        Assert.assertTrue(pipeline.getFailed().isEmpty());
+        Assert.assertNull(pipeline.getRenderError());
+    }
+
+    @Test
+    public void testUploadIsRetriedWithBackoff() {
+        QRImagePipeline pipeline = new QRImagePipeline(renderPool, uploadPool, 2, 50, 4);
+        pipeline.run(IDS, this::render, file -> upload(file, "Q2.png".equals(file.getName()) ? 2 : 0), this::store);
+        Assert.assertTrue(pipeline.getFailed().isEmpty());
+        Assert.assertEquals("https://storage/Q2.png", stored.get("Q2"));
+        List<Long> attempts = uploadAttempts.get("Q2.png");
+        Assert.assertEquals(3, attempts.size());
+        // 50ms before the first retry, 100ms before the second.
+        Assert.assertTrue(attempts.get(1) - attempts.get(0) >= 50);
+        Assert.assertTrue(attempts.get(2) - attempts.get(1) >= 100);
+    }
+
+    @Test
+    public void testFailedUploadIsReported() {
+        QRImagePipeline pipeline = new QRImagePipeline(renderPool, uploadPool, 1, 10, 4);
+        List<File> files = pipeline.run(IDS, this::render,
+                file -> upload(file, "Q4.png".equals(file.getName()) ? Integer.MAX_VALUE : 0), this::store);
+        Assert.assertEquals(IDS.size(), files.size());
+        Assert.assertEquals(Collections.singletonList("Q4"), pipeline.getFailed());
+        Assert.assertEquals(IDS.size() - 1, stored.size());
+        Assert.assertFalse(stored.containsKey("Q4"));
+    }
+
+    @Test
+    public void testFailedUpdateIsRetriedThenReported() {
+        QRImagePipeline pipeline = new QRImagePipeline(renderPool, uploadPool, 2, 10, 4);
+        pipeline.run(IDS, this::render, file -> upload(file, 0), (id, url) -> {
+            int attempt = updateAttempts.computeIfAbsent(id, k -> new AtomicInteger()).incrementAndGet();
+            if ("Q1".equals(id) || ("Q5".equals(id) && attempt == 1)) {
+                CompletableFuture<Void> failed = new CompletableFuture<Void>();
+                failed.completeExceptionally(new IOException("Write timed out"));
+                return failed;
+            }
+            return store(id, url);
+        });
+        Assert.assertEquals(Collections.singletonList("Q1"), pipeline.getFailed());
+        Assert.assertEquals(3, updateAttempts.get("Q1").get());
+        Assert.assertEquals(2, updateAttempts.get("Q5").get());
+        Assert.assertTrue(stored.containsKey("Q5"));
+    }
+
+    @Test
+    public void testUpdatesInFlightAreBounded() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        List<String> ids = new ArrayList<String>();
+        for (int i = 0; i < 20; i++)
+            ids.add("Q" + i);
+        QRImagePipeline pipeline = new QRImagePipeline(renderPool, uploadPool, 0, 10, 3);
+        pipeline.run(ids, i -> render(i, ids), file -> upload(file, 0), (id, url) -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            CompletableFuture<Void> written = new CompletableFuture<Void>();
+            cassandra.schedule(() -> {
+                inFlight.decrementAndGet();
+                stored.put(id, url);
+                written.complete(null);
+            }, 20, TimeUnit.MILLISECONDS);
+            return written;
+        });
+        Assert.assertEquals(ids.size(), stored.size());
+        Assert.assertTrue(maxInFlight.get() <= 3);
+    }
+
+    @Test
+    public void testRenderErrorIsKeptAndOtherImagesComplete() {
+        QRImagePipeline pipeline = new QRImagePipeline(renderPool, uploadPool, 0, 10, 4);
+        List<File> files = pipeline.run(IDS, i -> {
+            if (i == 1)
+                throw new IOException("Font not found");
+            return render(i);
+        }, file -> upload(file, 0), this::store);
+        Assert.assertEquals("Font not found", pipeline.getRenderError().getMessage());
+        Assert.assertEquals(IDS.size() - 1, files.size());
+        Assert.assertEquals(IDS.size() - 1, stored.size());
+        Assert.assertTrue(pipeline.getFailed().isEmpty());
+    }
+
+    private File render(int index) throws IOException {
+        return render(index, IDS);
+    }
+
+    private File render(int index, List<String> ids) throws IOException {
+        File file = new File(tempDir, ids.get(index) + ".png");
+        FileUtils.writeStringToFile(file, ids.get(index), StandardCharsets.UTF_8);
+        return file;
+    }
+
+    /**
+     * Fails the given number of attempts before uploading the file.
+     */
+    private String upload(File file, int failures) throws IOException {
+        List<Long> attempts = uploadAttempts.computeIfAbsent(file.getName(), k -> Collections.synchronizedList(new ArrayList<Long>()));
+        attempts.add(System.currentTimeMillis());
+        if (attempts.size() <= failures)
+            throw new IOException("Upload failed: " + file.getName());
+        return "https://storage/" + file.getName();
+    }
+
+    private CompletableFuture<Void> store(String id, String url) {
+        stored.put(id, url);
+        return CompletableFuture.completedFuture(null);
+    }
+}
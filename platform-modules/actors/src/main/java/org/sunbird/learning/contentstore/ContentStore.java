@@ -5,6 +5,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.CompletionStage;
 
 import org.apache.commons.lang3.StringUtils;
 import org.sunbird.cassandra.connector.util.CassandraConnector;
@@ -52,6 +53,10 @@ public class ContentStore extends CassandraStore {
 		return getContentProperty(contentId, "body");
 	}
 
+	public CompletionStage<String> getContentBodyAsync(String contentId) {
+		return getContentPropertyAsync(contentId, "body");
+	}
+
 	public String getContentProperty(String contentId, String property) {
 		TelemetryManager.log("GetContentProperty | Content: " + contentId + " | Property: " + property);
 		Session session = CassandraConnector.getSession();
@@ -59,7 +64,7 @@ public class ContentStore extends CassandraStore {
 		if (StringUtils.isBlank(query))
 			throw new ClientException(ContentStoreParams.ERR_INVALID_PROPERTY_NAME.name(),
 					"Invalid property name. Please specify a valid property name");
-		PreparedStatement ps = session.prepare(query);
+		PreparedStatement ps = CassandraConnector.prepare(session, query);
 		BoundStatement bound = ps.bind(contentId);
 		try {
 			ResultSet rs = session.execute(bound);
@@ -78,6 +83,24 @@ public class ContentStore extends CassandraStore {
 		return null;
 	}
 
+	public CompletionStage<String> getContentPropertyAsync(String contentId, String property) {
+		TelemetryManager.log("GetContentPropertyAsync | Content: " + contentId + " | Property: " + property);
+		String query = getSelectQuery(property);
+		if (StringUtils.isBlank(query))
+			throw new ClientException(ContentStoreParams.ERR_INVALID_PROPERTY_NAME.name(),
+					"Invalid property name. Please specify a valid property name");
+		return executeQueryAsync(query, contentId)
+				.thenApply(rs -> {
+					Row row = (null == rs) ? null : rs.one();
+					return (null == row) ? null : row.getString(property + PROPERTY_SUFFIX);
+				})
+				.exceptionally(e -> {
+					TelemetryManager.error("Error! Executing get content property: " + e.getMessage(), e);
+					throw new ServerException(ContentStoreParams.ERR_SERVER_ERROR.name(),
+							"Error fetching property from Content Store.");
+				});
+	}
+
 	public Map<String, Object> getContentProperties(String contentId, List<String> properties) {
 		TelemetryManager.log("GetContentProperties | Content: " + contentId + " | Properties: " + properties);
 		Session session = CassandraConnector.getSession();
@@ -85,7 +108,7 @@ public class ContentStore extends CassandraStore {
 		if (StringUtils.isBlank(query))
 			throw new ClientException(ContentStoreParams.ERR_INVALID_PROPERTY_NAME.name(),
 					"Invalid properties list. Please specify a valid list of property names");
-		PreparedStatement ps = session.prepare(query);
+		PreparedStatement ps = CassandraConnector.prepare(session, query);
 		BoundStatement bound = ps.bind(contentId);
 		try {
 			ResultSet rs = session.execute(bound);
@@ -116,7 +139,7 @@ public class ContentStore extends CassandraStore {
 		if (StringUtils.isBlank(query))
 			throw new ClientException(ContentStoreParams.ERR_INVALID_PROPERTY_NAME.name(),
 					"Invalid property name. Please specify a valid property name");
-		PreparedStatement ps = session.prepare(query);
+		PreparedStatement ps = CassandraConnector.prepare(session, query);
 		BoundStatement bound = ps.bind(value, contentId);
 		try {
 			session.execute(bound);
@@ -137,7 +160,7 @@ public class ContentStore extends CassandraStore {
 			throw new ClientException(ContentStoreParams.ERR_INVALID_PROPERTY_VALUES.name(),
 					"Invalid property values. Please specify valid property values");
 		String query = getUpdateQuery(map.keySet());
-		PreparedStatement ps = session.prepare(query);
+		PreparedStatement ps = CassandraConnector.prepare(session, query);
 		Object[] values = new Object[map.size() + 1];
 		try {
 			int i = 0;
@@ -165,6 +188,39 @@ public class ContentStore extends CassandraStore {
 		}
 	}
 
+	public CompletionStage<Void> updateContentPropertiesAsync(String contentId, Map<String, Object> map) {
+		TelemetryManager.log("UpdateContentPropertiesAsync | Content: " + contentId + " | Properties: " + map);
+		if (null == map || map.isEmpty())
+			throw new ClientException(ContentStoreParams.ERR_INVALID_PROPERTY_VALUES.name(),
+					"Invalid property values. Please specify valid property values");
+		String query = getUpdateQuery(map.keySet());
+		Object[] values = new Object[map.size() + 1];
+		try {
+			int i = 0;
+			for (Entry<String, Object> entry : map.entrySet()) {
+				if (null == entry.getValue()) {
+					values[i] = "";
+				} else if (entry.getValue() instanceof String) {
+					values[i] = entry.getValue();
+				} else {
+					values[i] = mapper.writeValueAsString(entry.getValue());
+				}
+				i += 1;
+			}
+			values[i] = contentId;
+		} catch (JsonProcessingException e) {
+			throw new ServerException(ContentStoreParams.ERR_SERVER_ERROR.name(),
+					"Error updating property in Content Store.");
+		}
+		return executeQueryAsync(query, values)
+				.thenAccept(rs -> logTransactionEvent("UPDATE", contentId, map))
+				.exceptionally(e -> {
+					TelemetryManager.error("Error! Executing update content property: " + e.getMessage(), e);
+					throw new ServerException(ContentStoreParams.ERR_SERVER_ERROR.name(),
+							"Error updating property in Content Store.");
+				});
+	}
+
 	private String getSelectQuery(String property) {
 		StringBuilder sb = new StringBuilder();
 		if (StringUtils.isNotBlank(property)) {
@@ -226,7 +282,7 @@ public class ContentStore extends CassandraStore {
             String query = "UPDATE " + getKeyspace() + "." + getTable() + " SET externallink = ? WHERE content_id = ?";
             String externalLinksData = mapper.writeValueAsString(externalLinks);
             Session session = CassandraConnector.getSession();
-            PreparedStatement statement = session.prepare(query);
+            PreparedStatement statement = CassandraConnector.prepare(session, query);
             BoundStatement boundStatement = new BoundStatement(statement);
             session.execute(boundStatement.bind(externalLinksData, contentId));
         } catch (JsonProcessingException e) {
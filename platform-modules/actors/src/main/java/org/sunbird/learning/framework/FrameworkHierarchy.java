@@ -12,21 +12,16 @@ import org.sunbird.common.exception.ClientException;
 import org.sunbird.common.exception.ResourceNotFoundException;
 import org.sunbird.common.exception.ResponseCode;
 import org.sunbird.common.mgr.BaseManager;
-import org.sunbird.common.mgr.ConvertGraphNode;
 import org.sunbird.common.util.FrameworkCache;
 import org.sunbird.graph.dac.enums.GraphDACParams;
 import org.sunbird.graph.dac.model.Node;
-import org.sunbird.graph.dac.model.Relation;
 import org.sunbird.graph.engine.router.GraphEngineManagers;
 import org.sunbird.graph.model.cache.CategoryCache;
 import org.sunbird.graph.model.node.DefinitionDTO;
 import org.sunbird.learning.hierarchy.store.HierarchyStore;
+import org.sunbird.telemetry.logger.TelemetryManager;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 /**
@@ -45,7 +40,15 @@ public class FrameworkHierarchy extends BaseManager {
 			? Platform.config.getString("framework.hierarchy.table")
 			: "framework_hierarchy";
 	private static final String objectType = "Framework";
-	private HierarchyStore hierarchyStore = new HierarchyStore(keyspace, table, objectType, false);
+	private HierarchyStore hierarchyStore;
+
+	public FrameworkHierarchy() {
+		this(new HierarchyStore(keyspace, table, objectType, false));
+	}
+
+	FrameworkHierarchy(HierarchyStore hierarchyStore) {
+		this.hierarchyStore = hierarchyStore;
+	}
 
 	/**
 	 * @param id
@@ -58,25 +61,45 @@ public class FrameworkHierarchy extends BaseManager {
 		Node node = (Node) responseNode.get(GraphDACParams.node.name());
 		if (StringUtils.equalsIgnoreCase(node.getObjectType(), "Framework")) {
 			FrameworkCache.delete(id);
-			Map<String, Object> frameworkDocument = new HashMap<>();
-			Map<String, Object> frameworkHierarchy = getHierarchy(node.getIdentifier(), 0, false, true);
+			FrameworkHierarchyBuilder builder = newBuilder().load(node.getIdentifier());
+			Map<String, Object> frameworkHierarchy = builder.build();
 			CategoryCache.setFramework(node.getIdentifier(), frameworkHierarchy);
-
-			frameworkDocument.putAll(frameworkHierarchy);
-			frameworkDocument.put("identifier", node.getIdentifier());
-			frameworkDocument.put("objectType", node.getObjectType());
-			DefinitionDTO definition = getDefinition(GRAPH_ID, node.getObjectType());
-			String[] fields = getFields(definition);
-			for (String field : fields) {
-				if(null!=node.getMetadata().get(field))
-					frameworkDocument.put(field, node.getMetadata().get(field));
-			}
-			hierarchyStore.saveOrUpdateHierarchy(node.getIdentifier(),frameworkDocument);
+			saveHierarchy(node, builder, frameworkHierarchy);
 		} else {
 			throw new ClientException(ResponseCode.CLIENT_ERROR.name(), "The object with given identifier is not a framework: " + id);
 		}
 	}
 
+	/**
+	 * Saves the hierarchy with the metadata of the framework node, unless the
+	 * builder found the framework unchanged since its hierarchy was last saved.
+	 *
+	 * @return whether the hierarchy was saved
+	 */
+	boolean saveHierarchy(Node node, FrameworkHierarchyBuilder builder, Map<String, Object> frameworkHierarchy) {
+		if (builder.isUnchanged(node.getIdentifier())) {
+			TelemetryManager.log("Framework hierarchy unchanged, not saved again: " + node.getIdentifier());
+			return false;
+		}
+		Map<String, Object> frameworkDocument = new HashMap<>();
+		frameworkDocument.putAll(frameworkHierarchy);
+		frameworkDocument.put("identifier", node.getIdentifier());
+		frameworkDocument.put("objectType", node.getObjectType());
+		DefinitionDTO definition = getDefinition(GRAPH_ID, node.getObjectType());
+		String[] fields = getFields(definition);
+		for (String field : fields) {
+			if(null!=node.getMetadata().get(field))
+				frameworkDocument.put(field, node.getMetadata().get(field));
+		}
+		hierarchyStore.saveOrUpdateHierarchy(node.getIdentifier(),frameworkDocument);
+		builder.saved(frameworkHierarchy);
+		return true;
+	}
+
+	FrameworkHierarchyBuilder newBuilder() {
+		return new FrameworkHierarchyBuilder(GRAPH_ID);
+	}
+
 	/**
 	 *
 	 * @param frameworkId
@@ -92,78 +115,6 @@ public class FrameworkHierarchy extends BaseManager {
 		return  hierarchy;
 	}
 
-	@SuppressWarnings("unchecked")
-	private Map<String, Object> getHierarchy(String id, int index, boolean includeMetadata, boolean includeRelations) throws Exception {
-		Map<String, Object> data = new HashMap<String, Object>();
-		Response responseNode = getDataNode(GRAPH_ID, id);
-		if (checkError(responseNode))
-			throw new ResourceNotFoundException("ERR_DATA_NOT_FOUND", "Data not found with id : " + id,
-					ResponseCode.RESOURCE_NOT_FOUND);
-		Node node = (Node) responseNode.get(GraphDACParams.node.name());
-
-		Map<String, Object> metadata = node.getMetadata();
-		String status = (String) metadata.get("status");
-		if (StringUtils.equalsIgnoreCase("Live", status)) {
-			String objectType = node.getObjectType();
-			DefinitionDTO definition = getDefinition(GRAPH_ID, objectType);
-			if (includeMetadata) {
-				String[] fields = getFields(definition);
-				if (fields != null) {
-					for (String field : fields) {
-						data.put(field, metadata.get(field));
-					}
-				} else {
-					data.putAll(node.getMetadata());
-				}
-				data.put("identifier", node.getIdentifier());
-				data.put("index", index);
-
-			}
-			if (includeRelations) {
-				Map<String, String> inRelDefMap = new HashMap<>();
-				Map<String, String> outRelDefMap = new HashMap<>();
-				List<String> sortKeys = new ArrayList<String>();
-				ConvertGraphNode.getRelationDefinitionMaps(definition, inRelDefMap, outRelDefMap);
-				List<Relation> outRelations = node.getOutRelations();
-				if (null != outRelations && !outRelations.isEmpty()) {
-					for (Relation relation : outRelations) {
-						String type = relation.getRelationType();
-						String key = type + relation.getEndNodeObjectType();
-						String title = outRelDefMap.get(key);
-						List<Map<String, Object>> relData = (List<Map<String, Object>>) data.get(title);
-						if (relData == null) {
-							relData = new ArrayList<Map<String, Object>>();
-							data.put(title, relData);
-							if ("hasSequenceMember".equalsIgnoreCase(type))
-								sortKeys.add(title);
-						}
-						Map<String, Object> relMeta = relation.getMetadata();
-						int seqIndex = 0;
-						if (relMeta != null) {
-							Object indexObj = relMeta.get("IL_SEQUENCE_INDEX");
-							if (indexObj != null)
-								seqIndex = ((Long) indexObj).intValue();
-						}
-						boolean getChildren = true;
-						// TODO: This condition value should get from definition node.
-						if ("associations".equalsIgnoreCase(title)) {
-							getChildren = false;
-						}
-						Map<String, Object> childData = getHierarchy(relation.getEndNodeId(), seqIndex, true, getChildren);
-						if (!childData.isEmpty())
-							relData.add(childData);
-					}
-				}
-				for (String key : sortKeys) {
-					List<Map<String, Object>> prop = (List<Map<String, Object>>) data.get(key);
-					getSorted(prop);
-				}
-			}
-		}
-
-		return data;
-	}
-
 	private DefinitionDTO getDefinition(String graphId, String objectType) {
 		Request request = getRequest(graphId, GraphEngineManagers.SEARCH_MANAGER, "getNodeDefinition",
 				GraphDACParams.object_type.name(), objectType);
@@ -179,15 +130,4 @@ public class FrameworkHierarchy extends BaseManager {
 		Map<String, Object> meta = definition.getMetadata();
 		return (String[]) meta.get("fields");
 	}
-
-	private void getSorted(List<Map<String, Object>> relObjects) {
-		Collections.sort(relObjects, new Comparator<Map<String, Object>>() {
-			@Override
-			public int compare(Map<String, Object> o1, Map<String, Object> o2) {
-				int o1Index = (int) o1.get("index");
-				int o2Index = (int) o2.get("index");
-				return o1Index - o2Index;
-			}
-		});
-	}
 }
@@ -0,0 +1,305 @@
+package org.sunbird.learning.framework;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.apache.commons.lang3.StringUtils;
+import org.sunbird.common.Platform;
+import org.sunbird.common.cache.BoundedCache;
+import org.sunbird.common.dto.Request;
+import org.sunbird.common.dto.Response;
+import org.sunbird.common.exception.ResourceNotFoundException;
+import org.sunbird.common.exception.ResponseCode;
+import org.sunbird.common.mgr.BaseManager;
+import org.sunbird.common.mgr.ConvertGraphNode;
+import org.sunbird.graph.dac.enums.GraphDACParams;
+import org.sunbird.graph.dac.model.Node;
+import org.sunbird.graph.dac.model.Relation;
+import org.sunbird.graph.engine.router.GraphEngineManagers;
+import org.sunbird.graph.model.node.DefinitionDTO;
+import org.sunbird.telemetry.logger.TelemetryManager;
+
+/**
+ * Builds the hierarchy of a framework (categories, terms and their
+ * associations).
+ *
+ * The framework subgraph is read level by level: the nodes of a level are
+ * fetched together, framework.hierarchy.batch_size ids per request, with their
+ * out relations, which give the ids of the next level. The tree is then
+ * assembled in memory from the id map, so a framework costs one request per
+ * level (and batch) instead of one per term. Definitions are read once per
+ * object type.
+ *
+ * The built hierarchy is kept for framework.hierarchy.cache.ttl seconds, for
+ * at most framework.hierarchy.cache.size frameworks, with a digest of the
+ * identifiers, version keys and relations of the nodes it was built from and
+ * of the fields of their definitions; a build finding the same digest reuses
+ * it, see {@link #isUnchanged(String)}.
+ */
+class FrameworkHierarchyBuilder extends BaseManager {
+
+	private static final int BATCH_SIZE = Platform.config.hasPath("framework.hierarchy.batch_size")
+			? Platform.config.getInt("framework.hierarchy.batch_size") : 500;
+	private static final long CACHE_TTL = Platform.config.hasPath("framework.hierarchy.cache.ttl")
+			? Platform.config.getLong("framework.hierarchy.cache.ttl") * 1000 : 3600000;
+	private static final int CACHE_SIZE = Platform.config.hasPath("framework.hierarchy.cache.size")
+			? Platform.config.getInt("framework.hierarchy.cache.size") : 100;
+	private static final String ASSOCIATIONS = "associations";
+
+	private static final BoundedCache<String, CachedHierarchy> cache = new BoundedCache<>("framework_hierarchy",
+			CACHE_SIZE, CACHE_TTL);
+
+	private final String graphId;
+	private final Map<String, Node> nodes = new HashMap<String, Node>();
+	private final Map<String, DefinitionDTO> definitions = new HashMap<String, DefinitionDTO>();
+	private String frameworkId;
+	private String version;
+
+	FrameworkHierarchyBuilder(String graphId) {
+		this.graphId = graphId;
+	}
+
+	/**
+	 * Reads the subgraph of the framework.
+	 */
+	FrameworkHierarchyBuilder load(String frameworkId) {
+		this.frameworkId = frameworkId;
+		Map<String, Boolean> level = new LinkedHashMap<String, Boolean>();
+		level.put(frameworkId, true);
+		Set<String> expanded = new HashSet<String>();
+		int levels = 0;
+		while (!level.isEmpty()) {
+			List<String> toFetch = new ArrayList<String>();
+			for (String id : level.keySet()) {
+				if (!nodes.containsKey(id))
+					toFetch.add(id);
+			}
+			fetch(toFetch);
+			levels++;
+			Map<String, Boolean> next = new LinkedHashMap<String, Boolean>();
+			for (Map.Entry<String, Boolean> entry : level.entrySet()) {
+				Node node = getNode(entry.getKey());
+				if (!entry.getValue() || !isLive(node) || !expanded.add(node.getIdentifier()))
+					continue;
+				Map<String, String> outRelDefMap = getOutRelDefMap(node);
+				if (null != node.getOutRelations()) {
+					for (Relation relation : node.getOutRelations()) {
+						boolean expand = !isAssociation(outRelDefMap, relation);
+						String endNodeId = relation.getEndNodeId();
+						if (expand || !next.containsKey(endNodeId))
+							next.put(endNodeId, expand || Boolean.TRUE.equals(next.get(endNodeId)));
+					}
+				}
+			}
+			level = next;
+		}
+		version = getVersion();
+		TelemetryManager.log("Framework hierarchy of " + frameworkId + " loaded: " + nodes.size() + " nodes in "
+				+ levels + " levels.");
+		return this;
+	}
+
+	/**
+	 * @return whether the loaded nodes are the ones the cached hierarchy of
+	 *         the framework was built from
+	 */
+	boolean isUnchanged(String frameworkId) {
+		CachedHierarchy cached = cache.get(frameworkId);
+		return null != cached && StringUtils.equals(cached.version, version);
+	}
+
+	/**
+	 * @return the hierarchy of the framework, without the metadata of the
+	 *         framework node
+	 */
+	Map<String, Object> build() {
+		CachedHierarchy cached = cache.get(frameworkId);
+		if (null != cached && StringUtils.equals(cached.version, version))
+			return cached.hierarchy;
+		return getHierarchy(frameworkId, 0, false, true, new HashSet<String>());
+	}
+
+	/**
+	 * Keeps the hierarchy, once saved, as the one of the loaded versions.
+	 */
+	void saved(Map<String, Object> hierarchy) {
+		cache.put(frameworkId, new CachedHierarchy(version, hierarchy));
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, Object> getHierarchy(String id, int index, boolean includeMetadata,
+			boolean includeRelations, Set<String> path) {
+		Map<String, Object> data = new HashMap<String, Object>();
+		Node node = getNode(id);
+		if (!isLive(node))
+			return data;
+		DefinitionDTO definition = getDefinition(node.getObjectType());
+		Map<String, Object> metadata = node.getMetadata();
+		if (includeMetadata) {
+			String[] fields = getFields(definition);
+			if (fields != null) {
+				for (String field : fields) {
+					data.put(field, metadata.get(field));
+				}
+			} else {
+				data.putAll(node.getMetadata());
+			}
+			data.put("identifier", node.getIdentifier());
+			data.put("index", index);
+		}
+		if (includeRelations && path.add(id)) {
+			Map<String, String> outRelDefMap = getOutRelDefMap(node);
+			List<String> sortKeys = new ArrayList<String>();
+			List<Relation> outRelations = node.getOutRelations();
+			if (null != outRelations && !outRelations.isEmpty()) {
+				for (Relation relation : outRelations) {
+					String type = relation.getRelationType();
+					String title = outRelDefMap.get(type + relation.getEndNodeObjectType());
+					List<Map<String, Object>> relData = (List<Map<String, Object>>) data.get(title);
+					if (relData == null) {
+						relData = new ArrayList<Map<String, Object>>();
+						data.put(title, relData);
+						if ("hasSequenceMember".equalsIgnoreCase(type))
+							sortKeys.add(title);
+					}
+					Map<String, Object> relMeta = relation.getMetadata();
+					int seqIndex = 0;
+					if (relMeta != null) {
+						Object indexObj = relMeta.get("IL_SEQUENCE_INDEX");
+						if (indexObj != null)
+							seqIndex = ((Number) indexObj).intValue();
+					}
+					boolean getChildren = !ASSOCIATIONS.equalsIgnoreCase(title);
+					Map<String, Object> childData = getHierarchy(relation.getEndNodeId(), seqIndex, true, getChildren,
+							path);
+					if (!childData.isEmpty())
+						relData.add(childData);
+				}
+			}
+			for (String key : sortKeys) {
+				List<Map<String, Object>> prop = (List<Map<String, Object>>) data.get(key);
+				Collections.sort(prop, (o1, o2) -> (int) o1.get("index") - (int) o2.get("index"));
+			}
+			path.remove(id);
+		}
+		return data;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void fetch(List<String> ids) {
+		for (int start = 0; start < ids.size(); start += BATCH_SIZE) {
+			List<String> batch = ids.subList(start, Math.min(ids.size(), start + BATCH_SIZE));
+			Request request = getRequest(graphId, GraphEngineManagers.SEARCH_MANAGER, "getDataNodes",
+					GraphDACParams.node_ids.name(), new ArrayList<String>(batch));
+			Response response = getResponse(request);
+			if (checkError(response))
+				throw new ResourceNotFoundException("ERR_DATA_NOT_FOUND", "Data not found with ids : " + batch,
+						ResponseCode.RESOURCE_NOT_FOUND);
+			List<Node> list = (List<Node>) response.get(GraphDACParams.node_list.name());
+			if (null != list) {
+				for (Node node : list)
+					nodes.put(node.getIdentifier(), node);
+			}
+		}
+	}
+
+	private Node getNode(String id) {
+		Node node = nodes.get(id);
+		if (null == node)
+			throw new ResourceNotFoundException("ERR_DATA_NOT_FOUND", "Data not found with id : " + id,
+					ResponseCode.RESOURCE_NOT_FOUND);
+		return node;
+	}
+
+	private boolean isLive(Node node) {
+		return StringUtils.equalsIgnoreCase("Live", (String) node.getMetadata().get("status"));
+	}
+
+	private boolean isAssociation(Map<String, String> outRelDefMap, Relation relation) {
+		return ASSOCIATIONS
+				.equalsIgnoreCase(outRelDefMap.get(relation.getRelationType() + relation.getEndNodeObjectType()));
+	}
+
+	private Map<String, String> getOutRelDefMap(Node node) {
+		Map<String, String> inRelDefMap = new HashMap<>();
+		Map<String, String> outRelDefMap = new HashMap<>();
+		ConvertGraphNode.getRelationDefinitionMaps(getDefinition(node.getObjectType()), inRelDefMap, outRelDefMap);
+		return outRelDefMap;
+	}
+
+	private DefinitionDTO getDefinition(String objectType) {
+		if (!definitions.containsKey(objectType)) {
+			Request request = getRequest(graphId, GraphEngineManagers.SEARCH_MANAGER, "getNodeDefinition",
+					GraphDACParams.object_type.name(), objectType);
+			Response response = getResponse(request);
+			definitions.put(objectType,
+					checkError(response) ? null : (DefinitionDTO) response.get(GraphDACParams.definition_node.name()));
+		}
+		return definitions.get(objectType);
+	}
+
+	private String[] getFields(DefinitionDTO definition) {
+		if (null == definition || null == definition.getMetadata())
+			return null;
+		return (String[]) definition.getMetadata().get("fields");
+	}
+
+	/**
+	 * The identifiers and version keys of the loaded nodes, with their
+	 * relations, and the fields of their definitions, in a stable order.
+	 */
+	private String getVersion() {
+		List<String> ids = new ArrayList<String>(nodes.keySet());
+		Collections.sort(ids);
+		StringBuilder sb = new StringBuilder();
+		Set<String> objectTypes = new TreeSet<String>();
+		for (Node node : nodes.values()) {
+			if (null != node.getObjectType())
+				objectTypes.add(node.getObjectType());
+		}
+		for (String objectType : objectTypes) {
+			String[] fields = getFields(getDefinition(objectType));
+			sb.append(objectType).append('=').append(null == fields ? "*" : String.join(",", fields)).append(';');
+		}
+		for (String id : ids) {
+			Node node = nodes.get(id);
+			sb.append(id).append(':').append(node.getMetadata().get("versionKey")).append(':')
+					.append(node.getMetadata().get("status"));
+			if (null != node.getOutRelations()) {
+				for (Relation relation : node.getOutRelations()) {
+					sb.append(',').append(relation.getRelationType()).append('>').append(relation.getEndNodeId());
+					if (null != relation.getMetadata())
+						sb.append('#').append(relation.getMetadata().get("IL_SEQUENCE_INDEX"));
+				}
+			}
+			sb.append(';');
+		}
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return Base64.getEncoder().encodeToString(digest.digest(sb.toString().getBytes(StandardCharsets.UTF_8)));
+		} catch (NoSuchAlgorithmException e) {
+			return sb.toString();
+		}
+	}
+
+	private static class CachedHierarchy {
+		final String version;
+		final Map<String, Object> hierarchy;
+
+		CachedHierarchy(String version, Map<String, Object> hierarchy) {
+			this.version = version;
+			this.hierarchy = hierarchy;
+		}
+	}
+}
@@ -0,0 +1,262 @@
+package org.sunbird.learning.hierarchy.store;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compact binary encoding of a collection hierarchy.
+ *
+ * The hierarchy is flattened in pre-order. Each node is stored as its own
+ * deflated JSON chunk, without its children, and a node table holds the
+ * identifier, parent and chunk position of every node. Reading one unit only
+ * inflates the chunks of that unit and its descendants; the rest of the
+ * hierarchy is never parsed.
+ *
+ * Layout (version 1):
+ * <pre>
+ * "HC" version:byte count:int
+ * count x [ identifier:UTF parent:int flags:byte offset:int length:int ]
+ * chunks
+ * </pre>
+ * The chunks are deflated with a fixed dictionary of the usual hierarchy
+ * keys; it must not change within a version.
+ */
+public class HierarchyCodec {
+
+	private static final byte[] MAGIC = { 'H', 'C' };
+	private static final byte VERSION = 1;
+	private static final byte FLAG_HAS_CHILDREN = 1;
+	private static final String CHILDREN = "children";
+	private static final String IDENTIFIER = "identifier";
+	private static final byte[] DICTIONARY = ("{\"identifier\":\"do_\",\"name\":\"\",\"objectType\":\"Content\","
+			+ "\"mimeType\":\"application/vnd.ekstep.content-collection\",\"contentType\":\"TextBookUnit\","
+			+ "\"visibility\":\"Parent\",\"status\":\"Live\",\"index\":,\"depth\":,\"parent\":\"do_\","
+			+ "\"compatibilityLevel\":,\"pkgVersion\":,\"versionKey\":\"\",\"channel\":\"\",\"framework\":\"\","
+			+ "\"createdOn\":\"T+0000\",\"lastUpdatedOn\":\"T+0000\",\"lastStatusChangedOn\":\"\","
+			+ "\"lastPublishedOn\":\"\",\"createdBy\":\"\",\"downloadUrl\":\"https://\",\"artifactUrl\":\"https://\","
+			+ "\"previewUrl\":\"\",\"streamingUrl\":\"\",\"appIcon\":\"\",\"posterImage\":\"\",\"variants\":{\"spine\":"
+			+ "{\"ecarUrl\":\"\",\"size\":}},\"size\":,\"language\":[\"English\"],\"medium\":[\"English\"],"
+			+ "\"gradeLevel\":[\"Class \"],\"subject\":[\"\"],\"board\":\"\",\"resourceType\":\"Learn\","
+			+ "\"contentDisposition\":\"inline\",\"contentEncoding\":\"gzip\",\"application/pdf\","
+			+ "\"video/mp4\",\"video/x-youtube\",\"application/vnd.ekstep.ecml-archive\",\"Resource\","
+			+ "\"audience\":[\"Learner\"],\"os\":[\"All\"],\"license\":\"CC BY 4.0\",\"dialcodes\":[\"\"],"
+			+ "\"leafNodesCount\":,\"leafNodes\":[\"do_\"],\"childNodes\":[\"do_\"],\"relationalMetadata\":")
+					.getBytes(StandardCharsets.UTF_8);
+
+	private static final ObjectMapper mapper = new ObjectMapper();
+
+	private HierarchyCodec() {
+	}
+
+	/**
+	 * @return whether the value is a compact hierarchy this codec can read
+	 */
+	public static boolean isCompact(byte[] data) {
+		return null != data && data.length > 3 && data[0] == MAGIC[0] && data[1] == MAGIC[1] && data[2] == VERSION;
+	}
+
+	public static byte[] encode(Map<String, Object> hierarchy) throws IOException {
+		List<Map<String, Object>> nodes = new ArrayList<Map<String, Object>>();
+		List<Integer> parents = new ArrayList<Integer>();
+		flatten(hierarchy, -1, nodes, parents);
+
+		ByteArrayOutputStream chunks = new ByteArrayOutputStream();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		DataOutputStream table = new DataOutputStream(out);
+		table.write(MAGIC);
+		table.writeByte(VERSION);
+		table.writeInt(nodes.size());
+		Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+		try {
+			for (int i = 0; i < nodes.size(); i++) {
+				Map<String, Object> node = nodes.get(i);
+				Object identifier = node.get(IDENTIFIER);
+				table.writeUTF(null == identifier ? "" : identifier.toString());
+				table.writeInt(parents.get(i));
+				byte flags = 0;
+				Map<String, Object> data = node;
+				if (hasNodeChildren(node)) {
+					flags |= FLAG_HAS_CHILDREN;
+					data = new HashMap<String, Object>(node);
+					data.remove(CHILDREN);
+				}
+				table.writeByte(flags);
+				byte[] chunk = deflate(deflater, mapper.writeValueAsBytes(data));
+				table.writeInt(chunks.size());
+				table.writeInt(chunk.length);
+				chunks.write(chunk);
+			}
+		} finally {
+			deflater.end();
+		}
+		chunks.writeTo(table);
+		table.flush();
+		return out.toByteArray();
+	}
+
+	/**
+	 * @return the whole hierarchy
+	 */
+	public static Map<String, Object> decode(byte[] data) throws IOException {
+		Table table = readTable(data);
+		return table.count > 0 ? table.build(0) : null;
+	}
+
+	/**
+	 * @return the node with this identifier and its descendants, null if the
+	 *         hierarchy has no such node
+	 */
+	public static Map<String, Object> decodeSubtree(byte[] data, String identifier) throws IOException {
+		Table table = readTable(data);
+		for (int i = 0; i < table.count; i++) {
+			if (identifier.equals(table.identifiers[i]))
+				return table.build(i);
+		}
+		return null;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static boolean hasNodeChildren(Map<String, Object> node) {
+		Object children = node.get(CHILDREN);
+		if (!(children instanceof List))
+			return false;
+		for (Object child : (List<Object>) children) {
+			if (!(child instanceof Map))
+				return false;
+		}
+		return true;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static void flatten(Map<String, Object> node, int parent, List<Map<String, Object>> nodes,
+			List<Integer> parents) {
+		int index = nodes.size();
+		nodes.add(node);
+		parents.add(parent);
+		if (hasNodeChildren(node)) {
+			for (Object child : (List<Object>) node.get(CHILDREN))
+				flatten((Map<String, Object>) child, index, nodes, parents);
+		}
+	}
+
+	private static byte[] deflate(Deflater deflater, byte[] input) {
+		deflater.reset();
+		deflater.setDictionary(DICTIONARY);
+		deflater.setInput(input);
+		deflater.finish();
+		ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, input.length / 2));
+		byte[] buffer = new byte[4096];
+		while (!deflater.finished()) {
+			int count = deflater.deflate(buffer);
+			out.write(buffer, 0, count);
+		}
+		return out.toByteArray();
+	}
+
+	private static Table readTable(byte[] data) throws IOException {
+		if (!isCompact(data))
+			throw new IOException("Not a compact hierarchy.");
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+		in.skipBytes(MAGIC.length + 1);
+		Table table = new Table(data, in.readInt());
+		for (int i = 0; i < table.count; i++) {
+			table.identifiers[i] = in.readUTF();
+			table.parents[i] = in.readInt();
+			table.flags[i] = in.readByte();
+			table.offsets[i] = in.readInt();
+			table.lengths[i] = in.readInt();
+		}
+		table.chunkStart = data.length - in.available();
+		return table;
+	}
+
+	/**
+	 * The node table of an encoded hierarchy.
+	 */
+	private static class Table {
+		final byte[] data;
+		final int count;
+		final String[] identifiers;
+		final int[] parents;
+		final byte[] flags;
+		final int[] offsets;
+		final int[] lengths;
+		int chunkStart;
+
+		Table(byte[] data, int count) {
+			this.data = data;
+			this.count = count;
+			this.identifiers = new String[count];
+			this.parents = new int[count];
+			this.flags = new byte[count];
+			this.offsets = new int[count];
+			this.lengths = new int[count];
+		}
+
+		/**
+		 * Inflates the node and its descendants. In pre-order the
+		 * descendants of a node directly follow it.
+		 */
+		Map<String, Object> build(int root) throws IOException {
+			Map<Integer, Map<String, Object>> built = new HashMap<Integer, Map<String, Object>>();
+			Inflater inflater = new Inflater();
+			try {
+				Map<String, Object> rootNode = inflate(inflater, root);
+				built.put(root, rootNode);
+				for (int i = root + 1; i < count; i++) {
+					Map<String, Object> parent = built.get(parents[i]);
+					if (null == parent)
+						break;
+					Map<String, Object> node = inflate(inflater, i);
+					getChildren(parent).add(node);
+					built.put(i, node);
+				}
+				return rootNode;
+			} catch (DataFormatException e) {
+				throw new IOException("Invalid compact hierarchy.", e);
+			} finally {
+				inflater.end();
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		private Map<String, Object> inflate(Inflater inflater, int index) throws IOException, DataFormatException {
+			inflater.reset();
+			inflater.setInput(data, chunkStart + offsets[index], lengths[index]);
+			ByteArrayOutputStream out = new ByteArrayOutputStream(lengths[index] * 3);
+			byte[] buffer = new byte[4096];
+			while (!inflater.finished()) {
+				int count = inflater.inflate(buffer);
+				if (count == 0 && inflater.needsDictionary()) {
+					inflater.setDictionary(DICTIONARY);
+					continue;
+				}
+				if (count == 0 && (inflater.needsInput() || inflater.finished()))
+					break;
+				out.write(buffer, 0, count);
+			}
+			Map<String, Object> node = mapper.readValue(out.toByteArray(), Map.class);
+			if ((flags[index] & FLAG_HAS_CHILDREN) != 0)
+				node.put(CHILDREN, new ArrayList<Object>());
+			return node;
+		}
+
+		@SuppressWarnings("unchecked")
+		private static List<Object> getChildren(Map<String, Object> node) {
+			return (List<Object>) node.get(CHILDREN);
+		}
+	}
+}
@@ -5,7 +5,7 @@ import com.datastax.driver.core.PreparedStatement;
 import com.datastax.driver.core.ResultSet;
 import com.datastax.driver.core.Row;
 import com.datastax.driver.core.Session;
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.datastax.driver.core.utils.Bytes;
 import org.sunbird.cassandra.connector.util.CassandraConnector;
 import org.sunbird.cassandra.store.CassandraStore;
 import org.sunbird.common.Platform;
@@ -14,11 +14,41 @@ import org.sunbird.learning.contentstore.ContentStoreParams;
 import org.sunbird.searchindex.util.CompositeSearchConstants;
 import org.sunbird.telemetry.logger.TelemetryManager;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 
+/**
+ * Stores collection hierarchies.
+ *
+ * For the tables listed in hierarchy.store.compact_tables, the hierarchy is
+ * also written in the compact binary encoding of {@link HierarchyCodec} to
+ * the hierarchy_compact blob column, and reads use it when present: a single unit can then be read
+ * with {@link #getHierarchyNode(String, String)} without parsing the whole
+ * collection. Both columns are read in one query, so rows written before
+ * (legacy JSON only) are still read from the hierarchy column at no extra
+ * cost, and move to the compact column on their next update. The JSON column
+ * keeps being written for the readers of the table outside this service.
+ * With hierarchy.store.write_json disabled it is no longer written, but it is
+ * left as it is rather than cleared.
+ */
 public class HierarchyStore extends CassandraStore {
 
+    private static final String COMPACT_COLUMN = "hierarchy_compact";
+    private static final List<String> COMPACT_TABLES = Platform.config.hasPath("hierarchy.store.compact_tables")
+            ? Platform.config.getStringList("hierarchy.store.compact_tables")
+            : new ArrayList<String>();
+    private static final boolean WRITE_JSON = Platform.config.hasPath("hierarchy.store.write_json")
+            ? Platform.config.getBoolean("hierarchy.store.write_json")
+            : true;
+
+    private boolean compact;
+    private boolean writeJson = WRITE_JSON;
+
     public HierarchyStore() {
         super();
         String keyspace = Platform.config.hasPath("hierarchy.keyspace.name")
@@ -30,43 +60,53 @@ public class HierarchyStore extends CassandraStore {
         String objectType = "Content";
         initialise(keyspace, table, objectType, false);
         nodeType = CompositeSearchConstants.NODE_TYPE_DATA;
+        compact = COMPACT_TABLES.contains(table);
     }
 
     public HierarchyStore(String keyspace, String table, String objectType, boolean index) {
         super();
         initialise(keyspace, table, objectType, index);
         nodeType = CompositeSearchConstants.NODE_TYPE_DATA;
+        compact = COMPACT_TABLES.contains(table);
+    }
+
+    HierarchyStore(String keyspace, String table, boolean compact, boolean writeJson) {
+        this(keyspace, table, "Content", false);
+        this.compact = compact;
+        this.writeJson = writeJson;
     }
 
     public void saveOrUpdateHierarchy(String contentId, Map<String, Object> hierarchy) {
         try {
-            String query = "UPDATE " + getKeyspace() + "." + getTable() + " SET hierarchy = ? WHERE identifier = ?";
-            String hierarchyData = mapper.writeValueAsString(hierarchy);
+            Object[] values = getHierarchyValues(contentId, hierarchy);
             Session session = CassandraConnector.getSession();
-            PreparedStatement statement = session.prepare(query);
+            PreparedStatement statement = CassandraConnector.prepare(session, getUpdateQuery());
             BoundStatement boundStatement = new BoundStatement(statement);
-            session.execute(boundStatement.bind(hierarchyData, contentId));
-        } catch (JsonProcessingException e) {
+            session.execute(boundStatement.bind(values));
+        } catch (IOException e) {
             TelemetryManager.error("Error while updating collection hierarchy for ID" + contentId, e);
         }
 
     }
 
     public Map<String, Object> getHierarchy(String contentId) {
-        String query = "SELECT hierarchy FROM " + getKeyspace() + "." + getTable() + " WHERE identifier=?";
+        return getHierarchyNode(contentId, null);
+    }
 
-        Session session = CassandraConnector.getSession();
-        PreparedStatement ps = session.prepare(query);
-        BoundStatement bound = ps.bind(contentId);
+    /**
+     * Reads one node of a hierarchy with its descendants. Only that part of a
+     * compact hierarchy is decoded.
+     *
+     * @param contentId the identifier of the collection
+     * @param nodeId the identifier of the node, the whole hierarchy if null
+     * @return the node, null if the hierarchy or the node is not found
+     */
+    public Map<String, Object> getHierarchyNode(String contentId, String nodeId) {
         try {
-            ResultSet rs = session.execute(bound);
-            if (null != rs && rs.iterator().hasNext()) {
-                Row row = rs.iterator().next();
-                String value = row.getString("hierarchy");
-                return mapper.readValue(value, Map.class);
-            } else {
-               return null;
-            }
+            Session session = CassandraConnector.getSession();
+            PreparedStatement ps = CassandraConnector.prepare(session, getSelectQuery());
+            ResultSet rs = session.execute(ps.bind(contentId));
+            return toHierarchy((null == rs) ? null : rs.one(), nodeId);
         } catch (Exception e) {
             TelemetryManager.error("Error! Executing get collection hierarchy: " + e.getMessage(), e);
             throw new ServerException(ContentStoreParams.ERR_SERVER_ERROR.name(),
@@ -78,8 +118,107 @@ public class HierarchyStore extends CassandraStore {
         String query = "DELETE FROM " + getKeyspace() + "." + getTable() + " WHERE identifier IN :ids";
 
         Session session = CassandraConnector.getSession();
-        PreparedStatement ps = session.prepare(query);
+        PreparedStatement ps = CassandraConnector.prepare(session, query);
         BoundStatement bs = ps.bind();
         session.execute(bs.setList("ids", identifiers));
     }
+
+    public CompletionStage<Void> saveOrUpdateHierarchyAsync(String contentId, Map<String, Object> hierarchy) {
+        Object[] values;
+        try {
+            values = getHierarchyValues(contentId, hierarchy);
+        } catch (IOException e) {
+            throw new ServerException(ContentStoreParams.ERR_SERVER_ERROR.name(),
+                    "Error while updating collection hierarchy for ID" + contentId, e);
+        }
+        return executeQueryAsync(getUpdateQuery(), values)
+                .<Void>thenApply(rs -> null)
+                .exceptionally(e -> {
+                    throw wrapException(e, "Error while updating collection hierarchy for ID" + contentId);
+                });
+    }
+
+    public CompletionStage<Map<String, Object>> getHierarchyAsync(String contentId) {
+        return executeQueryAsync(getSelectQuery(), contentId)
+                .thenApply(rs -> {
+                    try {
+                        return toHierarchy((null == rs) ? null : rs.one(), null);
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
+                    }
+                })
+                .exceptionally(e -> {
+                    TelemetryManager.error("Error! Executing get collection hierarchy: " + e.getMessage(), e);
+                    throw wrapException(e, "Error fetching hierarchy from hierarchy Store.");
+                });
+    }
+
+    public CompletionStage<Void> deleteHierarchyAsync(List<String> identifiers) {
+        String query = "DELETE FROM " + getKeyspace() + "." + getTable() + " WHERE identifier IN ?";
+        return executeQueryAsync(query, identifiers)
+                .<Void>thenApply(rs -> null)
+                .exceptionally(e -> {
+                    throw wrapException(e, "Error while deleting collection hierarchy.");
+                });
+    }
+
+    private String getUpdateQuery() {
+        String columns = "hierarchy = ?";
+        if (compact)
+            columns = writeJson ? "hierarchy = ?, " + COMPACT_COLUMN + " = ?" : COMPACT_COLUMN + " = ?";
+        return "UPDATE " + getKeyspace() + "." + getTable() + " SET " + columns + " WHERE identifier = ?";
+    }
+
+    private Object[] getHierarchyValues(String contentId, Map<String, Object> hierarchy) throws IOException {
+        List<Object> values = new ArrayList<Object>();
+        if (!compact || writeJson)
+            values.add(mapper.writeValueAsString(hierarchy));
+        if (compact)
+            values.add(ByteBuffer.wrap(HierarchyCodec.encode(hierarchy)));
+        values.add(contentId);
+        return values.toArray();
+    }
+
+    private String getSelectQuery() {
+        String columns = compact ? "hierarchy, " + COMPACT_COLUMN : "hierarchy";
+        return "SELECT " + columns + " FROM " + getKeyspace() + "." + getTable() + " WHERE identifier=?";
+    }
+
+    /**
+     * Reads the hierarchy, or its node, from the compact column when it is
+     * set, else from the JSON column.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> toHierarchy(Row row, String nodeId) throws IOException {
+        if (null == row)
+            return null;
+        if (compact && !row.isNull(COMPACT_COLUMN))
+            return decode(Bytes.getArray(row.getBytes(COMPACT_COLUMN)), nodeId);
+        if (row.isNull("hierarchy"))
+            return null;
+        return findNode(mapper.readValue(row.getString("hierarchy"), Map.class), nodeId);
+    }
+
+    private static Map<String, Object> decode(byte[] data, String nodeId) throws IOException {
+        if (null == nodeId)
+            return HierarchyCodec.decode(data);
+        return HierarchyCodec.decodeSubtree(data, nodeId);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> findNode(Map<String, Object> node, String nodeId) {
+        if (null == nodeId || null == node || nodeId.equals(node.get("identifier")))
+            return node;
+        Object children = node.get("children");
+        if (children instanceof List) {
+            for (Object child : (List<Object>) children) {
+                if (child instanceof Map) {
+                    Map<String, Object> found = findNode((Map<String, Object>) child, nodeId);
+                    if (null != found)
+                        return found;
+                }
+            }
+        }
+        return null;
+    }
 }
@@ -164,4 +164,20 @@ public class ContentStoreTest extends CassandraTestSetup {
 		List<Map<String, Object>> extLinkList = o.readValue(extLink, List.class);
 		Assert.assertEquals("https://www.youtube.com/watch?v=Gi2nuTLse7M", extLinkList.get(0).get("src"));
 	}
+
+	@Test
+	public void testContentBodySaveAndGetAsync() throws Exception {
+		String identifier = "test_content_async";
+		String body = "test_content_async_body";
+		Map<String, Object> props = new HashMap<>();
+		props.put("body", body);
+		contentStore.updateContentPropertiesAsync(identifier, props).toCompletableFuture().get();
+		String returnedBody = contentStore.getContentBodyAsync(identifier).toCompletableFuture().get();
+		Assert.assertEquals(body, returnedBody);
+	}
+
+	@Test
+	public void testGetContentBodyAsyncWithoutRecord() throws Exception {
+		Assert.assertNull(contentStore.getContentBodyAsync("test_content_missing").toCompletableFuture().get());
+	}
 }
@@ -0,0 +1,174 @@
+package org.sunbird.learning.framework;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.sunbird.common.dto.Request;
+import org.sunbird.common.dto.Response;
+import org.sunbird.graph.dac.enums.GraphDACParams;
+import org.sunbird.graph.dac.model.Node;
+import org.sunbird.graph.dac.model.Relation;
+import org.sunbird.graph.model.node.DefinitionDTO;
+import org.sunbird.graph.model.node.RelationDefinition;
+import org.sunbird.learning.hierarchy.store.HierarchyStore;
+
+public class FrameworkHierarchyTest {
+
+	private static int frameworks = 0;
+
+	private Map<String, Node> graph = new HashMap<String, Node>();
+	private List<Map<String, Object>> saved = new ArrayList<Map<String, Object>>();
+	private String[] termFields = new String[] { "name", "code" };
+	private FrameworkHierarchy frameworkHierarchy;
+	private String frameworkId;
+
+	@Before
+	public void setup() {
+		// the builder keeps the saved hierarchies by framework id, so each
+		// test uses a framework of its own.
+		frameworkId = "fw_" + (++frameworks);
+		addNode(frameworkId, "Framework", "1");
+		addNode("cat_1", "Category", "1");
+		addNode("term_1", "Term", "1");
+		addRelation(frameworkId, "cat_1", "Category", 1);
+		addRelation("cat_1", "term_1", "Term", 1);
+		HierarchyStore store = new HierarchyStore("hierarchy_store", "framework_hierarchy", "Framework", false) {
+			@Override
+			public void saveOrUpdateHierarchy(String contentId, Map<String, Object> hierarchy) {
+				saved.add(hierarchy);
+			}
+		};
+		frameworkHierarchy = new FrameworkHierarchy(store) {
+			@Override
+			public Response getResponse(Request request) {
+				return respond(request);
+			}
+
+			@Override
+			FrameworkHierarchyBuilder newBuilder() {
+				return new FrameworkHierarchyBuilder("domain") {
+					@Override
+					public Response getResponse(Request request) {
+						return respond(request);
+					}
+				};
+			}
+		};
+	}
+
+	@Test
+	public void testUnchangedHierarchyIsNotSavedAgain() {
+		Assert.assertTrue(regenerate());
+		Assert.assertFalse(regenerate());
+		Assert.assertEquals(1, saved.size());
+		Assert.assertEquals(frameworkId, saved.get(0).get("identifier"));
+		Assert.assertEquals("Node term_1", getTerms(saved.get(0)).get(0).get("name"));
+	}
+
+	@Test
+	public void testChangedTermIsSaved() {
+		Assert.assertTrue(regenerate());
+		graph.get("term_1").getMetadata().put("name", "Renamed term");
+		graph.get("term_1").getMetadata().put("versionKey", "2");
+		Assert.assertTrue(regenerate());
+		Assert.assertEquals(2, saved.size());
+		Assert.assertEquals("Renamed term", getTerms(saved.get(1)).get(0).get("name"));
+	}
+
+	@Test
+	public void testAddedTermIsSaved() {
+		Assert.assertTrue(regenerate());
+		addNode("term_2", "Term", "1");
+		addRelation("cat_1", "term_2", "Term", 2);
+		Assert.assertTrue(regenerate());
+		Assert.assertEquals(2, getTerms(saved.get(1)).size());
+		Assert.assertFalse(regenerate());
+	}
+
+	@Test
+	public void testChangedDefinitionFieldsAreSaved() {
+		Assert.assertTrue(regenerate());
+		termFields = new String[] { "name", "code", "status" };
+		Assert.assertTrue(regenerate());
+		Assert.assertEquals("Live", getTerms(saved.get(1)).get(0).get("status"));
+		Assert.assertFalse(regenerate());
+	}
+
+	private boolean regenerate() {
+		FrameworkHierarchyBuilder builder = frameworkHierarchy.newBuilder().load(frameworkId);
+		return frameworkHierarchy.saveHierarchy(graph.get(frameworkId), builder, builder.build());
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<Map<String, Object>> getTerms(Map<String, Object> hierarchy) {
+		List<Map<String, Object>> categories = (List<Map<String, Object>>) hierarchy.get("categories");
+		return (List<Map<String, Object>>) categories.get(0).get("terms");
+	}
+
+	@SuppressWarnings("unchecked")
+	private Response respond(Request request) {
+		Response response = new Response();
+		if ("getDataNodes".equals(request.getOperation())) {
+			List<Node> nodes = new ArrayList<Node>();
+			for (String id : (List<String>) request.get(GraphDACParams.node_ids.name()))
+				nodes.add(graph.get(id));
+			response.put(GraphDACParams.node_list.name(), nodes);
+		} else if ("getNodeDefinition".equals(request.getOperation())) {
+			response.put(GraphDACParams.definition_node.name(),
+					getDefinition((String) request.get(GraphDACParams.object_type.name())));
+		}
+		return response;
+	}
+
+	private DefinitionDTO getDefinition(String objectType) {
+		DefinitionDTO definition = new DefinitionDTO();
+		definition.setObjectType(objectType);
+		Map<String, Object> metadata = new HashMap<String, Object>();
+		metadata.put("fields", "Term".equals(objectType) ? termFields : new String[] { "name", "code" });
+		definition.setMetadata(metadata);
+		if ("Framework".equals(objectType))
+			definition.setOutRelations(Arrays.asList(getRelationDefinition("Category", "categories")));
+		else if ("Category".equals(objectType))
+			definition.setOutRelations(Arrays.asList(getRelationDefinition("Term", "terms")));
+		else
+			definition.setOutRelations(Collections.<RelationDefinition>emptyList());
+		return definition;
+	}
+
+	private RelationDefinition getRelationDefinition(String objectType, String title) {
+		RelationDefinition relation = new RelationDefinition();
+		relation.setRelationName("hasSequenceMember");
+		relation.setObjectTypes(Arrays.asList(objectType));
+		relation.setTitle(title);
+		return relation;
+	}
+
+	private void addNode(String identifier, String objectType, String versionKey) {
+		Map<String, Object> metadata = new HashMap<String, Object>();
+		metadata.put("name", "Node " + identifier);
+		metadata.put("code", identifier);
+		metadata.put("status", "Live");
+		metadata.put("versionKey", versionKey);
+		Node node = new Node("domain", metadata);
+		node.setIdentifier(identifier);
+		node.setObjectType(objectType);
+		node.setOutRelations(new ArrayList<Relation>());
+		graph.put(identifier, node);
+	}
+
+	private void addRelation(String startNodeId, String endNodeId, String endNodeObjectType, int index) {
+		Relation relation = new Relation(startNodeId, "hasSequenceMember", endNodeId);
+		relation.setEndNodeObjectType(endNodeObjectType);
+		Map<String, Object> metadata = new HashMap<String, Object>();
+		metadata.put("IL_SEQUENCE_INDEX", index);
+		relation.setMetadata(metadata);
+		graph.get(startNodeId).getOutRelations().add(relation);
+	}
+}
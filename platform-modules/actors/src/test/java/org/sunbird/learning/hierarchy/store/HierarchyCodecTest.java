@@ -0,0 +1,69 @@
+package org.sunbird.learning.hierarchy.store;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class HierarchyCodecTest {
+
+	private static ObjectMapper mapper = new ObjectMapper();
+
+	private static Map<String, Object> getNode(String identifier, Map<String, Object>... children) {
+		Map<String, Object> node = new HashMap<String, Object>();
+		node.put("identifier", identifier);
+		node.put("name", "Node " + identifier);
+		node.put("index", 1);
+		if (null != children) {
+			List<Object> list = new ArrayList<Object>();
+			for (Map<String, Object> child : children)
+				list.add(child);
+			node.put("children", list);
+		}
+		return node;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> getHierarchy() {
+		Map<String, Object> leaf = getNode("do_3", (Map<String, Object>[]) null);
+		Map<String, Object> emptyUnit = getNode("do_4");
+		Map<String, Object> unit = getNode("do_2", leaf, emptyUnit);
+		Map<String, Object> root = getNode("do_1", unit, getNode("do_5", (Map<String, Object>[]) null));
+		root.put("leafNodes", new ArrayList<Object>(Arrays.asList("do_3", "do_5")));
+		return root;
+	}
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		Map<String, Object> hierarchy = getHierarchy();
+		byte[] data = HierarchyCodec.encode(hierarchy);
+		Assert.assertTrue(HierarchyCodec.isCompact(data));
+		Assert.assertEquals(mapper.readValue(mapper.writeValueAsString(hierarchy), Map.class),
+				HierarchyCodec.decode(data));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testDecodeSubtree() throws Exception {
+		byte[] data = HierarchyCodec.encode(getHierarchy());
+		Map<String, Object> unit = HierarchyCodec.decodeSubtree(data, "do_2");
+		Assert.assertEquals("do_2", unit.get("identifier"));
+		List<Map<String, Object>> children = (List<Map<String, Object>>) unit.get("children");
+		Assert.assertEquals(2, children.size());
+		Assert.assertEquals("do_3", children.get(0).get("identifier"));
+		Assert.assertFalse(children.get(0).containsKey("children"));
+		Assert.assertTrue(((List<Object>) children.get(1).get("children")).isEmpty());
+		Assert.assertNull(HierarchyCodec.decodeSubtree(data, "do_9"));
+	}
+
+	@Test
+	public void testLegacyJsonIsNotCompact() throws Exception {
+		Assert.assertFalse(HierarchyCodec.isCompact(mapper.writeValueAsBytes(getHierarchy())));
+	}
+}
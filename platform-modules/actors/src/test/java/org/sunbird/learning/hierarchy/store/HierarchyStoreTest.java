@@ -0,0 +1,119 @@
+package org.sunbird.learning.hierarchy.store;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.sunbird.cassandra.CassandraTestSetup;
+
+import com.datastax.driver.core.Row;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class HierarchyStoreTest extends CassandraTestSetup {
+
+	private static final String keyspace = "hierarchy_store_test";
+	private static final String table = "content_hierarchy";
+	private static ObjectMapper mapper = new ObjectMapper();
+
+	private static String createKeyspace = "CREATE KEYSPACE IF NOT EXISTS " + keyspace
+			+ " WITH replication = {'class': 'SimpleStrategy', 'replication_factor': '1'}";
+	private static String createTable = "CREATE TABLE IF NOT EXISTS " + keyspace + "." + table
+			+ " (identifier text, hierarchy text, hierarchy_compact blob, PRIMARY KEY (identifier));";
+
+	@BeforeClass
+	public static void setup() throws Exception {
+		executeScript(createKeyspace, createTable);
+	}
+
+	private static Map<String, Object> getNode(String identifier, Map<String, Object>... children) {
+		Map<String, Object> node = new HashMap<String, Object>();
+		node.put("identifier", identifier);
+		node.put("name", "Node " + identifier);
+		if (null != children)
+			node.put("children", new ArrayList<Object>(Arrays.asList(children)));
+		return node;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> getHierarchy(String rootId) {
+		Map<String, Object> unit = getNode("do_unit", getNode("do_leaf", (Map<String, Object>[]) null));
+		return getNode(rootId, unit);
+	}
+
+	private static Row readRow(String identifier) {
+		return getSession().execute("SELECT hierarchy, hierarchy_compact FROM " + keyspace + "." + table
+				+ " WHERE identifier='" + identifier + "';").one();
+	}
+
+	private static void insertJson(String identifier, Map<String, Object> hierarchy) throws Exception {
+		getSession().execute("INSERT INTO " + keyspace + "." + table + " (identifier, hierarchy) VALUES (?, ?)",
+				identifier, mapper.writeValueAsString(hierarchy));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testCompactHierarchySaveAndGet() {
+		HierarchyStore store = new HierarchyStore(keyspace, table, true, true);
+		store.saveOrUpdateHierarchy("do_compact", getHierarchy("do_compact"));
+		Row row = readRow("do_compact");
+		Assert.assertFalse(row.isNull("hierarchy_compact"));
+		Assert.assertFalse(row.isNull("hierarchy"));
+
+		Assert.assertEquals("do_compact", store.getHierarchy("do_compact").get("identifier"));
+		Map<String, Object> unit = store.getHierarchyNode("do_compact", "do_unit");
+		Assert.assertEquals("do_unit", unit.get("identifier"));
+		Assert.assertEquals("do_leaf", ((List<Map<String, Object>>) unit.get("children")).get(0).get("identifier"));
+		Assert.assertNull(store.getHierarchyNode("do_compact", "do_missing"));
+		Assert.assertNull(store.getHierarchy("do_not_saved"));
+	}
+
+	@Test
+	public void testLegacyHierarchyIsReadFromJson() throws Exception {
+		insertJson("do_legacy", getHierarchy("do_legacy"));
+		HierarchyStore store = new HierarchyStore(keyspace, table, true, true);
+		Assert.assertEquals("do_legacy", store.getHierarchy("do_legacy").get("identifier"));
+		Assert.assertEquals("do_unit", store.getHierarchyNode("do_legacy", "do_unit").get("identifier"));
+	}
+
+	@Test
+	public void testJsonIsKeptWhenNotWritten() throws Exception {
+		Map<String, Object> legacy = getHierarchy("do_json");
+		insertJson("do_json", legacy);
+		HierarchyStore store = new HierarchyStore(keyspace, table, true, false);
+		Map<String, Object> hierarchy = getHierarchy("do_json");
+		hierarchy.put("name", "Updated");
+		store.saveOrUpdateHierarchy("do_json", hierarchy);
+
+		Assert.assertEquals(mapper.writeValueAsString(legacy), readRow("do_json").getString("hierarchy"));
+		Assert.assertEquals("Updated", store.getHierarchy("do_json").get("name"));
+	}
+
+	@Test
+	public void testHierarchyAsync() throws Exception {
+		HierarchyStore store = new HierarchyStore(keyspace, table, true, true);
+		store.saveOrUpdateHierarchyAsync("do_async", getHierarchy("do_async")).toCompletableFuture().get(10,
+				TimeUnit.SECONDS);
+		Assert.assertFalse(readRow("do_async").isNull("hierarchy_compact"));
+		Assert.assertEquals("do_async",
+				store.getHierarchyAsync("do_async").toCompletableFuture().get(10, TimeUnit.SECONDS).get("identifier"));
+
+		insertJson("do_async_legacy", getHierarchy("do_async_legacy"));
+		Assert.assertEquals("do_async_legacy", store.getHierarchyAsync("do_async_legacy").toCompletableFuture()
+				.get(10, TimeUnit.SECONDS).get("identifier"));
+		Assert.assertNull(store.getHierarchyAsync("do_not_saved").toCompletableFuture().get(10, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testJsonOnlyHierarchy() {
+		HierarchyStore store = new HierarchyStore(keyspace, table, false, true);
+		store.saveOrUpdateHierarchy("do_json_only", getHierarchy("do_json_only"));
+		Assert.assertTrue(readRow("do_json_only").isNull("hierarchy_compact"));
+		Assert.assertEquals("do_unit", store.getHierarchyNode("do_json_only", "do_unit").get("identifier"));
+	}
+}
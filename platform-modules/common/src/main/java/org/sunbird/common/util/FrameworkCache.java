@@ -20,9 +20,16 @@ public class FrameworkCache {
     private static final int cacheTtl = Platform.config.hasPath("framework.cache.ttl") ? Platform.config.getInt("framework.cache.ttl") : 86400;
     protected static boolean cacheEnabled = Platform.config.hasPath("framework.cache.read") ? Platform.config.getBoolean("framework.cache.read") : false;
     private static final String CACHE_PREFIX = "fw_";
+    private static final String INDEX_SUFFIX = "_keys";
+    // Set once the fw_* keys written before the index was introduced are deleted.
+    private static final String LEGACY_CLEARED_KEY = "framework_cache_legacy_keys_cleared";
     protected static ObjectMapper mapper = new ObjectMapper();
 
 
+    protected static String getFwIndexKey(String identifier) {
+        return CACHE_PREFIX + identifier.toLowerCase() + INDEX_SUFFIX;
+    }
+
     protected static String getFwCacheKey(String identifier, List<String> categoryNames) {
         Collections.sort(categoryNames);
         return CACHE_PREFIX + identifier.toLowerCase() + "_" + categoryNames.stream().map(cat -> cat.toLowerCase()).collect(Collectors.joining("_"));
@@ -51,14 +58,31 @@ public class FrameworkCache {
     public static void save(Map<String, Object> framework, List<String> categoryNames) throws JsonProcessingException {
         if(cacheEnabled && MapUtils.isNotEmpty(framework) && StringUtils.isNotBlank((String) framework.get("identifier")) && CollectionUtils.isNotEmpty(categoryNames)) {
             Collections.sort(categoryNames);
-            String key = getFwCacheKey((String) framework.get("identifier"), categoryNames);
-            RedisStoreUtil.save(key, mapper.writeValueAsString(framework), cacheTtl);
+            String identifier = (String) framework.get("identifier");
+            String key = getFwCacheKey(identifier, categoryNames);
+            RedisStoreUtil.saveWithIndex(getFwIndexKey(identifier), key, mapper.writeValueAsString(framework), cacheTtl);
         }
     }
 
+    /**
+     * Deletes the cached categories of the framework. Keys cached before the index
+     * was introduced are not in any index, so the first delete also scans them out,
+     * once for all frameworks.
+     *
+     * @param id
+     */
     public static void delete(String id) {
-        if(StringUtils.isNotBlank(id))
-            RedisStoreUtil.deleteByPattern(CACHE_PREFIX + id + "_*");
+        if(StringUtils.isNotBlank(id)) {
+            deleteLegacyKeys();
+            RedisStoreUtil.deleteByIndex(getFwIndexKey(id));
+        }
+    }
+
+    private static void deleteLegacyKeys() {
+        if(StringUtils.isBlank(RedisStoreUtil.get(LEGACY_CLEARED_KEY))) {
+            RedisStoreUtil.deleteByPattern(CACHE_PREFIX + "*");
+            RedisStoreUtil.save(LEGACY_CLEARED_KEY, "true", 0);
+        }
     }
 
 }
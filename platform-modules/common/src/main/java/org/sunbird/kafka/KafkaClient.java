@@ -13,30 +13,65 @@ import org.sunbird.common.Platform;
 import org.sunbird.common.exception.ClientException;
 import org.sunbird.telemetry.logger.TelemetryManager;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Shared Kafka producer for platform events.
+ *
+ * The producer is thread safe and batches records on its own (see the
+ * kafka.producer.* settings). Topics are validated against a cached topic list,
+ * refreshed from the broker at most every kafka.topic.cache.ttl ms, so a send
+ * does not cost a metadata round trip.
+ */
 public class KafkaClient {
 
 	private final static String BOOTSTRAP_SERVERS = Platform.config.getString("kafka.urls");
+	private static final long TOPIC_CACHE_TTL = getConfig("kafka.topic.cache.ttl", 300000L);
+	private static final long TOPIC_MISS_REFRESH_INTERVAL = getConfig("kafka.topic.cache.miss_refresh_interval", 10000L);
 	private static Producer<Long, String> producer;
 	private static Consumer<Long, String> consumer;
-	
+
+	private static volatile Set<String> topics = Collections.emptySet();
+	private static volatile long topicsRefreshedAt = 0;
+	private static final Object topicsLock = new Object();
+	private static final Map<String, TopicMetrics> topicMetrics = new ConcurrentHashMap<>();
+
 	static {
 		loadProducerProperties();
 		loadConsumerProperties();
 	}
-	
+
 	private static void loadProducerProperties() {
         Properties props = new Properties();
         props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, BOOTSTRAP_SERVERS);
         props.put(ProducerConfig.CLIENT_ID_CONFIG, "KafkaClientProducer");
         props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, LongSerializer.class.getName());
         props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+        props.put(ProducerConfig.LINGER_MS_CONFIG, getConfig("kafka.producer.linger_ms", "5"));
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, getConfig("kafka.producer.batch_size", "16384"));
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, getConfig("kafka.producer.compression", "none"));
+        // bounds the records buffered while waiting to be sent, send blocks up to max_block_ms when it is full.
+        props.put(ProducerConfig.BUFFER_MEMORY_CONFIG, getConfig("kafka.producer.buffer_memory", "33554432"));
+        props.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, getConfig("kafka.producer.max_block_ms", "10000"));
+        if (Boolean.valueOf(getConfig("kafka.producer.idempotence", "false"))) {
+            props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, "true");
+            props.put(ProducerConfig.ACKS_CONFIG, "all");
+            props.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, "5");
+        } else {
+            props.put(ProducerConfig.ACKS_CONFIG, getConfig("kafka.producer.acks", "1"));
+        }
         producer = new KafkaProducer<Long, String>(props);
     }
-	
+
 	private static void loadConsumerProperties() {
 		Properties props = new Properties();
 	    props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, BOOTSTRAP_SERVERS);
@@ -45,31 +80,140 @@ public class KafkaClient {
 	    props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
 	    consumer = new KafkaConsumer<>(props);
 	}
-	
+
 	protected static Producer<Long, String> getProducer() {
 		return producer;
 	}
-	
+
 	protected static Consumer<Long, String> getConsumer() {
 		return consumer;
 	}
-	
+
+	static void setProducer(Producer<Long, String> producer) {
+		KafkaClient.producer = producer;
+	}
+
+	/**
+	 * Replaces the consumer used to list topics and clears the cached list.
+	 *
+	 * @param consumer
+	 */
+	static void setConsumer(Consumer<Long, String> consumer) {
+		synchronized (topicsLock) {
+			KafkaClient.consumer = consumer;
+			topics = Collections.emptySet();
+			topicsRefreshedAt = 0;
+		}
+	}
+
 	public static void send(String event, String topic) throws Exception {
+		sendAsync(event, topic, null);
+	}
+
+	/**
+	 * Sends the event without waiting for the broker. The callback, if any, is
+	 * called on the producer I/O thread once the record is acknowledged or has
+	 * failed, so it must not block.
+	 *
+	 * @param event
+	 * @param topic
+	 * @param callback
+	 * @return the future of the record metadata, null if sending is disabled
+	 * @throws Exception
+	 */
+	public static Future<RecordMetadata> sendAsync(String event, String topic, Callback callback) throws Exception {
 		boolean isTopicCheckReq = Platform.config.hasPath("kafka.topic.send.enable")? Platform.config.getBoolean("kafka.topic.send.enable"):true;
 		if (!isTopicCheckReq)
-			return;
+			return null;
 		if(validate(topic)) {
 			final Producer<Long, String> producer = getProducer();
 			ProducerRecord<Long, String> record = new ProducerRecord<Long, String>(topic, event);
-			producer.send(record);
+			TopicMetrics metrics = getTopicMetrics(topic);
+			metrics.sent.increment();
+			return producer.send(record, (metadata, e) -> {
+				if (null == e) {
+					metrics.acked.increment();
+					metrics.bytes.add(metadata.serializedValueSize());
+				} else {
+					metrics.failed.increment();
+					TelemetryManager.error("Failed to send event to topic: " + topic, e);
+				}
+				if (null != callback)
+					callback.onCompletion(metadata, e);
+			});
 		}else {
 			TelemetryManager.error("Topic id: " + topic + ", does not exists.");
 			throw new ClientException("TOPIC_NOT_EXISTS_EXCEPTION", "Topic id: " + topic + ", does not exists.");
 		}
 	}
+
+	/**
+	 * Checks the topic against the cached topic list. The list is reloaded when
+	 * it is older than the cache ttl, or when the topic is missing and the list
+	 * was not reloaded in the last miss refresh interval.
+	 *
+	 * @param topic
+	 * @return
+	 * @throws Exception
+	 */
 	public static boolean validate(String topic) throws Exception{
-		Consumer<Long, String> consumer = getConsumer();
-	    Map<String, List<PartitionInfo>> topics = consumer.listTopics();
-	    return topics.keySet().contains(topic);
+		long age = System.currentTimeMillis() - topicsRefreshedAt;
+		if (age < TOPIC_CACHE_TTL && topics.contains(topic))
+			return true;
+		if (age >= TOPIC_CACHE_TTL || age >= TOPIC_MISS_REFRESH_INTERVAL)
+			refreshTopics(age);
+		return topics.contains(topic);
+	}
+
+	/**
+	 * Gets the sent, acknowledged and failed record counts and the acknowledged
+	 * bytes of every topic.
+	 *
+	 * @return the metrics by topic
+	 */
+	public static Map<String, Map<String, Object>> getMetrics() {
+		Map<String, Map<String, Object>> metrics = new HashMap<>();
+		for (Map.Entry<String, TopicMetrics> entry : topicMetrics.entrySet()) {
+			Map<String, Object> topic = new HashMap<>();
+			topic.put("sent", entry.getValue().sent.sum());
+			topic.put("acked", entry.getValue().acked.sum());
+			topic.put("failed", entry.getValue().failed.sum());
+			topic.put("bytes", entry.getValue().bytes.sum());
+			metrics.put(entry.getKey(), topic);
+		}
+		return metrics;
+	}
+
+	/**
+	 * Loads the topic list. The consumer is not thread safe, so only one thread
+	 * loads it; threads waiting meanwhile use the list it loaded.
+	 */
+	private static void refreshTopics(long observedAge) {
+		synchronized (topicsLock) {
+			if (System.currentTimeMillis() - topicsRefreshedAt < observedAge)
+				return;
+			Map<String, List<PartitionInfo>> topicList = getConsumer().listTopics();
+			topics = new HashSet<>(topicList.keySet());
+			topicsRefreshedAt = System.currentTimeMillis();
+		}
+	}
+
+	private static TopicMetrics getTopicMetrics(String topic) {
+		return topicMetrics.computeIfAbsent(topic, t -> new TopicMetrics());
+	}
+
+	private static String getConfig(String key, String defaultValue) {
+		return Platform.config.hasPath(key) ? Platform.config.getString(key) : defaultValue;
+	}
+
+	private static long getConfig(String key, long defaultValue) {
+		return Platform.config.hasPath(key) ? Platform.config.getLong(key) : defaultValue;
+	}
+
+	private static class TopicMetrics {
+		private final LongAdder sent = new LongAdder();
+		private final LongAdder acked = new LongAdder();
+		private final LongAdder failed = new LongAdder();
+		private final LongAdder bytes = new LongAdder();
 	}
 }
@@ -0,0 +1,93 @@
+package org.sunbird.kafka;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.serialization.LongSerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.sunbird.common.exception.ClientException;
+
+public class KafkaClientTest {
+
+	private TopicConsumer consumer;
+
+	@Before
+	public void setup() {
+		consumer = new TopicConsumer();
+		consumer.addTopic("test.topic");
+		KafkaClient.setConsumer(consumer);
+	}
+
+	@Test
+	public void testTopicIsValidatedFromCache() throws Exception {
+		Assert.assertTrue(KafkaClient.validate("test.topic"));
+		Assert.assertTrue(KafkaClient.validate("test.topic"));
+		Assert.assertTrue(KafkaClient.validate("test.topic"));
+		Assert.assertEquals(1, consumer.listed.get());
+	}
+
+	@Test
+	public void testTopicsAreRefreshedOnMiss() throws Exception {
+		Assert.assertTrue(KafkaClient.validate("test.topic"));
+		consumer.addTopic("test.new.topic");
+		// misses within the refresh interval use the cached list.
+		Assert.assertFalse(KafkaClient.validate("test.new.topic"));
+		Assert.assertEquals(1, consumer.listed.get());
+
+		Thread.sleep(600);
+		Assert.assertTrue(KafkaClient.validate("test.new.topic"));
+		Assert.assertEquals(2, consumer.listed.get());
+		Assert.assertTrue(KafkaClient.validate("test.new.topic"));
+		Assert.assertEquals(2, consumer.listed.get());
+	}
+
+	@Test
+	public void testSendAsyncReportsFailure() throws Exception {
+		MockProducer<Long, String> producer = new MockProducer<>(false, new LongSerializer(), new StringSerializer());
+		KafkaClient.setProducer(producer);
+		CompletableFuture<Exception> result = new CompletableFuture<>();
+		KafkaClient.sendAsync("{\"eid\":\"BE_JOB_REQUEST\"}", "test.topic", (metadata, e) -> result.complete(e));
+		Assert.assertEquals(1, producer.history().size());
+
+		RuntimeException error = new RuntimeException("broker unavailable");
+		Assert.assertTrue(producer.errorNext(error));
+		Assert.assertSame(error, result.get(5, TimeUnit.SECONDS));
+		Assert.assertEquals(1L, KafkaClient.getMetrics().get("test.topic").get("failed"));
+	}
+
+	@Test(expected = ClientException.class)
+	public void testSendAsyncToMissingTopic() throws Exception {
+		KafkaClient.setProducer(new MockProducer<>(true, new LongSerializer(), new StringSerializer()));
+		KafkaClient.sendAsync("{}", "test.missing.topic", null);
+	}
+
+	private static class TopicConsumer extends MockConsumer<Long, String> {
+
+		private final AtomicInteger listed = new AtomicInteger();
+
+		TopicConsumer() {
+			super(OffsetResetStrategy.EARLIEST);
+		}
+
+		void addTopic(String topic) {
+			updatePartitions(topic, Collections.singletonList(new PartitionInfo(topic, 0, null, null, null)));
+		}
+
+		@Override
+		public synchronized Map<String, List<PartitionInfo>> listTopics() {
+			listed.incrementAndGet();
+			return super.listTopics();
+		}
+	}
+}
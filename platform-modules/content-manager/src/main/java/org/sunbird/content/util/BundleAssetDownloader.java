@@ -0,0 +1,253 @@
+package org.sunbird.content.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.sunbird.common.Platform;
+import org.sunbird.common.util.HttpDownloadUtility;
+import org.sunbird.telemetry.logger.TelemetryManager;
+
+/**
+ * Downloads the assets of ECAR bundles.
+ *
+ * All bundles share one pool of content.bundle.download.threads threads, and
+ * at most content.bundle.download.host_limit downloads run against the same
+ * host at a time. A failed download is retried
+ * content.bundle.download.retries times with a growing delay.
+ *
+ * Downloaded files are kept in a local cache under
+ * content.bundle.download.cache_path, addressed by the SHA-256 of their url,
+ * so an asset shared by several bundles (or several children of one
+ * collection) is downloaded once. A url requested by several bundles at the
+ * same time is downloaded by the first of them, the others wait for that
+ * download. A cached file is downloaded again once it is older than
+ * content.bundle.download.cache_ttl_ms, so an asset replaced at the same url
+ * is picked up. Cached files are linked (or copied) into the bundle folder;
+ * the least recently used entries are evicted once the cache grows beyond
+ * content.bundle.download.cache_max_size bytes.
+ */
+public class BundleAssetDownloader {
+
+	private static final int THREADS = Platform.config.hasPath("content.bundle.download.threads")
+			? Platform.config.getInt("content.bundle.download.threads") : 16;
+	private static final int HOST_LIMIT = Platform.config.hasPath("content.bundle.download.host_limit")
+			? Platform.config.getInt("content.bundle.download.host_limit") : 8;
+	private static final int RETRIES = Platform.config.hasPath("content.bundle.download.retries")
+			? Platform.config.getInt("content.bundle.download.retries") : 2;
+	private static final long RETRY_DELAY_MS = Platform.config.hasPath("content.bundle.download.retry_delay_ms")
+			? Platform.config.getLong("content.bundle.download.retry_delay_ms") : 1000;
+	private static final boolean CACHE_ENABLED = Platform.config.hasPath("content.bundle.download.cache_enabled")
+			? Platform.config.getBoolean("content.bundle.download.cache_enabled") : true;
+	private static final String CACHE_PATH = Platform.config.hasPath("content.bundle.download.cache_path")
+			? Platform.config.getString("content.bundle.download.cache_path") : "/tmp/ecar_asset_cache";
+	private static final long CACHE_MAX_SIZE = Platform.config.hasPath("content.bundle.download.cache_max_size")
+			? Platform.config.getLong("content.bundle.download.cache_max_size") : 5L * 1024 * 1024 * 1024;
+	private static final long CACHE_TTL = Platform.config.hasPath("content.bundle.download.cache_ttl_ms")
+			? Platform.config.getLong("content.bundle.download.cache_ttl_ms") : 24L * 60 * 60 * 1000;
+
+	private static final ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+	private static final ConcurrentHashMap<String, Semaphore> hostPermits = new ConcurrentHashMap<String, Semaphore>();
+	private static final ConcurrentHashMap<String, CompletableFuture<File>> downloads = new ConcurrentHashMap<String, CompletableFuture<File>>();
+	private static final Object evictionLock = new Object();
+
+	private BundleAssetDownloader() {
+	}
+
+	/**
+	 * @return the pool the downloads of all bundles run in
+	 */
+	public static ExecutorService getPool() {
+		return pool;
+	}
+
+	/**
+	 * Downloads the file at the url into the folder, from the cache when it
+	 * was downloaded less than content.bundle.download.cache_ttl_ms ago.
+	 *
+	 * @param url
+	 *            the url of the file
+	 * @param destPath
+	 *            the folder to download the file into
+	 * @return the downloaded file, null if it could not be downloaded
+	 */
+	public static File download(String url, String destPath) {
+		if (!CACHE_ENABLED)
+			return downloadWithRetry(url, destPath);
+		return download(url, destPath, new File(CACHE_PATH), CACHE_TTL);
+	}
+
+	static File download(String url, String destPath, File cacheRoot, long ttl) {
+		File cacheDir = new File(cacheRoot, getCacheKey(url));
+		try {
+			File cached = getCachedFile(cacheDir, ttl);
+			if (null == cached) {
+				cached = downloadToCache(url, cacheDir, ttl);
+				if (null == cached)
+					return null;
+			} else {
+				TelemetryManager.log("Asset served from the bundle cache: " + url);
+			}
+			cacheDir.setLastModified(System.currentTimeMillis());
+			return linkOrCopy(cached, destPath);
+		} catch (IOException e) {
+			TelemetryManager.error("Error while reading the cached asset of " + url + ", downloading it again.", e);
+			return downloadWithRetry(url, destPath);
+		}
+	}
+
+	private static File downloadToCache(String url, File cacheDir, long ttl) throws IOException {
+		// a url being downloaded by another bundle is waited for, not
+		// downloaded twice. Other urls are not held up meanwhile.
+		CompletableFuture<File> download = new CompletableFuture<File>();
+		CompletableFuture<File> inProgress = downloads.putIfAbsent(cacheDir.getName(), download);
+		if (null != inProgress) {
+			try {
+				return inProgress.join();
+			} catch (CompletionException e) {
+				throw new IOException(e.getCause());
+			}
+		}
+		try {
+			// the cache is checked again, the download may have completed
+			// since the first check.
+			File cached = getCachedFile(cacheDir, ttl);
+			if (null == cached) {
+				// downloaded aside and moved in once complete, so that a
+				// partial download is never served from the cache.
+				File partDir = new File(cacheDir.getParentFile(), cacheDir.getName() + ".part");
+				FileUtils.deleteQuietly(partDir);
+				File file = downloadWithRetry(url, partDir.getPath());
+				if (null == file) {
+					FileUtils.deleteQuietly(partDir);
+				} else {
+					FileUtils.deleteQuietly(cacheDir);
+					Files.move(partDir.toPath(), cacheDir.toPath(), StandardCopyOption.ATOMIC_MOVE);
+					cached = new File(cacheDir, file.getName());
+					evictIfNeeded(cacheDir.getParentFile());
+				}
+			}
+			download.complete(cached);
+			return cached;
+		} catch (IOException | RuntimeException e) {
+			download.completeExceptionally(e);
+			throw e;
+		} finally {
+			downloads.remove(cacheDir.getName(), download);
+		}
+	}
+
+	private static File downloadWithRetry(String url, String destPath) {
+		Semaphore permits = hostPermits.computeIfAbsent(getHost(url), h -> new Semaphore(HOST_LIMIT));
+		for (int attempt = 0; attempt <= RETRIES; attempt++) {
+			if (attempt > 0) {
+				try {
+					Thread.sleep(RETRY_DELAY_MS * attempt);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return null;
+				}
+				TelemetryManager.warn("Retrying the download of " + url + ", attempt " + (attempt + 1));
+			}
+			try {
+				permits.acquire();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return null;
+			}
+			try {
+				File file = HttpDownloadUtility.downloadFile(url, destPath);
+				if (null != file)
+					return file;
+			} finally {
+				permits.release();
+			}
+		}
+		return null;
+	}
+
+	private static File getCachedFile(File cacheDir, long ttl) {
+		File[] files = cacheDir.listFiles();
+		if (null != files && files.length == 1 && files[0].isFile()) {
+			// the file keeps the time it was downloaded at.
+			if (System.currentTimeMillis() - files[0].lastModified() < ttl)
+				return files[0];
+			TelemetryManager.log("Cached asset " + files[0].getName() + " expired, downloading it again.");
+			return null;
+		}
+		if (null != files && files.length > 1)
+			FileUtils.deleteQuietly(cacheDir);
+		return null;
+	}
+
+	private static File linkOrCopy(File cached, String destPath) throws IOException {
+		File destDir = new File(destPath);
+		if (!destDir.exists())
+			destDir.mkdirs();
+		File target = new File(destDir, cached.getName());
+		Files.deleteIfExists(target.toPath());
+		try {
+			Files.createLink(target.toPath(), cached.toPath());
+		} catch (IOException | UnsupportedOperationException e) {
+			Files.copy(cached.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+		return target;
+	}
+
+	private static void evictIfNeeded(File cacheRoot) {
+		synchronized (evictionLock) {
+			File[] entries = cacheRoot.listFiles(entry -> !entry.getName().endsWith(".part"));
+			if (null == entries)
+				return;
+			long size = 0;
+			for (File entry : entries)
+				size += FileUtils.sizeOf(entry);
+			if (size <= CACHE_MAX_SIZE)
+				return;
+			List<File> lru = new ArrayList<File>(Arrays.asList(entries));
+			lru.sort(Comparator.comparingLong(File::lastModified));
+			for (File entry : lru) {
+				if (size <= CACHE_MAX_SIZE)
+					break;
+				long entrySize = FileUtils.sizeOf(entry);
+				if (FileUtils.deleteQuietly(entry))
+					size -= entrySize;
+			}
+			TelemetryManager.log("Bundle asset cache evicted to " + size + " bytes.");
+		}
+	}
+
+	static String getCacheKey(String url) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return Hex.encodeHexString(digest.digest(url.getBytes("UTF-8")));
+		} catch (Exception e) {
+			return Integer.toHexString(url.hashCode());
+		}
+	}
+
+	static String getHost(String url) {
+		try {
+			String host = new URL(url).getHost();
+			return StringUtils.isBlank(host) ? "" : host.toLowerCase();
+		} catch (Exception e) {
+			return "";
+		}
+	}
+}
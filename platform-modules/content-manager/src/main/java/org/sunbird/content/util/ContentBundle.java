@@ -1,11 +1,11 @@
 package org.sunbird.content.util;
 
 import java.io.BufferedOutputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -63,6 +63,10 @@ public class ContentBundle {
 	
 	private boolean disableAkka = false;
 
+	/** The time allowed to download all the assets of a bundle, in seconds. */
+	private static final long DOWNLOAD_TIMEOUT = Platform.config.hasPath("content.bundle.download.timeout")
+			? Platform.config.getLong("content.bundle.download.timeout") : 1800;
+
 	/** The Constant BUNDLE_PATH. */
 	protected static final String BUNDLE_PATH = "/tmp";
 
@@ -275,8 +279,10 @@ public class ContentBundle {
 			if (StringUtils.isBlank(bundleFileName))
 				throw new ClientException(ContentErrorCodeConstants.BUNDLE_FILE_WRITE.name(),
 						ContentErrorMessageConstants.INVALID_BUNDLE_FILE_NAME + " | [Bundle File Name is Required.]");
-			try (FileOutputStream stream = new FileOutputStream(bundleFileName)) {
-				stream.write(createECAR(files));
+			// the archive is streamed to the file instead of being built in
+			// memory first.
+			try (OutputStream stream = new BufferedOutputStream(new FileOutputStream(bundleFileName))) {
+				writeECAR(files, stream);
 			}
 		} catch (Throwable e) {
 			throw new ServerException(ContentErrorCodeConstants.BUNDLE_FILE_WRITE.name(),
@@ -375,7 +381,8 @@ public class ContentBundle {
 	}
 
 	/**
-	 * Gets the content bundle.
+	 * Gets the content bundle. The urls are downloaded in parallel, in the
+	 * pool shared by all bundles (see {@link BundleAssetDownloader}).
 	 *
 	 * @param downloadUrls
 	 *            the download urls
@@ -386,7 +393,6 @@ public class ContentBundle {
 	private List<File> getContentBundle(final Map<Object, List<String>> downloadUrls, final String bundlePath) {
 		List<File> files = new ArrayList<File>();
 		try {
-			ExecutorService pool = Executors.newFixedThreadPool(1);
 			List<Callable<List<File>>> tasks = new ArrayList<Callable<List<File>>>(downloadUrls.size());
 
 			for (final Object val : downloadUrls.keySet()) {
@@ -405,7 +411,9 @@ public class ContentBundle {
 							} else {
 								String url = val.toString();
 								if (url.endsWith(".ecar")) {
-									File ecarFile = HttpDownloadUtility.downloadFile(url, destPath + "_ecar");
+									File ecarFile = BundleAssetDownloader.download(url, destPath + "_ecar");
+									if (null == ecarFile)
+										continue;
 									UnzipUtility unzipper = new UnzipUtility();
 									unzipper.unzip(ecarFile.getPath(), destPath + "_ecar");
 									File ecarFolder = new File(destPath + "_ecar" + File.separator + id);
@@ -432,7 +440,7 @@ public class ContentBundle {
 										// do nothing
 									}
 								} else {
-									File newFile = HttpDownloadUtility.downloadFile(url, destPath);
+									File newFile = BundleAssetDownloader.download(url, destPath);
 									if (null != newFile)
 										files.add(newFile);
 								}
@@ -442,14 +450,14 @@ public class ContentBundle {
 					}
 				});
 			}
-			List<Future<List<File>>> results = pool.invokeAll(tasks);
+			List<Future<List<File>>> results = BundleAssetDownloader.getPool().invokeAll(tasks, DOWNLOAD_TIMEOUT,
+					TimeUnit.SECONDS);
 			for (Future<List<File>> ff : results) {
-				List<File> f = ff.get(60, TimeUnit.SECONDS);
+				List<File> f = ff.get();
 				if (null != f && !f.isEmpty())
 					files.addAll(f);
 			}
-			pool.shutdown();
-		} catch (InterruptedException | ExecutionException | TimeoutException e ) {
+		} catch (InterruptedException | ExecutionException | CancellationException e) {
 			e.printStackTrace();
 			throw new ServerException(ContentErrorCodeConstants.MANIFEST_FILE_WRITE.name(),
 					ContentErrorMessageConstants.MANIFEST_FILE_WRITE_ERROR + "Error while creating contentBundle", e);
@@ -458,54 +466,43 @@ public class ContentBundle {
 	}
 
 	/**
-	 * Creates the ECAR.
+	 * Writes the ECAR, one entry at a time, to the output stream.
 	 *
 	 * @param files
 	 *            the files
-	 * @return the byte[]
+	 * @param outputStream
+	 *            the output stream
 	 * @throws IOException
 	 *             Signals that an I/O exception has occurred.
 	 */
-	private byte[] createECAR(List<File> files) throws IOException {
-		// creating byteArray stream, make it bufforable and passing this buffor
-		// to ZipOutputStream
-		try (ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-				BufferedOutputStream bufferedOutputStream = new BufferedOutputStream(byteArrayOutputStream);
-				ZipOutputStream zipOutputStream = new ZipOutputStream(bufferedOutputStream)) {
-			// packing files
-			for (File file : files) {
-				if (null != file) {
-					String fileName = null;
-					if (file.getName().toLowerCase().endsWith(ContentConfigurationConstants.CONTENT_BUNDLE_MANIFEST_FILE_NAME)
-							|| file.getName().equalsIgnoreCase(ContentConfigurationConstants.CONTENT_BUNDLE_HIERARCHY_FILE_NAME)) {
-						fileName = file.getName();
-					} else if (file.getParentFile().getName().toLowerCase().endsWith("screenshots")) {
-						fileName = file.getParent()
-								.substring(file.getParentFile().getParent().lastIndexOf(File.separator) + 1)
-								+ File.separator + file.getName();
-					} else {
-						fileName = file.getParent().substring(file.getParent().lastIndexOf(File.separator) + 1)
-								+ File.separator + file.getName();
-					}
-					// new zip entry and copying inputstream with file to
-					// zipOutputStream, after all closing streams
-					zipOutputStream.putNextEntry(new ZipEntry(fileName));
-					try (FileInputStream fileInputStream = new FileInputStream(file)) {
-						IOUtils.copy(fileInputStream, zipOutputStream);
-						zipOutputStream.closeEntry();
-					}
+	private void writeECAR(List<File> files, OutputStream outputStream) throws IOException {
+		ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream);
+		// packing files
+		for (File file : files) {
+			if (null != file) {
+				String fileName = null;
+				if (file.getName().toLowerCase().endsWith(ContentConfigurationConstants.CONTENT_BUNDLE_MANIFEST_FILE_NAME)
+						|| file.getName().equalsIgnoreCase(ContentConfigurationConstants.CONTENT_BUNDLE_HIERARCHY_FILE_NAME)) {
+					fileName = file.getName();
+				} else if (file.getParentFile().getName().toLowerCase().endsWith("screenshots")) {
+					fileName = file.getParent()
+							.substring(file.getParentFile().getParent().lastIndexOf(File.separator) + 1)
+							+ File.separator + file.getName();
+				} else {
+					fileName = file.getParent().substring(file.getParent().lastIndexOf(File.separator) + 1)
+							+ File.separator + file.getName();
+				}
+				// new zip entry and copying inputstream with file to
+				// zipOutputStream
+				zipOutputStream.putNextEntry(new ZipEntry(fileName));
+				try (FileInputStream fileInputStream = new FileInputStream(file)) {
+					IOUtils.copy(fileInputStream, zipOutputStream);
+					zipOutputStream.closeEntry();
 				}
 			}
-
-			if (zipOutputStream != null) {
-				zipOutputStream.finish();
-				zipOutputStream.flush();
-				IOUtils.closeQuietly(zipOutputStream);
-			}
-			IOUtils.closeQuietly(bufferedOutputStream);
-			IOUtils.closeQuietly(byteArrayOutputStream);
-			return byteArrayOutputStream.toByteArray();
 		}
+		zipOutputStream.finish();
+		zipOutputStream.flush();
 	}
 
 	/**
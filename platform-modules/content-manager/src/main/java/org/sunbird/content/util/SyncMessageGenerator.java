@@ -55,7 +55,7 @@ public class SyncMessageGenerator {
 					messages.put(node.getIdentifier(), message);
 				}
 			} catch (Exception e) {
-				errors.put(node.getIdentifier(), e.getMessage());
+				errors.put(node.getIdentifier(), StringUtils.defaultIfBlank(e.getMessage(), e.getClass().getName()));
 			}
 		}
 		return messages;
@@ -0,0 +1,146 @@
+package org.sunbird.content.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+public class BundleAssetDownloaderTest {
+
+	private static final long TTL = 60000;
+
+	private HttpServer server;
+	private AtomicInteger requests = new AtomicInteger();
+	private volatile long delay;
+	private volatile CountDownLatch arrivals;
+	private File tempDir;
+	private File cacheRoot;
+
+	@Before
+	public void setup() throws Exception {
+		tempDir = Files.createTempDirectory("bundle_asset_test").toFile();
+		cacheRoot = new File(tempDir, "cache");
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/assets/", this::respond);
+		server.setExecutor(Executors.newCachedThreadPool());
+		server.start();
+	}
+
+	@After
+	public void tearDown() {
+		server.stop(0);
+		FileUtils.deleteQuietly(tempDir);
+	}
+
+	@Test
+	public void testCachedAssetIsDownloadedOnce() throws Exception {
+		File first = BundleAssetDownloader.download(getUrl("logo.png"), getDestPath("bundle_1"), cacheRoot, TTL);
+		File second = BundleAssetDownloader.download(getUrl("logo.png"), getDestPath("bundle_2"), cacheRoot, TTL);
+		Assert.assertEquals(1, requests.get());
+		Assert.assertEquals("logo.png", FileUtils.readFileToString(first, StandardCharsets.UTF_8));
+		Assert.assertEquals("logo.png", FileUtils.readFileToString(second, StandardCharsets.UTF_8));
+		Assert.assertNotEquals(first.getParent(), second.getParent());
+	}
+
+	@Test
+	public void testConcurrentDownloadsOfAUrlShareOneRequest() throws Exception {
+		delay = 500;
+		List<File> files = downloadConcurrently("logo.png", "logo.png", "logo.png", "logo.png");
+		Assert.assertEquals(1, requests.get());
+		for (File file : files)
+			Assert.assertEquals("logo.png", FileUtils.readFileToString(file, StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testDifferentUrlsDownloadInParallel() throws Exception {
+		// each request waits for the other one, so they only complete when
+		// both are in flight at the same time.
+		arrivals = new CountDownLatch(2);
+		List<File> files = downloadConcurrently("logo.png", "icon.png");
+		Assert.assertEquals(2, requests.get());
+		Assert.assertEquals("logo.png", FileUtils.readFileToString(files.get(0), StandardCharsets.UTF_8));
+		Assert.assertEquals("icon.png", FileUtils.readFileToString(files.get(1), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testExpiredAssetIsDownloadedAgain() throws Exception {
+		String url = getUrl("logo.png");
+		BundleAssetDownloader.download(url, getDestPath("bundle_1"), cacheRoot, TTL);
+		File cached = new File(new File(cacheRoot, BundleAssetDownloader.getCacheKey(url)), "logo.png");
+		Assert.assertTrue(cached.exists());
+		cached.setLastModified(System.currentTimeMillis() - TTL - 1000);
+		File file = BundleAssetDownloader.download(url, getDestPath("bundle_2"), cacheRoot, TTL);
+		Assert.assertEquals(2, requests.get());
+		Assert.assertTrue(file.exists());
+		Assert.assertTrue(System.currentTimeMillis() - cached.lastModified() < TTL);
+	}
+
+	private List<File> downloadConcurrently(String... names) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(names.length);
+		try {
+			List<Future<File>> futures = new ArrayList<>();
+			for (int i = 0; i < names.length; i++) {
+				String url = getUrl(names[i]);
+				String destPath = getDestPath("bundle_" + i);
+				futures.add(executor.submit(() -> BundleAssetDownloader.download(url, destPath, cacheRoot, TTL)));
+			}
+			List<File> files = new ArrayList<>();
+			for (Future<File> future : futures)
+				files.add(future.get(10, TimeUnit.SECONDS));
+			return files;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private String getUrl(String name) {
+		return "http://localhost:" + server.getAddress().getPort() + "/assets/" + name;
+	}
+
+	private String getDestPath(String bundle) {
+		return new File(tempDir, bundle).getPath();
+	}
+
+	private void respond(HttpExchange exchange) throws IOException {
+		requests.incrementAndGet();
+		try {
+			if (null != arrivals) {
+				arrivals.countDown();
+				if (!arrivals.await(5, TimeUnit.SECONDS)) {
+					exchange.sendResponseHeaders(504, -1);
+					exchange.close();
+					return;
+				}
+			}
+			if (delay > 0)
+				Thread.sleep(delay);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		String path = exchange.getRequestURI().getPath();
+		byte[] body = path.substring(path.lastIndexOf("/") + 1).getBytes(StandardCharsets.UTF_8);
+		exchange.sendResponseHeaders(200, body.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+}
@@ -0,0 +1,78 @@
+package org.sunbird.taxonomy.controller;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.codehaus.jackson.map.ObjectMapper;
+import org.springframework.http.ResponseEntity;
+import org.sunbird.common.dto.Response;
+import org.sunbird.graph.common.enums.GraphEngineParams;
+import org.sunbird.graph.importer.OutputStreamValue;
+
+/**
+ * Writes a graph export to the HTTP response. A whole graph export runs in the
+ * background: its start is answered with 202 and the export id, and its file
+ * is streamed, then deleted, once completed. A search export comes in memory.
+ */
+class GraphExportWriter {
+
+	private static ObjectMapper mapper = new ObjectMapper();
+
+	/**
+	 * @return true if the response is of a whole graph export started in the
+	 *         background
+	 */
+	static boolean isStarted(Response response) {
+		return null != response.get(GraphEngineParams.export_id.name())
+				&& null == response.get(GraphEngineParams.export_file.name());
+	}
+
+	/**
+	 * Answers the start of a background export with 202, the export id in the
+	 * X-Export-Id header and the response, with the progress, as JSON.
+	 */
+	static void writeStarted(ResponseEntity<Response> entity, HttpServletResponse resp) throws IOException {
+		resp.setHeader("X-Export-Id", (String) entity.getBody().get(GraphEngineParams.export_id.name()));
+		writeJson(entity.getBody(), HttpServletResponse.SC_ACCEPTED, resp);
+	}
+
+	static void writeError(ResponseEntity<Response> entity, HttpServletResponse resp) throws IOException {
+		writeJson(entity.getBody(), entity.getStatusCode().value(), resp);
+	}
+
+	static void write(Response response, HttpServletResponse resp) throws IOException {
+		resp.setContentType("text/csv");
+		resp.setHeader("Content-Disposition", "attachment; filename=graph.csv");
+		String exportFile = (String) response.get(GraphEngineParams.export_file.name());
+		if (null != exportFile) {
+			Path path = Paths.get(exportFile);
+			resp.setHeader("X-Export-Id", (String) response.get(GraphEngineParams.export_id.name()));
+			try (OutputStream out = resp.getOutputStream()) {
+				Files.copy(path, out);
+			} finally {
+				Files.deleteIfExists(path);
+			}
+			return;
+		}
+		OutputStreamValue graphOutputStream = (OutputStreamValue) response.get(GraphEngineParams.output_stream.name());
+		try (OutputStream os = graphOutputStream.getOutputStream();
+				ByteArrayOutputStream bos = (ByteArrayOutputStream) os) {
+			resp.getOutputStream().write(bos.toByteArray());
+			resp.getOutputStream().close();
+		}
+	}
+
+	private static void writeJson(Response response, int status, HttpServletResponse resp) throws IOException {
+		resp.setStatus(status);
+		resp.setContentType("application/json");
+		try (OutputStream out = resp.getOutputStream()) {
+			mapper.writeValue(out, response);
+		}
+	}
+}
@@ -1,9 +1,7 @@
 package org.sunbird.taxonomy.controller;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -17,7 +15,6 @@ import org.sunbird.common.dto.Response;
 import org.sunbird.graph.common.enums.GraphEngineParams;
 import org.sunbird.graph.dac.model.SearchCriteria;
 import org.sunbird.graph.enums.ImportType;
-import org.sunbird.graph.importer.OutputStreamValue;
 import org.sunbird.taxonomy.enums.TaxonomyAPIParams;
 import org.sunbird.taxonomy.mgr.ITaxonomyManager;
 import org.sunbird.telemetry.logger.TelemetryManager;
@@ -121,16 +118,10 @@ public class TaxonomyController extends BaseController {
 			req.put(GraphEngineParams.format.name(), format);
 			Response response = taxonomyManager.export(id, req);
 			if (!checkError(response)) {
-				OutputStreamValue graphOutputStream = (OutputStreamValue) response
-						.get(GraphEngineParams.output_stream.name());
-				try (OutputStream os = graphOutputStream.getOutputStream();
-						ByteArrayOutputStream bos = (ByteArrayOutputStream) os) {
-					byte[] bytes = bos.toByteArray();
-					resp.setContentType("text/csv");
-					resp.setHeader("Content-Disposition", "attachment; filename=graph.csv");
-					resp.getOutputStream().write(bytes);
-					resp.getOutputStream().close();
-				}
+				if (GraphExportWriter.isStarted(response))
+					GraphExportWriter.writeStarted(getResponseEntity(response, apiId, null), resp);
+				else
+					GraphExportWriter.write(response, resp);
 			}
 			TelemetryManager.log("Export | Response: ", response.getResult());
 		} catch (Exception e) {
@@ -138,6 +129,38 @@ public class TaxonomyController extends BaseController {
 		}
 	}
 
+	@RequestMapping(value = "/{id:.+}/export/{exportId:.+}", method = RequestMethod.GET)
+	@ResponseBody
+	public ResponseEntity<Response> getExportProgress(@PathVariable(value = "id") String id,
+			@PathVariable(value = "exportId") String exportId, @RequestHeader(value = "user-id") String userId) {
+		String apiId = "ekstep.taxonomy.export.progress";
+		TelemetryManager.log("Export Progress | Id: " + id + " | Export Id: " + exportId + " | user-id: " + userId);
+		try {
+			Response response = taxonomyManager.getExportProgress(id, exportId);
+			return getResponseEntity(response, apiId, null);
+		} catch (Exception e) {
+			TelemetryManager.error("Export Progress | Exception: " + e.getMessage(), e);
+			return getExceptionResponseEntity(e, apiId, null);
+		}
+	}
+
+	@RequestMapping(value = "/{id:.+}/export/{exportId:.+}/file", method = RequestMethod.GET)
+	@ResponseBody
+	public void getExportFile(@PathVariable(value = "id") String id, @PathVariable(value = "exportId") String exportId,
+			@RequestHeader(value = "user-id") String userId, HttpServletResponse resp) {
+		String apiId = "ekstep.taxonomy.export.file";
+		TelemetryManager.log("Export File | Id: " + id + " | Export Id: " + exportId + " | user-id: " + userId);
+		try {
+			Response response = taxonomyManager.getExportFile(id, exportId);
+			if (checkError(response))
+				GraphExportWriter.writeError(getResponseEntity(response, apiId, null), resp);
+			else
+				GraphExportWriter.write(response, resp);
+		} catch (Exception e) {
+			TelemetryManager.error("Export File | Exception: " + e.getMessage(), e);
+		}
+	}
+
 	@RequestMapping(value = "/{id:.+}", method = RequestMethod.DELETE)
 	@ResponseBody
 	public ResponseEntity<Response> delete(@PathVariable(value = "id") String id,
@@ -12,6 +12,10 @@ public interface ITaxonomyManager {
     
     Response export(String id, Request req);
 
+    Response getExportProgress(String id, String exportId);
+
+    Response getExportFile(String id, String exportId);
+
     Response delete(String id);
 
     Response updateDefinition(String id, String json);
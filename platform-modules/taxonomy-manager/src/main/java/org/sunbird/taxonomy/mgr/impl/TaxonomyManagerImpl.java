@@ -85,10 +85,31 @@ public class TaxonomyManagerImpl extends BaseManager implements ITaxonomyManager
 		setContext(request, id, GraphEngineManagers.GRAPH_MANAGER, "exportGraph");
 		request.put(GraphEngineParams.format.name(), format);
 		request.put(GraphEngineParams.search_criteria.name(), req.get(TaxonomyAPIParams.search_criteria.name()));
+		request.put(GraphEngineParams.export_id.name(), req.get(GraphEngineParams.export_id.name()));
 		Response exportRes = getResponse(request);
 		return exportRes;
 	}
 
+	@Override
+	public Response getExportProgress(String id, String exportId) {
+		if (StringUtils.isBlank(id))
+			throw new ClientException(TaxonomyErrorCodes.ERR_TAXONOMY_BLANK_TAXONOMY_ID.name(), "Taxonomy Id is blank");
+		TelemetryManager.log("Export Progress : " + id + " | Export Id: " + exportId);
+		Request request = getRequest(id, GraphEngineManagers.GRAPH_MANAGER, "getExportProgress");
+		request.put(GraphEngineParams.export_id.name(), exportId);
+		return getResponse(request);
+	}
+
+	@Override
+	public Response getExportFile(String id, String exportId) {
+		if (StringUtils.isBlank(id))
+			throw new ClientException(TaxonomyErrorCodes.ERR_TAXONOMY_BLANK_TAXONOMY_ID.name(), "Taxonomy Id is blank");
+		TelemetryManager.log("Export File : " + id + " | Export Id: " + exportId);
+		Request request = getRequest(id, GraphEngineManagers.GRAPH_MANAGER, "getExportFile");
+		request.put(GraphEngineParams.export_id.name(), exportId);
+		return getResponse(request);
+	}
+
 	@Override
 	public Response delete(String id) {
 		if (StringUtils.isBlank(id))
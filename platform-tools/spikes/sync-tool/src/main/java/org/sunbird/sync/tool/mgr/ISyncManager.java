@@ -10,7 +10,9 @@ public interface ISyncManager {
 
 	public void syncByObjectType(String graphId, String objectType) throws Exception;
 
+	public void syncByObjectType(String graphId, String objectType, Integer workers, boolean restart) throws Exception;
+
 	public void syncByDateRange(String graphId, String startDate, String endDate, String objectType) throws Exception;
 	
-	public void syncGraph(String graphId, Integer delay, String[] objectType) throws Exception;
+	public void syncGraph(String graphId, Integer delay, String[] objectType, boolean restart) throws Exception;
 }
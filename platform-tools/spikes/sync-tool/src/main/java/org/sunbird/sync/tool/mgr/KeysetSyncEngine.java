@@ -0,0 +1,285 @@
+package org.sunbird.sync.tool.mgr;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.neo4j.driver.v1.Driver;
+import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.Session;
+import org.neo4j.driver.v1.StatementResult;
+import org.sunbird.common.Platform;
+import org.sunbird.common.dto.Response;
+import org.sunbird.graph.dac.enums.GraphDACParams;
+import org.sunbird.graph.dac.model.Node;
+import org.sunbird.graph.service.common.GraphOperation;
+import org.sunbird.graph.service.util.DriverUtil;
+import org.sunbird.learning.util.ControllerUtil;
+import org.sunbird.sync.tool.util.ElasticSearchConnector;
+import org.sunbird.sync.tool.util.SyncMessageGenerator;
+
+/**
+ * Syncs all the nodes of an object type from Neo4j to Elastic Search.
+ *
+ * The identifiers are read in pages ordered by IL_UNIQUE_ID, each page
+ * starting after the last identifier of the previous one, so reading a page
+ * costs the same at any depth (unlike SKIP). Each page is then read, converted
+ * and bulk indexed by one of sync.workers workers; at most twice as many pages
+ * as workers are read ahead.
+ *
+ * The last identifier up to which all the pages are indexed is saved under
+ * sync.checkpoint.path after each page. A sync started again for the same
+ * graph and object type resumes after it, unless asked to restart; the
+ * checkpoint is removed once the sync completes without errors.
+ */
+public class KeysetSyncEngine {
+
+	private static final int WORKERS = Platform.config.hasPath("sync.workers")
+			? Platform.config.getInt("sync.workers") : 4;
+	private static final String CHECKPOINT_PATH = Platform.config.hasPath("sync.checkpoint.path")
+			? Platform.config.getString("sync.checkpoint.path") : "sync_checkpoints";
+
+	private static final String IDS_QUERY = "MATCH (n:%s) WHERE n.IL_FUNC_OBJECT_TYPE = {objectType} "
+			+ "AND n.IL_SYS_NODE_TYPE = 'DATA_NODE' AND n.IL_UNIQUE_ID > {afterId} "
+			+ "RETURN n.IL_UNIQUE_ID AS identifier ORDER BY n.IL_UNIQUE_ID LIMIT {limit}";
+	private static final String COUNT_QUERY = "MATCH (n:%s) WHERE n.IL_FUNC_OBJECT_TYPE = {objectType} "
+			+ "AND n.IL_SYS_NODE_TYPE = 'DATA_NODE' AND n.IL_UNIQUE_ID > {afterId} RETURN count(n) AS count";
+
+	private final ControllerUtil util = new ControllerUtil();
+	private final ElasticSearchConnector esConnector;
+	private final String graphId;
+	private final String objectType;
+	private final int pageSize;
+	private int workers = WORKERS;
+	private int delay;
+	private boolean restart;
+
+	private final Map<String, String> errors = new ConcurrentHashMap<>();
+	private final TreeMap<Long, String> indexedPages = new TreeMap<>();
+	private final AtomicLong pagesRead = new AtomicLong();
+	private final AtomicLong pagesIndexed = new AtomicLong();
+	private final AtomicLong synced = new AtomicLong();
+	private final List<String> failedPages = new ArrayList<>();
+	private long nextPage;
+	private String checkpoint;
+
+	public KeysetSyncEngine(ElasticSearchConnector esConnector, String graphId, String objectType, int pageSize) {
+		this.esConnector = esConnector;
+		this.graphId = graphId;
+		this.objectType = objectType;
+		this.pageSize = pageSize;
+	}
+
+	public KeysetSyncEngine workers(Integer workers) {
+		if (null != workers && workers > 0)
+			this.workers = workers;
+		return this;
+	}
+
+	/**
+	 * Time gap (in ms) each worker leaves after indexing a page.
+	 */
+	public KeysetSyncEngine delay(Integer delay) {
+		this.delay = (null == delay) ? 0 : delay;
+		return this;
+	}
+
+	/**
+	 * Ignores the saved checkpoint and syncs all the nodes.
+	 */
+	public KeysetSyncEngine restart(boolean restart) {
+		this.restart = restart;
+		return this;
+	}
+
+	/**
+	 * @return the number of documents indexed
+	 */
+	public long sync() throws Exception {
+		File checkpointFile = getCheckpointFile();
+		checkpoint = restart ? "" : readCheckpoint(checkpointFile);
+		if (StringUtils.isNotBlank(checkpoint))
+			System.out.println("Resuming the sync of '" + objectType + "' after " + checkpoint + " from the checkpoint "
+					+ checkpointFile.getPath() + ", run with --restart to sync all the objects.");
+		else if (restart)
+			Files.deleteIfExists(checkpointFile.toPath());
+		long total = getCount(checkpoint);
+		System.out.println("Syncing " + total + " '" + objectType + "' nodes with " + workers
+				+ " workers and page size of " + pageSize + ".");
+		if (total == 0) {
+			Files.deleteIfExists(checkpointFile.toPath());
+			return 0;
+		}
+
+		long startTime = System.currentTimeMillis();
+		ExecutorService pool = Executors.newFixedThreadPool(workers);
+		Semaphore readAhead = new Semaphore(workers * 2);
+		try {
+			String afterId = checkpoint;
+			List<String> ids = getIds(afterId);
+			while (!ids.isEmpty()) {
+				readAhead.acquire();
+				long page = pagesRead.getAndIncrement();
+				List<String> pageIds = ids;
+				pool.submit(() -> {
+					try {
+						indexPage(page, pageIds, checkpointFile);
+						printProgress(startTime, total);
+						if (delay > 0)
+							Thread.sleep(delay);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					} finally {
+						readAhead.release();
+					}
+				});
+				if (ids.size() < pageSize)
+					break;
+				afterId = ids.get(ids.size() - 1);
+				ids = getIds(afterId);
+			}
+		} finally {
+			pool.shutdown();
+			pool.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+		}
+
+		long time = System.currentTimeMillis() - startTime;
+		System.out.println("\n'" + objectType + "' nodes sync completed in: " + time + "ms, " + synced.get()
+				+ " documents, " + getRate(synced.get(), time) + " docs/s.");
+		if (!errors.isEmpty())
+			System.out.println("Error! while forming ES document data from nodes, below nodes are ignored. \n" + errors);
+		if (failedPages.isEmpty()) {
+			Files.deleteIfExists(checkpointFile.toPath());
+		} else {
+			System.out.println("Error! while syncing the pages starting after " + failedPages
+					+ ", run the sync again to resume from " + checkpoint);
+		}
+		return synced.get();
+	}
+
+	@SuppressWarnings("unchecked")
+	private void indexPage(long page, List<String> ids, File checkpointFile) {
+		try {
+			Response response = util.getDataNodes(graphId, ids);
+			if (null == response)
+				throw new Exception("Error while reading the nodes " + ids.get(0) + " to " + ids.get(ids.size() - 1));
+			List<Node> nodes = (List<Node>) response.get(GraphDACParams.node_list.name());
+			if (CollectionUtils.isNotEmpty(nodes)) {
+				Neo4jESSyncManager.filterDefinitionNodes(nodes);
+				Map<String, Object> messages = SyncMessageGenerator.getMessages(nodes, objectType, errors);
+				esConnector.bulkImport(messages);
+				synced.addAndGet(messages.size());
+			}
+			pageIndexed(page, ids.get(ids.size() - 1), checkpointFile);
+		} catch (Exception e) {
+			System.out.println("\nError while syncing the page of '" + objectType + "' from " + ids.get(0) + ": "
+					+ e.getMessage());
+			synchronized (indexedPages) {
+				failedPages.add(ids.get(0));
+			}
+		} finally {
+			pagesIndexed.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Moves the checkpoint to the last identifier of the pages indexed without
+	 * a gap. A failed page is never marked indexed, so the checkpoint stays
+	 * before it.
+	 */
+	private void pageIndexed(long page, String lastId, File checkpointFile) throws IOException {
+		synchronized (indexedPages) {
+			indexedPages.put(page, lastId);
+			String last = null;
+			while (indexedPages.containsKey(nextPage)) {
+				last = indexedPages.remove(nextPage);
+				nextPage++;
+			}
+			if (null != last) {
+				checkpoint = last;
+				writeCheckpoint(checkpointFile, last);
+			}
+		}
+	}
+
+	private List<String> getIds(String afterId) {
+		Map<String, Object> params = new HashMap<>();
+		params.put("objectType", objectType);
+		params.put("afterId", afterId);
+		params.put("limit", pageSize);
+		List<String> ids = new ArrayList<>();
+		Driver driver = DriverUtil.getDriver(graphId, GraphOperation.READ);
+		try (Session session = driver.session()) {
+			StatementResult result = session.run(String.format(IDS_QUERY, graphId), params);
+			for (Record record : result.list())
+				ids.add(record.get("identifier").asString());
+		}
+		return ids;
+	}
+
+	private long getCount(String afterId) {
+		Map<String, Object> params = new HashMap<>();
+		params.put("objectType", objectType);
+		params.put("afterId", afterId);
+		Driver driver = DriverUtil.getDriver(graphId, GraphOperation.READ);
+		try (Session session = driver.session()) {
+			StatementResult result = session.run(String.format(COUNT_QUERY, graphId), params);
+			return result.hasNext() ? result.single().get("count").asLong() : 0;
+		}
+	}
+
+	private File getCheckpointFile() {
+		return new File(CHECKPOINT_PATH, graphId + "_" + objectType + ".checkpoint");
+	}
+
+	private static String readCheckpoint(File file) throws IOException {
+		if (!file.exists())
+			return "";
+		return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8).trim();
+	}
+
+	private static void writeCheckpoint(File file, String lastId) throws IOException {
+		File dir = file.getParentFile();
+		if (null != dir && !dir.exists())
+			dir.mkdirs();
+		File tmp = new File(dir, file.getName() + ".tmp");
+		Files.write(tmp.toPath(), lastId.getBytes(StandardCharsets.UTF_8));
+		Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	/**
+	 * Prints the progress, the indexing rate and the lag, i.e. the number of
+	 * pages read but not yet indexed.
+	 */
+	private void printProgress(long startTime, long total) {
+		long current = synced.get();
+		long time = System.currentTimeMillis() - startTime;
+		long eta = current == 0 ? 0 : Math.max(0, total - current) * time / current;
+		String etaHms = current == 0 ? "N/A"
+				: String.format("%02d:%02d:%02d", TimeUnit.MILLISECONDS.toHours(eta),
+						TimeUnit.MILLISECONDS.toMinutes(eta) % TimeUnit.HOURS.toMinutes(1),
+						TimeUnit.MILLISECONDS.toSeconds(eta) % TimeUnit.MINUTES.toSeconds(1));
+		int percent = (int) Math.min(100, current * 100 / total);
+		System.out.print(String.format("\r %3d%% %d/%d, %d docs/s, lag: %d pages, ETA: %s", percent, current, total,
+				getRate(current, time), pagesRead.get() - pagesIndexed.get(), etaHms));
+	}
+
+	private static long getRate(long count, long time) {
+		return time == 0 ? count : count * 1000 / time;
+	}
+}
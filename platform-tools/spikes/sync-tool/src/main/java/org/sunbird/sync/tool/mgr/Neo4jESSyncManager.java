@@ -6,7 +6,6 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -122,47 +121,34 @@ public class Neo4jESSyncManager implements ISyncManager {
 
 	@Override
 	public void syncByObjectType(String graphId, String objectType) throws Exception {
+		syncByObjectType(graphId, objectType, null, false);
+	}
+
+	@Override
+	public void syncByObjectType(String graphId, String objectType, Integer workers, boolean restart)
+			throws Exception {
 		if (StringUtils.isBlank(graphId))
 			throw new ClientException(CompositeSearchErrorCodes.ERR_COMPOSITE_SEARCH_SYNC_BLANK_GRAPH_ID.name(),
 					"Graph Id is blank.");
-		Map<String, String> errors = new HashMap<>();
-		DefinitionDTO def;
-		if (StringUtils.isNotBlank(objectType)) {
-			def = util.getDefinition(graphId, objectType);
-			if (null != def) {
-				System.out.println("\nSyncing object of type '" + objectType + "'.\n");
-				Map<String, Object> definition = mapper.convertValue(def, new TypeReference<Map<String, Object>>() {
-				});
-				Map<String, String> relationMap = GraphUtil.getRelationMap(objectType, definition);
-				SyncMessageGenerator.definitionMap.put(objectType, relationMap);
-				int start = 0;
-				int completed =0;
-				boolean found = true;
-				while (found) {
-					List<Node> nodes = null;
-					try {
-						nodes = util.getNodes(graphId, def.getObjectType(), start, batchSize);
-					}catch(ResourceNotFoundException e) {
-						System.out.println("error while fetching neo4j records for objectType="+objectType+", start="+start+",batchSize="+batchSize);
-						start += batchSize;
-						continue;
-					}
-					if (CollectionUtils.isNotEmpty(nodes)) {
-						filterDefinitionNodes(nodes);
-						start += batchSize;
-						Map<String, Object> messages = SyncMessageGenerator.getMessages(nodes, objectType, errors);
-						esConnector.bulkImport(messages);
-						completed += batchSize;
-						System.out.println( "");
-					} else {
-						found = false;
-						break;
-					}
-				}
-			}
+		if (loadDefinition(graphId, objectType)) {
+			System.out.println("\nSyncing object of type '" + objectType + "'.\n");
+			new KeysetSyncEngine(esConnector, graphId, objectType, batchSize).workers(workers).restart(restart).sync();
 		}
 	}
 
+	private boolean loadDefinition(String graphId, String objectType) throws Exception {
+		if (StringUtils.isBlank(objectType))
+			return false;
+		DefinitionDTO def = util.getDefinition(graphId, objectType);
+		if (null == def)
+			return false;
+		Map<String, Object> definition = mapper.convertValue(def, new TypeReference<Map<String, Object>>() {
+		});
+		Map<String, String> relationMap = GraphUtil.getRelationMap(objectType, definition);
+		SyncMessageGenerator.definitionMap.put(objectType, relationMap);
+		return true;
+	}
+
 	public void syncNode(String graphId, List<String> identifiers, String objectType) throws Exception {
 		if (StringUtils.isBlank(graphId))
 			throw new ClientException("BLANK_GRAPH_ID", "Graph Id is blank.");
@@ -221,58 +207,20 @@ public class Neo4jESSyncManager implements ISyncManager {
 		}
 	}
 	
-	public void syncByObjectType(String graphId, String objectType, Long total, Integer delay) throws Exception {
+	public void syncByObjectType(String graphId, String objectType, Long total, Integer delay, boolean restart)
+			throws Exception {
 		if (StringUtils.isBlank(graphId))
 			throw new ClientException(CompositeSearchErrorCodes.ERR_COMPOSITE_SEARCH_SYNC_BLANK_GRAPH_ID.name(),
 					"Graph Id is blank.");
-		Map<String, String> errors = new HashMap<>();
-		DefinitionDTO def;
-		if (StringUtils.isNotBlank(objectType)) {
-			def = util.getDefinition(graphId, objectType);
-			if (null != def) {
-				System.out.println("-----------------------------------------");
-				System.out.println("\nSyncing object of type '" + objectType + "' with batch size of " + batchSize + " having delay " + delay + "ms for each batch.\n");
-				Map<String, Object> definition = mapper.convertValue(def, new TypeReference<Map<String, Object>>() {
-				});
-				Map<String, String> relationMap = GraphUtil.getRelationMap(objectType, definition);
-				SyncMessageGenerator.definitionMap.put(objectType, relationMap);
-				int start = 0;
-				int current = 0;
-				boolean found = true;
-				long startTime = System.currentTimeMillis();
-				while (found) {
-					List<Node> nodes = null;
-					try {
-						nodes = util.getNodes(graphId, def.getObjectType(), start, batchSize);
-					}catch(ResourceNotFoundException e) {
-						System.out.println("error while fetching neo4j records for objectType="+objectType+", start="+start+",batchSize="+batchSize);
-						start += batchSize;
-						continue;
-					}
-					if (CollectionUtils.isNotEmpty(nodes)) {
-						filterDefinitionNodes(nodes);
-						start += batchSize;
-						Map<String, Object> messages = SyncMessageGenerator.getMessages(nodes, objectType, errors);
-						esConnector.bulkImport(messages);
-						current += messages.size();
-						printProgress(startTime, total, current);
-						if (delay > 0) {
-							Thread.sleep(delay);
-						}
-					} else {
-						found = false;
-						break;
-					}
-				}
-				if (!errors.isEmpty())
-					System.out.println("Error! while forming ES document data from nodes, below nodes are ignored. \n" + errors);
-				long endTime = System.currentTimeMillis();
-				System.out.println("\n'" + objectType + "' nodes sync completed in: " + (endTime - startTime) + "ms");
-			}
+		if (loadDefinition(graphId, objectType)) {
+			System.out.println("-----------------------------------------");
+			System.out.println("\nSyncing " + total + " objects of type '" + objectType + "' with batch size of "
+					+ batchSize + " having delay " + delay + "ms for each batch.\n");
+			new KeysetSyncEngine(esConnector, graphId, objectType, batchSize).delay(delay).restart(restart).sync();
 		}
 	}
 	
-	public void syncGraph(String graphId, Integer delay, String[] objectType) throws Exception {
+	public void syncGraph(String graphId, Integer delay, String[] objectType, boolean restart) throws Exception {
 		if (StringUtils.isBlank(graphId))
 			throw new ClientException("BLANK_GRAPH_ID", "Graph Id is blank.");
 		Map<String, Long> counts = util.getCountByObjectType(graphId);
@@ -293,7 +241,7 @@ public class Neo4jESSyncManager implements ISyncManager {
 			long startTime = System.currentTimeMillis();
 			System.out.println("\nSync starting at " + startTime);
 			for (String key: keys) {
-				syncByObjectType(graphId, key, counts.get(key), delay);
+				syncByObjectType(graphId, key, counts.get(key), delay, restart);
 			}
 			System.out.println("-----------------------------------------");
 			long endTime = System.currentTimeMillis();
@@ -302,31 +250,6 @@ public class Neo4jESSyncManager implements ISyncManager {
 		}
 	}
 
-	private static void printProgress(long startTime, long total, long current) {
-	    long eta = current == 0 ? 0 : 
-	        (total - current) * (System.currentTimeMillis() - startTime) / current;
-
-	    String etaHms = current == 0 ? "N/A" : 
-	            String.format("%02d:%02d:%02d", TimeUnit.MILLISECONDS.toHours(eta),
-	                    TimeUnit.MILLISECONDS.toMinutes(eta) % TimeUnit.HOURS.toMinutes(1),
-	                    TimeUnit.MILLISECONDS.toSeconds(eta) % TimeUnit.MINUTES.toSeconds(1));
-
-	    StringBuilder string = new StringBuilder(140);   
-	    int percent = (int) (current * 100 / total);
-	    string
-	        .append('\r')
-	        .append(String.join("", Collections.nCopies(percent == 0 ? 2 : 2 - (int) (Math.log10(percent)), " ")))
-	        .append(String.format(" %d%% [", percent))
-	        .append(String.join("", Collections.nCopies(percent, "=")))
-	        .append('>')
-	        .append(String.join("", Collections.nCopies(100 - percent, " ")))
-	        .append(']')
-	        .append(String.join("", Collections.nCopies((int) (Math.log10(total)) - (int) (Math.log10(current)), " ")))
-	        .append(String.format(" %d/%d, ETA: %s", current, total, etaHms));
-
-	    System.out.print(string);
-	}
-
 	public static void filterDefinitionNodes(List<Node> nodes) {
 		nodes.removeIf(n -> SystemNodeTypes.DEFINITION_NODE.name().equals(n.getNodeType()));
 	}
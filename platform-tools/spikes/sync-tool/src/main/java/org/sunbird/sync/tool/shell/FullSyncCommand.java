@@ -32,7 +32,8 @@ public class FullSyncCommand implements CommandMarker {
                           @CliOption(key = {"ignoredIds"}, mandatory = false, help = "ignored identifiers to sync") final String[] ignoredIds,
                           @CliOption(key = {"offset"}, mandatory = false, help = "ignored identifiers to sync") final String offset,
                           @CliOption(key = {"limit"}, mandatory = false, help = "ignored identifiers to sync") final String limit,
-                          @CliOption(key = {"filepath"}, mandatory = false, help = "ignored identifiers to sync") final String filePath)
+                          @CliOption(key = {"filepath"}, mandatory = false, help = "ignored identifiers to sync") final String filePath,
+                          @CliOption(key = {"restart"}, mandatory = false, unspecifiedDefaultValue = "false", specifiedDefaultValue = "true", help = "Ignore the saved checkpoints and sync all the objects") final boolean restart)
             throws Exception {
     	
         System.out.println("Fetching data from graph: " + graphId + ".");
@@ -46,7 +47,7 @@ public class FullSyncCommand implements CommandMarker {
         		}
             indexSyncManager.syncByFile(graphId, filePath, "json");
         } else {
-            indexSyncManager.syncGraph(graphId, delay, objectType);
+            indexSyncManager.syncGraph(graphId, delay, objectType, restart);
         }
         System.out.println("-----------------------------------------");
     }
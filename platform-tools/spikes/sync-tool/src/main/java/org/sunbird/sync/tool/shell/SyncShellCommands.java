@@ -90,13 +90,17 @@ public class SyncShellCommands implements CommandMarker {
 	public void syncByObjectType(@CliOption(key = {
 			"graphId" }, mandatory = false, unspecifiedDefaultValue = "domain", help = "graphId of the object") final String graphId,
 			@CliOption(key = {
-					"objectType" }, mandatory = true, help = "Object type needs to be validated") String objectType)
+					"objectType" }, mandatory = true, help = "Object type needs to be validated") String objectType,
+			@CliOption(key = {
+					"workers" }, mandatory = false, help = "Number of pages synced in parallel") final Integer workers,
+			@CliOption(key = {
+					"restart" }, mandatory = false, unspecifiedDefaultValue = "false", specifiedDefaultValue = "true", help = "Ignore the saved checkpoint and sync all the objects") final boolean restart)
 			throws Exception {
 
 		long startTime = System.currentTimeMillis();
 		DateTimeFormatter dtf = DateTimeFormatter.ofPattern("yyyy/MM/dd HH:mm:ss");
 		LocalDateTime start = LocalDateTime.now();
-		indexSyncManager.syncByObjectType(graphId, objectType);
+		indexSyncManager.syncByObjectType(graphId, objectType, workers, restart);
 		long endTime = System.currentTimeMillis();
 		long exeTime = endTime - startTime;
 		System.out.println("Total time of execution: " + exeTime + "ms");
@@ -17,11 +17,14 @@ import org.codehaus.jackson.map.JsonMappingException;
 import org.sunbird.searchindex.util.CompositeSearchConstants;
 import org.sunbird.telemetry.logger.TelemetryManager;
 import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.DocWriteRequest;
 import org.elasticsearch.action.admin.indices.alias.Alias;
 import org.elasticsearch.action.support.master.AcknowledgedResponse;
 import org.elasticsearch.client.indices.CreateIndexRequest;
 import org.elasticsearch.client.indices.CreateIndexResponse;
 import org.elasticsearch.action.admin.indices.delete.DeleteIndexRequest;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.get.GetRequest;
 import org.elasticsearch.action.get.GetResponse;
 import org.elasticsearch.action.index.IndexRequest;
@@ -186,6 +189,23 @@ public class ElasticSearchUtil {
 
 
 
+	/**
+	 * Sends the index and update requests to the index in one bulk request.
+	 * Unlike {@link #updateDocument(String, String, String)}, failures are not
+	 * logged here: the response has the result of each request, in order.
+	 */
+	public static BulkResponse bulkUpdate(String indexName, List<? extends DocWriteRequest<?>> requests) throws IOException {
+		BulkRequest bulkRequest = new BulkRequest();
+		for (DocWriteRequest<?> request : requests) {
+			request.index(indexName);
+			bulkRequest.add(request);
+		}
+		BulkResponse response = getClient(indexName).bulk(bulkRequest, RequestOptions.DEFAULT);
+		TelemetryManager.log("Bulk updated " + requests.size() + " documents of index " + indexName + " in "
+				+ response.getTook());
+		return response;
+	}
+
 	public static void deleteIndex(String indexName) throws InterruptedException, ExecutionException, IOException {
 		AcknowledgedResponse response = getClient(indexName).indices().delete(new DeleteIndexRequest(indexName),RequestOptions.DEFAULT);
 		esClient.remove(indexName);
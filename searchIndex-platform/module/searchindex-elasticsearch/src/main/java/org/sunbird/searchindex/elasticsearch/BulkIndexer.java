@@ -0,0 +1,241 @@
+package org.sunbird.searchindex.elasticsearch;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+import org.sunbird.common.Platform;
+import org.sunbird.common.exception.ServerException;
+import org.sunbird.telemetry.logger.TelemetryManager;
+import org.elasticsearch.ExceptionsHelper;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.delete.DeleteRequest;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.rest.RestStatus;
+
+/**
+ * Streams documents to Elasticsearch in bulk requests.
+ *
+ * A request is sent once it reaches maxActions actions or maxBytes bytes, and
+ * at most concurrentRequests requests are in flight; add blocks while all of
+ * them are busy, so memory stays bounded however many documents are added.
+ * Items (or whole requests) rejected with 429 are retried with exponential
+ * backoff up to maxRetries times. Every other failure is reported to the
+ * failure handler, which logs it by default.
+ *
+ * Thread safe: writers may share one indexer, and each of them waits for its
+ * documents with {@link #awaitCompletion()}, which also waits for the
+ * requests of the others in flight at that time.
+ */
+public class BulkIndexer implements AutoCloseable {
+
+	private static final long COMPLETION_TIMEOUT_MS = 10 * 60 * 1000;
+
+	private final BiConsumer<BulkRequest, ActionListener<BulkResponse>> bulkConsumer;
+	private final int maxActions;
+	private final long maxBytes;
+	private final int concurrentRequests;
+	private final int maxRetries;
+	private final long backoffMs;
+	private final Semaphore inFlight;
+	private final ScheduledExecutorService retryScheduler;
+
+	private BiConsumer<DocWriteRequest<?>, String> failureHandler = (request, message) -> TelemetryManager
+			.error("Failures in Elasticsearch bulk request for id: " + request.id() + " | " + message);
+	private BulkRequest current = new BulkRequest();
+	private boolean closed = false;
+
+	private final AtomicLong succeeded = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+	private final AtomicLong retried = new AtomicLong();
+
+	/**
+	 * Creates an indexer sized from the search.bulk.* configuration.
+	 */
+	public BulkIndexer(BiConsumer<BulkRequest, ActionListener<BulkResponse>> bulkConsumer) {
+		this(bulkConsumer, getConfig("search.batch.size", 1000), getConfig("search.bulk.max_bytes", 5 * 1024 * 1024),
+				getConfig("search.bulk.concurrent_requests", 2), getConfig("search.bulk.max_retries", 5),
+				getConfig("search.bulk.backoff_ms", 100));
+	}
+
+	public BulkIndexer(BiConsumer<BulkRequest, ActionListener<BulkResponse>> bulkConsumer, int maxActions,
+			long maxBytes, int concurrentRequests, int maxRetries, long backoffMs) {
+		this.bulkConsumer = bulkConsumer;
+		this.maxActions = Math.max(1, maxActions);
+		this.maxBytes = maxBytes;
+		this.concurrentRequests = Math.max(1, concurrentRequests);
+		this.maxRetries = maxRetries;
+		this.backoffMs = backoffMs;
+		// Fair, so that a writer waiting for completion is not starved by the others.
+		this.inFlight = new Semaphore(this.concurrentRequests, true);
+		this.retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "es-bulk-retry");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Sets the handler called with each request that finally failed and the
+	 * failure message.
+	 */
+	public BulkIndexer setFailureHandler(BiConsumer<DocWriteRequest<?>, String> failureHandler) {
+		this.failureHandler = failureHandler;
+		return this;
+	}
+
+	public BulkIndexer index(String indexName, String documentType, String documentId, Map<String, Object> document) {
+		return add(new IndexRequest(indexName, documentType, documentId).source(document));
+	}
+
+	public BulkIndexer index(String indexName, String documentType, Map<String, Object> document) {
+		return add(new IndexRequest(indexName, documentType).source(document));
+	}
+
+	public BulkIndexer delete(String indexName, String documentType, String documentId) {
+		return add(new DeleteRequest(indexName, documentType, documentId));
+	}
+
+	public synchronized BulkIndexer add(DocWriteRequest<?> request) {
+		if (closed)
+			throw new IllegalStateException("Bulk indexer is closed.");
+		current.add(request);
+		if (current.numberOfActions() >= maxActions || current.estimatedSizeInBytes() >= maxBytes)
+			flush();
+		return this;
+	}
+
+	/**
+	 * Sends the pending actions, waiting for a free request slot if needed.
+	 */
+	public synchronized void flush() {
+		if (current.numberOfActions() == 0)
+			return;
+		BulkRequest request = current;
+		current = new BulkRequest();
+		try {
+			inFlight.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ServerException("ERR_BULK_INDEX_ES_DATA", "Interrupted while waiting to send bulk request.");
+		}
+		send(request, 0);
+	}
+
+	/**
+	 * Sends the pending actions and waits for every request to complete, for
+	 * at most 10 minutes.
+	 */
+	public void awaitCompletion() throws InterruptedException {
+		awaitCompletion(COMPLETION_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Sends the pending actions and waits for every request to complete.
+	 */
+	public void awaitCompletion(long timeout, TimeUnit unit) throws InterruptedException {
+		flush();
+		if (!inFlight.tryAcquire(concurrentRequests, timeout, unit))
+			throw new ServerException("ERR_BULK_INDEX_ES_DATA", "Timed out waiting for bulk requests to complete.");
+		inFlight.release(concurrentRequests);
+	}
+
+	@Override
+	public void close() throws InterruptedException {
+		if (closed)
+			return;
+		try {
+			awaitCompletion();
+		} finally {
+			closed = true;
+			retryScheduler.shutdown();
+		}
+	}
+
+	public long getSucceededCount() {
+		return succeeded.get();
+	}
+
+	public long getFailedCount() {
+		return failed.get();
+	}
+
+	public long getRetriedCount() {
+		return retried.get();
+	}
+
+	private void send(BulkRequest request, int attempt) {
+		try {
+			bulkConsumer.accept(request, new ActionListener<BulkResponse>() {
+				@Override
+				public void onResponse(BulkResponse response) {
+					handleResponse(request, response, attempt);
+				}
+
+				@Override
+				public void onFailure(Exception e) {
+					handleFailure(request, e, attempt);
+				}
+			});
+		} catch (Exception e) {
+			handleFailure(request, e, attempt);
+		}
+	}
+
+	@SuppressWarnings("rawtypes")
+	private void handleResponse(BulkRequest request, BulkResponse response, int attempt) {
+		BulkRequest retry = new BulkRequest();
+		List<DocWriteRequest> requests = request.requests();
+		for (BulkItemResponse item : response.getItems()) {
+			if (!item.isFailed()) {
+				succeeded.incrementAndGet();
+			} else if (item.status() == RestStatus.TOO_MANY_REQUESTS && attempt < maxRetries) {
+				retry.add(requests.get(item.getItemId()));
+			} else {
+				reportFailure(requests.get(item.getItemId()), item.getFailureMessage());
+			}
+		}
+		if (retry.numberOfActions() > 0)
+			scheduleRetry(retry, attempt);
+		else
+			inFlight.release();
+	}
+
+	private void handleFailure(BulkRequest request, Exception e, int attempt) {
+		if (ExceptionsHelper.status(e) == RestStatus.TOO_MANY_REQUESTS && attempt < maxRetries) {
+			scheduleRetry(request, attempt);
+			return;
+		}
+		for (DocWriteRequest<?> item : request.requests())
+			reportFailure(item, e.getMessage());
+		inFlight.release();
+	}
+
+	private void scheduleRetry(BulkRequest request, int attempt) {
+		retried.addAndGet(request.numberOfActions());
+		long delay = backoffMs << Math.min(attempt, 16);
+		retryScheduler.schedule(() -> send(request, attempt + 1), delay, TimeUnit.MILLISECONDS);
+	}
+
+	private void reportFailure(DocWriteRequest<?> request, String message) {
+		failed.incrementAndGet();
+		try {
+			failureHandler.accept(request, message);
+		} catch (Exception e) {
+			TelemetryManager.error("Error in bulk failure handler: " + e.getMessage(), e);
+		}
+	}
+
+	private static int getConfig(String key, int defaultValue) {
+		return Platform.config.hasPath(key) ? Platform.config.getInt(key) : defaultValue;
+	}
+}
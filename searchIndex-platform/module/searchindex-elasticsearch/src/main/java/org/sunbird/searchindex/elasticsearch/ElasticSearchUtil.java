@@ -5,12 +5,12 @@ package org.sunbird.searchindex.elasticsearch;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
-import java.util.stream.Collectors;
 
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -29,8 +29,6 @@ import org.elasticsearch.action.admin.indices.create.CreateIndexRequest;
 import org.elasticsearch.action.admin.indices.create.CreateIndexResponse;
 import org.elasticsearch.action.admin.indices.delete.DeleteIndexRequest;
 import org.elasticsearch.action.admin.indices.delete.DeleteIndexResponse;
-import org.elasticsearch.action.bulk.BulkRequest;
-import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.delete.DeleteRequest;
 import org.elasticsearch.action.delete.DeleteResponse;
 import org.elasticsearch.action.get.GetRequest;
@@ -85,10 +83,9 @@ public class ElasticSearchUtil {
 	public static int defaultResultLimit = 10000;
 	private static final int resultLimit = 100;
 	public int defaultResultOffset = 0;
-	private static int BATCH_SIZE = (Platform.config.hasPath("search.batch.size"))
-			? Platform.config.getInt("search.batch.size")
-			: 1000;
 	private static ObjectMapper mapper = new ObjectMapper();
+	private static Set<String> existingIndices = ConcurrentHashMap.newKeySet();
+	private static Map<String, BulkIndexer> bulkIndexers = new ConcurrentHashMap<>();
 
 	public static void initialiseESClient(String indexName, String connectionInfo) {
 		if (StringUtils.isBlank(indexName))
@@ -152,11 +149,24 @@ public class ElasticSearchUtil {
 		return timeZoneProperty;
 	}
 
+	/**
+	 * Checks whether the index exists. Indices found once are remembered until
+	 * deleted through this class or a bulk request fails on the index missing,
+	 * so repeated bulk calls skip the HEAD request.
+	 *
+	 * @param indexName
+	 * @return
+	 */
 	public static boolean isIndexExists(String indexName) {
+		if (existingIndices.contains(indexName))
+			return true;
 		Response response;
 		try {
 			response = getClient(indexName).getLowLevelClient().performRequest("HEAD", "/" + indexName);
-			return (200 == response.getStatusLine().getStatusCode());
+			boolean exists = (200 == response.getStatusLine().getStatusCode());
+			if (exists)
+				existingIndices.add(indexName);
+			return exists;
 		} catch (IOException e) {
 			return false;
 		}
@@ -235,6 +245,10 @@ public class ElasticSearchUtil {
 	}
 
 	public static void deleteIndex(String indexName) throws InterruptedException, ExecutionException, IOException {
+		existingIndices.remove(indexName);
+		BulkIndexer indexer = bulkIndexers.remove(indexName);
+		if (null != indexer)
+			indexer.close();
 		DeleteIndexResponse response = getClient(indexName).indices().delete(new DeleteIndexRequest(indexName));
 		esClient.remove(indexName);
 		TelemetryManager.log("Deleted Index" + indexName + " : " + response.isAcknowledged());
@@ -261,26 +275,32 @@ public class ElasticSearchUtil {
 		return finalResult;
 	}
 
+	/**
+	 * Gets the bulk indexer of the index, shared by all its writers. Callers
+	 * wait for their documents with awaitCompletion() and must not close it.
+	 * A failure on the index missing clears it from the known indices.
+	 *
+	 * @param indexName
+	 * @return the bulk indexer
+	 */
+	public static BulkIndexer getBulkIndexer(String indexName) {
+		return bulkIndexers.computeIfAbsent(indexName, name -> new BulkIndexer(getClient(name)::bulkAsync)
+				.setFailureHandler((request, message) -> {
+					if (StringUtils.contains(message, "index_not_found_exception"))
+						existingIndices.remove(name);
+					TelemetryManager.error("Failures in Elasticsearch bulk request for id: " + request.id() + " | " + message);
+				}));
+	}
+
 	@SuppressWarnings("unchecked")
 	public static void bulkIndexWithIndexId(String indexName, String documentType, Map<String, Object> jsonObjects)
 			throws Exception {
 		if (isIndexExists(indexName)) {
-			RestHighLevelClient client = getClient(indexName);
 			if (!jsonObjects.isEmpty()) {
-				int count = 0;
-				BulkRequest request = new BulkRequest();
-				for (String key : jsonObjects.keySet()) {
-					count++;
-					request.add(new IndexRequest(indexName, documentType, key)
-							.source((Map<String, Object>) jsonObjects.get(key)));
-					if (count % BATCH_SIZE == 0 || (count % BATCH_SIZE < BATCH_SIZE && count == jsonObjects.size())) {
-						BulkResponse bulkResponse = client.bulk(request);
-						if (bulkResponse.hasFailures()) {
-							TelemetryManager
-									.log("Failures in Elasticsearch bulkIndex : " + bulkResponse.buildFailureMessage());
-						}
-					}
-				}
+				BulkIndexer indexer = getBulkIndexer(indexName);
+				for (Map.Entry<String, Object> entry : jsonObjects.entrySet())
+					indexer.index(indexName, documentType, entry.getKey(), (Map<String, Object>) entry.getValue());
+				indexer.awaitCompletion();
 			}
 		} else {
 			throw new Exception("Index does not exist: "+ indexName);
@@ -291,21 +311,11 @@ public class ElasticSearchUtil {
 			List<Map<String, Object>> jsonObjects)
 			throws Exception {
 		if (isIndexExists(indexName)) {
-			RestHighLevelClient client = getClient(indexName);
 			if (!jsonObjects.isEmpty()) {
-				int count = 0;
-				BulkRequest request = new BulkRequest();
-				for (Map<String, Object> json : jsonObjects) {
-					count++;
-					request.add(new IndexRequest(indexName, documentType).source(json));
-					if (count % BATCH_SIZE == 0 || (count % BATCH_SIZE < BATCH_SIZE && count == jsonObjects.size())) {
-						BulkResponse bulkResponse = client.bulk(request);
-						if (bulkResponse.hasFailures()) {
-							TelemetryManager
-									.log("Failures in Elasticsearch bulkIndex : " + bulkResponse.buildFailureMessage());
-						}
-					}
-				}
+				BulkIndexer indexer = getBulkIndexer(indexName);
+				for (Map<String, Object> json : jsonObjects)
+					indexer.index(indexName, documentType, json);
+				indexer.awaitCompletion();
 			}
 		} else {
 			throw new Exception("Index does not exist");
@@ -671,6 +681,13 @@ public class ElasticSearchUtil {
 	}
 
 	public static void cleanESClient() {
+		for (BulkIndexer indexer : bulkIndexers.values()) {
+			try {
+				indexer.close();
+			} catch (Exception e) {
+			}
+		}
+		bulkIndexers.clear();
 		if (!esClient.isEmpty())
 			for (RestHighLevelClient client : esClient.values()) {
 				if (null != client)
@@ -692,25 +709,10 @@ public class ElasticSearchUtil {
 	public static void bulkDeleteDocumentById(String indexName, String documentType, List<String> identifiers) throws Exception {
 		if (isIndexExists(indexName)) {
 			if (null != identifiers && !identifiers.isEmpty()) {
-				int count = 0;
-				BulkRequest request = new BulkRequest();
-				for (String documentId : identifiers) {
-					count++;
-					request.add(new DeleteRequest(indexName, documentType, documentId));
-					if (count % BATCH_SIZE == 0 || (count % BATCH_SIZE < BATCH_SIZE && count == identifiers.size())) {
-						BulkResponse bulkResponse = getClient(indexName).bulk(request);
-						List<String> failedIds = Arrays.stream(bulkResponse.getItems()).filter(
-								itemResp -> !StringUtils.equals(itemResp.getResponse().getResult().getLowercase(),"deleted")
-						).map(r -> r.getResponse().getId()).collect(Collectors.toList());
-						if (CollectionUtils.isNotEmpty(failedIds))
-							TelemetryManager.log("Failed Id's While Deleting Elasticsearch Documents (Bulk Delete) : " + failedIds);
-						if (bulkResponse.hasFailures()) {
-							//TODO: Implement Retry Mechanism
-							TelemetryManager
-									.log("Error Occured While Deleting Elasticsearch Documents in Bulk : " + bulkResponse.buildFailureMessage());
-						}
-					}
-				}
+				BulkIndexer indexer = getBulkIndexer(indexName);
+				for (String documentId : identifiers)
+					indexer.delete(indexName, documentType, documentId);
+				indexer.awaitCompletion();
 			}
 		} else {
 			throw new ServerException("ERR_BULK_DELETE_ES_DATA", "ES Index Not Found With Id : " + indexName);
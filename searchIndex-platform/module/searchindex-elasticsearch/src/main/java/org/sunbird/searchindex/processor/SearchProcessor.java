@@ -1,6 +1,8 @@
 package org.sunbird.searchindex.processor;
 
+import akka.dispatch.Futures;
 import akka.dispatch.Mapper;
+import akka.dispatch.OnComplete;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.MapUtils;
 import org.apache.commons.lang.StringUtils;
@@ -38,12 +40,16 @@ import org.elasticsearch.search.sort.SortBuilders;
 import org.elasticsearch.search.sort.SortOrder;
 import scala.concurrent.ExecutionContext;
 import scala.concurrent.Future;
+import scala.concurrent.Promise;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 
 public class SearchProcessor {
@@ -52,6 +58,9 @@ public class SearchProcessor {
 	private static final String ASC_ORDER = "asc";
 	private static final String AND = "AND";
 	private boolean relevanceSort = false;
+	private static SearchResultCache resultCache = new SearchResultCache();
+	private static ConcurrentHashMap<String, Future<Map<String, Object>>> searchesInFlight = new ConcurrentHashMap<>();
+	private static ConcurrentHashMap<String, CompletableFuture<Map<String, Object>>> countsInFlight = new ConcurrentHashMap<>();
 
 	public SearchProcessor() {
 		ElasticSearchUtil.initialiseESClient(CompositeSearchConstants.COMPOSITE_SEARCH_INDEX,
@@ -61,9 +70,52 @@ public class SearchProcessor {
 	public SearchProcessor(String indexName) {
 	}
 
-	@SuppressWarnings({ "unchecked", "rawtypes" })
+	/**
+	 * Runs the search, serving it from the result cache when possible.
+	 * Identical searches running at the same time share one Elasticsearch
+	 * query.
+	 */
 	public Future<Map<String, Object>> processSearch(SearchDTO searchDTO, boolean includeResults)
 			throws Exception {
+		String key = SearchResultCache.getKey("search", searchDTO, includeResults);
+		if (null == key) {
+			resultCache.recordBypassed();
+			return search(searchDTO, includeResults);
+		}
+		Map<String, Object> cached = resultCache.get(key);
+		if (null != cached)
+			return Futures.successful(cached);
+		Promise<Map<String, Object>> promise = Futures.promise();
+		Future<Map<String, Object>> inFlight = searchesInFlight.putIfAbsent(key, promise.future());
+		if (null != inFlight) {
+			resultCache.recordCoalesced();
+			return copyOf(inFlight);
+		}
+		long startTime = System.currentTimeMillis();
+		try {
+			search(searchDTO, includeResults).onComplete(new OnComplete<Map<String, Object>>() {
+				public void onComplete(Throwable failure, Map<String, Object> response) {
+					resultCache.recordLatency(System.currentTimeMillis() - startTime);
+					if (null == failure)
+						resultCache.put(key, response);
+					searchesInFlight.remove(key, promise.future());
+					if (null == failure)
+						promise.success(response);
+					else
+						promise.failure(failure);
+				}
+			}, ExecutionContext.Implicits$.MODULE$.global());
+		} catch (Exception e) {
+			searchesInFlight.remove(key, promise.future());
+			promise.failure(e);
+			throw e;
+		}
+		return copyOf(promise.future());
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private Future<Map<String, Object>> search(SearchDTO searchDTO, boolean includeResults)
+			throws Exception {
 		List<Map<String, Object>> groupByFinalList = new ArrayList<Map<String, Object>>();
 		SearchSourceBuilder query = processSearchQuery(searchDTO, groupByFinalList, true);
 		Future<SearchResponse> searchResponse = ElasticSearchUtil.search(
@@ -99,7 +151,53 @@ public class SearchProcessor {
 		}, ExecutionContext.Implicits$.MODULE$.global());
 	}
 
+	/**
+	 * Counts the matching documents, through the same cache and coalescing as
+	 * processSearch.
+	 */
 	public Map<String, Object> processCount(SearchDTO searchDTO) throws Exception {
+		String key = SearchResultCache.getKey("count", searchDTO, false);
+		if (null == key) {
+			resultCache.recordBypassed();
+			return count(searchDTO);
+		}
+		Map<String, Object> cached = resultCache.get(key);
+		if (null != cached)
+			return cached;
+		CompletableFuture<Map<String, Object>> future = new CompletableFuture<>();
+		CompletableFuture<Map<String, Object>> inFlight = countsInFlight.putIfAbsent(key, future);
+		if (null != inFlight) {
+			resultCache.recordCoalesced();
+			try {
+				return SearchResultCache.copy(inFlight.get());
+			} catch (ExecutionException e) {
+				throw (e.getCause() instanceof Exception) ? (Exception) e.getCause() : e;
+			}
+		}
+		long startTime = System.currentTimeMillis();
+		try {
+			Map<String, Object> response = count(searchDTO);
+			resultCache.recordLatency(System.currentTimeMillis() - startTime);
+			resultCache.put(key, response);
+			future.complete(response);
+			return SearchResultCache.copy(response);
+		} catch (Exception e) {
+			future.completeExceptionally(e);
+			throw e;
+		} finally {
+			countsInFlight.remove(key, future);
+		}
+	}
+
+	private static Future<Map<String, Object>> copyOf(Future<Map<String, Object>> future) {
+		return future.map(new Mapper<Map<String, Object>, Map<String, Object>>() {
+			public Map<String, Object> apply(Map<String, Object> response) {
+				return SearchResultCache.copy(response);
+			}
+		}, ExecutionContext.Implicits$.MODULE$.global());
+	}
+
+	private Map<String, Object> count(SearchDTO searchDTO) throws Exception {
 		Map<String, Object> response = new HashMap<String, Object>();
 		SearchSourceBuilder searchSourceBuilder = processSearchQuery(searchDTO, null, false);
 		searchSourceBuilder.from(searchDTO.getOffset()).size(0);
@@ -0,0 +1,221 @@
+package org.sunbird.searchindex.processor;
+
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.codec.binary.Hex;
+import org.sunbird.common.Platform;
+import org.sunbird.searchindex.dto.SearchDTO;
+import org.sunbird.telemetry.logger.TelemetryManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Short lived cache of composite search results, keyed by a hash of the
+ * canonical JSON form of the search request.
+ *
+ * Entries live for search.cache.ttl milliseconds (0, the default, disables
+ * result caching) and at most search.cache.max_size entries are kept. Cached
+ * responses are copied on every read, so callers may modify what they get.
+ *
+ * Index updates do not invalidate the cache: they are made by other services,
+ * so a result may be up to ttl old. The ttl is capped at MAX_TTL to keep that
+ * window short.
+ *
+ * The hit ratio, coalesced and bypassed (no key could be built) searches and
+ * the latency histogram of the searches sent to Elasticsearch are logged at
+ * most once every search.cache.metrics_log_interval milliseconds (5 minutes
+ * by default), on a lookup.
+ */
+public class SearchResultCache {
+
+	private static final long[] LATENCY_BUCKETS_MS = { 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000 };
+
+	private static ObjectMapper keyMapper = new ObjectMapper()
+			.configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+	private static final long MAX_TTL = 60000;
+
+	private final long ttl;
+	private final int maxSize;
+	private final ConcurrentHashMap<String, CacheEntry> entries = new ConcurrentHashMap<>();
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder coalesced = new LongAdder();
+	private final LongAdder bypassed = new LongAdder();
+	private final LongAdder[] latency = new LongAdder[LATENCY_BUCKETS_MS.length + 1];
+	private final long metricsLogInterval = getConfig("search.cache.metrics_log_interval", 300000);
+	private final AtomicLong lastMetricsLog = new AtomicLong(System.currentTimeMillis());
+
+	public SearchResultCache() {
+		this(getConfig("search.cache.ttl", 0), (int) getConfig("search.cache.max_size", 10000));
+	}
+
+	public SearchResultCache(long ttl, int maxSize) {
+		this.ttl = Math.min(ttl, MAX_TTL);
+		this.maxSize = maxSize;
+		for (int i = 0; i < latency.length; i++)
+			latency[i] = new LongAdder();
+	}
+
+	public boolean isEnabled() {
+		return ttl > 0 && maxSize > 0;
+	}
+
+	/**
+	 * Builds the cache key of the request, or null if the request can not be
+	 * serialized.
+	 *
+	 * @param operation
+	 *            the operation, e.g. search or count
+	 * @param searchDTO
+	 *            the search request
+	 * @param includeResults
+	 *            whether the response carries the result documents
+	 * @return the key
+	 */
+	public static String getKey(String operation, SearchDTO searchDTO, boolean includeResults) {
+		Map<String, Object> request = new HashMap<>();
+		request.put("operation", operation);
+		request.put("includeResults", includeResults);
+		request.put("properties", searchDTO.getProperties());
+		request.put("implicitFilterProperties", searchDTO.getImplicitFilterProperties());
+		request.put("facets", searchDTO.getFacets());
+		request.put("fields", searchDTO.getFields());
+		request.put("sortBy", searchDTO.getSortBy());
+		request.put("searchOperation", searchDTO.getOperation());
+		request.put("limit", searchDTO.getLimit());
+		request.put("offset", searchDTO.getOffset());
+		request.put("fuzzy", searchDTO.isFuzzySearch());
+		request.put("softConstraints", searchDTO.getSoftConstraints());
+		request.put("aggregations", searchDTO.getAggregations());
+		request.put("additionalProperties", searchDTO.getAdditionalProperties());
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return Hex.encodeHexString(digest.digest(keyMapper.writeValueAsBytes(request)));
+		} catch (Exception e) {
+			return null;
+		}
+	}
+
+	public Map<String, Object> get(String key) {
+		logMetricsIfDue();
+		CacheEntry entry = entries.get(key);
+		if (null != entry && entry.expiresAt > System.currentTimeMillis()) {
+			hits.increment();
+			return copy(entry.value);
+		}
+		if (null != entry)
+			entries.remove(key, entry);
+		misses.increment();
+		return null;
+	}
+
+	public void put(String key, Map<String, Object> value) {
+		if (!isEnabled() || null == key || null == value)
+			return;
+		if (entries.size() >= maxSize)
+			evictExpired();
+		if (entries.size() >= maxSize)
+			return;
+		entries.put(key, new CacheEntry(copy(value), System.currentTimeMillis() + ttl));
+	}
+
+	public void recordCoalesced() {
+		coalesced.increment();
+	}
+
+	public void recordBypassed() {
+		bypassed.increment();
+	}
+
+	/**
+	 * Records the Elasticsearch latency of a search that was not served from
+	 * the cache.
+	 */
+	public void recordLatency(long millis) {
+		int bucket = 0;
+		while (bucket < LATENCY_BUCKETS_MS.length && millis > LATENCY_BUCKETS_MS[bucket])
+			bucket++;
+		latency[bucket].increment();
+	}
+
+	public Map<String, Object> getMetrics() {
+		long hitCount = hits.sum();
+		long lookups = hitCount + misses.sum();
+		Map<String, Object> histogram = new LinkedHashMap<>();
+		for (int i = 0; i < LATENCY_BUCKETS_MS.length; i++)
+			histogram.put("le_" + LATENCY_BUCKETS_MS[i], latency[i].sum());
+		histogram.put("gt_" + LATENCY_BUCKETS_MS[LATENCY_BUCKETS_MS.length - 1], latency[LATENCY_BUCKETS_MS.length].sum());
+		Map<String, Object> metrics = new HashMap<>();
+		metrics.put("enabled", isEnabled());
+		metrics.put("size", entries.size());
+		metrics.put("hits", hitCount);
+		metrics.put("misses", misses.sum());
+		metrics.put("hitRatio", (lookups == 0) ? 0.0 : (double) hitCount / lookups);
+		metrics.put("coalesced", coalesced.sum());
+		metrics.put("bypassed", bypassed.sum());
+		metrics.put("latencyMs", histogram);
+		return metrics;
+	}
+
+	private void logMetricsIfDue() {
+		long now = System.currentTimeMillis();
+		long last = lastMetricsLog.get();
+		if (now - last >= metricsLogInterval && lastMetricsLog.compareAndSet(last, now))
+			TelemetryManager.info("Search result cache metrics", getMetrics());
+	}
+
+	private void evictExpired() {
+		long now = System.currentTimeMillis();
+		Iterator<CacheEntry> iterator = entries.values().iterator();
+		while (iterator.hasNext()) {
+			if (iterator.next().expiresAt <= now)
+				iterator.remove();
+		}
+	}
+
+	/**
+	 * Copies the maps and lists of a response, leaving the leaf values shared.
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> T copy(T value) {
+		if (value instanceof Map) {
+			Map<Object, Object> copy = new HashMap<>();
+			for (Map.Entry<Object, Object> entry : ((Map<Object, Object>) value).entrySet())
+				copy.put(entry.getKey(), copy(entry.getValue()));
+			return (T) copy;
+		}
+		if (value instanceof List) {
+			List<Object> copy = new ArrayList<>(((List<Object>) value).size());
+			for (Object item : (List<Object>) value)
+				copy.add(copy(item));
+			return (T) copy;
+		}
+		return value;
+	}
+
+	private static long getConfig(String key, long defaultValue) {
+		return Platform.config.hasPath(key) ? Platform.config.getLong(key) : defaultValue;
+	}
+
+	private static class CacheEntry {
+		private final Map<String, Object> value;
+		private final long expiresAt;
+
+		private CacheEntry(Map<String, Object> value, long expiresAt) {
+			this.value = value;
+			this.expiresAt = expiresAt;
+		}
+	}
+}
@@ -0,0 +1,141 @@
+package org.sunbird.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.sunbird.searchindex.elasticsearch.BulkIndexer;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.index.IndexResponse;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.rest.RestStatus;
+import org.junit.Test;
+
+public class BulkIndexerTest {
+
+	private static final String INDEX = "test_index";
+	private static final String TYPE = "cs";
+
+	@Test
+	public void testDocumentsAreSentOnce() throws Exception {
+		List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+		Map<String, AtomicInteger> sent = new ConcurrentHashMap<>();
+		try (BulkIndexer indexer = new BulkIndexer((request, listener) -> {
+			batchSizes.add(request.numberOfActions());
+			for (DocWriteRequest<?> item : request.requests())
+				sent.computeIfAbsent(item.id(), id -> new AtomicInteger()).incrementAndGet();
+			listener.onResponse(respond(request, Collections.emptyMap()));
+		}, 100, Long.MAX_VALUE, 2, 0, 0)) {
+			for (int i = 0; i < 1050; i++)
+				indexer.index(INDEX, TYPE, "do_" + i, getDocument(i));
+		}
+		assertEquals(11, batchSizes.size());
+		assertEquals(Integer.valueOf(50), batchSizes.get(10));
+		assertEquals(1050, sent.size());
+		for (AtomicInteger count : sent.values())
+			assertEquals(1, count.get());
+	}
+
+	@Test
+	public void testBatchesAreBoundedByBytes() throws Exception {
+		List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+		try (BulkIndexer indexer = new BulkIndexer((request, listener) -> {
+			batchSizes.add(request.numberOfActions());
+			listener.onResponse(respond(request, Collections.emptyMap()));
+		}, 1000, 1024, 1, 0, 0)) {
+			for (int i = 0; i < 100; i++)
+				indexer.index(INDEX, TYPE, "do_" + i, getDocument(i));
+		}
+		assertTrue(batchSizes.size() > 1);
+		assertEquals(100, batchSizes.stream().mapToInt(Integer::intValue).sum());
+	}
+
+	@Test
+	public void testRejectedItemsAreRetried() throws Exception {
+		AtomicInteger attempts = new AtomicInteger();
+		BulkIndexer indexer = new BulkIndexer((request, listener) -> {
+			Map<String, RestStatus> failures = new HashMap<>();
+			if (attempts.incrementAndGet() <= 2)
+				failures.put("do_1", RestStatus.TOO_MANY_REQUESTS);
+			failures.put("do_2", RestStatus.BAD_REQUEST);
+			listener.onResponse(respond(request, failures));
+		}, 10, Long.MAX_VALUE, 1, 3, 1);
+		List<String> failedIds = Collections.synchronizedList(new ArrayList<>());
+		indexer.setFailureHandler((request, message) -> failedIds.add(request.id()));
+		for (int i = 0; i < 5; i++)
+			indexer.index(INDEX, TYPE, "do_" + i, getDocument(i));
+		indexer.close();
+		assertEquals(3, attempts.get());
+		assertEquals(2, indexer.getRetriedCount());
+		assertEquals(4, indexer.getSucceededCount());
+		assertEquals(1, indexer.getFailedCount());
+		assertEquals(Collections.singletonList("do_2"), failedIds);
+	}
+
+	@Test
+	public void testIndexerIsSharedByWriters() throws Exception {
+		Map<String, AtomicInteger> sent = new ConcurrentHashMap<>();
+		try (BulkIndexer indexer = new BulkIndexer((request, listener) -> {
+			for (DocWriteRequest<?> item : request.requests())
+				sent.computeIfAbsent(item.id(), id -> new AtomicInteger()).incrementAndGet();
+			listener.onResponse(respond(request, Collections.emptyMap()));
+		}, 50, Long.MAX_VALUE, 2, 0, 0)) {
+			ExecutorService writers = Executors.newFixedThreadPool(4);
+			List<Future<?>> results = new ArrayList<>();
+			for (int w = 0; w < 4; w++) {
+				int writer = w;
+				results.add(writers.submit(() -> {
+					for (int i = 0; i < 120; i++)
+						indexer.index(INDEX, TYPE, "do_" + writer + "_" + i, getDocument(i));
+					indexer.awaitCompletion();
+					for (int i = 0; i < 120; i++)
+						assertTrue(sent.containsKey("do_" + writer + "_" + i));
+					return null;
+				}));
+			}
+			for (Future<?> result : results)
+				result.get(30, TimeUnit.SECONDS);
+			writers.shutdown();
+		}
+		assertEquals(480, sent.size());
+		for (AtomicInteger count : sent.values())
+			assertEquals(1, count.get());
+	}
+
+	private static Map<String, Object> getDocument(int i) {
+		Map<String, Object> document = new HashMap<>();
+		document.put("identifier", "do_" + i);
+		document.put("name", "Content " + i);
+		return document;
+	}
+
+	private static BulkResponse respond(BulkRequest request, Map<String, RestStatus> failures) {
+		List<DocWriteRequest> requests = request.requests();
+		BulkItemResponse[] items = new BulkItemResponse[requests.size()];
+		for (int i = 0; i < items.length; i++) {
+			DocWriteRequest<?> item = requests.get(i);
+			RestStatus status = failures.get(item.id());
+			if (null == status)
+				items[i] = new BulkItemResponse(i, item.opType(),
+						new IndexResponse(new ShardId(INDEX, "_na_", 0), TYPE, item.id(), 1, 1, 1, true));
+			else
+				items[i] = new BulkItemResponse(i, item.opType(), new BulkItemResponse.Failure(INDEX, TYPE, item.id(),
+						new Exception(status.name()), status));
+		}
+		return new BulkResponse(items, 1);
+	}
+}
@@ -0,0 +1,85 @@
+package org.sunbird.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.sunbird.searchindex.dto.SearchDTO;
+import org.sunbird.searchindex.processor.SearchResultCache;
+import org.junit.Test;
+
+public class SearchResultCacheTest {
+
+	@SuppressWarnings("rawtypes")
+	private static SearchDTO getSearchDTO(Map<String, String> sortBy, int offset) {
+		List<Map> properties = new ArrayList<Map>();
+		Map<String, Object> property = new HashMap<String, Object>();
+		property.put("propertyName", "objectType");
+		property.put("values", Arrays.asList("Content"));
+		property.put("operation", "EQUALS");
+		properties.add(property);
+		SearchDTO searchDTO = new SearchDTO(properties, "AND", 100);
+		searchDTO.setFacets(Arrays.asList("contentType", "medium"));
+		searchDTO.setSortBy(sortBy);
+		searchDTO.setOffset(offset);
+		return searchDTO;
+	}
+
+	@Test
+	public void testKeyIsCanonical() {
+		Map<String, String> sortBy = new LinkedHashMap<String, String>();
+		sortBy.put("name", "asc");
+		sortBy.put("createdOn", "desc");
+		Map<String, String> reordered = new LinkedHashMap<String, String>();
+		reordered.put("createdOn", "desc");
+		reordered.put("name", "asc");
+		String key = SearchResultCache.getKey("search", getSearchDTO(sortBy, 0), true);
+		assertNotNull(key);
+		assertEquals(key, SearchResultCache.getKey("search", getSearchDTO(reordered, 0), true));
+		assertNotEquals(key, SearchResultCache.getKey("search", getSearchDTO(sortBy, 100), true));
+		assertNotEquals(key, SearchResultCache.getKey("search", getSearchDTO(sortBy, 0), false));
+		assertNotEquals(key, SearchResultCache.getKey("count", getSearchDTO(sortBy, 0), true));
+	}
+
+	@Test
+	public void testCachedResponseIsCopied() {
+		SearchResultCache cache = new SearchResultCache(60000, 10);
+		Map<String, Object> response = new HashMap<String, Object>();
+		response.put("count", 1);
+		response.put("results", new ArrayList<Object>(Arrays.asList(new HashMap<String, Object>())));
+		cache.put("key", response);
+		response.put("count", 2);
+		Map<String, Object> cached = cache.get("key");
+		assertEquals(1, cached.get("count"));
+		((List<?>) cached.get("results")).clear();
+		assertEquals(1, ((List<?>) cache.get("key").get("results")).size());
+		assertEquals(2L, cache.getMetrics().get("hits"));
+	}
+
+	@Test
+	public void testExpiry() throws Exception {
+		SearchResultCache cache = new SearchResultCache(50, 10);
+		Map<String, Object> response = new HashMap<String, Object>();
+		response.put("count", 1);
+		cache.put("key", response);
+		Thread.sleep(100);
+		assertNull(cache.get("key"));
+	}
+
+	@Test
+	public void testDisabledCacheKeepsNothing() {
+		SearchResultCache cache = new SearchResultCache(0, 10);
+		Map<String, Object> response = new HashMap<String, Object>();
+		response.put("count", 1);
+		cache.put("key", response);
+		assertNull(cache.get("key"));
+	}
+}